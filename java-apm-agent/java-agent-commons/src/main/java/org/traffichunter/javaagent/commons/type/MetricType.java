@@ -4,6 +4,10 @@ public enum MetricType {
     SYSTEM_METRIC((byte) 1),
     TRANSACTION_METRIC((byte) 2),
     LOG_METRIC((byte) 3),
+    /**
+     * envelope of many records of one type, followed by the type of the records.
+     */
+    BATCH((byte) 4),
     ;
 
     private final byte value;
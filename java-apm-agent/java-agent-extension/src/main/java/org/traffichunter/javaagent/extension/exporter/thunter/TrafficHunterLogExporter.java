@@ -28,6 +28,7 @@ import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.logs.data.LogRecordData;
 import io.opentelemetry.sdk.logs.export.LogRecordExporter;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
@@ -72,10 +73,15 @@ public final class TrafficHunterLogExporter implements LogRecordExporter {
             log.info("log exporting = " + collection);
         }
 
-        collection.stream()
+        if(collection.isEmpty()) {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        List<LogRecord> logRecords = collection.stream()
                 .map(TrafficHunterLogExporter::mapToLogRecord)
-                .map(logRecord -> MetadataWrapper.create(metadata, logRecord))
-                .forEach(logRecord -> client.toSend(logRecord, MetricType.LOG_METRIC));
+                .toList();
+
+        client.toSendBatch(MetadataWrapper.create(metadata, logRecords), MetricType.LOG_METRIC);
 
         return CompletableResultCode.ofSuccess();
     }
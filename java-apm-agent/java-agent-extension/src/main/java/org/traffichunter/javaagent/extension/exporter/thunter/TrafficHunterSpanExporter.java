@@ -27,6 +27,7 @@ import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.trace.data.SpanData;
 import io.opentelemetry.sdk.trace.export.SpanExporter;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 import org.traffichunter.javaagent.bootstrap.Configurations;
@@ -71,10 +72,15 @@ public class TrafficHunterSpanExporter implements SpanExporter {
                 log.info("exporting = " + spans);
             }
 
-            spans.stream()
+            if(spans.isEmpty()) {
+                return CompletableResultCode.ofSuccess();
+            }
+
+            List<TraceInfo> traceInfos = spans.stream()
                     .map(TraceInfo::translate)
-                    .map(traceInfo -> MetadataWrapper.create(metadata, traceInfo))
-                    .forEach(traceInfo -> client.toSend(traceInfo, MetricType.TRANSACTION_METRIC));
+                    .toList();
+
+            client.toSendBatch(MetadataWrapper.create(metadata, traceInfos), MetricType.TRANSACTION_METRIC);
 
             return CompletableResultCode.ofSuccess();
         } catch (RuntimeException e) {
@@ -162,6 +162,17 @@ final class MetricWebSocketClient extends WebSocketClient {
         this.send(transform);
     }
 
+    public <M> void compressToSendBatch(final M envelope, final MetricType recordType) {
+
+        if (!isOpen()) {
+            throw new IllegalStateException("WebSocket client is closed");
+        }
+
+        byte[] transform = converter.transformBatch(envelope, recordType);
+
+        this.send(transform);
+    }
+
     public <M> void toSend(final List<M> metrics) {
 
         if (!isOpen()) {
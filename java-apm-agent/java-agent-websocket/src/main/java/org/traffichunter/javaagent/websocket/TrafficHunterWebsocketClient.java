@@ -104,6 +104,19 @@ public final class TrafficHunterWebsocketClient implements Closeable {
         );
     }
 
+    /**
+     * sends many records of one type as a single batch frame.
+     *
+     * @param envelope   one metadata header and the list of records
+     * @param recordType type of every record in the envelope
+     */
+    public <D> void toSendBatch(final D envelope, final MetricType recordType) {
+
+        executorService.execute(
+                retryExecutor.execute(() -> delegator.compressToSendBatch(envelope, recordType))
+        );
+    }
+
     @Override
     public void close() {
         executorService.shutdown();
@@ -45,6 +45,8 @@ import org.traffichunter.javaagent.commons.type.MetricType;
  * <p>Usage:</p>
  * <ul>
  *     <li>{@code transform(Object, MetricType)}: Converts an object to a compressed byte array.</li>
+ *     <li>{@code transformBatch(Object, MetricType)}: Converts a batch envelope to a compressed byte array
+ *     starting with {@link MetricType#BATCH} and the type of the batched records.</li>
  *     <li>{@code inverseTransform(byte[], TypeReference)}: Converts a compressed byte array back into an object.</li>
  * </ul>
  *
@@ -63,30 +65,29 @@ public class SerializationByteArrayConverter {
     }
 
     public byte[] transform(final Object obj, final MetricType metricType) {
-        byte[] data = serialize(obj);
-
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()){
+        return compress(obj, metricType.getValue());
+    }
 
-            try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(baos)) {
-                gzipOutputStream.write(data);
-            }
+    /**
+     * @param envelope   one metadata header and the list of records
+     * @param recordType type of every record in the envelope
+     */
+    public byte[] transformBatch(final Object envelope, final MetricType recordType) {
+        return compress(envelope, MetricType.BATCH.getValue(), recordType.getValue());
+    }
 
-            byte[] compressByteArray = baos.toByteArray();
-            byte[] result = new byte[baos.toByteArray().length + 1];
+    private byte[] compress(final Object obj, final byte... headers) {
 
-            result[0] = metricType.getValue();
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()){
 
-            System.arraycopy(compressByteArray, 0, result, 1, compressByteArray.length);
+            baos.write(headers);
 
-            return result;
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-    }
+            // serialize straight into the gzip stream behind the header bytes
+            try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(baos)) {
+                objectMapper.writeValue(gzipOutputStream, obj);
+            }
 
-    private byte[] serialize(final Object object) {
-        try {
-            return objectMapper.writeValueAsBytes(object);
+            return baos.toByteArray();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
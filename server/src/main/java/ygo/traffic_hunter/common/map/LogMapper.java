@@ -23,6 +23,7 @@
  */
 package ygo.traffic_hunter.common.map;
 
+import java.util.List;
 import ygo.traffic_hunter.core.dto.request.metadata.MetadataWrapper;
 import ygo.traffic_hunter.domain.entity.LogMeasurement;
 import ygo.traffic_hunter.domain.metric.LogRecord;
@@ -34,4 +35,6 @@ import ygo.traffic_hunter.domain.metric.LogRecord;
 public interface LogMapper {
 
     LogMeasurement map(MetadataWrapper<LogRecord> logRecord);
+
+    List<LogMeasurement> mapAll(MetadataWrapper<List<LogRecord>> batch);
 }
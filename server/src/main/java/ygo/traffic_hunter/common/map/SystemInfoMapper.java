@@ -27,6 +27,7 @@ import ygo.traffic_hunter.core.dto.request.metadata.MetadataWrapper;
 import ygo.traffic_hunter.core.dto.request.systeminfo.SystemInfo;
 import ygo.traffic_hunter.core.dto.response.metric.SystemMetricResponse;
 import ygo.traffic_hunter.domain.entity.MetricMeasurement;
+import ygo.traffic_hunter.domain.entity.SystemMetricMeasurement;
 
 /**
  * @author yungwang-o
@@ -36,5 +37,10 @@ public interface SystemInfoMapper {
 
     MetricMeasurement map(MetadataWrapper<SystemInfo> wrapper);
 
+    /**
+     * flattens an already mapped measurement into the typed columns of {@code system_metric_measurement}.
+     */
+    SystemMetricMeasurement mapColumns(MetricMeasurement measurement);
+
     SystemMetricResponse map(MetricMeasurement measurement);
 }
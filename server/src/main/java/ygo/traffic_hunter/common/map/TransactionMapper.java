@@ -23,6 +23,7 @@
  */
 package ygo.traffic_hunter.common.map;
 
+import java.util.List;
 import ygo.traffic_hunter.core.dto.request.metadata.MetadataWrapper;
 import ygo.traffic_hunter.core.dto.response.TransactionMetricResponse;
 import ygo.traffic_hunter.domain.entity.TransactionMeasurement;
@@ -36,5 +37,7 @@ public interface TransactionMapper {
 
     TransactionMeasurement map(MetadataWrapper<TraceInfo> wrapper);
 
+    List<TransactionMeasurement> mapAll(MetadataWrapper<List<TraceInfo>> batch);
+
     TransactionMetricResponse map(TransactionMeasurement measurement);
 }
@@ -24,6 +24,8 @@
 package ygo.traffic_hunter.common.map.impl.log;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import ygo.traffic_hunter.common.map.LogMapper;
@@ -60,6 +62,20 @@ public class LogMapperImpl implements LogMapper {
         );
     }
 
+    @Override
+    public List<LogMeasurement> mapAll(final MetadataWrapper<List<LogRecord>> batch) {
+
+        Agent agent = agentRepository.findByAgentId(batch.metadata().agentId());
+
+        List<LogMeasurement> measurements = new ArrayList<>(batch.data().size());
+
+        for (LogRecord data : batch.data()) {
+            measurements.add(new LogMeasurement(toInstant(data.observedTimestampEpochNanos()), agent.id(), data));
+        }
+
+        return measurements;
+    }
+
     private static Instant toInstant(final long timestamp) {
 
         long second = timestamp / 1_000_000_000L;
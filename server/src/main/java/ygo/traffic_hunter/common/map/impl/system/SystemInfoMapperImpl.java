@@ -44,6 +44,7 @@ import ygo.traffic_hunter.core.dto.response.metric.SystemMetricResponse;
 import ygo.traffic_hunter.core.repository.AgentRepository;
 import ygo.traffic_hunter.domain.entity.Agent;
 import ygo.traffic_hunter.domain.entity.MetricMeasurement;
+import ygo.traffic_hunter.domain.entity.SystemMetricMeasurement;
 import ygo.traffic_hunter.domain.metric.MetricData;
 import ygo.traffic_hunter.domain.metric.cpu.CpuMetricMeasurement;
 import ygo.traffic_hunter.domain.metric.dbcp.hikari.HikariCPMeasurement;
@@ -83,6 +84,59 @@ public class SystemInfoMapperImpl implements SystemInfoMapper {
         );
     }
 
+    @Override
+    public SystemMetricMeasurement mapColumns(final MetricMeasurement measurement) {
+
+        final MetricData data = measurement.metricData();
+
+        final CpuMetricMeasurement cpu = data.cpuMetric();
+        final MemoryMetricUsage heap = data.memoryMetric().heapMemoryUsage();
+        final MemoryMetricUsage nonHeap = data.memoryMetric().nonHeapMemoryUsage();
+        final ThreadMetricMeasurement thread = data.threadMetric();
+        final TomcatWebServerRequestMeasurement request = data.webServerMetric().tomcatWebServerRequestMeasurement();
+        final TomcatWebServerThreadPoolMeasurement threadPool =
+                data.webServerMetric().tomcatWebServerThreadPoolMeasurement();
+        final HikariCPMeasurement dbcp = data.dbcpMetric();
+
+        long gcCollectionCount = 0L;
+        long gcCollectionTime = 0L;
+        for (GCMetricCollectionTime gc : data.gcMetric().gcMetricCollectionTimes()) {
+            gcCollectionCount += gc.getCollectionCount();
+            gcCollectionTime += gc.getCollectionTime();
+        }
+
+        return new SystemMetricMeasurement(
+                measurement.time(),
+                measurement.agentId(),
+                cpu.systemCpuLoad(),
+                cpu.processCpuLoad(),
+                (int) cpu.availableProcessors(),
+                heap.init(),
+                heap.used(),
+                heap.committed(),
+                heap.max(),
+                nonHeap.used(),
+                nonHeap.committed(),
+                gcCollectionCount,
+                gcCollectionTime,
+                thread.threadCount(),
+                thread.getPeekThreadCount(),
+                thread.getTotalStartThreadCount(),
+                request.requestCount(),
+                request.bytesReceived(),
+                request.bytesSent(),
+                request.processingTime(),
+                request.errorCount(),
+                threadPool.maxThreads(),
+                threadPool.currentThreads(),
+                threadPool.currentThreadsBusy(),
+                dbcp.activeConnections(),
+                dbcp.idleConnections(),
+                dbcp.totalConnections(),
+                dbcp.threadsAwaitingConnection()
+        );
+    }
+
     @Deprecated
     @Override
     public SystemMetricResponse map(final MetricMeasurement measurement) {
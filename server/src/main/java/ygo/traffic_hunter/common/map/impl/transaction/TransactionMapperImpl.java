@@ -23,6 +23,8 @@
  */
 package ygo.traffic_hunter.common.map.impl.transaction;
 
+import java.util.ArrayList;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import ygo.traffic_hunter.common.map.TransactionMapper;
@@ -62,12 +64,26 @@ public class TransactionMapperImpl implements TransactionMapper {
         );
     }
 
+    @Override
+    public List<TransactionMeasurement> mapAll(final MetadataWrapper<List<TraceInfo>> batch) {
+
+        Agent agent = agentRepository.findByAgentId(batch.metadata().agentId());
+
+        List<TransactionMeasurement> measurements = new ArrayList<>(batch.data().size());
+
+        for (TraceInfo data : batch.data()) {
+            measurements.add(new TransactionMeasurement(data.startTime(), agent.id(), getTransactionData(data)));
+        }
+
+        return measurements;
+    }
+
     @Override
     public TransactionMetricResponse map(final TransactionMeasurement measurement) {
 
         Agent agent = agentRepository.findById(measurement.agentId());
 
-        return new TransactionMetricResponse(
+        return TransactionMetricResponse.create(
                 agent.agentName(),
                 agent.agentBootTime(),
                 agent.agentVersion(),
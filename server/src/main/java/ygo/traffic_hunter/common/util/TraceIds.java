@@ -0,0 +1,108 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.common.util;
+
+import java.util.HexFormat;
+
+/**
+ * <p>
+ * Converts the lowercase hex trace and span ids sent by the agents into the compact
+ * {@code bytea} form stored on {@code transaction_measurement}, 16 bytes for a trace id
+ * and 8 bytes for a span id.
+ * </p>
+ *
+ * <p>
+ * The all-zero parent span id marks a root span and is stored as {@code null},
+ * so root spans can be found through a partial index. A parent span id that is present but not
+ * a valid id is stored as an empty {@code bytea}, it never matches a span and keeps the span out of the roots.
+ * </p>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+public class TraceIds {
+
+    public static final String INVALID_PARENT_SPAN_ID = "0000000000000000";
+
+    private static final int TRACE_ID_HEX_LENGTH = 32;
+
+    private static final int SPAN_ID_HEX_LENGTH = 16;
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private static final byte[] MALFORMED_PARENT_SPAN_ID = new byte[0];
+
+    public static byte[] traceId(final String hex) {
+        return parse(hex, TRACE_ID_HEX_LENGTH);
+    }
+
+    public static byte[] spanId(final String hex) {
+        return parse(hex, SPAN_ID_HEX_LENGTH);
+    }
+
+    /**
+     * @return {@code null} for a root span, an empty array for a malformed id, otherwise the 8 byte parent span id
+     */
+    public static byte[] parentSpanId(final String hex) {
+
+        if (isRoot(hex)) {
+            return null;
+        }
+
+        byte[] parentSpanId = parse(hex, SPAN_ID_HEX_LENGTH);
+
+        return parentSpanId == null ? MALFORMED_PARENT_SPAN_ID : parentSpanId;
+    }
+
+    public static boolean isRoot(final String parentSpanId) {
+        return parentSpanId == null || parentSpanId.isEmpty() || INVALID_PARENT_SPAN_ID.equals(parentSpanId);
+    }
+
+    public static String toHex(final byte[] id) {
+
+        if (id == null) {
+            return null;
+        }
+
+        return HEX.formatHex(id);
+    }
+
+    /**
+     * @return the decoded id, or {@code null} when {@code hex} is not an id of the expected length
+     */
+    private static byte[] parse(final String hex, final int length) {
+
+        if (hex == null || hex.length() != length) {
+            return null;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (!HexFormat.isHexDigit(hex.charAt(i))) {
+                return null;
+            }
+        }
+
+        return HEX.parseHex(hex);
+    }
+}
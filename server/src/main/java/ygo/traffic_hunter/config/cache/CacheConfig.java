@@ -76,7 +76,6 @@ public class CacheConfig {
 
         AGENT_CACHE("agent_cache", 3600, 100),
         STATISTIC_TRANSACTION_PAGE_CACHE("statistic_transaction_page_cache", 600, 50),
-        ALARM_CACHE("alarm_cache", 600, 50),
         THRESHOLD_CACHE("threshold_cache", 3600, 50),
         MEMBER_CACHE("member_cache", 3600, 50);
 
@@ -86,7 +85,6 @@ public class CacheConfig {
 
         public static final String AGENT_CACHE_NAME = "agent_cache";
         public static final String STATISTIC_TRANSACTION_PAGE_CACHE_NAME = "statistic_transaction_page_cache";
-        public static final String ALARM_CACHE_NAME = "alarm_cache";
         public static final String MEMBER_CACHE_NAME = "member_cache";
         public static final String THRESHOLD_CACHE_NAME = "threshold_cache";
 
@@ -26,10 +26,9 @@ package ygo.traffic_hunter.core.alarm;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import ygo.traffic_hunter.core.alarm.dispatch.WebHookDispatcher;
 import ygo.traffic_hunter.core.alarm.message.Message;
-import ygo.traffic_hunter.core.repository.AlarmRepository;
 import ygo.traffic_hunter.core.send.AlarmSender;
-import ygo.traffic_hunter.domain.entity.alarm.DeadLetter;
 
 /**
  * @author JuSeong
@@ -41,30 +40,14 @@ public class AlarmManager {
 
     private final List<AlarmSender> alarmSenders;
 
-    private final AlarmRepository alarmRepository;
+    private final WebHookDispatcher webHookDispatcher;
 
     public void send(final Message message) {
 
         for (AlarmSender alarmSender : alarmSenders) {
-            alarmSender.send(message);
+            if (!webHookDispatcher.dispatch(alarmSender, message)) {
+                alarmSender.send(message);
+            }
         }
     }
-
-    // 30 minutes interval
-    //@Transactional
-    //@Scheduled(cron = "0 */30 * * * *")
-    public void afterProcessingDeadLetter() {
-
-        if(!alarmRepository.existDeadLetter()) {
-            return;
-        }
-
-        List<DeadLetter> deadLetters = alarmRepository.findAllDeadLetter();
-
-        deadLetters.stream()
-                .map(DeadLetter::getMessage)
-                .forEach(this::send);
-
-        alarmRepository.bulkSoftDeleteDeadLetter(deadLetters);
-    }
 }
@@ -0,0 +1,117 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.alarm.dispatch;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import ygo.traffic_hunter.core.alarm.WebHookAlarm;
+import ygo.traffic_hunter.core.alarm.dispatch.property.WebHookDispatchProperties;
+import ygo.traffic_hunter.core.alarm.loss.LossPreventionHooker;
+import ygo.traffic_hunter.core.alarm.message.Message;
+import ygo.traffic_hunter.core.send.AlarmSender;
+import ygo.traffic_hunter.core.send.AlarmSender.AlarmException;
+
+/**
+ * <p>
+ * The {@code WebHookDispatcher} class takes the blocking webhook calls off the caller.
+ * Every {@link WebHookAlarm} sender gets its own {@link WebHookLane}.
+ * </p>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Component
+public class WebHookDispatcher {
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 5_000L;
+
+    private final Map<AlarmSender, WebHookLane> lanes = new IdentityHashMap<>();
+
+    public WebHookDispatcher(final List<AlarmSender> alarmSenders,
+                             final WebHookDispatchProperties properties,
+                             final LossPreventionHooker lossPreventionHooker) {
+
+        for (AlarmSender alarmSender : alarmSenders) {
+            if (alarmSender instanceof WebHookAlarm webHookAlarm) {
+                String name = webHookAlarm.getWebhook().name();
+                lanes.put(alarmSender, new WebHookLane(name, alarmSender, properties, lossPreventionHooker));
+            }
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        lanes.values().forEach(WebHookLane::start);
+    }
+
+    /**
+     * @return {@code false} when the sender is not a webhook and has to be called directly
+     */
+    public boolean dispatch(final AlarmSender alarmSender, final Message message) {
+
+        WebHookLane lane = lanes.get(alarmSender);
+
+        if (lane == null) {
+            return false;
+        }
+
+        if (((WebHookAlarm) alarmSender).isActive()) {
+            lane.offer(message);
+        }
+
+        return true;
+    }
+
+    /**
+     * resends on the caller's thread through the sender's lane, so replays keep the webhook's {@code minInterval}.
+     *
+     * @return {@code false} when the sender is not a webhook and has to be called directly
+     */
+    public boolean resend(final AlarmSender alarmSender, final Message message) {
+
+        WebHookLane lane = lanes.get(alarmSender);
+
+        if (lane == null) {
+            return false;
+        }
+
+        try {
+            lane.resend(message);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AlarmException("interrupted while waiting for webhook " + alarmSender.target(), e);
+        }
+
+        return true;
+    }
+
+    @PreDestroy
+    public void close() {
+        lanes.values().forEach(lane -> lane.close(CLOSE_TIMEOUT_MILLIS));
+    }
+}
@@ -0,0 +1,302 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.alarm.dispatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import ygo.traffic_hunter.core.alarm.dispatch.property.WebHookDispatchProperties;
+import ygo.traffic_hunter.core.alarm.loss.LossPreventionHooker;
+import ygo.traffic_hunter.core.alarm.loss.UndeliveredAlarm;
+import ygo.traffic_hunter.core.alarm.message.Message;
+import ygo.traffic_hunter.core.alarm.message.Message.Embed;
+import ygo.traffic_hunter.core.alarm.message.Message.Field;
+import ygo.traffic_hunter.core.send.AlarmSender;
+import ygo.traffic_hunter.core.send.AlarmSender.RateLimitException;
+
+/**
+ * <p>
+ * The {@code WebHookLane} class delivers the alarms of one webhook from its own virtual thread,
+ * so a slow or rate limited webhook never holds up the caller or the other webhooks.
+ * </p>
+ *
+ * <h4>Delivery Policy</h4>
+ * <ul>
+ *     <li>Alarms arriving within {@code coalesce} of the first one, or while the lane waits for its
+ *     rate limit, are merged into one digest of at most {@code maxDigestSize} alarms.</li>
+ *     <li>Two requests to the webhook are at least {@code minInterval} apart, replayed dead letters included.</li>
+ *     <li>A 429 answer postpones the next request by its {@code Retry-After} and the digest is retried.</li>
+ *     <li>Overflow, failed sends and digests rate limited too often go to the {@link LossPreventionHooker}
+ *     one alarm at a time, so the dead letters keep the original alarms.</li>
+ * </ul>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Slf4j
+class WebHookLane {
+
+    static final String DIGEST_USERNAME = "traffic-hunter";
+
+    private final String name;
+
+    private final AlarmSender sender;
+
+    private final LossPreventionHooker lossPreventionHooker;
+
+    private final BlockingQueue<Message> queue;
+
+    private final long coalesceNanos;
+
+    private final long minIntervalNanos;
+
+    private final int maxDigestSize;
+
+    private final int maxRateLimited;
+
+    private final Thread worker;
+
+    private volatile boolean running = true;
+
+    // fair, so a burst of replays cannot starve the worker
+    private final ReentrantLock sendLock = new ReentrantLock(true);
+
+    // written under the send lock, the worker reads it without to size its coalescing window
+    private volatile long nextSendNanos = System.nanoTime();
+
+    WebHookLane(final String name,
+                final AlarmSender sender,
+                final WebHookDispatchProperties properties,
+                final LossPreventionHooker lossPreventionHooker) {
+
+        this.name = name;
+        this.sender = sender;
+        this.lossPreventionHooker = lossPreventionHooker;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.coalesceNanos = properties.coalesce().toNanos();
+        this.minIntervalNanos = properties.minInterval().toNanos();
+        this.maxDigestSize = properties.maxDigestSize();
+        this.maxRateLimited = properties.maxRateLimited();
+        this.worker = Thread.ofVirtual()
+                .name("WebHook-" + name)
+                .unstarted(this::run);
+    }
+
+    void start() {
+        worker.start();
+    }
+
+    void offer(final Message message) {
+
+        if (!running || !queue.offer(message)) {
+            log.warn("webhook {} queue is full, alarm is kept as a dead letter", name);
+            lose(List.of(message));
+        }
+    }
+
+    /**
+     * sends a replayed alarm from the caller's thread, one request at a time and spaced like the lane's own requests.
+     * a 429 postpones the lane as well and is rethrown to the caller.
+     */
+    void resend(final Message message) throws InterruptedException {
+
+        sendLock.lockInterruptibly();
+
+        try {
+            awaitPermit();
+            sender.resend(message);
+            nextSendNanos = System.nanoTime() + minIntervalNanos;
+        } catch (RateLimitException e) {
+            nextSendNanos = System.nanoTime() + Math.max(e.getRetryAfter().toNanos(), minIntervalNanos);
+            throw e;
+        } catch (RuntimeException e) {
+            nextSendNanos = System.nanoTime() + minIntervalNanos;
+            throw e;
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    /**
+     * stops the worker, the alarms not delivered yet are kept as dead letters.
+     */
+    void close(final long timeoutMillis) {
+
+        running = false;
+        worker.interrupt();
+
+        try {
+            worker.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<Message> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+
+        if (!remaining.isEmpty()) {
+            lose(remaining);
+        }
+    }
+
+    private void run() {
+
+        List<Message> pending = new ArrayList<>(maxDigestSize);
+
+        try {
+            while (running) {
+                collect(pending);
+                deliver(pending);
+                pending.clear();
+            }
+        } catch (InterruptedException e) {
+            if (!pending.isEmpty()) {
+                lose(pending);
+            }
+        }
+    }
+
+    private void collect(final List<Message> pending) throws InterruptedException {
+
+        pending.add(queue.take());
+
+        long coalesceDeadline = System.nanoTime() + coalesceNanos;
+        // there is no point in sending before the rate limit allows it, keep absorbing alarms meanwhile
+        long deadline = coalesceDeadline - nextSendNanos > 0 ? coalesceDeadline : nextSendNanos;
+
+        while (pending.size() < maxDigestSize) {
+
+            long remaining = deadline - System.nanoTime();
+
+            if (remaining <= 0) {
+                return;
+            }
+
+            Message next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+
+            if (next == null) {
+                return;
+            }
+
+            pending.add(next);
+        }
+    }
+
+    private void deliver(final List<Message> pending) throws InterruptedException {
+
+        Message message = pending.size() == 1 ? pending.getFirst() : digest(pending);
+        int rateLimited = 0;
+
+        while (true) {
+
+            sendLock.lockInterruptibly();
+
+            try {
+                awaitPermit();
+                sender.send(message);
+                nextSendNanos = System.nanoTime() + minIntervalNanos;
+                return;
+            } catch (RateLimitException e) {
+                nextSendNanos = System.nanoTime() + Math.max(e.getRetryAfter().toNanos(), minIntervalNanos);
+
+                if (++rateLimited > maxRateLimited) {
+                    log.warn("webhook {} is still rate limited, {} alarms are kept as dead letters", name, pending.size());
+                    lose(pending);
+                    return;
+                }
+
+                log.info("webhook {} is rate limited, retry after = {}", name, e.getRetryAfter());
+            } catch (RuntimeException e) {
+                nextSendNanos = System.nanoTime() + minIntervalNanos;
+                log.error("failed to send {} alarms to webhook {} = {}", pending.size(), name, e.getMessage());
+                lose(pending);
+                return;
+            } finally {
+                sendLock.unlock();
+            }
+        }
+    }
+
+    private void awaitPermit() throws InterruptedException {
+
+        long wait = nextSendNanos - System.nanoTime();
+
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    private void lose(final List<Message> messages) {
+
+        for (Message message : messages) {
+            try {
+                lossPreventionHooker.hook(new UndeliveredAlarm(sender.target(), message));
+            } catch (RuntimeException e) {
+                log.error("failed to keep the alarm as a dead letter = {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * merges the alarms into one message, one field per alarm so both discord and slack render all of them.
+     */
+    static Message digest(final List<Message> messages) {
+
+        Message first = messages.getFirst();
+
+        Embed.EmbedBuilder embed = Embed.builder()
+                .title(messages.size() + " alarms")
+                .color(first.embeds().isEmpty() ? 0 : first.embeds().getFirst().color());
+
+        for (Message message : messages) {
+            embed.addField(field(message));
+        }
+
+        return Message.builder()
+                .time(messages.getLast().timestamp())
+                .url(first.url())
+                .username(DIGEST_USERNAME)
+                .content("[[ Alert ]] " + messages.size() + " alarms !!")
+                .addEmbed(embed.build())
+                .build();
+    }
+
+    private static Field field(final Message message) {
+
+        List<Field> fields = message.embeds().isEmpty() ? List.of() : message.embeds().getFirst().fields();
+
+        String title = fields.isEmpty() ? message.content() : fields.getFirst().value();
+        String body = fields.size() < 2 ? message.content() : fields.stream()
+                .skip(1)
+                .map(Field::value)
+                .collect(Collectors.joining("\n"));
+
+        return Field.of("[" + message.username() + "] " + title, body, false);
+    }
+}
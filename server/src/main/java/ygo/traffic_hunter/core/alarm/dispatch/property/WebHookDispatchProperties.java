@@ -0,0 +1,57 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.alarm.dispatch.property;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * <p>
+ * Delivery settings of the webhook alarms, each webhook gets its own queue and worker.
+ * </p>
+ *
+ * @param coalesce         alarms raised within this window after the first one are sent as one digest
+ * @param maxDigestSize    upper bound of alarms in one digest, discord renders at most 25 fields per embed
+ * @param minInterval      minimum gap between two requests to the same webhook
+ * @param maxRateLimited   429 answers tolerated for one digest before it is handed to the loss prevention
+ * @param queueCapacity    alarms waiting per webhook, overflow is handed to the loss prevention
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@ConfigurationProperties("ingest.webhook")
+public record WebHookDispatchProperties(
+
+        @DefaultValue("2s") Duration coalesce,
+
+        @DefaultValue("20") int maxDigestSize,
+
+        @DefaultValue("1s") Duration minInterval,
+
+        @DefaultValue("3") int maxRateLimited,
+
+        @DefaultValue("1000") int queueCapacity
+) {
+}
@@ -29,6 +29,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import ygo.traffic_hunter.core.alarm.loss.LossPreventionHooker;
+import ygo.traffic_hunter.core.alarm.loss.UndeliveredAlarm;
 import ygo.traffic_hunter.core.alarm.message.Message;
 import ygo.traffic_hunter.core.alarm.message.SseMessage;
 import ygo.traffic_hunter.core.repository.AlarmRepository;
@@ -52,17 +53,20 @@ public class AlarmPersistenceLossPreventionHooker implements LossPreventionHooke
 
         try {
             log.info("message {}", lossMessage);
-            alarmRepository.save(new DeadLetter(getMessage(lossMessage)));
+            alarmRepository.save(getDeadLetter(lossMessage));
         } catch (JsonProcessingException e) {
             throw new AlarmException("Failed to serialize message", e);
         }
     }
 
-    private <T> Message getMessage(final T lossMessage) {
+    private <T> DeadLetter getDeadLetter(final T lossMessage) {
 
+        if (lossMessage instanceof UndeliveredAlarm undeliveredAlarm) {
+            return new DeadLetter(undeliveredAlarm.message(), undeliveredAlarm.target());
+        }
         if (lossMessage instanceof SseMessage sseMessage) {
-            return sseMessage.message();
+            return new DeadLetter(sseMessage.message(), SseMessage.TARGET);
         }
-        return (Message) lossMessage;
+        return new DeadLetter((Message) lossMessage);
     }
 }
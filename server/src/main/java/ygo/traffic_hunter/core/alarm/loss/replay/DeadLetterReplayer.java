@@ -0,0 +1,250 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.alarm.loss.replay;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ygo.traffic_hunter.core.alarm.dispatch.WebHookDispatcher;
+import ygo.traffic_hunter.core.alarm.loss.replay.property.DeadLetterProperties;
+import ygo.traffic_hunter.core.repository.AlarmRepository;
+import ygo.traffic_hunter.core.send.AlarmSender;
+import ygo.traffic_hunter.core.send.AlarmSender.RateLimitException;
+import ygo.traffic_hunter.domain.entity.alarm.DeadLetter;
+
+/**
+ * <p>
+ * The {@code DeadLetterReplayer} class resends the alarms kept in {@code dead_letter}.
+ * </p>
+ *
+ * <h4>Replay Policy</h4>
+ * <ul>
+ *     <li>Dead letters are read in pages of {@code batchSize} after an id cursor, so a run never holds
+ *     more than one page in memory.</li>
+ *     <li>A page is resent by at most {@code concurrency} threads, each dead letter only to the sender
+ *     that lost it.
+ *     Webhook resends go through the webhook's lane, one at a time and {@code minInterval} apart.</li>
+ *     <li>A failing sender is backed off exponentially, its dead letters are skipped until the backoff
+ *     is over.</li>
+ *     <li>A sender that cannot send right now, e.g. a disabled webhook, keeps its dead letters.</li>
+ *     <li>Only the dead letters that were delivered are marked, the rest is picked up by the next run.
+ *     A dead letter kept for every sender that only some of them received is split into one dead letter
+ *     per sender still waiting for it.</li>
+ * </ul>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Slf4j
+@Component
+public class DeadLetterReplayer {
+
+    private final AlarmRepository alarmRepository;
+
+    private final List<AlarmSender> alarmSenders;
+
+    private final WebHookDispatcher webHookDispatcher;
+
+    private final DeadLetterProperties properties;
+
+    private final ExecutorService executor;
+
+    private final Map<String, SenderBackoff> backoffs = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean replaying = new AtomicBoolean(false);
+
+    public DeadLetterReplayer(final AlarmRepository alarmRepository,
+                              final List<AlarmSender> alarmSenders,
+                              final WebHookDispatcher webHookDispatcher,
+                              final DeadLetterProperties properties) {
+
+        this.alarmRepository = alarmRepository;
+        this.alarmSenders = alarmSenders;
+        this.webHookDispatcher = webHookDispatcher;
+        this.properties = properties;
+        this.executor = Executors.newFixedThreadPool(
+                properties.concurrency(),
+                Thread.ofVirtual().name("DeadLetterReplay-", 0).factory()
+        );
+    }
+
+    @Scheduled(fixedDelayString = "${ingest.dead-letter.replay-interval:5m}",
+            initialDelayString = "${ingest.dead-letter.replay-interval:5m}")
+    public void replay() {
+
+        if (!replaying.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            long cursor = 0L;
+            int delivered = 0;
+            int pending = 0;
+            List<DeadLetter> page;
+
+            do {
+                page = alarmRepository.findPendingDeadLetters(cursor, properties.batchSize());
+
+                if (page.isEmpty()) {
+                    break;
+                }
+
+                List<Long> deliveredIds = deliver(page);
+                alarmRepository.markDeadLettersDelivered(deliveredIds);
+
+                delivered += deliveredIds.size();
+                pending += page.size() - deliveredIds.size();
+                cursor = page.getLast().getId();
+            } while (page.size() == properties.batchSize() && !Thread.currentThread().isInterrupted());
+
+            if (delivered + pending > 0) {
+                log.info("replayed dead letters, delivered = {} pending = {}", delivered, pending);
+            }
+        } finally {
+            replaying.set(false);
+        }
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purge() {
+
+        int deleted = alarmRepository.deleteDeadLettersOlderThan(Instant.now().minus(properties.retention()));
+
+        if (deleted > 0) {
+            log.info("deleted {} expired dead letters", deleted);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private List<Long> deliver(final List<DeadLetter> page) {
+
+        List<Future<Boolean>> results = page.stream()
+                .map(deadLetter -> executor.submit(() -> deliver(deadLetter)))
+                .toList();
+
+        List<Long> deliveredIds = new ArrayList<>(page.size());
+
+        for (int i = 0; i < page.size(); i++) {
+            try {
+                if (results.get(i).get()) {
+                    deliveredIds.add(page.get(i).getId());
+                }
+            } catch (ExecutionException e) {
+                log.error("failed to replay dead letter {} = {}", page.get(i).getId(), e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        return deliveredIds;
+    }
+
+    private boolean deliver(final DeadLetter deadLetter) {
+
+        List<AlarmSender> targets = targets(deadLetter);
+
+        if (targets.isEmpty()) {
+            return false;
+        }
+
+        List<String> pending = new ArrayList<>(targets.size());
+
+        for (AlarmSender alarmSender : targets) {
+            if (!deliver(deadLetter, alarmSender)) {
+                pending.add(alarmSender.target());
+            }
+        }
+
+        if (pending.isEmpty()) {
+            return true;
+        }
+
+        if (deadLetter.getTarget() == null && pending.size() < targets.size()) {
+            // the senders that already got the message must not get it again on the next run
+            alarmRepository.splitDeadLetter(deadLetter.getId(), pending);
+        }
+
+        return false;
+    }
+
+    private boolean deliver(final DeadLetter deadLetter, final AlarmSender alarmSender) {
+
+        if (!alarmSender.canSend()) {
+            return false;
+        }
+
+        SenderBackoff backoff = backoffs.computeIfAbsent(alarmSender.target(),
+                target -> new SenderBackoff(properties.backoffBase(), properties.backoffMax()));
+
+        if (!backoff.ready(System.currentTimeMillis())) {
+            return false;
+        }
+
+        try {
+            if (!webHookDispatcher.resend(alarmSender, deadLetter.getMessage())) {
+                alarmSender.resend(deadLetter.getMessage());
+            }
+            backoff.succeeded();
+            return true;
+        } catch (RateLimitException e) {
+            backoff.failed(System.currentTimeMillis(), e.getRetryAfter());
+            return false;
+        } catch (RuntimeException e) {
+            log.warn("failed to replay dead letter {} to {} = {}", deadLetter.getId(), alarmSender.target(), e.getMessage());
+            backoff.failed(System.currentTimeMillis(), Duration.ZERO);
+            return false;
+        }
+    }
+
+    /**
+     * dead letters kept before the target was recorded go to every sender.
+     */
+    private List<AlarmSender> targets(final DeadLetter deadLetter) {
+
+        if (deadLetter.getTarget() == null) {
+            return alarmSenders;
+        }
+
+        return alarmSenders.stream()
+                .filter(alarmSender -> alarmSender.target().equals(deadLetter.getTarget()))
+                .toList();
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.alarm.loss.replay;
+
+import java.time.Duration;
+
+/**
+ * exponential backoff of one sender, shared by the replay threads.
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+final class SenderBackoff {
+
+    private static final int MAX_SHIFT = 20;
+
+    private final long baseMillis;
+
+    private final long maxMillis;
+
+    private int failures;
+
+    private long nextAttemptMillis;
+
+    SenderBackoff(final Duration base, final Duration max) {
+        this.baseMillis = base.toMillis();
+        this.maxMillis = max.toMillis();
+    }
+
+    synchronized boolean ready(final long nowMillis) {
+        return nowMillis >= nextAttemptMillis;
+    }
+
+    synchronized void succeeded() {
+        failures = 0;
+        nextAttemptMillis = 0;
+    }
+
+    /**
+     * @param retryAfter what the receiving side asked for, the wait is never shorter than that
+     */
+    synchronized void failed(final long nowMillis, final Duration retryAfter) {
+
+        failures++;
+
+        long delay = Math.min(baseMillis << Math.min(failures - 1, MAX_SHIFT), maxMillis);
+        delay = Math.max(delay, retryAfter.toMillis());
+
+        nextAttemptMillis = Math.max(nextAttemptMillis, nowMillis + delay);
+    }
+}
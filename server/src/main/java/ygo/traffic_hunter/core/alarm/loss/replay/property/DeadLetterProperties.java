@@ -0,0 +1,60 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.alarm.loss.replay.property;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * <p>
+ * Replay and retention settings of the {@code dead_letter} table.
+ * </p>
+ *
+ * @param replayInterval delay between two replay runs
+ * @param batchSize      dead letters loaded per page
+ * @param concurrency    dead letters resent at the same time
+ * @param backoffBase    wait after the first failure of a sender, doubled on every further failure
+ * @param backoffMax     upper bound of the wait of a failing sender
+ * @param retention      dead letters older than this are deleted, delivered or not
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@ConfigurationProperties("ingest.dead-letter")
+public record DeadLetterProperties(
+
+        @DefaultValue("5m") Duration replayInterval,
+
+        @DefaultValue("100") int batchSize,
+
+        @DefaultValue("4") int concurrency,
+
+        @DefaultValue("30s") Duration backoffBase,
+
+        @DefaultValue("30m") Duration backoffMax,
+
+        @DefaultValue("7d") Duration retention
+) {
+}
@@ -23,6 +23,7 @@
  */
 package ygo.traffic_hunter.core.alarm.message;
 
+import java.time.Instant;
 import lombok.Getter;
 import ygo.traffic_hunter.core.dto.request.metadata.MetadataWrapper;
 import ygo.traffic_hunter.core.dto.request.systeminfo.SystemInfo;
@@ -153,6 +154,22 @@ public enum MessageType {
 
     public abstract Message doMessage(String url, MetadataWrapper<SystemInfo> metadataWrapper);
 
+    /**
+     * message of an alarm rule, {@code value} fills the placeholder of the body.
+     */
+    public Message doMessage(final String url, final String agentName, final Instant time, final String value) {
+
+        return MessageMaker.builder()
+                .url(url)
+                .title(title)
+                .content(content)
+                .color(Color.RED)
+                .agentName(agentName)
+                .times(time)
+                .description(body, value)
+                .build();
+    }
+
     enum Language {
         KOR,
         LNG
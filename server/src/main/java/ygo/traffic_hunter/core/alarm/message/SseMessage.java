@@ -17,6 +17,11 @@ public record SseMessage(
         @JsonIgnore Message message
 ) {
 
+    /**
+     * dead letter target of the alarms lost on the way to a dashboard.
+     */
+    public static final String TARGET = "SSE";
+
     public static SseMessage from(final Message message) {
 
         Embed embed = message.embeds().getFirst();
@@ -0,0 +1,97 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.alarm.rule;
+
+import lombok.Getter;
+import ygo.traffic_hunter.core.alarm.message.MessageType;
+import ygo.traffic_hunter.domain.entity.SystemMetricMeasurement;
+
+/**
+ * <p>
+ * The values an alarm rule can watch, read straight from the typed columns of a sample.
+ * Ratios are percentages, so they compare directly with the percentages of the {@code threshold} table.
+ * </p>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Getter
+public enum AlarmMetric {
+
+    CPU(MessageType.CPU, "") {
+        @Override
+        public double valueOf(final SystemMetricMeasurement measurement) {
+            return measurement.processCpuLoad() * 100;
+        }
+    },
+    MEMORY(MessageType.MEMORY, "%") {
+        @Override
+        public double valueOf(final SystemMetricMeasurement measurement) {
+            return percent(measurement.heapUsed(), measurement.heapMax());
+        }
+    },
+    THREAD(MessageType.THREAD, "%") {
+        @Override
+        public double valueOf(final SystemMetricMeasurement measurement) {
+            return percent(measurement.threadCount(), measurement.totalStartedThreadCount());
+        }
+    },
+    WEB_REQUEST(MessageType.WEB_REQUEST, "") {
+        @Override
+        public double valueOf(final SystemMetricMeasurement measurement) {
+            return measurement.requestCount();
+        }
+    },
+    WEB_THREAD(MessageType.WEB_THREAD, "%") {
+        @Override
+        public double valueOf(final SystemMetricMeasurement measurement) {
+            return percent(measurement.currentThreadsBusy(), measurement.maxThreads());
+        }
+    },
+    DBCP(MessageType.DBCP, "%") {
+        @Override
+        public double valueOf(final SystemMetricMeasurement measurement) {
+            return percent(measurement.activeConnections(), measurement.totalConnections());
+        }
+    },
+    ;
+
+    private final MessageType messageType;
+
+    /**
+     * appended to the value in the alarm message, empty where the message template already carries one.
+     */
+    private final String unit;
+
+    AlarmMetric(final MessageType messageType, final String unit) {
+        this.messageType = messageType;
+        this.unit = unit;
+    }
+
+    public abstract double valueOf(SystemMetricMeasurement measurement);
+
+    private static double percent(final double part, final double whole) {
+        return whole <= 0 ? 0 : part * 100 / whole;
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.alarm.rule;
+
+import java.time.Duration;
+import java.util.List;
+import ygo.traffic_hunter.core.dto.response.alarm.ThresholdResponse;
+
+/**
+ * <p>
+ * Declarative alarm rule: fire when {@code metric} stays at or above {@code threshold} for {@code sustain}.
+ * </p>
+ *
+ * @param metric    watched value
+ * @param threshold value the metric has to reach
+ * @param sustain   how long it has to stay there, zero fires on the first sample
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+public record AlarmRule(AlarmMetric metric, double threshold, Duration sustain) {
+
+    /**
+     * one rule per column of the {@code threshold} table.
+     */
+    public static List<AlarmRule> from(final ThresholdResponse threshold, final Duration sustain) {
+        return List.of(
+                new AlarmRule(AlarmMetric.CPU, threshold.cpuThreshold(), sustain),
+                new AlarmRule(AlarmMetric.MEMORY, threshold.memoryThreshold(), sustain),
+                new AlarmRule(AlarmMetric.THREAD, threshold.threadThreshold(), sustain),
+                new AlarmRule(AlarmMetric.WEB_REQUEST, threshold.webRequestThreshold(), sustain),
+                new AlarmRule(AlarmMetric.WEB_THREAD, threshold.webThreadThreshold(), sustain),
+                new AlarmRule(AlarmMetric.DBCP, threshold.dbcpThreshold(), sustain)
+        );
+    }
+}
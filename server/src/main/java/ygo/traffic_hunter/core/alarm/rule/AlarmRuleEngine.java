@@ -0,0 +1,265 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.alarm.rule;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ygo.traffic_hunter.core.alarm.AlarmManager;
+import ygo.traffic_hunter.core.alarm.rule.property.AlarmRuleProperties;
+import ygo.traffic_hunter.core.dto.request.metadata.AgentMetadata;
+import ygo.traffic_hunter.core.dto.response.alarm.ThresholdResponse;
+import ygo.traffic_hunter.core.service.AlarmService;
+import ygo.traffic_hunter.core.writer.BatchQueue;
+import ygo.traffic_hunter.core.writer.BatchQueue.FlushListener;
+import ygo.traffic_hunter.domain.entity.SystemMetricMeasurement;
+
+/**
+ * <p>
+ * Streaming evaluation of the {@link AlarmRule}s against every system metric sample.
+ * </p>
+ *
+ * <h4>State</h4>
+ * <p>
+ * Every agent has one {@link MetricWindow} per {@link AlarmMetric} with the mean, max and
+ * the time the metric has been above its threshold, so de-duplication is per agent and metric:
+ * an alarm of one agent never silences the same alarm of another agent.
+ * Agents without a sample for a whole window are dropped.
+ * </p>
+ *
+ * <h4>Threading</h4>
+ * <p>
+ * Samples are handed over through a {@link BatchQueue} and evaluated on its single thread,
+ * the ingest thread only enqueues and never waits: a sample arriving while the queue is full
+ * is dropped and counted in {@code traffichunter.alarm.dropped}. Evaluating a sample does not allocate,
+ * only a firing rule builds its message.
+ * </p>
+ *
+ * <h4>Rules</h4>
+ * <p>
+ * The rules are built from the {@code threshold} table, see {@link AlarmRule#from}.
+ * The cached threshold is checked once per batch and the rules are rebuilt when it was updated.
+ * </p>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AlarmRuleEngine {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private static final long LINGER_MILLIS = 100L;
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 5_000L;
+
+    private static final int MAX_SAMPLES_PER_SECOND = 2;
+
+    private final AlarmService alarmService;
+
+    private final AlarmManager alarmManager;
+
+    private final AlarmRuleProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, MetricWindow[]> windows = new HashMap<>();
+
+    private ThresholdResponse threshold;
+
+    private AlarmRule[] rules = new AlarmRule[0];
+
+    private long lastSweep = MetricWindow.NONE;
+
+    private BatchQueue<AlarmSample> queue;
+
+    private Counter dropped;
+
+    @PostConstruct
+    public void start() {
+
+        dropped = Counter.builder("traffichunter.alarm.dropped")
+                .register(meterRegistry);
+
+        queue = new BatchQueue<>(
+                "alarm-rules",
+                properties.queueCapacity(),
+                BATCH_SIZE,
+                LINGER_MILLIS,
+                this::evaluate,
+                new FlushListener() {
+                    @Override
+                    public void onFlush(final String name, final int rows, final long elapsedNanos) {
+                    }
+
+                    @Override
+                    public void onFailure(final String name, final int rows, final Throwable cause) {
+                        log.error("failed to evaluate alarm rules for {} samples", rows, cause);
+                    }
+                }
+        );
+
+        queue.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        queue.close(CLOSE_TIMEOUT_MILLIS);
+    }
+
+    public void offer(final AgentMetadata metadata, final SystemMetricMeasurement measurement) {
+        if (!queue.offer(new AlarmSample(metadata.agentName(), measurement))) {
+            dropped.increment();
+        }
+    }
+
+    void evaluate(final List<AlarmSample> samples) {
+
+        reloadRules();
+
+        for (AlarmSample sample : samples) {
+            evaluate(sample.agentName(), sample.measurement());
+        }
+
+        sweep(System.currentTimeMillis());
+    }
+
+    private void evaluate(final String agentName, final SystemMetricMeasurement measurement) {
+
+        MetricWindow[] agentWindows = windows.get(agentName);
+
+        if (agentWindows == null) {
+            agentWindows = newWindows();
+            windows.put(agentName, agentWindows);
+        }
+
+        long time = measurement.time().toEpochMilli();
+        long cooldown = properties.cooldown().toMillis();
+
+        for (AlarmRule rule : rules) {
+
+            MetricWindow window = agentWindows[rule.metric().ordinal()];
+            double value = rule.metric().valueOf(measurement);
+
+            window.add(time, value);
+
+            long above = window.durationAbove(time, value, rule.threshold());
+
+            if (above == MetricWindow.NONE || above < rule.sustain().toMillis() || window.coolingDown(time, cooldown)) {
+                continue;
+            }
+
+            window.fired(time);
+            fire(agentName, rule, window, measurement.time(), value);
+        }
+    }
+
+    private void fire(final String agentName,
+                      final AlarmRule rule,
+                      final MetricWindow window,
+                      final Instant time,
+                      final double value) {
+
+        log.info("alarm {} of agent {}: value {}, mean {}, max {} over {}",
+                rule.metric(), agentName, value, window.mean(), window.max(), properties.window());
+
+        try {
+            alarmManager.send(rule.metric().getMessageType().doMessage(
+                    null,
+                    agentName,
+                    time,
+                    String.format("%.1f%s", value, rule.metric().getUnit())
+            ));
+        } catch (RuntimeException e) {
+            log.error("failed to send alarm {} of agent {} = {}", rule.metric(), agentName, e.getMessage());
+        }
+    }
+
+    private void reloadRules() {
+
+        ThresholdResponse current;
+
+        try {
+            current = alarmService.retrieveThreshold();
+        } catch (RuntimeException e) {
+            log.warn("keeping the current alarm rules, threshold could not be read = {}", e.getMessage());
+            return;
+        }
+
+        if (current != threshold) {
+            threshold = current;
+            rules = AlarmRule.from(current, properties.sustain()).toArray(AlarmRule[]::new);
+        }
+    }
+
+    private void sweep(final long now) {
+
+        long windowMillis = properties.window().toMillis();
+
+        if (lastSweep != MetricWindow.NONE && now - lastSweep < windowMillis) {
+            return;
+        }
+
+        lastSweep = now;
+        windows.values().removeIf(agentWindows -> isIdle(agentWindows, now - windowMillis));
+    }
+
+    private boolean isIdle(final MetricWindow[] agentWindows, final long oldest) {
+
+        for (MetricWindow window : agentWindows) {
+            if (window.lastTime() != MetricWindow.NONE && window.lastTime() > oldest) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private MetricWindow[] newWindows() {
+
+        long windowMillis = properties.window().toMillis();
+        int capacity = (int) Math.max(1, properties.window().toSeconds() * MAX_SAMPLES_PER_SECOND);
+
+        MetricWindow[] agentWindows = new MetricWindow[AlarmMetric.values().length];
+
+        for (int i = 0; i < agentWindows.length; i++) {
+            agentWindows[i] = new MetricWindow(windowMillis, capacity);
+        }
+
+        return agentWindows;
+    }
+
+    record AlarmSample(String agentName, SystemMetricMeasurement measurement) {
+    }
+}
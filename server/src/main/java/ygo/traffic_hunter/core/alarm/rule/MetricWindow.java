@@ -0,0 +1,159 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.alarm.rule;
+
+/**
+ * <p>
+ * Sliding window of one metric of one agent, in primitive rings allocated once.
+ * </p>
+ *
+ * <ul>
+ *     <li>mean: running sum of the samples in the window.</li>
+ *     <li>max: monotonic queue of ring positions with decreasing values, the front is the maximum.</li>
+ *     <li>duration above threshold: the time the current run of samples above the threshold started,
+ *     a gap longer than the window ends the run.</li>
+ * </ul>
+ * <p>
+ * Adding a sample is O(1) amortized, each sample enters and leaves both rings once.
+ * Not thread safe, it is only touched by the evaluating thread.
+ * </p>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+final class MetricWindow {
+
+    static final long NONE = Long.MIN_VALUE;
+
+    private final long windowMillis;
+
+    private final int capacity;
+
+    private final long[] times;
+
+    private final double[] values;
+
+    private final int[] maxQueue;
+
+    private int head;
+
+    private int size;
+
+    private int maxHead;
+
+    private int maxSize;
+
+    private double sum;
+
+    private long aboveSince = NONE;
+
+    private long lastFired = NONE;
+
+    MetricWindow(final long windowMillis, final int capacity) {
+        this.windowMillis = windowMillis;
+        this.capacity = capacity;
+        this.times = new long[capacity];
+        this.values = new double[capacity];
+        this.maxQueue = new int[capacity];
+    }
+
+    void add(final long time, final double value) {
+
+        if (size > 0 && time - lastTime() > windowMillis) {
+            // a gap longer than the window breaks the run above the threshold
+            aboveSince = NONE;
+        }
+
+        while (size > 0 && (times[head] <= time - windowMillis || size == capacity)) {
+            removeOldest();
+        }
+
+        int position = (head + size) % capacity;
+        times[position] = time;
+        values[position] = value;
+        size++;
+        sum += value;
+
+        while (maxSize > 0 && values[maxQueue[(maxHead + maxSize - 1) % capacity]] <= value) {
+            maxSize--;
+        }
+
+        maxQueue[(maxHead + maxSize) % capacity] = position;
+        maxSize++;
+    }
+
+    /**
+     * @return how long the metric has been at or above the threshold, {@link #NONE} if the last sample was below
+     */
+    long durationAbove(final long time, final double value, final double threshold) {
+
+        if (value < threshold) {
+            aboveSince = NONE;
+            return NONE;
+        }
+
+        if (aboveSince == NONE) {
+            aboveSince = time;
+        }
+
+        return time - aboveSince;
+    }
+
+    boolean coolingDown(final long time, final long cooldownMillis) {
+        return lastFired != NONE && time - lastFired < cooldownMillis;
+    }
+
+    void fired(final long time) {
+        this.lastFired = time;
+    }
+
+    double mean() {
+        return size == 0 ? 0 : sum / size;
+    }
+
+    double max() {
+        return maxSize == 0 ? 0 : values[maxQueue[maxHead]];
+    }
+
+    long lastTime() {
+        return size == 0 ? NONE : times[(head + size - 1) % capacity];
+    }
+
+    private void removeOldest() {
+
+        if (maxSize > 0 && maxQueue[maxHead] == head) {
+            maxHead = (maxHead + 1) % capacity;
+            maxSize--;
+        }
+
+        sum -= values[head];
+        head = (head + 1) % capacity;
+        size--;
+
+        if (size == 0) {
+            // drops the rounding error the running sum has picked up
+            sum = 0;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.alarm.rule.property;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * <p>
+ * Evaluation settings of the alarm rules, the thresholds themselves come from the {@code threshold} table.
+ * </p>
+ *
+ * @param window        sliding window per agent and metric the mean and max are kept over
+ * @param sustain       how long a value has to stay above its threshold before the alarm fires
+ * @param cooldown      minimum time between two alarms of the same agent and metric
+ * @param queueCapacity samples waiting for evaluation, samples arriving while the queue is full are dropped
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@ConfigurationProperties("ingest.alarm")
+public record AlarmRuleProperties(
+
+        @DefaultValue("60s") Duration window,
+
+        @DefaultValue("30s") Duration sustain,
+
+        @DefaultValue("10m") Duration cooldown,
+
+        @DefaultValue("10000") int queueCapacity
+) {
+}
@@ -23,19 +23,48 @@
  */
 package ygo.traffic_hunter.core.assembler.span;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 import org.springframework.stereotype.Component;
+import ygo.traffic_hunter.common.util.TraceIds;
 import ygo.traffic_hunter.core.assembler.Assembler;
 import ygo.traffic_hunter.domain.metric.TransactionData;
 
 /**
+ * Builds the span tree of a single trace in linear time.
+ * <p>
+ * Spans are indexed by span id once and each span is attached to its parent with a single lookup,
+ * so the cost no longer grows with the square of the trace size. The tree is walked with an explicit
+ * stack, which keeps very deep traces from overflowing the call stack.
+ * <p>
+ * A trace with exactly one root and no orphans is returned as is. Otherwise the roots and the orphan
+ * spans (spans whose parent was never received) hang under a synthetic root named
+ * {@link #SYNTHETIC_ROOT_NAME}. Children are ordered by start time.
+ *
  * @author yungwang-o
  * @version 1.1.0
  */
 @Component
 public final class SpanAssembler implements Assembler<List<TransactionData>, SpanTreeNode> {
 
-    private static final String SPAN_ROOT_PARENT_ID = "0000000000000000";
+    public static final String SYNTHETIC_ROOT_NAME = "[synthetic root]";
+
+    private static final Comparator<SpanTreeNode> START_TIME_ORDER = Comparator.comparing(
+            node -> node.getData().startTime(),
+            Comparator.nullsLast(Comparator.naturalOrder())
+    );
 
     @Override
     public SpanTreeNode assemble(final List<TransactionData> transactions) {
@@ -44,34 +73,127 @@ public final class SpanAssembler implements Assembler<List<TransactionData>, Spa
             return SpanTreeNode.NO_OP;
         }
 
-        SpanTreeNode root = SpanTreeNode.NO_OP;
+        List<SpanTreeNode> nodes = new ArrayList<>(transactions.size());
+        Map<String, SpanTreeNode> index = HashMap.newHashMap(transactions.size());
 
         for(TransactionData data : transactions) {
-            if(data.parentSpanId().equals(SPAN_ROOT_PARENT_ID)) {
-                root = new SpanTreeNode(data);
-                break;
+            SpanTreeNode node = new SpanTreeNode(data);
+            nodes.add(node);
+            if(data.spanId() != null) {
+                index.putIfAbsent(data.spanId(), node);
             }
         }
 
-        build(root, transactions);
+        List<SpanTreeNode> tops = new ArrayList<>();
+        int roots = 0;
 
-        return root;
+        for(SpanTreeNode node : nodes) {
+            String parentSpanId = node.getData().parentSpanId();
+
+            if(TraceIds.isRoot(parentSpanId)) {
+                tops.add(node);
+                roots++;
+                continue;
+            }
+
+            SpanTreeNode parent = index.get(parentSpanId);
+            if(parent == null || parent == node) {
+                tops.add(node);
+            } else {
+                parent.addChildren(node);
+            }
+        }
+
+        int[] reached = new int[1];
+        walk(tops, node -> {
+            node.sortChildren(START_TIME_ORDER);
+            reached[0]++;
+        });
+
+        if(reached[0] < nodes.size()) {
+            breakCycles(nodes, index, tops);
+        }
+
+        if(roots == 1 && tops.size() == 1) {
+            return tops.getFirst();
+        }
+
+        return syntheticRoot(tops);
     }
 
-    private void build(final SpanTreeNode parent, final List<TransactionData> transactions) {
+    /**
+     * Spans that are not reachable from any top-level span form a parent cycle. Each cycle is cut at
+     * the first unreachable span, which is then treated as an orphan.
+     */
+    private void breakCycles(final List<SpanTreeNode> nodes,
+                             final Map<String, SpanTreeNode> index,
+                             final List<SpanTreeNode> tops) {
 
-        for(TransactionData data : transactions) {
+        Set<SpanTreeNode> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        walk(tops, visited::add);
 
-            if(data.parentSpanId().equals(SPAN_ROOT_PARENT_ID)) {
+        for(SpanTreeNode node : nodes) {
+            if(visited.contains(node)) {
                 continue;
             }
 
-            if(data.parentSpanId().equals(parent.getData().spanId())) {
-                SpanTreeNode child = new SpanTreeNode(data);
+            index.get(node.getData().parentSpanId()).removeChildren(node);
+            tops.add(node);
 
-                parent.addChildren(child);
-                build(child, transactions);
+            walk(List.of(node), reached -> {
+                reached.sortChildren(START_TIME_ORDER);
+                visited.add(reached);
+            });
+        }
+    }
+
+    private void walk(final List<SpanTreeNode> from, final Consumer<SpanTreeNode> visitor) {
+
+        Deque<SpanTreeNode> stack = new ArrayDeque<>(from);
+
+        while(!stack.isEmpty()) {
+            SpanTreeNode node = stack.pop();
+            visitor.accept(node);
+            for(SpanTreeNode child : node.getChildren()) {
+                stack.push(child);
             }
         }
     }
+
+    private SpanTreeNode syntheticRoot(final List<SpanTreeNode> tops) {
+
+        tops.sort(START_TIME_ORDER);
+
+        List<TransactionData> spans = tops.stream().map(SpanTreeNode::getData).toList();
+
+        Instant startTime = spans.stream()
+                .map(TransactionData::startTime)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+
+        Instant endTime = spans.stream()
+                .map(TransactionData::endTime)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+
+        TransactionData data = TransactionData.builder()
+                .name(SYNTHETIC_ROOT_NAME)
+                .traceId(spans.getFirst().traceId())
+                .parentSpanId(TraceIds.INVALID_PARENT_SPAN_ID)
+                .spanId(TraceIds.INVALID_PARENT_SPAN_ID)
+                .attributes(Map.of())
+                .attributesCount(0)
+                .startTime(startTime)
+                .endTime(endTime)
+                .duration(startTime == null || endTime == null ? 0 : Duration.between(startTime, endTime).toMillis())
+                .ended(spans.stream().allMatch(TransactionData::ended))
+                .build();
+
+        SpanTreeNode root = new SpanTreeNode(data);
+        tops.forEach(root::addChildren);
+
+        return root;
+    }
 }
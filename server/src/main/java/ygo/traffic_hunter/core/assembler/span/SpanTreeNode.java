@@ -24,6 +24,7 @@
 package ygo.traffic_hunter.core.assembler.span;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import lombok.Getter;
 import lombok.ToString;
@@ -34,7 +35,7 @@ import ygo.traffic_hunter.domain.metric.TransactionData;
  * @version 1.1.0
  */
 @Getter
-@ToString
+@ToString(exclude = "children")
 public class SpanTreeNode {
 
     public static final SpanTreeNode NO_OP = new SpanTreeNode(null);
@@ -55,6 +56,12 @@ public class SpanTreeNode {
         children.remove(node);
     }
 
+    public void sortChildren(final Comparator<SpanTreeNode> comparator) {
+        if(children.size() > 1) {
+            children.sort(comparator);
+        }
+    }
+
     public int size() {
         return children.size();
     }
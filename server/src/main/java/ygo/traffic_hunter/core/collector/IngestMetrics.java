@@ -0,0 +1,356 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.collector;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ygo.traffic_hunter.core.collector.channel.MetricChannel.MetricHeaderSpec;
+import ygo.traffic_hunter.core.dto.request.metadata.AgentMetadata;
+import ygo.traffic_hunter.core.dto.request.metadata.MetadataWrapper;
+
+/**
+ * <p>
+ * The {@code IngestMetrics} class measures a frame on its way from the WebSocket to the writer,
+ * so the stage limiting the throughput can be found from the Actuator metrics endpoint.
+ * Frames and stages are tagged by {@link MetricHeaderSpec} and agent id, a frame received before
+ * the agent has introduced itself is tagged {@value #UNKNOWN}. The meters of an agent are cached
+ * and removed with its last session.
+ * </p>
+ *
+ * <h4>Stages</h4>
+ * <ul>
+ *     <li>{@code process} - decompression and deserialization, timed together since the payload
+ *     is inflated while Jackson reads it.</li>
+ *     <li>{@code validate} - validation of the agent metadata.</li>
+ *     <li>{@code map} - mapping to the database entities.</li>
+ * </ul>
+ *
+ * <p>
+ * Persistence is measured per table by the {@code BatchMeasurementWriter}, rows of many agents share a flush.
+ * </p>
+ *
+ * <h4>Exposed Metrics</h4>
+ * <ul>
+ *     <li>{@code traffichunter.ingest.frames} - frames received per spec and agent.</li>
+ *     <li>{@code traffichunter.ingest.session.frames.rate} - frames received in the last second per session.</li>
+ *     <li>{@code traffichunter.ingest.payload.compressed} - frame size in bytes per spec and agent.</li>
+ *     <li>{@code traffichunter.ingest.payload.decompressed} - decompressed payload size in bytes per spec and agent.</li>
+ *     <li>{@code traffichunter.ingest.stage} - latency per stage, spec and agent.</li>
+ *     <li>{@code traffichunter.ingest.rejected} - frames failing to decode per spec, agent and reason.</li>
+ * </ul>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class IngestMetrics {
+
+    public static final String UNKNOWN = "unknown";
+
+    private static final double[] PAYLOAD_BUCKETS = {
+            1 << 10, 4 << 10, 16 << 10, 64 << 10, 256 << 10, 1 << 20, 4 << 20, 16 << 20
+    };
+
+    private static final int GZIP_ISIZE_SIZE = 4;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, SessionRate> sessions = new ConcurrentHashMap<>();
+
+    private final Map<String, String> sessionAgents = new ConcurrentHashMap<>();
+
+    private final Map<String, AgentMeters> agents = new ConcurrentHashMap<>();
+
+    private final AgentMeters unknown = new AgentMeters(UNKNOWN);
+
+    /**
+     * starts tagging the meters with the agent id, frames of an agent that has not introduced itself are
+     * tagged {@value #UNKNOWN} so a reconnecting session never creates new series.
+     */
+    public void introduced(final String sessionId, final String agentId) {
+
+        if (sessionAgents.put(sessionId, agentId) != null) {
+            return;
+        }
+
+        agents.compute(agentId, (id, meters) -> {
+            AgentMeters current = meters == null ? new AgentMeters(id) : meters;
+            current.sessions++;
+            return current;
+        });
+    }
+
+    /**
+     * @param frame the whole frame, its position is left untouched
+     */
+    public void received(final String sessionId, final String agentId, final ByteBuffer frame) {
+
+        String spec = frame.hasRemaining() ? tag(MetricHeaderSpec.of(frame.get(frame.position()))) : UNKNOWN;
+        AgentMeters meters = meters(agentId);
+
+        meters.counter("traffichunter.ingest.frames", spec, null, null).increment();
+        meters.payload("traffichunter.ingest.payload.compressed", spec).record(frame.remaining());
+
+        sessions.computeIfAbsent(sessionId, this::openSession)
+                .record(nowSeconds());
+    }
+
+    /**
+     * removes the session gauge, and the meters of the agent once its last session is gone.
+     */
+    public void closed(final String sessionId) {
+
+        SessionRate rate = sessions.remove(sessionId);
+
+        if (rate != null) {
+            meterRegistry.remove(rate.gauge);
+        }
+
+        String agentId = sessionAgents.remove(sessionId);
+
+        if (agentId == null) {
+            return;
+        }
+
+        agents.computeIfPresent(agentId, (id, meters) -> {
+            if (--meters.sessions > 0) {
+                return meters;
+            }
+            meters.remove();
+            return null;
+        });
+    }
+
+    /**
+     * records the size of a decoded frame, read from the ISIZE field of its gzip member which the inflater has verified.
+     *
+     * @param frame the whole frame, its position is left untouched
+     */
+    public void decompressed(final MetricHeaderSpec spec, final String agentId, final ByteBuffer frame) {
+
+        if (frame.remaining() < GZIP_ISIZE_SIZE) {
+            return;
+        }
+
+        int size = frame.duplicate()
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .getInt(frame.limit() - GZIP_ISIZE_SIZE);
+
+        meters(agentId).payload("traffichunter.ingest.payload.decompressed", tag(spec))
+                .record(Integer.toUnsignedLong(size));
+    }
+
+    public void rejected(final MetricHeaderSpec spec, final String agentId, final Throwable cause) {
+
+        meters(agentId).counter("traffichunter.ingest.rejected", tag(spec), "reason", cause.getClass().getSimpleName())
+                .increment();
+    }
+
+    public <D> MetadataWrapper<D> process(final MetricHeaderSpec spec, final Supplier<MetadataWrapper<D>> processing) {
+
+        long start = System.nanoTime();
+
+        MetadataWrapper<D> result = processing.get();
+
+        stage("process", spec, result.metadata(), System.nanoTime() - start);
+
+        return result;
+    }
+
+    public <D> boolean validate(final MetricHeaderSpec spec,
+                                final MetadataWrapper<D> metric,
+                                final Predicate<MetadataWrapper<D>> validation) {
+
+        long start = System.nanoTime();
+
+        boolean result = validation.test(metric);
+
+        stage("validate", spec, metric.metadata(), System.nanoTime() - start);
+
+        return result;
+    }
+
+    public <T> T map(final MetricHeaderSpec spec, final AgentMetadata metadata, final Supplier<T> mapping) {
+
+        long start = System.nanoTime();
+
+        T result = mapping.get();
+
+        stage("map", spec, metadata, System.nanoTime() - start);
+
+        return result;
+    }
+
+    private void stage(final String stage, final MetricHeaderSpec spec, final AgentMetadata metadata, final long nanos) {
+
+        meters(metadata == null ? null : metadata.agentId())
+                .timer("traffichunter.ingest.stage", tag(spec), stage)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private AgentMeters meters(final String agentId) {
+
+        AgentMeters meters = agentId == null ? null : agents.get(agentId);
+
+        return meters == null ? unknown : meters;
+    }
+
+    private SessionRate openSession(final String sessionId) {
+
+        SessionRate rate = new SessionRate(nowSeconds());
+
+        rate.gauge = Gauge.builder("traffichunter.ingest.session.frames.rate", rate, r -> r.rate(nowSeconds()))
+                .tag("session", sessionId)
+                .baseUnit("frames")
+                .register(meterRegistry);
+
+        return rate;
+    }
+
+    private static String tag(final MetricHeaderSpec spec) {
+        return spec == null ? UNKNOWN : spec.name().toLowerCase();
+    }
+
+    private static long nowSeconds() {
+        return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+    }
+
+    /**
+     * frames of one session counted per whole second, the rate is the count of the last completed second.
+     */
+    private static final class SessionRate {
+
+        private long second;
+
+        private long current;
+
+        private long last;
+
+        private Gauge gauge;
+
+        private SessionRate(final long second) {
+            this.second = second;
+        }
+
+        private synchronized void record(final long now) {
+
+            if (now != second) {
+                last = now == second + 1 ? current : 0;
+                second = now;
+                current = 0;
+            }
+
+            current++;
+        }
+
+        private synchronized double rate(final long now) {
+
+            if (now == second) {
+                return last;
+            }
+
+            return now == second + 1 ? current : 0;
+        }
+    }
+
+    private record MeterKey(String name, String spec, String detail) {
+    }
+
+    /**
+     * the meters of one agent, registered on first use and cached so a frame does not go through the registry.
+     */
+    private final class AgentMeters {
+
+        private final String agentId;
+
+        private final Map<MeterKey, Counter> counters = new ConcurrentHashMap<>();
+
+        private final Map<MeterKey, DistributionSummary> payloads = new ConcurrentHashMap<>();
+
+        private final Map<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+
+        /**
+         * open sessions of the agent, only changed inside {@link ConcurrentHashMap#compute}.
+         */
+        private int sessions;
+
+        private AgentMeters(final String agentId) {
+            this.agentId = agentId;
+        }
+
+        private Counter counter(final String name, final String spec, final String detailTag, final String detail) {
+
+            return counters.computeIfAbsent(new MeterKey(name, spec, detail), key -> {
+
+                Counter.Builder builder = Counter.builder(name)
+                        .tag("spec", spec)
+                        .tag("agent", agentId);
+
+                if (detailTag != null) {
+                    builder.tag(detailTag, detail);
+                }
+
+                return builder.register(meterRegistry);
+            });
+        }
+
+        private DistributionSummary payload(final String name, final String spec) {
+
+            return payloads.computeIfAbsent(new MeterKey(name, spec, null), key -> DistributionSummary.builder(name)
+                    .baseUnit("bytes")
+                    .serviceLevelObjectives(PAYLOAD_BUCKETS)
+                    .tag("spec", spec)
+                    .tag("agent", agentId)
+                    .register(meterRegistry));
+        }
+
+        private Timer timer(final String name, final String spec, final String stage) {
+
+            return timers.computeIfAbsent(new MeterKey(name, spec, stage), key -> Timer.builder(name)
+                    .tag("stage", stage)
+                    .tag("spec", spec)
+                    .tag("agent", agentId)
+                    .register(meterRegistry));
+        }
+
+        private void remove() {
+            counters.values().forEach(meterRegistry::remove);
+            payloads.values().forEach(meterRegistry::remove);
+            timers.values().forEach(meterRegistry::remove);
+        }
+    }
+}
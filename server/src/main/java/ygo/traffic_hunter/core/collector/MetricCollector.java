@@ -25,9 +25,9 @@ package ygo.traffic_hunter.core.collector;
 
 import java.nio.ByteBuffer;
 import java.util.Set;
-import lombok.RequiredArgsConstructor;
 import ygo.traffic_hunter.core.annotation.Collector;
 import ygo.traffic_hunter.core.collector.channel.MetricChannel;
+import ygo.traffic_hunter.core.collector.channel.MetricChannel.MetricHeaderSpec;
 import ygo.traffic_hunter.core.collector.processor.MetricProcessor;
 import ygo.traffic_hunter.core.collector.validator.MetricValidator;
 
@@ -59,20 +59,18 @@ import ygo.traffic_hunter.core.collector.validator.MetricValidator;
  * <h4>Workflow</h4>
  * <ol>
  *     <li>{@code MetricCollector} receives raw data as a {@link java.nio.ByteBuffer}.</li>
- *     <li>Converts the data into a byte array.</li>
- *     <li>Extracts the header byte to identify the correct {@link MetricChannel}.</li>
- *     <li>Delegates the payload to the {@link MetricChannel#open(byte[])} method for processing.</li>
+ *     <li>Reads the header byte and looks the {@link MetricChannel} up in a dispatch table built at startup.</li>
+ *     <li>Delegates a slice of the buffer past the header to {@link MetricChannel#open(ByteBuffer)},
+ *     without copying the payload.</li>
  * </ol>
  *
  * <h4>Channel Pipeline Flow</h4>
  * <pre>
  * [ByteBuffer]
  *    ↓
- * [Convert to byte[]]
+ * [Header Byte] → dispatch table
  *    ↓
- * [Header Byte]
- *    ↓
- * Route to [MetricChannel.open(byte[])]
+ * Route to [MetricChannel.open(ByteBuffer slice)]
  *    ↓
  * [Processor]
  *    ↓
@@ -85,8 +83,10 @@ import ygo.traffic_hunter.core.collector.validator.MetricValidator;
  *
  * <h4>Error Handling</h4>
  * <ul>
- *     <li>Throws {@code IllegalStateException} if no handlers are registered.</li>
+ *     <li>Throws {@code IllegalStateException} at startup if no handlers are registered
+ *     or two handlers share a header.</li>
  *     <li>Throws {@code IllegalArgumentException} if no handler matches the header byte.</li>
+ *     <li>A frame failing to decode is counted as rejected by the {@link IngestMetrics} before the exception is rethrown.</li>
  * </ul>
  *
  * @see MetricChannel
@@ -97,33 +97,86 @@ import ygo.traffic_hunter.core.collector.validator.MetricValidator;
  * @version 1.0.0
  */
 @Collector
-@RequiredArgsConstructor
 public class MetricCollector {
 
-    private final Set<MetricChannel> handlers;
+    private static final int HEADER_RANGE = 1 << Byte.SIZE;
 
-    public void collect(final ByteBuffer byteBuffer) {
+    private final MetricChannel[] dispatchTable = new MetricChannel[HEADER_RANGE];
+
+    private final IngestMetrics metrics;
+
+    public MetricCollector(final Set<MetricChannel> handlers, final IngestMetrics metrics) {
+
+        this.metrics = metrics;
 
         if(handlers.isEmpty()) {
             throw new IllegalStateException("collector is empty..");
         }
 
-        byte[] data = convert(byteBuffer);
+        for (MetricChannel handler : handlers) {
+
+            int index = Byte.toUnsignedInt(handler.getHeaderSpec().getHeader());
+
+            if (dispatchTable[index] != null) {
+                throw new IllegalStateException("Duplicate handler for header " + handler.getHeaderSpec());
+            }
 
-        byte header = data[0];
+            dispatchTable[index] = handler;
+        }
+    }
+
+    public void collect(final ByteBuffer byteBuffer) {
 
-        MetricChannel metricChannel = handlers.stream()
-                .filter(handler -> handler.getHeaderSpec().equals(header))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("No Support Handler.."));
+        MetricChannel metricChannel = route(byteBuffer.get());
 
-        metricChannel.open(data);
+        metricChannel.open(byteBuffer.slice());
     }
 
-    private byte[] convert(final ByteBuffer byteBuffer) {
-        byte[] data = new byte[byteBuffer.remaining()];
-        byteBuffer.get(data);
+    /**
+     * decodes a raw frame into the event of its channel without publishing it.
+     * used by the ingest pipeline, which publishes from its own stage.
+     *
+     * @param agentId the agent the frame was received from, used to tag the ingest metrics
+     */
+    public Object decode(final String agentId, final ByteBuffer byteBuffer) {
+
+        ByteBuffer frame = byteBuffer.duplicate();
+        MetricChannel metricChannel = null;
+
+        try {
+            metricChannel = route(byteBuffer.get());
+
+            Object event = metricChannel.decode(byteBuffer.slice());
+
+            metrics.decompressed(metricChannel.getHeaderSpec(), agentId, frame);
+
+            return event;
+        } catch (RuntimeException e) {
+            metrics.rejected(rejectedSpec(metricChannel, frame), agentId, e);
+            throw e;
+        }
+    }
+
+    /**
+     * a frame that was not routed is still tagged with the spec of its header byte, if any.
+     */
+    private static MetricHeaderSpec rejectedSpec(final MetricChannel metricChannel, final ByteBuffer frame) {
+
+        if (metricChannel != null) {
+            return metricChannel.getHeaderSpec();
+        }
+
+        return frame.hasRemaining() ? MetricHeaderSpec.of(frame.get(frame.position())) : null;
+    }
+
+    private MetricChannel route(final byte header) {
+
+        MetricChannel metricChannel = dispatchTable[Byte.toUnsignedInt(header)];
+
+        if (metricChannel == null) {
+            throw new IllegalArgumentException("No Support Handler..");
+        }
 
-        return data;
+        return metricChannel;
     }
 }
@@ -23,6 +23,7 @@
  */
 package ygo.traffic_hunter.core.collector.channel;
 
+import java.nio.ByteBuffer;
 import lombok.Getter;
 
 /**
@@ -35,6 +36,7 @@ import lombok.Getter;
  * <h4>Core Responsibilities</h4>
  * <ul>
  *     <li>Provide a header specification to identify the type of metric handled.</li>
+ *     <li>Define the {@code decode} method turning a payload into the event to publish.</li>
  *     <li>Define the {@code open} method to process incoming payloads.</li>
  * </ul>
  *
@@ -44,6 +46,8 @@ import lombok.Getter;
  * <ul>
  *     <li>{@code SYSTEM} - Header value: {@code 1}</li>
  *     <li>{@code TRANSACTION} - Header value: {@code 2}</li>
+ *     <li>{@code LOG} - Header value: {@code 3}</li>
+ *     <li>{@code BATCH} - Header value: {@code 4}, followed by the header of the batched records</li>
  * </ul>
  *
  * <h4>Implementations</h4>
@@ -62,15 +66,32 @@ public interface MetricChannel {
 
     MetricHeaderSpec getHeaderSpec();
 
-    void open(byte[] payload);
+    /**
+     * processes and validates the payload without publishing it.
+     *
+     * @param payload the frame past its header byte
+     * @return the event {@link #open(ByteBuffer)} would publish
+     */
+    Object decode(ByteBuffer payload);
+
+    void open(ByteBuffer payload);
 
     @Getter
     enum MetricHeaderSpec {
         SYSTEM((byte) 1),
         TRANSACTION((byte) 2),
-        LOG((byte) 3)
+        LOG((byte) 3),
+        BATCH((byte) 4)
         ;
 
+        private static final MetricHeaderSpec[] BY_HEADER = new MetricHeaderSpec[256];
+
+        static {
+            for (MetricHeaderSpec spec : values()) {
+                BY_HEADER[Byte.toUnsignedInt(spec.header)] = spec;
+            }
+        }
+
         private final byte header;
 
         MetricHeaderSpec(final byte header) {
@@ -80,6 +101,13 @@ public interface MetricChannel {
         public boolean equals(final byte header) {
             return this.header == header;
         }
+
+        /**
+         * @return the spec of the header byte, {@code null} when no spec uses it
+         */
+        public static MetricHeaderSpec of(final byte header) {
+            return BY_HEADER[Byte.toUnsignedInt(header)];
+        }
     }
 
     class ChannelException extends RuntimeException {
@@ -0,0 +1,122 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.collector.channel.batch;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import ygo.traffic_hunter.core.collector.IngestMetrics;
+import ygo.traffic_hunter.core.collector.channel.MetricChannel;
+import ygo.traffic_hunter.core.collector.processor.MetricProcessor;
+import ygo.traffic_hunter.core.collector.validator.MetricValidator;
+import ygo.traffic_hunter.core.collector.validator.MetricValidator.ChannelValidatedException;
+import ygo.traffic_hunter.core.dto.request.metadata.MetadataWrapper;
+import ygo.traffic_hunter.core.event.channel.LogBatchEvent;
+import ygo.traffic_hunter.core.event.channel.TransactionBatchEvent;
+import ygo.traffic_hunter.domain.metric.LogRecord;
+import ygo.traffic_hunter.domain.metric.TraceInfo;
+
+/**
+ * <p>
+ * The {@code BatchMetricChannel} class handles batch envelopes, frames that carry many records
+ * of one type behind a single metadata header and a single gzip stream.
+ * </p>
+ *
+ * <h4>Frame Layout</h4>
+ * <pre>
+ * [BATCH header (4)] [record header] [gzip({"metadata": {...}, "data": [record, record, ...]})]
+ * </pre>
+ *
+ * <p>
+ * Transaction and log records can be batched. The whole batch is published as one event
+ * and handed to the writer in one call.
+ * </p>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ * @see TransactionBatchEvent
+ * @see LogBatchEvent
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BatchMetricChannel implements MetricChannel {
+
+    private final MetricProcessor processor;
+
+    private final MetricValidator validator;
+
+    private final IngestMetrics metrics;
+
+    private final ApplicationEventPublisher publisher;
+
+    @Override
+    public MetricHeaderSpec getHeaderSpec() {
+        return MetricHeaderSpec.BATCH;
+    }
+
+    @Override
+    public void open(final ByteBuffer payload) {
+        publisher.publishEvent(decode(payload));
+    }
+
+    @Override
+    public Object decode(final ByteBuffer payload) {
+
+        if (!payload.hasRemaining()) {
+            throw new ChannelException("batch frame has no record header");
+        }
+
+        byte recordHeader = payload.get();
+        ByteBuffer records = payload.slice();
+
+        if (MetricHeaderSpec.TRANSACTION.equals(recordHeader)) {
+            return new TransactionBatchEvent(read(records, TraceInfo.class));
+        }
+
+        if (MetricHeaderSpec.LOG.equals(recordHeader)) {
+            return new LogBatchEvent(read(records, LogRecord.class));
+        }
+
+        throw new ChannelException("Unsupported batch record header = " + recordHeader);
+    }
+
+    private <C> MetadataWrapper<List<C>> read(final ByteBuffer records, final Class<C> clazz) {
+        return validate(metrics.process(getHeaderSpec(), () -> processor.processBatch(records, clazz)));
+    }
+
+    private <C> MetadataWrapper<List<C>> validate(final MetadataWrapper<List<C>> batch) {
+
+        if (metrics.validate(getHeaderSpec(), batch, validator::validate) || batch.data() == null) {
+            throw new ChannelValidatedException("The input does not meet the required validation criteria.");
+        }
+
+        log.info("batch of {} records from {}", batch.data().size(), batch.metadata().agentName());
+
+        return batch;
+    }
+}
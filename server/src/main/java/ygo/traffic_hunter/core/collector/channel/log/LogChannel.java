@@ -23,10 +23,12 @@
  */
 package ygo.traffic_hunter.core.collector.channel.log;
 
+import java.nio.ByteBuffer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
+import ygo.traffic_hunter.core.collector.IngestMetrics;
 import ygo.traffic_hunter.core.collector.channel.MetricChannel;
 import ygo.traffic_hunter.core.collector.processor.MetricProcessor;
 import ygo.traffic_hunter.core.collector.validator.MetricValidator;
@@ -48,6 +50,8 @@ public class LogChannel implements MetricChannel {
 
     private final MetricValidator validator;
 
+    private final IngestMetrics metrics;
+
     private final ApplicationEventPublisher publisher;
 
     @Override
@@ -56,16 +60,24 @@ public class LogChannel implements MetricChannel {
     }
 
     @Override
-    public void open(final byte[] payload) {
+    public void open(final ByteBuffer payload) {
+        publisher.publishEvent(decode(payload));
+    }
+
+    @Override
+    public LogEvent decode(final ByteBuffer payload) {
 
-        MetadataWrapper<LogRecord> data = processor.process(payload, LogRecord.class);
+        MetadataWrapper<LogRecord> data = metrics.process(
+                getHeaderSpec(),
+                () -> processor.process(payload, LogRecord.class)
+        );
 
-        log.info("log info: {}", data);
+        log.debug("log info: {}", data);
 
-        if(validator.validate(data)) {
+        if(metrics.validate(getHeaderSpec(), data, validator::validate)) {
             throw new ChannelValidatedException("The input does not meet the required validation criteria.");
         }
 
-        publisher.publishEvent(new LogEvent(data));
+        return new LogEvent(data);
     }
 }
@@ -23,10 +23,12 @@
  */
 package ygo.traffic_hunter.core.collector.channel.systeminfo;
 
+import java.nio.ByteBuffer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
+import ygo.traffic_hunter.core.collector.IngestMetrics;
 import ygo.traffic_hunter.core.collector.channel.MetricChannel;
 import ygo.traffic_hunter.core.collector.processor.MetricProcessor;
 import ygo.traffic_hunter.core.collector.validator.MetricValidator;
@@ -56,6 +58,8 @@ public class SysteminfoMetricChannel implements MetricChannel {
 
     private final MetricValidator validator;
 
+    private final IngestMetrics metrics;
+
     private final ApplicationEventPublisher publisher;
 
     @Override
@@ -64,17 +68,24 @@ public class SysteminfoMetricChannel implements MetricChannel {
     }
 
     @Override
-    public void open(final byte[] payload) {
+    public void open(final ByteBuffer payload) {
+        publisher.publishEvent(decode(payload));
+    }
+
+    @Override
+    public SystemInfoMetricEvent decode(final ByteBuffer payload) {
 
-        MetadataWrapper<SystemInfo> object = processor.process(payload, SystemInfo.class);
+        MetadataWrapper<SystemInfo> object = metrics.process(
+                getHeaderSpec(),
+                () -> processor.process(payload, SystemInfo.class)
+        );
 
         log.info("process system info: {}", object);
 
-        if (validator.validate(object)) {
+        if (metrics.validate(getHeaderSpec(), object, validator::validate)) {
             throw new ChannelValidatedException("The input does not meet the required validation criteria.");
         }
 
-        publisher.publishEvent(new SystemInfoMetricEvent(object));
-        //publisher.publishEvent(new AlarmEvent(object));
+        return new SystemInfoMetricEvent(object);
     }
 }
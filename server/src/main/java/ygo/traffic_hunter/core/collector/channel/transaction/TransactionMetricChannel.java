@@ -23,10 +23,12 @@
  */
 package ygo.traffic_hunter.core.collector.channel.transaction;
 
+import java.nio.ByteBuffer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
+import ygo.traffic_hunter.core.collector.IngestMetrics;
 import ygo.traffic_hunter.core.collector.channel.MetricChannel;
 import ygo.traffic_hunter.core.collector.processor.MetricProcessor;
 import ygo.traffic_hunter.core.collector.validator.MetricValidator;
@@ -57,6 +59,8 @@ public class TransactionMetricChannel implements MetricChannel {
 
     private final MetricValidator validator;
 
+    private final IngestMetrics metrics;
+
     private final ApplicationEventPublisher publisher;
 
     @Override
@@ -65,16 +69,22 @@ public class TransactionMetricChannel implements MetricChannel {
     }
 
     @Override
-    public void open(final byte[] payload) {
+    public void open(final ByteBuffer payload) {
+        publisher.publishEvent(decode(payload));
+    }
+
+    @Override
+    public TransactionMetricEvent decode(final ByteBuffer payload) {
 
-        MetadataWrapper<TraceInfo> object = processor.process(payload, TraceInfo.class);
+        MetadataWrapper<TraceInfo> object =
+                metrics.process(getHeaderSpec(), () -> processor.process(payload, TraceInfo.class));
 
         log.info("Transaction metric data: {}", object);
 
-        if(validator.validate(object)) {
+        if(metrics.validate(getHeaderSpec(), object, validator::validate)) {
             throw new ChannelValidatedException("The input does not meet the required validation criteria.");
         }
 
-        publisher.publishEvent(new TransactionMetricEvent(object));
+        return new TransactionMetricEvent(object);
     }
 }
@@ -25,45 +25,98 @@ package ygo.traffic_hunter.core.collector.processor;
 
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import java.io.IOException;
-import lombok.RequiredArgsConstructor;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import ygo.traffic_hunter.core.annotation.Processor;
 import ygo.traffic_hunter.core.collector.channel.MetricChannel.ChannelException;
-import ygo.traffic_hunter.core.collector.processor.compress.ByteArrayMetricDecompressor;
+import ygo.traffic_hunter.core.collector.processor.compress.GzipMetricDecompressor;
 import ygo.traffic_hunter.core.dto.request.metadata.MetadataWrapper;
 
 /**
  * <p>
  *  The {@code MetricProcessor} class is responsible for processing raw metric payloads
  *  into structured data objects. It uses decompression and deserialization to convert
- *  byte arrays into {@code MetadataWrapper} objects.
+ *  frame buffers into {@code MetadataWrapper} objects. Jackson reads straight from the
+ *  decompressing stream, so no decompressed byte array is materialized.
+ * </p>
+ *
+ * <p>
+ *  The {@link ObjectReader} of every {@code MetadataWrapper<C>} is resolved once per payload type
+ *  and reused.
  * </p>
  *
  * @author yungwang-o
- * @version 1.0.0
+ * @version 1.1.0
  */
 @Processor
-@RequiredArgsConstructor
 public class MetricProcessor {
 
-    private final ByteArrayMetricDecompressor decompressor;
+    private final GzipMetricDecompressor decompressor;
 
     private final ObjectMapper objectMapper;
 
-    public <C> MetadataWrapper<C> process(final byte[] data, final Class<C> clazz) {
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
 
-        byte[] unzipped = decompressor.unzip(data);
+    private final Map<Class<?>, ObjectReader> batchReaders = new ConcurrentHashMap<>();
 
-        JavaType javaType = objectMapper.getTypeFactory()
-                .constructParametricType(MetadataWrapper.class, clazz);
+    public MetricProcessor(final GzipMetricDecompressor decompressor,
+                           final ObjectMapper objectMapper) {
+
+        this.decompressor = decompressor;
+        this.objectMapper = objectMapper;
+    }
 
-        try {
-            return objectMapper.readValue(unzipped, javaType);
+    public <C> MetadataWrapper<C> process(final ByteBuffer payload, final Class<C> clazz) {
+
+        ObjectReader reader = readers.computeIfAbsent(clazz, this::createReader);
+
+        try (InputStream unzipped = decompressor.unzip(payload)) {
+            return reader.readValue(unzipped);
         } catch (IOException e) {
             throw new ChannelProcessException(e.getMessage(), e);
         }
     }
 
+    /**
+     * reads a batch envelope, one metadata header and an array of records of one type.
+     */
+    public <C> MetadataWrapper<List<C>> processBatch(final ByteBuffer payload, final Class<C> clazz) {
+
+        ObjectReader reader = batchReaders.computeIfAbsent(clazz, this::createBatchReader);
+
+        try (InputStream unzipped = decompressor.unzip(payload)) {
+            return reader.readValue(unzipped);
+        } catch (IOException e) {
+            throw new ChannelProcessException(e.getMessage(), e);
+        }
+    }
+
+    private ObjectReader createReader(final Class<?> clazz) {
+
+        JavaType javaType = objectMapper.getTypeFactory()
+                .constructParametricType(MetadataWrapper.class, clazz);
+
+        return objectMapper.readerFor(javaType);
+    }
+
+    private ObjectReader createBatchReader(final Class<?> clazz) {
+
+        TypeFactory typeFactory = objectMapper.getTypeFactory();
+
+        JavaType javaType = typeFactory.constructParametricType(
+                MetadataWrapper.class,
+                typeFactory.constructCollectionType(List.class, clazz)
+        );
+
+        return objectMapper.readerFor(javaType);
+    }
+
     public static final class ChannelProcessException extends ChannelException {
 
         public ChannelProcessException() {
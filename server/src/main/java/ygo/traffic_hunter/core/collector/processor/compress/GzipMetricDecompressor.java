@@ -0,0 +1,319 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.collector.processor.compress;
+
+import jakarta.annotation.PreDestroy;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+import org.springframework.stereotype.Component;
+import ygo.traffic_hunter.core.collector.processor.MetricProcessor.ChannelProcessException;
+import ygo.traffic_hunter.core.collector.processor.compress.property.DecompressorProperties;
+
+/**
+ * unzip metric binary data.
+ * <p>
+ * The gzip header and trailer are parsed here and the deflate body is inflated by a pooled
+ * {@link Inflater} that reads the frame buffer in place. Inflated bytes are written straight into
+ * the array of the caller (Jackson's recycled read buffer), so no output buffer is allocated and
+ * the decompressed payload is never materialized as a whole.
+ * </p>
+ *
+ * <p>
+ * The CRC-32 and size of the trailer are verified once the body is consumed. A frame inflating past
+ * {@code ingest.decompressor.max-decompressed-size} is rejected while it is being read.
+ * </p>
+ *
+ * @see DecompressorProperties
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Component
+public class GzipMetricDecompressor {
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    private static final int CM_DEFLATE = 8;
+
+    private static final int FHCRC = 2;
+
+    private static final int FEXTRA = 4;
+
+    private static final int FNAME = 8;
+
+    private static final int FCOMMENT = 16;
+
+    private static final int TRAILER_BYTES = 8;
+
+    private final BlockingQueue<Inflater> pool;
+
+    private final long maxDecompressedSize;
+
+    public GzipMetricDecompressor(final DecompressorProperties properties) {
+        this.pool = new ArrayBlockingQueue<>(properties.poolSize());
+        this.maxDecompressedSize = properties.maxDecompressedSize().toBytes();
+    }
+
+    /**
+     * @param payload gzip data, the frame past its header byte
+     * @return a stream of the decompressed bytes, to be closed by the caller
+     */
+    public InputStream unzip(final ByteBuffer payload) {
+
+        ByteBuffer input = payload.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+        try {
+            skipHeader(input);
+        } catch (IOException e) {
+            throw new ChannelProcessException(e.getMessage(), e);
+        }
+
+        Inflater inflater = acquire();
+        inflater.setInput(input);
+
+        return new InflatingInputStream(inflater, input);
+    }
+
+    @PreDestroy
+    public void close() {
+
+        Inflater inflater;
+
+        while ((inflater = pool.poll()) != null) {
+            inflater.end();
+        }
+    }
+
+    private Inflater acquire() {
+
+        Inflater inflater = pool.poll();
+
+        return inflater != null ? inflater : new Inflater(true);
+    }
+
+    private void release(final Inflater inflater) {
+
+        inflater.reset();
+
+        if (!pool.offer(inflater)) {
+            inflater.end();
+        }
+    }
+
+    /**
+     * skips the gzip member header (RFC 1952), leaving the buffer at the start of the deflate body.
+     */
+    private void skipHeader(final ByteBuffer input) throws IOException {
+
+        if (input.remaining() < 10) {
+            throw new EOFException("gzip header is truncated");
+        }
+
+        if (Short.toUnsignedInt(input.getShort()) != GZIP_MAGIC) {
+            throw new ZipException("Not in GZIP format");
+        }
+
+        if (Byte.toUnsignedInt(input.get()) != CM_DEFLATE) {
+            throw new ZipException("Unsupported compression method");
+        }
+
+        int flags = Byte.toUnsignedInt(input.get());
+
+        // MTIME(4), XFL(1), OS(1)
+        skip(input, 6);
+
+        if ((flags & FEXTRA) != 0) {
+            skip(input, Short.toUnsignedInt(getShort(input)));
+        }
+
+        if ((flags & FNAME) != 0) {
+            skipZeroTerminated(input);
+        }
+
+        if ((flags & FCOMMENT) != 0) {
+            skipZeroTerminated(input);
+        }
+
+        if ((flags & FHCRC) != 0) {
+            skip(input, 2);
+        }
+    }
+
+    private short getShort(final ByteBuffer input) throws EOFException {
+
+        if (input.remaining() < 2) {
+            throw new EOFException("gzip header is truncated");
+        }
+
+        return input.getShort();
+    }
+
+    private void skip(final ByteBuffer input, final int bytes) throws EOFException {
+
+        if (input.remaining() < bytes) {
+            throw new EOFException("gzip header is truncated");
+        }
+
+        input.position(input.position() + bytes);
+    }
+
+    private void skipZeroTerminated(final ByteBuffer input) throws EOFException {
+
+        while (input.hasRemaining()) {
+            if (input.get() == 0) {
+                return;
+            }
+        }
+
+        throw new EOFException("gzip header is truncated");
+    }
+
+    private final class InflatingInputStream extends InputStream {
+
+        private final Inflater inflater;
+
+        private final ByteBuffer input;
+
+        private final CRC32 crc = new CRC32();
+
+        private final byte[] single = new byte[1];
+
+        private long size;
+
+        private boolean finished;
+
+        private boolean closed;
+
+        private InflatingInputStream(final Inflater inflater, final ByteBuffer input) {
+            this.inflater = inflater;
+            this.input = input;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return read(single, 0, 1) == -1 ? -1 : Byte.toUnsignedInt(single[0]);
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+
+            if (finished) {
+                return -1;
+            }
+
+            if (len == 0) {
+                return 0;
+            }
+
+            int n = inflate(b, off, len);
+
+            if (n > 0) {
+                crc.update(b, off, n);
+                size += n;
+
+                if (size > maxDecompressedSize) {
+                    throw new ZipException("decompressed size exceeds " + maxDecompressedSize + " bytes");
+                }
+            }
+
+            if (inflater.finished()) {
+                verifyTrailer();
+                finished = true;
+            }
+
+            return n == 0 ? -1 : n;
+        }
+
+        @Override
+        public void close() {
+
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            release(inflater);
+        }
+
+        private int inflate(final byte[] b, final int off, final int len) throws IOException {
+
+            try {
+                int n;
+
+                while ((n = inflater.inflate(b, off, len)) == 0) {
+
+                    if (inflater.finished()) {
+                        return 0;
+                    }
+
+                    if (inflater.needsInput()) {
+                        throw new EOFException("Unexpected end of ZLIB input stream");
+                    }
+
+                    if (inflater.needsDictionary()) {
+                        throw new ZipException("preset dictionary is not supported");
+                    }
+                }
+
+                return n;
+            } catch (DataFormatException e) {
+                throw new ZipException(e.getMessage());
+            }
+        }
+
+        private void verifyTrailer() throws IOException {
+
+            // the inflater advances the buffer as it consumes it, the trailer follows the deflate body
+            int trailer = input.limit() - inflater.getRemaining();
+
+            if (input.limit() - trailer < TRAILER_BYTES) {
+                throw new EOFException("gzip trailer is truncated");
+            }
+
+            long expectedCrc = Integer.toUnsignedLong(input.getInt(trailer));
+            long expectedSize = Integer.toUnsignedLong(input.getInt(trailer + Integer.BYTES));
+
+            if (expectedCrc != crc.getValue()) {
+                throw new ZipException("Corrupt GZIP trailer (crc mismatch)");
+            }
+
+            if (expectedSize != (size & 0xffffffffL)) {
+                throw new ZipException("Corrupt GZIP trailer (size mismatch)");
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.dto.response;
+
+import java.util.List;
+
+/**
+ * <p>
+ * One message of the real-time dashboard stream.
+ * </p>
+ *
+ * <h4>Protocol</h4>
+ * <ul>
+ *     <li>{@code SNAPSHOT}: the full window of every agent, replaces whatever the client holds.</li>
+ *     <li>{@code DELTA}: only the buckets that are new or changed since the message with
+ *     {@code sequence - 1}, merged by bucket time, the client trims each agent to the window itself.</li>
+ * </ul>
+ * <p>
+ * A client that sees a delta whose sequence does not follow the last one it applied has missed a message,
+ * it resyncs by subscribing to the broadcast again and receives a snapshot on the next tick.
+ * </p>
+ *
+ * @param sequence increases by one for every change of the broadcast
+ * @param type     whether the message is a snapshot or a delta
+ * @param agents   per agent, all buckets (snapshot) or the new and changed buckets (delta)
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+public record RealTimeMonitoringUpdate(long sequence,
+                                       Type type,
+                                       List<RealTimeMonitoringResponse> agents
+) {
+
+    public static RealTimeMonitoringUpdate snapshot(final long sequence,
+                                                    final List<RealTimeMonitoringResponse> agents) {
+
+        return new RealTimeMonitoringUpdate(sequence, Type.SNAPSHOT, agents);
+    }
+
+    public static RealTimeMonitoringUpdate delta(final long sequence,
+                                                 final List<RealTimeMonitoringResponse> agents) {
+
+        return new RealTimeMonitoringUpdate(sequence, Type.DELTA, agents);
+    }
+
+    public enum Type {
+        SNAPSHOT,
+        DELTA
+    }
+}
@@ -20,6 +20,7 @@ package ygo.traffic_hunter.core.dto.response;
 
 import java.time.Instant;
 import ygo.traffic_hunter.core.assembler.span.SpanTreeNode;
+import ygo.traffic_hunter.core.dto.response.statistics.transaction.SpanTreeResponse;
 
 /**
  * @author yungwang-o, JuSeong
@@ -29,7 +30,7 @@ public record TransactionMetricResponse(
         String agentName,
         Instant agentBootTime,
         String agentVersion,
-        SpanTreeNode spanTreeNode
+        SpanTreeResponse spanTree
 ) {
     public static TransactionMetricResponse create(
             final String agentName,
@@ -37,6 +38,6 @@ public record TransactionMetricResponse(
             final String agentVersion,
             final SpanTreeNode spanTreeNode) {
 
-        return new TransactionMetricResponse(agentName, agentBootTime, agentVersion, spanTreeNode);
+        return new TransactionMetricResponse(agentName, agentBootTime, agentVersion, SpanTreeResponse.from(spanTreeNode));
     }
 }
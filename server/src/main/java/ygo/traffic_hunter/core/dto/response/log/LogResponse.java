@@ -21,36 +21,31 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
  * THE SOFTWARE.
  */
-package ygo.traffic_hunter.core.schedule;
+package ygo.traffic_hunter.core.dto.response.log;
 
-import java.time.Duration;
-import java.util.concurrent.ScheduledFuture;
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.TaskScheduler;
+import java.time.OffsetDateTime;
+import java.util.Map;
 
 /**
- * @author JuSeong
+ * @author yungwang-o
  * @version 1.1.0
  */
-@Getter
-@RequiredArgsConstructor
-public class Scheduler {
+public record LogResponse(
 
-    private final TaskScheduler taskScheduler;
+        long id,
 
-    private ScheduledFuture<?> currentTask;
+        OffsetDateTime timestamp,
 
-    public synchronized void schedule(final int interval, final Runnable runnable) {
+        String agentName,
 
-        cancel();
+        String severity,
 
-        currentTask = taskScheduler.scheduleWithFixedDelay(runnable, Duration.ofMillis(interval));
-    }
+        String severityText,
 
-    private synchronized void cancel() {
-        if (currentTask != null && !currentTask.isCancelled()) {
-            currentTask.cancel(true);
-        }
-    }
+        String body,
+
+        String traceId,
+
+        Map<String, String> attributes
+) {
 }
@@ -0,0 +1,61 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.dto.response.log;
+
+import java.util.List;
+import ygo.traffic_hunter.core.log.LogCursor;
+
+/**
+ * @param nextCursor token of the next page, {@code null} on the last page
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+public record LogSearchPage(
+
+        List<LogResponse> content,
+
+        int size,
+
+        boolean hasNext,
+
+        String nextCursor
+) {
+
+    /**
+     * @param rows up to {@code size + 1} rows, the extra row only signals that another page exists
+     */
+    public static LogSearchPage of(final List<LogResponse> rows, final int size) {
+
+        if (rows.size() <= size) {
+            return new LogSearchPage(rows, size, false, null);
+        }
+
+        List<LogResponse> content = rows.subList(0, size);
+        LogResponse last = content.getLast();
+        LogCursor cursor = new LogCursor(last.timestamp().toInstant(), last.id());
+
+        return new LogSearchPage(List.copyOf(content), size, true, cursor.encode());
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.dto.response.statistics.transaction;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import ygo.traffic_hunter.core.assembler.span.SpanTreeNode;
+import ygo.traffic_hunter.domain.metric.TransactionData;
+
+/**
+ * <p>
+ * The span tree of a trace flattened in pre-order. Each span refers to its parent by index,
+ * so the JSON stays two levels deep however deep the trace is.
+ * </p>
+ *
+ * @param spans spans in pre-order, the first one is the root
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+public record SpanTreeResponse(List<SpanResponse> spans) {
+
+    public static final int NO_PARENT = -1;
+
+    public static SpanTreeResponse from(final SpanTreeNode root) {
+
+        if (root.getData() == null) {
+            return new SpanTreeResponse(List.of());
+        }
+
+        List<SpanResponse> spans = new ArrayList<>();
+        Deque<Visit> stack = new ArrayDeque<>();
+        stack.push(new Visit(root, NO_PARENT, 0));
+
+        while (!stack.isEmpty()) {
+
+            Visit visit = stack.pop();
+            int index = spans.size();
+            spans.add(new SpanResponse(visit.parentIndex(), visit.depth(), visit.node().getData()));
+
+            List<SpanTreeNode> children = visit.node().getChildren();
+            for (int i = children.size() - 1; i >= 0; i--) {
+                stack.push(new Visit(children.get(i), index, visit.depth() + 1));
+            }
+        }
+
+        return new SpanTreeResponse(spans);
+    }
+
+    /**
+     * @param parentIndex index of the parent span in {@code spans}, {@value #NO_PARENT} for the root
+     * @param depth       distance from the root
+     * @param data        the span
+     */
+    public record SpanResponse(int parentIndex, int depth, TransactionData data) {
+    }
+
+    private record Visit(SpanTreeNode node, int parentIndex, int depth) {
+    }
+}
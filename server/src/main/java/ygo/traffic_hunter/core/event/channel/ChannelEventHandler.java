@@ -23,32 +23,28 @@
  */
 package ygo.traffic_hunter.core.event.channel;
 
-import static ygo.traffic_hunter.config.cache.CacheConfig.CacheType.ALARM_CACHE_NAME;
-
-import java.util.Objects;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 import ygo.traffic_hunter.common.map.LogMapper;
 import ygo.traffic_hunter.common.map.SystemInfoMapper;
 import ygo.traffic_hunter.common.map.TransactionMapper;
-import ygo.traffic_hunter.core.alarm.AlarmManager;
-import ygo.traffic_hunter.core.alarm.message.MessageType;
+import ygo.traffic_hunter.core.alarm.rule.AlarmRuleEngine;
+import ygo.traffic_hunter.core.collector.IngestMetrics;
+import ygo.traffic_hunter.core.collector.channel.MetricChannel.MetricHeaderSpec;
 import ygo.traffic_hunter.core.dto.request.metadata.MetadataWrapper;
 import ygo.traffic_hunter.core.dto.request.systeminfo.SystemInfo;
 import ygo.traffic_hunter.core.dto.request.transaction.TransactionInfo;
-import ygo.traffic_hunter.core.dto.response.alarm.ThresholdResponse;
+import ygo.traffic_hunter.core.hot.RecentMetricStore;
+import ygo.traffic_hunter.core.log.ingest.LogIngestPolicy;
 import ygo.traffic_hunter.core.repository.MetricRepository;
-import ygo.traffic_hunter.core.service.AlarmService;
+import ygo.traffic_hunter.core.writer.BatchMeasurementWriter;
+import ygo.traffic_hunter.core.writer.property.MetricSchemaProperties;
 import ygo.traffic_hunter.domain.entity.LogMeasurement;
 import ygo.traffic_hunter.domain.entity.MetricMeasurement;
+import ygo.traffic_hunter.domain.entity.SystemMetricMeasurement;
 import ygo.traffic_hunter.domain.entity.TransactionMeasurement;
-import ygo.traffic_hunter.domain.entity.alarm.Threshold.CalculatedThreshold;
-import ygo.traffic_hunter.domain.entity.alarm.Threshold.Calculator;
 import ygo.traffic_hunter.domain.metric.LogRecord;
 import ygo.traffic_hunter.domain.metric.TraceInfo;
 
@@ -61,33 +57,34 @@ import ygo.traffic_hunter.domain.metric.TraceInfo;
  * <h4>Core Responsibilities</h4>
  * <ul>
  *     <li>Listens for {@link TransactionMetricEvent} and {@link SystemInfoMetricEvent} events.</li>
- *     <li>Maps valid metric events to database entities using mappers.</li>
- *     <li>Persists the mapped entities into the {@link MetricRepository}.</li>
- *     <li>Handles transactions independently for each event.</li>
+ *     <li>Listens for {@link TransactionBatchEvent} and {@link LogBatchEvent}, mapping a whole batch at once.</li>
+ *     <li>Maps valid metric events to database entities using mappers, timed by the {@link IngestMetrics}.</li>
+ *     <li>Hands the mapped entities to the {@link BatchMeasurementWriter}.</li>
+ *     <li>Writes system metrics to the JSONB table, the typed table or both, see {@link MetricSchemaProperties}.</li>
+ *     <li>Records system metrics in the in-memory hot tier, see {@link RecentMetricStore}.</li>
+ *     <li>Hands system metrics to the {@link AlarmRuleEngine}, which evaluates the alarm rules off this thread.</li>
+ *     <li>Passes log records through the {@link LogIngestPolicy}, only admitted records are written.</li>
  * </ul>
  *
  * <h4>Transaction Management</h4>
  * <p>
- * Each event listener method is annotated with {@code @Transactional}, ensuring that:
+ * Entities are not written on the event thread. The {@link BatchMeasurementWriter} buffers them
+ * and persists them into the {@link MetricRepository} in batches, one transaction per batch.
  * </p>
- * <ul>
- *     <li>Each event is processed within its own transaction.</li>
- *     <li>Failures in processing one event do not affect the processing of others.</li>
- * </ul>
  *
  * <h2>Workflow</h2>
  * <ol>
  *     <li>An event is published ({@link TransactionMetricEvent} or {@link SystemInfoMetricEvent}).</li>
  *     <li>The corresponding event handler method is triggered.</li>
  *     <li>If valid, the metric is mapped to a database entity.</li>
- *     <li>The entity is saved in the database.</li>
+ *     <li>The entity is queued and later saved in the database as part of a batch.</li>
  * </ol>
  *
  * <h2>Dependencies</h2>
  * <ul>
  *     <li>{@link SystemInfoMapper}: Maps {@link SystemInfo} metrics to database entities.</li>
  *     <li>{@link TransactionMapper}: Maps {@link TransactionInfo} metrics to database entities.</li>
- *     <li>{@link MetricRepository}: Handles database persistence of metrics.</li>
+ *     <li>{@link BatchMeasurementWriter}: Buffers and batches database persistence of metrics.</li>
  * </ul>
  *
  * @author yungwang-o, JuSeong
@@ -97,7 +94,6 @@ import ygo.traffic_hunter.domain.metric.TraceInfo;
  * @see MetricRepository
  */
 @Component
-@CacheConfig(cacheNames = ALARM_CACHE_NAME)
 @RequiredArgsConstructor
 public class ChannelEventHandler {
 
@@ -107,129 +103,106 @@ public class ChannelEventHandler {
 
     private final LogMapper logMapper;
 
-    private final MetricRepository metricRepository;
+    private final BatchMeasurementWriter writer;
+
+    private final MetricSchemaProperties schemaProperties;
+
+    private final RecentMetricStore recentMetricStore;
 
-    private final AlarmService alarmService;
+    private final AlarmRuleEngine alarmRuleEngine;
 
-    private final AlarmManager alarmManager;
+    private final LogIngestPolicy logIngestPolicy;
 
-    private final CacheManager cacheManager;
+    private final IngestMetrics metrics;
 
     @EventListener
-    @Transactional
     public void handle(final TransactionMetricEvent event) {
 
         MetadataWrapper<TraceInfo> object = event.transactionInfo();
 
-        TransactionMeasurement measurement = transactionMapper.map(object);
+        TransactionMeasurement measurement = metrics.map(
+                MetricHeaderSpec.TRANSACTION,
+                object.metadata(),
+                () -> transactionMapper.map(object)
+        );
 
-        metricRepository.save(measurement);
+        writer.write(measurement);
     }
 
     @EventListener
-    @Transactional
     public void handle(final SystemInfoMetricEvent event) {
 
         MetadataWrapper<SystemInfo> object = event.systemInfo();
 
-        MetricMeasurement measurement = systemInfoMapper.map(object);
+        MetricMeasurement measurement = metrics.map(
+                MetricHeaderSpec.SYSTEM,
+                object.metadata(),
+                () -> systemInfoMapper.map(object)
+        );
 
-        metricRepository.save(measurement);
-    }
-
-    @EventListener
-    @Transactional
-    public void handle(final LogEvent event) {
+        if (schemaProperties.writeJsonb()) {
+            writer.write(measurement);
+        }
 
-        MetadataWrapper<LogRecord> object = event.logRecord();
+        SystemMetricMeasurement columns = metrics.map(
+                MetricHeaderSpec.SYSTEM,
+                object.metadata(),
+                () -> systemInfoMapper.mapColumns(measurement)
+        );
 
-        LogMeasurement logMeasurement = logMapper.map(object);
+        if (schemaProperties.writeTyped()) {
+            writer.write(columns);
+        }
 
-        metricRepository.save(logMeasurement);
+        recentMetricStore.record(object.metadata(), columns);
+        alarmRuleEngine.offer(object.metadata(), columns);
     }
 
     @EventListener
-    public void handle(final AlarmEvent event) {
-
-        MetadataWrapper<SystemInfo> object = event.systemInfo();
-
-        ThresholdResponse threshold = alarmService.retrieveThreshold();
-
-        Calculator calculator = Calculator.builder()
-                .memoryStatusInfo(object.data().memoryStatusInfo())
-                .cpuStatusInfo(object.data().cpuStatusInfo())
-                .threadStatusInfo(object.data().threadStatusInfo())
-                .tomcatWebServerInfo(object.data().tomcatWebServerInfo())
-                .hikariDbcpInfo(object.data().hikariDbcpInfo())
-                .build();
-
-        CalculatedThreshold calculate = calculator.calculate(threshold);
-
-        double processCpuLoad = object.data().cpuStatusInfo().processCpuLoad();
-        long memoryUsed = object.data().memoryStatusInfo().heapMemoryUsage().used();
-        int threadCount = object.data().threadStatusInfo().threadCount();
-        long webRequestCount = object.data().tomcatWebServerInfo().tomcatRequestInfo().requestCount();
-        int webThreadCount = object.data().threadStatusInfo().threadCount();
-        int databaseActiveConnectionCount = object.data().hikariDbcpInfo().activeConnections();
-
-        // CPU Alarm
-        if (canSend(MessageType.CPU, processCpuLoad, calculate.calculateCpu())) {
-
-            alarmManager.send(MessageType.CPU.doMessage(null, object));
-            Objects.requireNonNull(cacheManager.getCache(ALARM_CACHE_NAME)).put(MessageType.CPU.name(), true);
-        }
-
-        // Memory Alarm
-        if (canSend(MessageType.MEMORY, memoryUsed, calculate.calculateMemory())) {
-
-            alarmManager.send(MessageType.MEMORY.doMessage(null, object));
-            Objects.requireNonNull(cacheManager.getCache(ALARM_CACHE_NAME)).put(MessageType.MEMORY.name(), true);
-        }
+    public void handle(final LogEvent event) {
 
-        // Thread Alarm
-        if (canSend(MessageType.THREAD, threadCount, calculate.calculateThread())) {
+        MetadataWrapper<LogRecord> object = event.logRecord();
 
-            alarmManager.send(MessageType.THREAD.doMessage(null, object));
-            Objects.requireNonNull(cacheManager.getCache(ALARM_CACHE_NAME)).put(MessageType.THREAD.name(), true);
+        if (!logIngestPolicy.admit(object.metadata(), object.data())) {
+            return;
         }
 
-        // Web Request Alarm
-        if (canSend(MessageType.WEB_REQUEST, webRequestCount, calculate.calculateWebRequest())) {
+        LogMeasurement logMeasurement = metrics.map(
+                MetricHeaderSpec.LOG,
+                object.metadata(),
+                () -> logMapper.map(object)
+        );
 
-            alarmManager.send(MessageType.WEB_REQUEST.doMessage(null, object));
-            Objects.requireNonNull(cacheManager.getCache(ALARM_CACHE_NAME)).put(MessageType.WEB_REQUEST.name(), true);
-        }
-
-        // Web Thread Alarm
-        if (canSend(MessageType.WEB_THREAD, webThreadCount, calculate.calculateWebThread())) {
+        writer.write(logMeasurement);
+    }
 
-            alarmManager.send(MessageType.WEB_THREAD.doMessage(null, object));
-            Objects.requireNonNull(cacheManager.getCache(ALARM_CACHE_NAME)).put(MessageType.WEB_THREAD.name(), true);
-        }
+    @EventListener
+    public void handle(final TransactionBatchEvent event) {
 
-        // DBCP Alarm
-        if (canSend(MessageType.DBCP, databaseActiveConnectionCount, calculate.calculateDbcp())) {
+        List<TransactionMeasurement> measurements = metrics.map(
+                MetricHeaderSpec.BATCH,
+                event.transactionInfos().metadata(),
+                () -> transactionMapper.mapAll(event.transactionInfos())
+        );
 
-            alarmManager.send(MessageType.DBCP.doMessage(null, object));
-            Objects.requireNonNull(cacheManager.getCache(ALARM_CACHE_NAME)).put(MessageType.DBCP.name(), true);
-        }
+        writer.writeTransactions(measurements);
     }
 
-    /**
-     * <p>
-     * request collapsing
-     * </p>
-     */
-    private boolean canSend(final MessageType messageType,
-                            final double currentValue,
-                            final double thresholdValue) {
+    @EventListener
+    public void handle(final LogBatchEvent event) {
 
-        Cache cache = cacheManager.getCache(ALARM_CACHE_NAME);
+        MetadataWrapper<List<LogRecord>> admitted = logIngestPolicy.admitAll(event.logRecords());
 
-        if (cache != null && cache.get(messageType.name()) != null) {
-            return false;
+        if (admitted.data().isEmpty()) {
+            return;
         }
 
-        return thresholdValue <= currentValue;
+        List<LogMeasurement> measurements = metrics.map(
+                MetricHeaderSpec.BATCH,
+                admitted.metadata(),
+                () -> logMapper.mapAll(admitted)
+        );
+
+        writer.writeLogs(measurements);
     }
 }
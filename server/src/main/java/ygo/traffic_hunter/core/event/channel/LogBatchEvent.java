@@ -23,12 +23,13 @@
  */
 package ygo.traffic_hunter.core.event.channel;
 
+import java.util.List;
 import ygo.traffic_hunter.core.dto.request.metadata.MetadataWrapper;
-import ygo.traffic_hunter.core.dto.request.systeminfo.SystemInfo;
+import ygo.traffic_hunter.domain.metric.LogRecord;
 
 /**
- * @author JuSeong
+ * @author yungwang-o
  * @version 1.1.0
  */
-public record AlarmEvent(MetadataWrapper<SystemInfo> systemInfo) {
+public record LogBatchEvent(MetadataWrapper<List<LogRecord>> logRecords) {
 }
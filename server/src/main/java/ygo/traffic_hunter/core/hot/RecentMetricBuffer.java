@@ -0,0 +1,293 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.hot;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import ygo.traffic_hunter.core.dto.request.metadata.AgentMetadata;
+import ygo.traffic_hunter.core.dto.response.metric.CpuMetricMeasurementResponse;
+import ygo.traffic_hunter.core.dto.response.metric.HikariCPMeasurementResponse;
+import ygo.traffic_hunter.core.dto.response.metric.MemoryMetricMeasurementResponse;
+import ygo.traffic_hunter.core.dto.response.metric.MemoryMetricUsageResponse;
+import ygo.traffic_hunter.core.dto.response.metric.MetricDataResponse;
+import ygo.traffic_hunter.core.dto.response.metric.SystemMetricResponse;
+import ygo.traffic_hunter.core.dto.response.metric.ThreadMetricMeasurementResponse;
+import ygo.traffic_hunter.core.dto.response.metric.TomcatWebServerMeasurementResponse;
+import ygo.traffic_hunter.core.dto.response.metric.TomcatWebServerRequestMeasurementResponse;
+import ygo.traffic_hunter.core.dto.response.metric.TomcatWebServerThreadPoolMeasurementResponse;
+import ygo.traffic_hunter.domain.entity.SystemMetricMeasurement;
+
+/**
+ * <p>
+ * Ring of 5 second buckets of one agent, the in-memory counterpart of the {@code system_metric_5s} rollup.
+ * Each bucket keeps the sample count and the sum of every dashboard value in primitive arrays,
+ * a bucket index is {@code (bucketStart / 5s) % slots}, so a new bucket overwrites the one a full window older.
+ * </p>
+ *
+ * <p>
+ * Reads merge the buckets into the requested interval with the same arithmetic as the rollup query,
+ * {@code round(sum / samples, 1)}, so both tiers return the same rows.
+ * </p>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+final class RecentMetricBuffer {
+
+    static final long BUCKET_MILLIS = 5_000L;
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    // column order of the rollup, see TimeSeriesRepository#ROLLUP_COLUMNS
+    private static final int SYSTEM_CPU_LOAD = 0;
+    private static final int PROCESS_CPU_LOAD = 1;
+    private static final int AVAILABLE_PROCESSORS = 2;
+    private static final int HEAP_INIT = 3;
+    private static final int HEAP_USED = 4;
+    private static final int HEAP_COMMITTED = 5;
+    private static final int HEAP_MAX = 6;
+    private static final int THREAD_COUNT = 7;
+    private static final int PEAK_THREAD_COUNT = 8;
+    private static final int TOTAL_STARTED_THREAD_COUNT = 9;
+    private static final int REQUEST_COUNT = 10;
+    private static final int BYTES_RECEIVED = 11;
+    private static final int BYTES_SENT = 12;
+    private static final int PROCESSING_TIME = 13;
+    private static final int ERROR_COUNT = 14;
+    private static final int MAX_THREADS = 15;
+    private static final int CURRENT_THREADS = 16;
+    private static final int CURRENT_THREADS_BUSY = 17;
+    private static final int ACTIVE_CONNECTIONS = 18;
+    private static final int IDLE_CONNECTIONS = 19;
+    private static final int TOTAL_CONNECTIONS = 20;
+    private static final int THREADS_AWAITING_CONNECTION = 21;
+
+    static final int COLUMNS = 22;
+
+    private final String agentName;
+
+    private final int slots;
+
+    private final long[] bucketStarts;
+
+    private final int[] samples;
+
+    private final double[] sums;
+
+    private Instant agentBootTime;
+
+    private String agentVersion;
+
+    private long firstBucket = Long.MAX_VALUE;
+
+    private long lastBucket = EMPTY;
+
+    RecentMetricBuffer(final String agentName, final int slots) {
+        this.agentName = agentName;
+        this.slots = slots;
+        this.bucketStarts = new long[slots];
+        this.samples = new int[slots];
+        this.sums = new double[slots * COLUMNS];
+        Arrays.fill(bucketStarts, EMPTY);
+    }
+
+    synchronized void add(final AgentMetadata metadata, final SystemMetricMeasurement measurement) {
+
+        long bucket = bucketOf(measurement.time().toEpochMilli(), BUCKET_MILLIS);
+
+        if (lastBucket != EMPTY && bucket <= lastBucket - slots * BUCKET_MILLIS) {
+            return;
+        }
+
+        int slot = Math.floorMod(bucket / BUCKET_MILLIS, slots);
+
+        if (bucketStarts[slot] != bucket) {
+            if (bucketStarts[slot] > bucket) {
+                return;
+            }
+            bucketStarts[slot] = bucket;
+            samples[slot] = 0;
+            Arrays.fill(sums, slot * COLUMNS, (slot + 1) * COLUMNS, 0.0);
+        }
+
+        int base = slot * COLUMNS;
+        samples[slot]++;
+        sums[base + SYSTEM_CPU_LOAD] += measurement.systemCpuLoad();
+        sums[base + PROCESS_CPU_LOAD] += measurement.processCpuLoad();
+        sums[base + AVAILABLE_PROCESSORS] += measurement.availableProcessors();
+        sums[base + HEAP_INIT] += measurement.heapInit();
+        sums[base + HEAP_USED] += measurement.heapUsed();
+        sums[base + HEAP_COMMITTED] += measurement.heapCommitted();
+        sums[base + HEAP_MAX] += measurement.heapMax();
+        sums[base + THREAD_COUNT] += measurement.threadCount();
+        sums[base + PEAK_THREAD_COUNT] += measurement.peakThreadCount();
+        sums[base + TOTAL_STARTED_THREAD_COUNT] += measurement.totalStartedThreadCount();
+        sums[base + REQUEST_COUNT] += measurement.requestCount();
+        sums[base + BYTES_RECEIVED] += measurement.bytesReceived();
+        sums[base + BYTES_SENT] += measurement.bytesSent();
+        sums[base + PROCESSING_TIME] += measurement.processingTime();
+        sums[base + ERROR_COUNT] += measurement.errorCount();
+        sums[base + MAX_THREADS] += measurement.maxThreads();
+        sums[base + CURRENT_THREADS] += measurement.currentThreads();
+        sums[base + CURRENT_THREADS_BUSY] += measurement.currentThreadsBusy();
+        sums[base + ACTIVE_CONNECTIONS] += measurement.activeConnections();
+        sums[base + IDLE_CONNECTIONS] += measurement.idleConnections();
+        sums[base + TOTAL_CONNECTIONS] += measurement.totalConnections();
+        sums[base + THREADS_AWAITING_CONNECTION] += measurement.threadsAwaitingConnection();
+
+        firstBucket = Math.min(firstBucket, bucket);
+        lastBucket = Math.max(lastBucket, bucket);
+        agentBootTime = metadata.startTime();
+        agentVersion = metadata.agentVersion();
+    }
+
+    /**
+     * @return whether every bucket from {@code sinceMillis} on was received by this buffer
+     */
+    synchronized boolean covers(final long sinceMillis) {
+        return firstBucket <= sinceMillis;
+    }
+
+    synchronized boolean isStale(final long oldestMillis) {
+        return lastBucket < oldestMillis;
+    }
+
+    /**
+     * merges the buckets since {@code sinceMillis} into {@code intervalMillis} wide rows, newest first.
+     */
+    synchronized List<SystemMetricResponse> find(final long sinceMillis, final long intervalMillis, final int limit) {
+
+        List<SystemMetricResponse> rows = new ArrayList<>(limit);
+
+        if (lastBucket == EMPTY) {
+            return rows;
+        }
+
+        double[] accumulator = new double[COLUMNS];
+        long count = 0;
+        long current = EMPTY;
+
+        long oldest = Math.max(sinceMillis, lastBucket - (slots - 1) * BUCKET_MILLIS);
+
+        for (long bucket = lastBucket; bucket >= oldest && rows.size() < limit; bucket -= BUCKET_MILLIS) {
+
+            int slot = Math.floorMod(bucket / BUCKET_MILLIS, slots);
+
+            if (bucketStarts[slot] != bucket || samples[slot] == 0) {
+                continue;
+            }
+
+            long row = bucketOf(bucket, intervalMillis);
+
+            if (row != current && count > 0) {
+                rows.add(toResponse(current, accumulator, count));
+                Arrays.fill(accumulator, 0.0);
+                count = 0;
+            }
+
+            current = row;
+            count += samples[slot];
+
+            int base = slot * COLUMNS;
+            for (int column = 0; column < COLUMNS; column++) {
+                accumulator[column] += sums[base + column];
+            }
+        }
+
+        if (count > 0 && rows.size() < limit) {
+            rows.add(toResponse(current, accumulator, count));
+        }
+
+        return rows;
+    }
+
+    private SystemMetricResponse toResponse(final long bucket, final double[] sum, final long count) {
+
+        MetricDataResponse metricData = new MetricDataResponse(
+                new CpuMetricMeasurementResponse(
+                        average(sum, SYSTEM_CPU_LOAD, count),
+                        average(sum, PROCESS_CPU_LOAD, count),
+                        (int) average(sum, AVAILABLE_PROCESSORS, count)
+                ),
+                new MemoryMetricMeasurementResponse(
+                        new MemoryMetricUsageResponse(
+                                (long) average(sum, HEAP_INIT, count),
+                                (long) average(sum, HEAP_USED, count),
+                                (long) average(sum, HEAP_COMMITTED, count),
+                                (long) average(sum, HEAP_MAX, count)
+                        )
+                ),
+                new ThreadMetricMeasurementResponse(
+                        (int) average(sum, THREAD_COUNT, count),
+                        (int) average(sum, PEAK_THREAD_COUNT, count),
+                        (int) average(sum, TOTAL_STARTED_THREAD_COUNT, count)
+                ),
+                new TomcatWebServerMeasurementResponse(
+                        new TomcatWebServerRequestMeasurementResponse(
+                                (long) average(sum, REQUEST_COUNT, count),
+                                (long) average(sum, BYTES_RECEIVED, count),
+                                (long) average(sum, BYTES_SENT, count),
+                                (long) average(sum, PROCESSING_TIME, count),
+                                (long) average(sum, ERROR_COUNT, count)
+                        ),
+                        new TomcatWebServerThreadPoolMeasurementResponse(
+                                (int) average(sum, MAX_THREADS, count),
+                                (int) average(sum, CURRENT_THREADS, count),
+                                (int) average(sum, CURRENT_THREADS_BUSY, count)
+                        )
+                ),
+                new HikariCPMeasurementResponse(
+                        (int) average(sum, ACTIVE_CONNECTIONS, count),
+                        (int) average(sum, IDLE_CONNECTIONS, count),
+                        (int) average(sum, TOTAL_CONNECTIONS, count),
+                        (int) average(sum, THREADS_AWAITING_CONNECTION, count)
+                )
+        );
+
+        return SystemMetricResponse.create(
+                Instant.ofEpochMilli(bucket),
+                agentName,
+                agentBootTime,
+                agentVersion,
+                metricData
+        );
+    }
+
+    /**
+     * {@code round(x, 1)} of postgres, half away from zero, the integral columns are then truncated
+     * like the JDBC driver does when an integer is read from a numeric.
+     */
+    private static double average(final double[] sum, final int column, final long count) {
+
+        double average = sum[column] / count;
+
+        return Math.signum(average) * Math.round(Math.abs(average) * 10) / 10.0;
+    }
+
+    static long bucketOf(final long epochMillis, final long widthMillis) {
+        return Math.floorDiv(epochMillis, widthMillis) * widthMillis;
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.hot;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ygo.traffic_hunter.core.dto.request.metadata.AgentMetadata;
+import ygo.traffic_hunter.core.dto.response.metric.SystemMetricResponse;
+import ygo.traffic_hunter.core.hot.property.HotTierProperties;
+import ygo.traffic_hunter.domain.entity.SystemMetricMeasurement;
+import ygo.traffic_hunter.domain.interval.TimeInterval;
+
+/**
+ * <p>
+ * In-memory hot tier of the system metrics, one {@link RecentMetricBuffer} per agent.
+ * Samples are recorded when they are ingested, before they reach the database,
+ * and dashboard queries whose whole range lies in the window are answered from memory.
+ * </p>
+ *
+ * <h4>Fallback</h4>
+ * <p>
+ * {@link #find(TimeInterval, String, Integer)} returns empty when the range reaches past the window,
+ * when the buffer started after the range began (e.g. right after a restart)
+ * or when the agent is not buffered, the caller then reads the database.
+ * </p>
+ *
+ * <h4>Memory</h4>
+ * <p>
+ * Each buffer is a fixed number of primitive slots, see {@link HotTierProperties}.
+ * Agents without a sample in the window are dropped once {@code maxAgents} is reached.
+ * </p>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class RecentMetricStore {
+
+    private final HotTierProperties properties;
+
+    private final ConcurrentMap<String, RecentMetricBuffer> buffers = new ConcurrentHashMap<>();
+
+    public void record(final AgentMetadata metadata, final SystemMetricMeasurement measurement) {
+
+        if (!properties.enabled()) {
+            return;
+        }
+
+        RecentMetricBuffer buffer = buffers.get(metadata.agentName());
+
+        if (buffer == null) {
+            if (buffers.size() >= properties.maxAgents()) {
+                evictStale();
+
+                if (buffers.size() >= properties.maxAgents()) {
+                    return;
+                }
+            }
+
+            buffer = buffers.computeIfAbsent(metadata.agentName(), name -> new RecentMetricBuffer(name, slots()));
+        }
+
+        buffer.add(metadata, measurement);
+    }
+
+    public Optional<List<SystemMetricResponse>> find(final TimeInterval interval,
+                                                     final String agentName,
+                                                     final Integer limit) {
+
+        if (!properties.enabled() || limit == null || limit <= 0) {
+            return Optional.empty();
+        }
+
+        Duration range = interval.getDuration().multipliedBy(limit);
+        long intervalMillis = interval.getDuration().toMillis();
+
+        if (range.compareTo(properties.window()) > 0 || intervalMillis % RecentMetricBuffer.BUCKET_MILLIS != 0) {
+            return Optional.empty();
+        }
+
+        RecentMetricBuffer buffer = buffers.get(agentName);
+        long since = Instant.now().minus(range).toEpochMilli();
+
+        if (buffer == null || !buffer.covers(since)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(buffer.find(since, intervalMillis, limit));
+    }
+
+    private void evictStale() {
+
+        long oldest = Instant.now().minus(properties.window()).toEpochMilli();
+
+        buffers.values().removeIf(buffer -> buffer.isStale(oldest));
+    }
+
+    private int slots() {
+        return (int) Math.max(1, properties.window().toMillis() / RecentMetricBuffer.BUCKET_MILLIS);
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.hot.property;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * <p>
+ * Sizing of the in-memory hot tier that answers recent dashboard queries without the database.
+ * </p>
+ *
+ * <p>
+ * Every agent costs {@code window / 5s} buckets of one {@code long}, one {@code int}
+ * and 22 {@code double} values, about 22 KB for the default 10 minute window.
+ * </p>
+ *
+ * @param enabled   whether system metrics are kept in memory and served from there
+ * @param window    how far back the hot tier reaches, older ranges are read from the database
+ * @param maxAgents upper bound of buffered agents, further agents are read from the database
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@ConfigurationProperties("ingest.hot-tier")
+public record HotTierProperties(
+
+        @DefaultValue("true") boolean enabled,
+
+        @DefaultValue("10m") Duration window,
+
+        @DefaultValue("1024") int maxAgents
+) {
+}
@@ -0,0 +1,81 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.log;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Position in the log search result, which is ordered by {@code (time, id)} descending.
+ * <p>
+ * Like the transaction cursor, a page starts right after the cursor so the database seeks into the index
+ * instead of skipping rows. The id breaks ties between logs written within the same microsecond.
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+public record LogCursor(Instant time, long id) {
+
+    private static final int TOKEN_BYTES = Long.BYTES * 2;
+
+    public static LogCursor decode(final String token) {
+
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("invalid log cursor: " + token, e);
+        }
+
+        if (bytes.length != TOKEN_BYTES) {
+            throw new InvalidCursorException("invalid log cursor: " + token);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        return new LogCursor(Instant.EPOCH.plus(buffer.getLong(), ChronoUnit.MICROS), buffer.getLong());
+    }
+
+    public String encode() {
+
+        ByteBuffer buffer = ByteBuffer.allocate(TOKEN_BYTES)
+                .putLong(ChronoUnit.MICROS.between(Instant.EPOCH, time))
+                .putLong(id);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public static class InvalidCursorException extends IllegalArgumentException {
+
+        public InvalidCursorException(final String message) {
+            super(message);
+        }
+
+        public InvalidCursorException(final String message, final Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.log;
+
+import io.opentelemetry.api.logs.Severity;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Filters of the log search, every filter but the time range is optional.
+ *
+ * @param from      inclusive start of the range
+ * @param to        exclusive end of the range
+ * @param agentName only logs of this agent
+ * @param severity  only logs at this severity or above
+ * @param traceId   only logs written within this trace
+ * @param query     free text matched against the log body, web search syntax ({@code "quoted phrase"}, {@code -word}, {@code or})
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+public record LogSearchCondition(
+
+        Instant from,
+
+        Instant to,
+
+        String agentName,
+
+        Severity severity,
+
+        String traceId,
+
+        String query
+) {
+
+    public LogSearchCondition {
+
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("log search range is invalid, from = " + from + " to = " + to);
+        }
+
+        agentName = blankToNull(agentName);
+        traceId = blankToNull(traceId);
+        query = blankToNull(query);
+    }
+
+    /**
+     * severity names at or above the requested severity as they are stored, empty when all severities match.
+     */
+    public List<String> severities() {
+
+        if (severity == null || severity == Severity.UNDEFINED_SEVERITY_NUMBER) {
+            return List.of();
+        }
+
+        return Arrays.stream(Severity.values())
+                .filter(value -> value.getSeverityNumber() >= severity.getSeverityNumber())
+                .map(Severity::name)
+                .toList();
+    }
+
+    private static String blankToNull(final String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
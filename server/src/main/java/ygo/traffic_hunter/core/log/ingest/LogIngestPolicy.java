@@ -0,0 +1,337 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.log.ingest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.logs.Severity;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ygo.traffic_hunter.common.map.LogMapper;
+import ygo.traffic_hunter.core.dto.request.metadata.AgentMetadata;
+import ygo.traffic_hunter.core.dto.request.metadata.MetadataWrapper;
+import ygo.traffic_hunter.core.log.ingest.property.LogIngestProperties;
+import ygo.traffic_hunter.core.writer.BatchMeasurementWriter;
+import ygo.traffic_hunter.domain.metric.LogRecord;
+
+/**
+ * <p>
+ * The {@code LogIngestPolicy} class decides which received log records are persisted,
+ * so a chatty logger of one application cannot saturate the database.
+ * </p>
+ *
+ * <h4>Admission</h4>
+ * <ol>
+ *     <li>WARN and above are always kept.</li>
+ *     <li>Any other record takes a token from the bucket of its agent and severity (TRACE, DEBUG or INFO)
+ *     and from the bucket of its agent, it is kept while both have tokens.</li>
+ *     <li>Once a bucket is empty, a record repeating a message kept in the current window, same agent, scope,
+ *     severity and template, is only counted. The template is the body with numbers, hex values and uuids masked.</li>
+ *     <li>Any other record is dropped.</li>
+ * </ol>
+ *
+ * <p>
+ * Every {@code aggregate-window} the counted repeats are written as one record per message, the last
+ * counted occurrence with the {@value #REPEAT_COUNT} and {@value #REPEAT_TEMPLATE} attributes added.
+ * </p>
+ *
+ * <h4>Exposed Metrics</h4>
+ * <ul>
+ *     <li>{@code traffichunter.log.dropped} - records dropped by a token bucket per agent and severity.</li>
+ *     <li>{@code traffichunter.log.aggregated} - records over budget folded into a repeat count per agent and severity.</li>
+ * </ul>
+ *
+ * @see LogIngestProperties
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class LogIngestPolicy {
+
+    public static final String REPEAT_COUNT = "repeat.count";
+
+    public static final String REPEAT_TEMPLATE = "repeat.template";
+
+    private static final Pattern VARIABLE = Pattern.compile(
+            "[0-9a-fA-F]{8}(?:-[0-9a-fA-F]{4}){3}-[0-9a-fA-F]{12}|0[xX][0-9a-fA-F]+|\\d+"
+    );
+
+    private static final String MASK = "#";
+
+    private final LogIngestProperties properties;
+
+    private final LogMapper logMapper;
+
+    private final BatchMeasurementWriter writer;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, AgentBudget> budgets = new ConcurrentHashMap<>();
+
+    private final Map<RepeatKey, Repeat> repeats = new ConcurrentHashMap<>();
+
+    private final AtomicInteger patterns = new AtomicInteger();
+
+    public boolean admit(final AgentMetadata metadata, final LogRecord record) {
+        return !properties.enabled() || admit(metadata, record, System.nanoTime());
+    }
+
+    public MetadataWrapper<List<LogRecord>> admitAll(final MetadataWrapper<List<LogRecord>> batch) {
+
+        if (!properties.enabled()) {
+            return batch;
+        }
+
+        long now = System.nanoTime();
+        List<LogRecord> kept = new ArrayList<>(batch.data().size());
+
+        for (LogRecord record : batch.data()) {
+            if (admit(batch.metadata(), record, now)) {
+                kept.add(record);
+            }
+        }
+
+        return kept.size() == batch.data().size() ? batch : new MetadataWrapper<>(batch.metadata(), kept);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${ingest.log-policy.aggregate-window:10s}",
+            initialDelayString = "${ingest.log-policy.aggregate-window:10s}"
+    )
+    public void flush() {
+
+        for (MetadataWrapper<List<LogRecord>> summaries : drain()) {
+            writer.writeLogs(logMapper.mapAll(summaries));
+        }
+    }
+
+    /**
+     * ends the current window, returns the repeat summaries per agent.
+     */
+    List<MetadataWrapper<List<LogRecord>>> drain() {
+
+        Map<String, MetadataWrapper<List<LogRecord>>> summaries = new LinkedHashMap<>();
+
+        for (RepeatKey key : repeats.keySet()) {
+
+            Repeat repeat = repeats.remove(key);
+            if (repeat == null) {
+                continue;
+            }
+            patterns.decrementAndGet();
+
+            if (repeat.count == 0) {
+                continue;
+            }
+
+            summaries.computeIfAbsent(key.agentName(), agentName -> new MetadataWrapper<>(repeat.metadata, new ArrayList<>()))
+                    .data()
+                    .add(summarize(key, repeat));
+        }
+
+        return List.copyOf(summaries.values());
+    }
+
+    private boolean admit(final AgentMetadata metadata, final LogRecord record, final long now) {
+
+        Severity severity = record.severity() == null ? Severity.UNDEFINED_SEVERITY_NUMBER : record.severity();
+        if (severity.getSeverityNumber() >= Severity.WARN.getSeverityNumber()) {
+            return true;
+        }
+
+        AgentBudget budget = budgets.computeIfAbsent(metadata.agentName(), AgentBudget::new);
+        Lane lane = budget.lane(severity);
+
+        RepeatKey key = new RepeatKey(
+                metadata.agentName(),
+                record.instrumentationScopeInfo(),
+                severity,
+                template(record.body())
+        );
+
+        if (lane.bucket.tryAcquire(now)) {
+
+            if (budget.bucket.tryAcquire(now)) {
+                track(key, metadata);
+                return true;
+            }
+
+            // the agent budget is spent, the lane keeps its token for when the budget refills
+            lane.bucket.release();
+        }
+
+        if (repeats.computeIfPresent(key, (ignored, repeat) -> repeat.add(record)) != null) {
+            lane.aggregated.increment();
+            return false;
+        }
+
+        lane.dropped.increment();
+        return false;
+    }
+
+    private void track(final RepeatKey key, final AgentMetadata metadata) {
+
+        if (repeats.containsKey(key)) {
+            return;
+        }
+
+        if (patterns.incrementAndGet() > properties.maxPatterns()) {
+            patterns.decrementAndGet();
+            return;
+        }
+
+        if (repeats.putIfAbsent(key, new Repeat(metadata)) != null) {
+            patterns.decrementAndGet();
+        }
+    }
+
+    private static LogRecord summarize(final RepeatKey key, final Repeat repeat) {
+
+        LogRecord last = repeat.last;
+
+        Map<String, String> attributes = new HashMap<>();
+        if (last.attributes() != null) {
+            attributes.putAll(last.attributes());
+        }
+        int sourceSize = attributes.size();
+
+        attributes.put(REPEAT_COUNT, Long.toString(repeat.count));
+        attributes.put(REPEAT_TEMPLATE, key.template());
+
+        return new LogRecord(
+                last.resource(),
+                last.instrumentationScopeInfo(),
+                attributes,
+                last.body(),
+                last.totalAttributeCount() + attributes.size() - sourceSize,
+                last.severity(),
+                last.severityText(),
+                last.observedTimestampEpochNanos(),
+                last.timestampEpochNanos()
+        );
+    }
+
+    static String template(final String body) {
+
+        if (body == null) {
+            return "";
+        }
+
+        return VARIABLE.matcher(body).replaceAll(MASK);
+    }
+
+    private record RepeatKey(String agentName, Map<String, String> scope, Severity severity, String template) {
+    }
+
+    /**
+     * repeats of one message in the current window, only mutated inside {@link ConcurrentHashMap#computeIfPresent}.
+     */
+    private static final class Repeat {
+
+        private final AgentMetadata metadata;
+
+        private LogRecord last;
+
+        private long count;
+
+        private Repeat(final AgentMetadata metadata) {
+            this.metadata = metadata;
+        }
+
+        private Repeat add(final LogRecord record) {
+            last = record;
+            count++;
+            return this;
+        }
+    }
+
+    private final class AgentBudget {
+
+        private final TokenBucket bucket;
+
+        private final Lane trace;
+
+        private final Lane debug;
+
+        private final Lane info;
+
+        private AgentBudget(final String agentName) {
+
+            long now = System.nanoTime();
+
+            this.bucket = new TokenBucket(properties.agentRate(), properties.burst(), now);
+            this.trace = new Lane(agentName, "trace", properties.debugRate(), now);
+            this.debug = new Lane(agentName, "debug", properties.debugRate(), now);
+            this.info = new Lane(agentName, "info", properties.infoRate(), now);
+        }
+
+        private Lane lane(final Severity severity) {
+
+            int number = severity.getSeverityNumber();
+
+            if (number >= Severity.TRACE.getSeverityNumber() && number < Severity.DEBUG.getSeverityNumber()) {
+                return trace;
+            }
+            if (number >= Severity.DEBUG.getSeverityNumber() && number < Severity.INFO.getSeverityNumber()) {
+                return debug;
+            }
+            return info;
+        }
+    }
+
+    private final class Lane {
+
+        private final TokenBucket bucket;
+
+        private final Counter dropped;
+
+        private final Counter aggregated;
+
+        private Lane(final String agentName, final String severity, final int rate, final long now) {
+
+            this.bucket = new TokenBucket(rate, properties.burst(), now);
+
+            this.dropped = Counter.builder("traffichunter.log.dropped")
+                    .tag("agent", agentName)
+                    .tag("severity", severity)
+                    .register(meterRegistry);
+
+            this.aggregated = Counter.builder("traffichunter.log.aggregated")
+                    .tag("agent", agentName)
+                    .tag("severity", severity)
+                    .register(meterRegistry);
+        }
+    }
+}
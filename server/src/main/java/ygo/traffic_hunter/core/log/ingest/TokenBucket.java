@@ -1,4 +1,4 @@
-/*
+/**
  * The MIT License
  *
  * Copyright (c) 2024 traffic-hunter.org
@@ -21,44 +21,58 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
  * THE SOFTWARE.
  */
-package ygo.traffic_hunter.core.schedule;
+package ygo.traffic_hunter.core.log.ingest;
 
-import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import java.time.Duration;
 
 /**
+ * <p>
+ * A token bucket refilled continuously at {@code rate} tokens per second up to {@code rate * burst} tokens.
+ * The bucket starts full.
+ * </p>
+ *
  * @author yungwang-o
  * @version 1.1.0
  */
-public class ThreadPoolTaskSchedulerFactory {
-
-    private static final String THREAD_NAME_PREFIX = "TaskScheduler";
+final class TokenBucket {
 
-    private static final int DEFAULT_TERMINATION_SECONDS = 60;
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
 
-    private static final boolean DEFAULT_WAIT_FOR_TASKS_COMPLETION = true;
+    private final double tokensPerNano;
 
-    public static ThreadPoolTaskScheduler create() {
+    private final double capacity;
 
-        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    private double tokens;
 
-        scheduler.setThreadNamePrefix(THREAD_NAME_PREFIX);
-        scheduler.setWaitForTasksToCompleteOnShutdown(DEFAULT_WAIT_FOR_TASKS_COMPLETION);
-        scheduler.setAwaitTerminationSeconds(DEFAULT_TERMINATION_SECONDS);
-        scheduler.initialize();
+    private long refilledNanos;
 
-        return scheduler;
+    TokenBucket(final int rate, final Duration burst, final long nowNanos) {
+        this.tokensPerNano = rate / NANOS_PER_SECOND;
+        this.capacity = Math.max(1d, rate * (burst.toNanos() / NANOS_PER_SECOND));
+        this.tokens = capacity;
+        this.refilledNanos = nowNanos;
     }
 
-    public static ThreadPoolTaskScheduler create(final int poolSize) {
+    synchronized boolean tryAcquire(final long nowNanos) {
 
-        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        long elapsed = nowNanos - refilledNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            refilledNanos = nowNanos;
+        }
 
-        scheduler.setPoolSize(poolSize);
-        scheduler.setThreadNamePrefix(THREAD_NAME_PREFIX);
-        scheduler.setWaitForTasksToCompleteOnShutdown(DEFAULT_WAIT_FOR_TASKS_COMPLETION);
-        scheduler.setAwaitTerminationSeconds(DEFAULT_TERMINATION_SECONDS);
-        scheduler.initialize();
+        if (tokens < 1d) {
+            return false;
+        }
+
+        tokens -= 1d;
+        return true;
+    }
 
-        return scheduler;
+    /**
+     * gives back a token taken by {@link #tryAcquire(long)} for a log that was not kept after all.
+     */
+    synchronized void release() {
+        tokens = Math.min(capacity, tokens + 1d);
     }
 }
@@ -0,0 +1,63 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.log.ingest.property;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * <p>
+ * Admission settings of received log records, WARN and above are always kept and never counted against a budget.
+ * </p>
+ *
+ * @param enabled         applies the policy, every record is kept when disabled
+ * @param agentRate       records per second below WARN one agent may persist
+ * @param infoRate        INFO records per second one agent may persist
+ * @param debugRate       DEBUG and TRACE records per second one agent may persist
+ * @param burst           how long a full budget lasts, a bucket holds {@code rate * burst} tokens
+ * @param aggregateWindow repeats of a message over budget are counted over this window and written as one record
+ * @param maxPatterns     distinct messages tracked for aggregation at once, over this records are only rate limited
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@ConfigurationProperties("ingest.log-policy")
+public record LogIngestProperties(
+
+        @DefaultValue("true") boolean enabled,
+
+        @DefaultValue("2000") int agentRate,
+
+        @DefaultValue("1000") int infoRate,
+
+        @DefaultValue("200") int debugRate,
+
+        @DefaultValue("2s") Duration burst,
+
+        @DefaultValue("10s") Duration aggregateWindow,
+
+        @DefaultValue("10000") int maxPatterns
+) {
+}
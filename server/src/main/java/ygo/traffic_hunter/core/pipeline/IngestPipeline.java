@@ -0,0 +1,242 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.pipeline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+import ygo.traffic_hunter.core.collector.MetricCollector;
+import ygo.traffic_hunter.core.pipeline.PipelineStage.StageListener;
+import ygo.traffic_hunter.core.pipeline.SpillFile.SpillException;
+import ygo.traffic_hunter.core.pipeline.property.IngestPipelineProperties;
+import ygo.traffic_hunter.core.pipeline.property.IngestPipelineProperties.StageProperties;
+import ygo.traffic_hunter.core.pipeline.property.PartitionProperties;
+import ygo.traffic_hunter.core.writer.BatchMeasurementWriter;
+
+/**
+ * <p>
+ * The {@code IngestPipeline} class moves metric frames off the WebSocket thread.
+ * Each frame passes through stages connected by bounded queues. Every stage is split into
+ * {@code ingest.partition.count} single-threaded partitions and a frame is routed by the id
+ * of its agent, so one agent's metrics keep their order (the alarm logic relies on it)
+ * while different agents are processed in parallel.
+ * </p>
+ *
+ * <h4>Stages</h4>
+ * <pre>
+ * [WebSocket thread] → submit(agentId, ByteBuffer)
+ *    ↓
+ * [decode]  decompress, deserialize, validate  ({@link MetricCollector#decode(String, ByteBuffer)})
+ *    ↓
+ * [map]     publish the event, mapped to an entity by the event handler
+ *    ↓
+ * [persist] {@link BatchMeasurementWriter}, partitioned by agent per table
+ * </pre>
+ *
+ * <p>
+ * Only the decode stage accepts {@link OverflowPolicy#SPILL}, because raw frames are the only
+ * items that can be written to disk as they are. Each decode partition has its own spill file.
+ * </p>
+ *
+ * <h4>Exposed Metrics</h4>
+ * <ul>
+ *     <li>{@code traffichunter.pipeline.queue.size} - items waiting per stage and partition.</li>
+ *     <li>{@code traffichunter.pipeline.lag} - age of the oldest waiting item per stage and partition.</li>
+ *     <li>{@code traffichunter.pipeline.spill.bytes} - bytes spilled to disk per stage and partition.</li>
+ *     <li>{@code traffichunter.pipeline.wait} - time an item spent queued per stage.</li>
+ *     <li>{@code traffichunter.pipeline.process} - processing latency and throughput per stage.</li>
+ *     <li>{@code traffichunter.pipeline.failed} - items dropped by a failing handler per stage.</li>
+ *     <li>{@code traffichunter.pipeline.overflow} - items dropped or spilled per stage and policy.</li>
+ * </ul>
+ *
+ * @see PipelineStage
+ * @see IngestPipelineProperties
+ * @see PartitionProperties
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Slf4j
+@Component
+@DependsOn("batchMeasurementWriter")
+@RequiredArgsConstructor
+public class IngestPipeline implements StageListener {
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 10_000L;
+
+    private static final String DECODE = "decode";
+
+    private static final String MAP = "map";
+
+    private final MetricCollector collector;
+
+    private final ApplicationEventPublisher publisher;
+
+    private final IngestPipelineProperties properties;
+
+    private final PartitionProperties partitionProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    private PipelineStage<Object> mapStage;
+
+    private PipelineStage<Frame> decodeStage;
+
+    @PostConstruct
+    public void start() {
+
+        StageProperties map = properties.map();
+        StageProperties decode = properties.decode();
+
+        if (map.overflow() == OverflowPolicy.SPILL) {
+            throw new IllegalArgumentException("the map stage does not support the spill overflow policy");
+        }
+
+        mapStage = register(new PipelineStage<>(
+                MAP,
+                partitionProperties.count(),
+                map.queueCapacity(),
+                map.overflow(),
+                null,
+                publisher::publishEvent,
+                this
+        ));
+
+        decodeStage = register(new PipelineStage<>(
+                DECODE,
+                partitionProperties.count(),
+                decode.queueCapacity(),
+                decode.overflow(),
+                partition -> openSpill(DECODE + "-" + partition),
+                frame -> mapStage.offer(
+                        frame.agentId(),
+                        collector.decode(frame.agentId(), ByteBuffer.wrap(frame.payload()))
+                ),
+                this
+        ));
+    }
+
+    @PreDestroy
+    public void stop() {
+        decodeStage.close(CLOSE_TIMEOUT_MILLIS);
+        mapStage.close(CLOSE_TIMEOUT_MILLIS);
+    }
+
+    public void submit(final String agentId, final ByteBuffer byteBuffer) {
+
+        // the container may reuse the buffer once the handler returns
+        byte[] payload = new byte[byteBuffer.remaining()];
+        byteBuffer.get(payload);
+
+        decodeStage.offer(agentId, new Frame(agentId, payload));
+    }
+
+    @Override
+    public void onProcessed(final String stage, final long waitNanos, final long processNanos) {
+
+        Timer.builder("traffichunter.pipeline.wait")
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .record(waitNanos, TimeUnit.NANOSECONDS);
+
+        Timer.builder("traffichunter.pipeline.process")
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .record(processNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onFailure(final String stage, final Throwable cause) {
+
+        Counter.builder("traffichunter.pipeline.failed")
+                .tag("stage", stage)
+                .tag("exception", cause.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public void onOverflow(final String stage, final OverflowPolicy policy) {
+
+        Counter.builder("traffichunter.pipeline.overflow")
+                .tag("stage", stage)
+                .tag("policy", policy.name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private SpillFile openSpill(final String name) {
+
+        try {
+            Files.createDirectories(properties.spillDirectory());
+        } catch (IOException e) {
+            throw new SpillException("failed to create spill directory " + properties.spillDirectory(), e);
+        }
+
+        return new SpillFile(properties.spillDirectory().resolve(name + ".spill"));
+    }
+
+    private <T> PipelineStage<T> register(final PipelineStage<T> stage) {
+
+        for (int i = 0; i < stage.partitions(); i++) {
+
+            int partition = i;
+
+            Gauge.builder("traffichunter.pipeline.queue.size", stage, s -> s.size(partition))
+                    .tag("stage", stage.getName())
+                    .tag("partition", String.valueOf(partition))
+                    .register(meterRegistry);
+
+            Gauge.builder("traffichunter.pipeline.lag", stage, s -> s.lagNanos(partition))
+                    .tag("stage", stage.getName())
+                    .tag("partition", String.valueOf(partition))
+                    .baseUnit("nanoseconds")
+                    .register(meterRegistry);
+
+            Gauge.builder("traffichunter.pipeline.spill.bytes", stage, s -> s.spilled(partition))
+                    .tag("stage", stage.getName())
+                    .tag("partition", String.valueOf(partition))
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+
+        stage.start();
+
+        log.info("started pipeline stage {}", stage.getName());
+
+        return stage;
+    }
+}
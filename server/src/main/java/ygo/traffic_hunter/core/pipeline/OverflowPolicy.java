@@ -0,0 +1,45 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.pipeline;
+
+/**
+ * <p>
+ * The {@code OverflowPolicy} enum decides what a {@link PipelineStage} does with a new item
+ * while its queue is full.
+ * </p>
+ *
+ * <ul>
+ *     <li>{@code BLOCK} - the producer waits until a worker frees a slot (backpressure).</li>
+ *     <li>{@code DROP_OLDEST} - the oldest queued item is discarded to make room.</li>
+ *     <li>{@code SPILL} - the item is appended to a {@link Spill} and replayed once the stage is idle.</li>
+ * </ul>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+public enum OverflowPolicy {
+    BLOCK,
+    DROP_OLDEST,
+    SPILL
+}
@@ -0,0 +1,309 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.pipeline;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * The {@code PipelineStage} class is one step of the ingest pipeline. The stage is split into
+ * partitions, each a bounded queue drained by exactly one worker thread, and every item is routed
+ * to a partition by its key. Items with the same key (the agent id) are therefore handled
+ * in the order they were offered, while different keys are processed in parallel
+ * without sharing a lock.
+ * </p>
+ *
+ * <h4>Overflow</h4>
+ * <p>
+ * What {@link #offer(Object, Object)} does while a partition queue is full is decided by the
+ * {@link OverflowPolicy}. With {@link OverflowPolicy#SPILL} the item goes to the partition's
+ * {@link Spill}. Once a partition has spilled, later items follow into the spill until the worker
+ * has replayed it, so spilling never reorders a key.
+ * </p>
+ *
+ * <p>
+ * A failing handler is reported to the {@link StageListener} and the item is dropped,
+ * so one bad payload cannot stall the partition.
+ * </p>
+ *
+ * @param <T> item type
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Slf4j
+public class PipelineStage<T> {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100L;
+
+    private final String name;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final Consumer<T> handler;
+
+    private final StageListener listener;
+
+    private final List<Partition> partitions;
+
+    private volatile boolean running = true;
+
+    public PipelineStage(final String name,
+                         final int partitions,
+                         final int capacity,
+                         final OverflowPolicy overflowPolicy,
+                         final IntFunction<Spill<T>> spillFactory,
+                         final Consumer<T> handler,
+                         final StageListener listener) {
+
+        if (partitions <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("partitions and capacity must be positive");
+        }
+
+        if (overflowPolicy == OverflowPolicy.SPILL && spillFactory == null) {
+            throw new IllegalArgumentException("stage " + name + " has no spill for the spill policy");
+        }
+
+        this.name = name;
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy);
+        this.handler = handler;
+        this.listener = listener;
+        this.partitions = new ArrayList<>(partitions);
+
+        for (int i = 0; i < partitions; i++) {
+            Spill<T> spill = overflowPolicy == OverflowPolicy.SPILL ? spillFactory.apply(i) : null;
+            this.partitions.add(new Partition(i, capacity, spill));
+        }
+    }
+
+    public void start() {
+        partitions.forEach(partition -> partition.worker.start());
+    }
+
+    public void offer(final Object key, final T item) {
+
+        if (!running) {
+            throw new IllegalStateException("pipeline stage " + name + " is closed");
+        }
+
+        partitions.get(partitionOf(key, partitions.size())).offer(item);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int partitions() {
+        return partitions.size();
+    }
+
+    public int size(final int partition) {
+        return partitions.get(partition).queue.size();
+    }
+
+    public long spilled(final int partition) {
+        Spill<T> spill = partitions.get(partition).spill;
+        return spill == null ? 0 : spill.size();
+    }
+
+    /**
+     * @return how long the oldest queued item of the partition has been waiting
+     */
+    public long lagNanos(final int partition) {
+        Pending<T> head = partitions.get(partition).queue.peek();
+        return head == null ? 0 : System.nanoTime() - head.enqueuedAt();
+    }
+
+    /**
+     * stops accepting items, drains what is queued and waits for the workers to finish.
+     * spilled items are kept by the {@link Spill} for the next start.
+     */
+    public void close(final long timeoutMillis) {
+
+        running = false;
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        for (Partition partition : partitions) {
+            partition.close(deadline);
+        }
+    }
+
+    /**
+     * maps a key onto one of {@code partitions} partitions, the same key always onto the same one.
+     */
+    public static int partitionOf(final Object key, final int partitions) {
+
+        int hash = Objects.hashCode(key);
+
+        // spread the high bits, sequential ids would otherwise only use the low ones
+        return Math.floorMod(hash ^ (hash >>> 16), partitions);
+    }
+
+    private void process(final T item, final long waitNanos) {
+
+        long start = System.nanoTime();
+
+        try {
+            handler.accept(item);
+            listener.onProcessed(name, waitNanos, System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            log.error("pipeline stage {} failed to process an item = {}", name, e.getMessage());
+            listener.onFailure(name, e);
+        }
+    }
+
+    private final class Partition {
+
+        private final int index;
+
+        private final BlockingQueue<Pending<T>> queue;
+
+        private final Spill<T> spill;
+
+        private final Thread worker;
+
+        private Partition(final int index, final int capacity, final Spill<T> spill) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.spill = spill;
+            this.worker = Thread.ofPlatform()
+                    .name("Pipeline-" + name + "-" + index)
+                    .daemon(true)
+                    .unstarted(this::run);
+        }
+
+        private void offer(final T item) {
+
+            Pending<T> pending = new Pending<>(item, System.nanoTime());
+
+            switch (overflowPolicy) {
+                case BLOCK -> put(pending);
+                case DROP_OLDEST -> {
+                    while (!queue.offer(pending)) {
+                        if (queue.poll() != null) {
+                            listener.onOverflow(name, overflowPolicy);
+                        }
+                    }
+                }
+                case SPILL -> {
+                    if (spill.size() > 0 || !queue.offer(pending)) {
+                        spill.write(item);
+                        listener.onOverflow(name, overflowPolicy);
+                    }
+                }
+            }
+        }
+
+        private void put(final Pending<T> pending) {
+            try {
+                queue.put(pending);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while enqueueing into " + name, e);
+            }
+        }
+
+        private void run() {
+
+            while (running || !queue.isEmpty()) {
+
+                Pending<T> pending;
+
+                try {
+                    pending = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+
+                if (pending != null) {
+                    process(pending.item(), System.nanoTime() - pending.enqueuedAt());
+                    continue;
+                }
+
+                replay();
+            }
+        }
+
+        private void replay() {
+
+            if (spill == null) {
+                return;
+            }
+
+            while (running && queue.isEmpty()) {
+
+                T item = spill.read();
+
+                if (item == null) {
+                    return;
+                }
+
+                process(item, 0L);
+            }
+        }
+
+        private void close(final long deadline) {
+
+            try {
+                worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (!queue.isEmpty()) {
+                log.warn("pipeline stage {}-{} closed with {} items not processed", name, index, queue.size());
+            }
+
+            if (spill != null) {
+                try {
+                    spill.close();
+                } catch (IOException e) {
+                    log.warn("failed to close the spill of pipeline stage {}-{} = {}", name, index, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private record Pending<T>(T item, long enqueuedAt) {
+    }
+
+    public interface StageListener {
+
+        void onProcessed(String stage, long waitNanos, long processNanos);
+
+        void onFailure(String stage, Throwable cause);
+
+        void onOverflow(String stage, OverflowPolicy policy);
+    }
+}
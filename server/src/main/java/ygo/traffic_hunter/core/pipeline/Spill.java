@@ -0,0 +1,49 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.pipeline;
+
+import java.io.Closeable;
+
+/**
+ * <p>
+ * The {@code Spill} interface is the overflow store of a {@link PipelineStage} running with
+ * {@link OverflowPolicy#SPILL}. Items written while the stage queue is full are read back
+ * in the same order when the stage has nothing else to do.
+ * </p>
+ *
+ * @param <T> item type
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+public interface Spill<T> extends Closeable {
+
+    void write(T item);
+
+    /**
+     * @return the oldest spilled item, or {@code null} if nothing is spilled
+     */
+    T read();
+
+    long size();
+}
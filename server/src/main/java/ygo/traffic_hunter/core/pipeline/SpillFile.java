@@ -0,0 +1,203 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.pipeline;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * The {@code SpillFile} class is a {@link Spill} of raw {@link Frame}s backed by an append-only file.
+ * Every frame is stored as two 4-byte lengths followed by the agent id (UTF-8) and the payload.
+ * </p>
+ *
+ * <p>
+ * The file is truncated whenever it has been read to the end, so it only grows while the
+ * stage stays saturated. Frames left over by a previous run are replayed after a restart;
+ * a torn record at the tail (crash during a write) is discarded.
+ * </p>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Slf4j
+public class SpillFile implements Spill<Frame> {
+
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private final Path path;
+
+    private final FileChannel channel;
+
+    private long readPosition;
+
+    private long writePosition;
+
+    public SpillFile(final Path path) {
+
+        this.path = path;
+
+        try {
+            this.channel = FileChannel.open(
+                    path,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE
+            );
+            this.writePosition = channel.size();
+        } catch (IOException e) {
+            throw new SpillException("failed to open spill file " + path, e);
+        }
+
+        if (writePosition > 0) {
+            log.info("found {} bytes spilled by a previous run in {}", writePosition, path);
+        }
+    }
+
+    @Override
+    public synchronized void write(final Frame frame) {
+
+        byte[] agentId = frame.agentId().getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(0, agentId.length)
+                .putInt(Integer.BYTES, frame.payload().length);
+
+        try {
+            writePosition += writeFully(header, writePosition);
+            writePosition += writeFully(ByteBuffer.wrap(agentId), writePosition);
+            writePosition += writeFully(ByteBuffer.wrap(frame.payload()), writePosition);
+        } catch (IOException e) {
+            throw new SpillException("failed to write spill file " + path, e);
+        }
+    }
+
+    @Override
+    public synchronized Frame read() {
+
+        if (readPosition >= writePosition) {
+            return null;
+        }
+
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+
+            if (!readFully(header, readPosition)) {
+                return discardTail();
+            }
+
+            int agentIdLength = header.getInt(0);
+            int payloadLength = header.getInt(Integer.BYTES);
+            long recordLength = (long) HEADER_BYTES + agentIdLength + payloadLength;
+
+            if (agentIdLength < 0 || payloadLength < 0 || readPosition + recordLength > writePosition) {
+                return discardTail();
+            }
+
+            ByteBuffer agentId = ByteBuffer.allocate(agentIdLength);
+            ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+
+            if (!readFully(agentId, readPosition + HEADER_BYTES)
+                    || !readFully(payload, readPosition + HEADER_BYTES + agentIdLength)) {
+                return discardTail();
+            }
+
+            readPosition += recordLength;
+
+            if (readPosition == writePosition) {
+                reset();
+            }
+
+            return new Frame(new String(agentId.array(), StandardCharsets.UTF_8), payload.array());
+        } catch (IOException e) {
+            throw new SpillException("failed to read spill file " + path, e);
+        }
+    }
+
+    @Override
+    public synchronized long size() {
+        return writePosition - readPosition;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.force(false);
+        channel.close();
+    }
+
+    private int writeFully(final ByteBuffer buffer, final long position) throws IOException {
+
+        int written = 0;
+
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+
+        return written;
+    }
+
+    private boolean readFully(final ByteBuffer buffer, final long position) throws IOException {
+
+        int read = 0;
+
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + read);
+
+            if (n < 0) {
+                return false;
+            }
+
+            read += n;
+        }
+
+        return true;
+    }
+
+    private Frame discardTail() throws IOException {
+
+        log.warn("discarding {} bytes of a torn record in {}", writePosition - readPosition, path);
+
+        reset();
+
+        return null;
+    }
+
+    private void reset() throws IOException {
+        channel.truncate(0);
+        readPosition = 0;
+        writePosition = 0;
+    }
+
+    public static class SpillException extends RuntimeException {
+
+        public SpillException(final String message, final Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.pipeline.property;
+
+import java.nio.file.Path;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import ygo.traffic_hunter.core.pipeline.OverflowPolicy;
+
+/**
+ * @param decode         stage that decompresses, deserializes and validates raw frames
+ * @param map            stage that maps decoded metrics and hands them to the writer
+ * @param spillDirectory directory holding the spill files of stages using {@code spill}
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@ConfigurationProperties("ingest.pipeline")
+public record IngestPipelineProperties(
+
+        @DefaultValue StageProperties decode,
+
+        @DefaultValue StageProperties map,
+
+        @DefaultValue("spill") Path spillDirectory
+) {
+
+    /**
+     * @param queueCapacity maximum number of items queued in front of each partition of the stage
+     * @param overflow      what happens to a new item while a partition queue is full
+     */
+    public record StageProperties(
+
+            @DefaultValue("10000") int queueCapacity,
+
+            @DefaultValue("block") OverflowPolicy overflow
+    ) {
+    }
+}
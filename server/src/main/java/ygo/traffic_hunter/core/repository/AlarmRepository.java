@@ -24,6 +24,7 @@
 package ygo.traffic_hunter.core.repository;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import java.time.Instant;
 import java.util.List;
 import ygo.traffic_hunter.core.dto.response.alarm.AlarmResponse;
 import ygo.traffic_hunter.core.dto.response.alarm.ThresholdResponse;
@@ -55,7 +56,19 @@ public interface AlarmRepository {
 
     List<DeadLetter> findAllDeadLetter();
 
-    void bulkSoftDeleteDeadLetter(List<DeadLetter> deadLetters);
+    /**
+     * pages through the undelivered dead letters in id order, starting after {@code afterId}.
+     */
+    List<DeadLetter> findPendingDeadLetters(long afterId, int limit);
+
+    void markDeadLettersDelivered(List<Long> ids);
+
+    /**
+     * replaces a dead letter kept for every sender by one dead letter per target still waiting for it.
+     */
+    void splitDeadLetter(long id, List<String> targets);
+
+    int deleteDeadLettersOlderThan(Instant time);
 
     void clearAlarm();
 
@@ -23,16 +23,17 @@
  */
 package ygo.traffic_hunter.core.repository;
 
+import java.time.Instant;
 import java.util.List;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Slice;
+import java.util.Optional;
 import ygo.traffic_hunter.core.dto.response.RealTimeMonitoringResponse;
 import ygo.traffic_hunter.core.dto.response.TransactionMetricResponse;
 import ygo.traffic_hunter.core.dto.response.metric.SystemMetricResponse;
 import ygo.traffic_hunter.core.dto.response.statistics.metric.StatisticsMetricAvgResponse;
 import ygo.traffic_hunter.core.dto.response.statistics.metric.StatisticsMetricMaxResponse;
-import ygo.traffic_hunter.core.dto.response.statistics.transaction.ServiceTransactionResponse;
+import ygo.traffic_hunter.core.dto.response.statistics.transaction.ServiceTransactionPage;
 import ygo.traffic_hunter.core.statistics.StatisticsMetricTimeRange;
+import ygo.traffic_hunter.core.statistics.TransactionCursor;
 import ygo.traffic_hunter.domain.entity.LogMeasurement;
 import ygo.traffic_hunter.domain.entity.MetricMeasurement;
 import ygo.traffic_hunter.domain.entity.TransactionMeasurement;
@@ -43,7 +44,7 @@ import ygo.traffic_hunter.domain.metric.TransactionData;
  * @author yungwang-o, JuSeong
  * @version 1.1.0
  */
-public interface MetricRepository extends AgentRepository {
+public interface MetricRepository extends AgentRepository, BulkMetricRepository {
 
     void save(MetricMeasurement metric);
 
@@ -51,6 +52,45 @@ public interface MetricRepository extends AgentRepository {
 
     void save(LogMeasurement metric);
 
+    Optional<Instant> findOldestMetricTime();
+
+    /**
+     * copies the JSONB system metrics in {@code [from, to)} into the typed table,
+     * skipping rows that are already there.
+     *
+     * @return the number of copied rows
+     */
+    int backfillSystemMetrics(Instant from, Instant to);
+
+    /**
+     * @return the time of the oldest span without a trace id column
+     */
+    Optional<Instant> findOldestUntaggedTransactionTime();
+
+    /**
+     * fills the id columns of the spans in {@code [from, to)} written before they existed
+     * and merges those spans into {@code trace_summary}.
+     *
+     * @return the number of tagged spans
+     */
+    int backfillTraceIds(Instant from, Instant to);
+
+    /**
+     * @return the time of the oldest log written before the id, severity and trace id columns existed
+     */
+    Optional<Instant> findOldestUntaggedLogTime();
+
+    /**
+     * fills the id, severity and trace id columns of the logs in {@code [from, to)} written before they existed.
+     *
+     * @return the number of filled logs
+     */
+    int backfillLogColumns(Instant from, Instant to);
+
+    boolean isBackfillCompleted(String name);
+
+    void completeBackfill(String name);
+
     List<SystemMetricResponse> findMetricsByRecentTimeAndAgentName(TimeInterval interval, String agentName,
                                                                    Integer limit);
 
@@ -59,11 +99,20 @@ public interface MetricRepository extends AgentRepository {
 
     List<TransactionData> findTxDataByRequestUri(String traceId);
 
-    Slice<ServiceTransactionResponse> findServiceTransaction(Pageable pageable);
+    /**
+     * @param cursor position after the last row of the previous page, {@code null} for the first page
+     */
+    ServiceTransactionPage findServiceTransaction(TransactionCursor cursor, int size);
 
-    StatisticsMetricMaxResponse findMaxMetricByTimeInterval(StatisticsMetricTimeRange timeRange);
+    /**
+     * @param agentName restricts the statistics to one agent, {@code null} for all agents
+     */
+    StatisticsMetricMaxResponse findMaxMetricByTimeInterval(StatisticsMetricTimeRange timeRange, String agentName);
 
-    StatisticsMetricAvgResponse findAvgMetricByTimeInterval(StatisticsMetricTimeRange timeRange);
+    /**
+     * @param agentName restricts the statistics to one agent, {@code null} for all agents
+     */
+    StatisticsMetricAvgResponse findAvgMetricByTimeInterval(StatisticsMetricTimeRange timeRange, String agentName);
 
     List<RealTimeMonitoringResponse> findRealtimeMonitoringByTimeInterval(TimeInterval timeInterval, String agentName,
                                                                           Integer limit);
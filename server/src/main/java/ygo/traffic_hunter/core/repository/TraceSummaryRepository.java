@@ -21,29 +21,22 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
  * THE SOFTWARE.
  */
-package ygo.traffic_hunter.persistence.query;
-
-import static org.jooq.impl.DSL.name;
+package ygo.traffic_hunter.core.repository;
 
+import java.time.Instant;
 import java.util.List;
-import org.jooq.Field;
-import org.jooq.SortField;
-import org.jooq.impl.DSL;
-import org.springframework.data.domain.Pageable;
+import ygo.traffic_hunter.domain.entity.TraceSummary;
 
 /**
  * @author yungwang-o
  * @version 1.1.0
  */
-public class QuerySupport {
-
-    public static List<SortField<Object>> orderByClause(final Pageable pageable) {
+public interface TraceSummaryRepository {
 
-        return pageable.getSort().stream()
-                .map(order -> {
-                    Field<Object> field = DSL.field(name(order.getProperty()));
+    /**
+     * merges partial summaries into {@code trace_summary}, one row per trace.
+     */
+    void upsertAll(List<TraceSummary> summaries);
 
-                    return order.isAscending() ? field.asc() : field.desc();
-                }).toList();
-    }
+    int deleteOlderThan(Instant time);
 }
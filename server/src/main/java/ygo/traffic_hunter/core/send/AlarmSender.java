@@ -23,6 +23,7 @@
  */
 package ygo.traffic_hunter.core.send;
 
+import java.time.Duration;
 import ygo.traffic_hunter.core.alarm.message.Message;
 
 /**
@@ -33,6 +34,28 @@ public interface AlarmSender {
 
     void send(Message message);
 
+    /**
+     * names the sender in the dead letters, so a replay only goes to the sender that lost the message.
+     */
+    default String target() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * tells whether {@link #send(Message)} would reach anyone right now, a sender that would drop
+     * the message silently answers {@code false} so its dead letters are kept for a later replay.
+     */
+    default boolean canSend() {
+        return true;
+    }
+
+    /**
+     * sends a dead letter again, a failure is reported by throwing instead of being kept as a new dead letter.
+     */
+    default void resend(final Message message) {
+        send(message);
+    }
+
     class AlarmException extends RuntimeException {
 
         public AlarmException() {
@@ -56,4 +79,35 @@ public interface AlarmSender {
             super(message, cause, enableSuppression, writableStackTrace);
         }
     }
+
+    /**
+     * thrown when the receiving side answered 429, {@code retryAfter} is zero when it did not say how long to wait.
+     */
+    class RateLimitException extends AlarmException {
+
+        private final Duration retryAfter;
+
+        public RateLimitException(final String retryAfterSeconds) {
+            super("rate limited, retry after = " + retryAfterSeconds);
+            this.retryAfter = parse(retryAfterSeconds);
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        private static Duration parse(final String retryAfterSeconds) {
+
+            if (retryAfterSeconds == null || retryAfterSeconds.isBlank()) {
+                return Duration.ZERO;
+            }
+
+            try {
+                double seconds = Double.parseDouble(retryAfterSeconds.trim());
+                return seconds > 0 ? Duration.ofMillis((long) Math.ceil(seconds * 1000)) : Duration.ZERO;
+            } catch (NumberFormatException e) {
+                return Duration.ZERO;
+            }
+        }
+    }
 }
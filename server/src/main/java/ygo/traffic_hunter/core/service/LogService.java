@@ -0,0 +1,54 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ygo.traffic_hunter.core.dto.response.log.LogSearchPage;
+import ygo.traffic_hunter.core.log.LogCursor;
+import ygo.traffic_hunter.core.log.LogSearchCondition;
+import ygo.traffic_hunter.core.repository.LogRepository;
+
+/**
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class LogService {
+
+    private final LogRepository logRepository;
+
+    /**
+     * @param cursor opaque token of the previous page, {@code null} for the first page
+     */
+    public LogSearchPage search(final LogSearchCondition condition, final String cursor, final int size) {
+
+        LogCursor position = cursor == null || cursor.isBlank() ? null : LogCursor.decode(cursor);
+
+        return logRepository.search(condition, position, size);
+    }
+}
@@ -32,6 +32,7 @@ import org.springframework.transaction.annotation.Transactional;
 import ygo.traffic_hunter.core.dto.response.member.MemberResponse;
 import ygo.traffic_hunter.core.identification.login.LoginHandler;
 import ygo.traffic_hunter.core.repository.MemberRepository;
+import ygo.traffic_hunter.core.sse.ServerSentEventManager;
 import ygo.traffic_hunter.domain.entity.user.Member;
 import ygo.traffic_hunter.domain.entity.user.Role;
 
@@ -49,6 +50,8 @@ public class MemberService {
 
     private final LoginHandler loginHandler;
 
+    private final ServerSentEventManager sseManager;
+
     @Transactional
     public void signUp(final String email,
                        final String password,
@@ -111,11 +114,13 @@ public class MemberService {
                 .build();
 
         memberRepository.update(updateMember);
+        sseManager.update(updateMember);
     }
 
     @Transactional
     public void delete(final Integer id) {
 
         memberRepository.deleteById(id);
+        sseManager.unregister(Member.builder().id(id).build());
     }
 }
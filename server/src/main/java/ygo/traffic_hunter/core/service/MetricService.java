@@ -18,6 +18,7 @@
  */
 package ygo.traffic_hunter.core.service;
 
+import java.util.ArrayList;
 import java.util.List;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -29,8 +30,11 @@ import ygo.traffic_hunter.core.dto.request.metadata.AgentMetadata;
 import ygo.traffic_hunter.core.dto.response.RealTimeMonitoringResponse;
 import ygo.traffic_hunter.core.dto.response.TransactionMetricResponse;
 import ygo.traffic_hunter.core.dto.response.metric.SystemMetricResponse;
+import ygo.traffic_hunter.core.hot.RecentMetricStore;
 import ygo.traffic_hunter.core.repository.MemberRepository;
 import ygo.traffic_hunter.core.repository.MetricRepository;
+import ygo.traffic_hunter.core.sse.Broadcast;
+import ygo.traffic_hunter.core.sse.BroadcastSource;
 import ygo.traffic_hunter.core.sse.ServerSentEventManager;
 import ygo.traffic_hunter.core.websocket.handler.MetricWebSocketHandler;
 import ygo.traffic_hunter.domain.entity.user.Member;
@@ -44,9 +48,7 @@ import ygo.traffic_hunter.domain.interval.TimeInterval;
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
-public class MetricService {
-
-    private static final TimeInterval DEFAULT_BROADCAST_INTERVAL = TimeInterval.REAL_TIME;
+public class MetricService implements BroadcastSource {
 
     private final MetricRepository metricRepository;
 
@@ -56,11 +58,17 @@ public class MetricService {
 
     private final MetricWebSocketHandler webSocketHandler;
 
+    private final RecentMetricStore recentMetricStore;
+
+    /**
+     * answered from the in-memory hot tier when the range is recent enough, otherwise from the database.
+     */
     public List<SystemMetricResponse> findMetricsByRecentTimeAndAgentName(final TimeInterval interval,
                                                                           final String agentName,
                                                                           final Integer limit) {
 
-        return metricRepository.findMetricsByRecentTimeAndAgentName(interval, agentName, limit);
+        return recentMetricStore.find(interval, agentName, limit)
+                .orElseGet(() -> metricRepository.findMetricsByRecentTimeAndAgentName(interval, agentName, limit));
     }
 
     public List<TransactionMetricResponse> findTxMetricsByRecentTimeAndAgentName(final TimeInterval interval,
@@ -83,35 +91,32 @@ public class MetricService {
 
         Member member = memberRepository.findById(id);
 
-        sseManager.scheduleBroadcast(
-                member,
-                DEFAULT_BROADCAST_INTERVAL,
-                () -> broadcast(id, interval, limit)
-        );
+        sseManager.scheduleBroadcast(member, new Broadcast(interval, limit));
     }
 
-    private void broadcast(final Integer id, final TimeInterval interval, final Integer limit) {
+    /**
+     * one real-time monitoring response per connected agent, computed once per tick for all subscribed clients.
+     */
+    @Override
+    public List<RealTimeMonitoringResponse> payloads(final Broadcast broadcast) {
 
-        Member member = memberRepository.findById(id);
+        List<RealTimeMonitoringResponse> responses = new ArrayList<>();
 
-        List<AgentMetadata> agents = webSocketHandler.getAgents();
+        for (AgentMetadata metadata : webSocketHandler.getAgents()) {
 
-        for (AgentMetadata metadata : agents) {
-            processMetrics(member, interval, metadata, limit);
-        }
-    }
+            List<SystemMetricResponse> metrics = findMetricsByRecentTimeAndAgentName(
+                    broadcast.interval(),
+                    metadata.agentName(),
+                    broadcast.limit()
+            );
 
-    private void processMetrics(final Member member,
-                                final TimeInterval interval,
-                                final AgentMetadata metadata,
-                                final Integer limit) {
+            RealTimeMonitoringResponse response = RealTimeMonitoringResponse.create(metrics);
 
-        List<SystemMetricResponse> metrics = findMetricsByRecentTimeAndAgentName(
-                interval,
-                metadata.agentName(),
-                limit
-        );
+            if (response != null) {
+                responses.add(response);
+            }
+        }
 
-        sseManager.send(member, RealTimeMonitoringResponse.create(metrics));
+        return responses;
     }
 }
@@ -26,17 +26,17 @@ package ygo.traffic_hunter.core.service;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ygo.traffic_hunter.core.assembler.Assembler;
 import ygo.traffic_hunter.core.assembler.span.SpanTreeNode;
 import ygo.traffic_hunter.core.dto.response.statistics.metric.StatisticsMetricAvgResponse;
 import ygo.traffic_hunter.core.dto.response.statistics.metric.StatisticsMetricMaxResponse;
-import ygo.traffic_hunter.core.dto.response.statistics.transaction.ServiceTransactionResponse;
+import ygo.traffic_hunter.core.dto.response.statistics.transaction.ServiceTransactionPage;
+import ygo.traffic_hunter.core.dto.response.statistics.transaction.SpanTreeResponse;
 import ygo.traffic_hunter.core.repository.MetricRepository;
 import ygo.traffic_hunter.core.statistics.StatisticsMetricTimeRange;
+import ygo.traffic_hunter.core.statistics.TransactionCursor;
 import ygo.traffic_hunter.domain.metric.TransactionData;
 
 /**
@@ -53,25 +53,32 @@ public class MetricStatisticsService {
 
     private final Assembler<List<TransactionData>, SpanTreeNode> assembler;
 
-    public Slice<ServiceTransactionResponse> retrieveServiceTransactions(final Pageable pageable) {
+    /**
+     * @param cursor opaque token of the previous page, {@code null} for the first page
+     */
+    public ServiceTransactionPage retrieveServiceTransactions(final String cursor, final int size) {
 
-        return metricRepository.findServiceTransaction(pageable);
+        TransactionCursor position = cursor == null || cursor.isBlank() ? null : TransactionCursor.decode(cursor);
+
+        return metricRepository.findServiceTransaction(position, size);
     }
 
-    public SpanTreeNode retrieveSpanTree(final String traceId) {
+    public SpanTreeResponse retrieveSpanTree(final String traceId) {
 
         List<TransactionData> transactionDatas = metricRepository.findTxDataByRequestUri(traceId);
 
-        return assembler.assemble(transactionDatas);
+        return SpanTreeResponse.from(assembler.assemble(transactionDatas));
     }
 
-    public StatisticsMetricMaxResponse retrieveStatisticsMaxMetric(final StatisticsMetricTimeRange timeRange) {
+    public StatisticsMetricMaxResponse retrieveStatisticsMaxMetric(final StatisticsMetricTimeRange timeRange,
+                                                                   final String agentName) {
 
-        return metricRepository.findMaxMetricByTimeInterval(timeRange);
+        return metricRepository.findMaxMetricByTimeInterval(timeRange, agentName);
     }
 
-    public StatisticsMetricAvgResponse retrieveStatisticsAvgMetric(final StatisticsMetricTimeRange timeRange) {
+    public StatisticsMetricAvgResponse retrieveStatisticsAvgMetric(final StatisticsMetricTimeRange timeRange,
+                                                                   final String agentName) {
 
-        return metricRepository.findAvgMetricByTimeInterval(timeRange);
+        return metricRepository.findAvgMetricByTimeInterval(timeRange, agentName);
     }
 }
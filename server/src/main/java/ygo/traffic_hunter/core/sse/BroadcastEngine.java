@@ -0,0 +1,193 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.sse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ygo.traffic_hunter.core.sse.ServerSentEventManager.ServerSentEventException;
+import ygo.traffic_hunter.domain.entity.user.Member;
+
+/**
+ * <p>
+ * Drives the periodic dashboard broadcast of all subscribed {@link Client}s from one shared tick.
+ * </p>
+ *
+ * <h4>Tick</h4>
+ * <ol>
+ *     <li>Subscribed clients are grouped by their {@link Broadcast}.</li>
+ *     <li>Each distinct broadcast is computed once by the {@link BroadcastSource} and diffed
+ *     against the previous tick in its {@link BroadcastState}.</li>
+ *     <li>The delta and, only if some client needs it, the snapshot are serialized once.</li>
+ *     <li>The serialized message is handed to every client of the group on a virtual thread,
+ *     the tick itself never blocks on {@code SseEmitter.send}.</li>
+ * </ol>
+ *
+ * <h4>Snapshot and Delta</h4>
+ * <p>
+ * A client that received the previous sequence gets the delta, every other client
+ * (new, resubscribed or one that skipped a tick) gets a snapshot,
+ * see {@link ygo.traffic_hunter.core.dto.response.RealTimeMonitoringUpdate}.
+ * Nothing is sent while the window does not change.
+ * </p>
+ *
+ * <h4>Slow Clients</h4>
+ * <p>
+ * A client whose previous send is still in flight skips the tick.
+ * After {@value #MAX_MISSED_TICKS} consecutive skips, or when a send fails, the client is dropped
+ * and has to subscribe again.
+ * </p>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BroadcastEngine {
+
+    private static final long TICK_MILLIS = 5_000L;
+
+    static final int MAX_MISSED_TICKS = 3;
+
+    private final Map<Member, Client> clientMap;
+
+    private final BroadcastSource source;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<Broadcast, BroadcastState> states = new ConcurrentHashMap<>();
+
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Scheduled(fixedDelay = TICK_MILLIS, initialDelay = TICK_MILLIS)
+    public void tick() {
+
+        Map<Broadcast, List<Member>> subscribers = new HashMap<>();
+
+        clientMap.forEach((member, client) -> {
+            if (client.getBroadcast() != null) {
+                subscribers.computeIfAbsent(client.getBroadcast(), broadcast -> new ArrayList<>()).add(member);
+            }
+        });
+
+        states.keySet().retainAll(subscribers.keySet());
+        subscribers.forEach(this::broadcast);
+    }
+
+    private void broadcast(final Broadcast broadcast, final List<Member> members) {
+
+        BroadcastState state = states.computeIfAbsent(broadcast, key -> new BroadcastState());
+        boolean changed;
+
+        try {
+            changed = state.update(source.payloads(broadcast));
+        } catch (RuntimeException e) {
+            log.error("failed to compute broadcast {}: {}", broadcast, e.getMessage());
+            return;
+        }
+
+        long sequence = state.sequence();
+
+        if (sequence == 0) {
+            return;
+        }
+
+        String delta = changed && state.deltaApplicable() ? write(state.delta()) : null;
+        String snapshot = null;
+
+        for (Member member : members) {
+
+            Client client = clientMap.get(member);
+
+            if (client == null || client.getDeliveredSequence() == sequence) {
+                continue;
+            }
+
+            if (delta != null && client.getDeliveredSequence() == sequence - 1) {
+                dispatch(member, client, delta, sequence);
+                continue;
+            }
+
+            if (snapshot == null) {
+                snapshot = write(state.snapshot());
+            }
+
+            dispatch(member, client, snapshot, sequence);
+        }
+    }
+
+    private void dispatch(final Member member, final Client client, final String payload, final long sequence) {
+
+        if (!client.beginSend()) {
+            if (client.missTick() >= MAX_MISSED_TICKS) {
+                drop(member, client, new ServerSentEventException("client is too slow to keep up with the broadcast"));
+            }
+            return;
+        }
+
+        sender.execute(() -> {
+            try {
+                client.sendJson(payload);
+                client.delivered(sequence);
+            } catch (ServerSentEventException e) {
+                drop(member, client, e);
+            } finally {
+                client.endSend();
+            }
+        });
+    }
+
+    private void drop(final Member member, final Client client, final ServerSentEventException cause) {
+
+        log.warn("dropping sse client of member {}: {}", member.getId(), cause.getMessage());
+
+        clientMap.remove(member, client);
+        client.getEmitter().completeWithError(cause);
+    }
+
+    private String write(final Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("failed to serialize broadcast payload", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        sender.shutdownNow();
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.sse;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import ygo.traffic_hunter.core.dto.response.RealTimeMonitoringResponse;
+import ygo.traffic_hunter.core.dto.response.RealTimeMonitoringUpdate;
+import ygo.traffic_hunter.core.dto.response.metric.SystemMetricResponse;
+
+/**
+ * <p>
+ * Last computed window of one {@link Broadcast}, shared by all of its clients.
+ * Every tick folds the new window in, keeps the buckets that are new or changed as the delta
+ * and advances the sequence if anything changed.
+ * </p>
+ *
+ * <p>
+ * A delta only carries buckets, so it cannot express an agent that left the broadcast,
+ * such a tick is sent to every client as a snapshot.
+ * </p>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+final class BroadcastState {
+
+    private long sequence;
+
+    private Map<String, Map<Instant, SystemMetricResponse>> buckets = Map.of();
+
+    private List<RealTimeMonitoringResponse> window = List.of();
+
+    private List<RealTimeMonitoringResponse> delta = List.of();
+
+    private boolean deltaApplicable;
+
+    /**
+     * @return whether the window changed since the previous tick
+     */
+    boolean update(final List<RealTimeMonitoringResponse> responses) {
+
+        Map<String, Map<Instant, SystemMetricResponse>> next = HashMap.newHashMap(responses.size());
+        List<RealTimeMonitoringResponse> changes = new ArrayList<>();
+
+        for (RealTimeMonitoringResponse response : responses) {
+
+            Map<Instant, SystemMetricResponse> previous = buckets.getOrDefault(response.agentName(), Map.of());
+            Map<Instant, SystemMetricResponse> current = HashMap.newHashMap(response.systemMetricResponses().size());
+            List<SystemMetricResponse> changed = new ArrayList<>();
+
+            for (SystemMetricResponse bucket : response.systemMetricResponses()) {
+                current.put(bucket.time(), bucket);
+
+                if (!bucket.equals(previous.get(bucket.time()))) {
+                    changed.add(bucket);
+                }
+            }
+
+            next.put(response.agentName(), current);
+
+            if (!changed.isEmpty()) {
+                changes.add(new RealTimeMonitoringResponse(
+                        response.agentName(),
+                        response.agentBootTime(),
+                        response.agentVersion(),
+                        changed
+                ));
+            }
+        }
+
+        boolean agentLeft = !next.keySet().containsAll(buckets.keySet());
+        boolean changed = agentLeft || !changes.isEmpty();
+
+        if (changed) {
+            sequence++;
+            deltaApplicable = !agentLeft && sequence > 1;
+        }
+
+        delta = changes;
+        buckets = next;
+        window = responses;
+
+        return changed;
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    /**
+     * @return whether a client that applied {@code sequence - 1} can catch up with the delta of this tick
+     */
+    boolean deltaApplicable() {
+        return deltaApplicable;
+    }
+
+    RealTimeMonitoringUpdate snapshot() {
+        return RealTimeMonitoringUpdate.snapshot(sequence, window);
+    }
+
+    RealTimeMonitoringUpdate delta() {
+        return RealTimeMonitoringUpdate.delta(sequence, delta);
+    }
+}
@@ -19,13 +19,26 @@
 package ygo.traffic_hunter.core.sse;
 
 import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
-import ygo.traffic_hunter.core.schedule.Scheduler;
 import ygo.traffic_hunter.core.sse.ServerSentEventManager.ServerSentEventException;
 
 /**
+ * <p>
+ * One subscribed dashboard. Periodic broadcasts are driven by the shared {@link BroadcastEngine},
+ * the client only remembers what it subscribed to, the last sequence it received
+ * and whether a send is still in flight.
+ * Alarms and views fanned out by the {@link ServerSentEventManager} wait in a small bounded outbox
+ * and are sent one after another.
+ * </p>
+ *
  * @author yungwang-o, JuSeong
  * @version 1.1.0
  * @see SseEmitter
@@ -34,19 +47,101 @@ import ygo.traffic_hunter.core.sse.ServerSentEventManager.ServerSentEventExcepti
 @Getter
 public class Client {
 
-    private static final int DEFAULT_INTERVAL = 5000;
+    private static final String EVENT_NAME = "sse metric sender";
+
+    static final long NOTHING_DELIVERED = -1L;
+
+    private static final int OUTBOX_CAPACITY = 64;
 
     private final SseEmitter emitter;
 
-    private final Scheduler scheduler;
+    private volatile Broadcast broadcast;
+
+    private final AtomicBoolean sending = new AtomicBoolean();
+
+    private final AtomicInteger missedTicks = new AtomicInteger();
 
-    public Client(final SseEmitter emitter, final Scheduler scheduler) {
+    private volatile long deliveredSequence = NOTHING_DELIVERED;
+
+    private volatile boolean alarm;
+
+    @Getter(AccessLevel.NONE)
+    private final Queue<Object> outbox = new ArrayBlockingQueue<>(OUTBOX_CAPACITY);
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    public Client(final SseEmitter emitter) {
+        this(emitter, false);
+    }
+
+    public Client(final SseEmitter emitter, final boolean alarm) {
         this.emitter = emitter;
-        this.scheduler = scheduler;
+        this.alarm = alarm;
+    }
+
+    /**
+     * follows the alarm setting of the member, so fan-out does not have to read the member again.
+     */
+    public void alarm(final boolean alarm) {
+        this.alarm = alarm;
+    }
+
+    /**
+     * @return {@code false} if the outbox is full
+     */
+    boolean offer(final Object data) {
+        return outbox.offer(data);
+    }
+
+    Object poll() {
+        return outbox.poll();
+    }
+
+    boolean hasPending() {
+        return !outbox.isEmpty();
     }
 
-    public void scheduleBroadcast(final Runnable runnable) {
-        scheduler.schedule(DEFAULT_INTERVAL, runnable);
+    /**
+     * @return {@code true} if the caller is now the only one draining the outbox
+     */
+    boolean startDraining() {
+        return draining.compareAndSet(false, true);
+    }
+
+    void stopDraining() {
+        draining.set(false);
+    }
+
+    /**
+     * subscribing again resets the delivered sequence, the next tick sends a snapshot.
+     */
+    public void subscribe(final Broadcast broadcast) {
+        this.deliveredSequence = NOTHING_DELIVERED;
+        this.broadcast = broadcast;
+    }
+
+    void delivered(final long sequence) {
+        this.deliveredSequence = sequence;
+    }
+
+    /**
+     * @return {@code false} if the previous send has not finished yet
+     */
+    boolean beginSend() {
+        return sending.compareAndSet(false, true);
+    }
+
+    void endSend() {
+        missedTicks.set(0);
+        sending.set(false);
+    }
+
+    /**
+     * @return the number of consecutive ticks skipped because the client was still busy
+     */
+    int missTick() {
+        return missedTicks.incrementAndGet();
     }
 
     public <T> void send(final T data) {
@@ -55,9 +150,22 @@ public class Client {
             return;
         }
 
-        SseEmitter.SseEventBuilder sseBuilder = SseEmitter.event()
-                .name("sse metric sender")
-                .data(data);
+        send(SseEmitter.event()
+                .name(EVENT_NAME)
+                .data(data));
+    }
+
+    /**
+     * sends a payload the {@link BroadcastEngine} already serialized once for all clients.
+     */
+    public void sendJson(final String json) {
+
+        send(SseEmitter.event()
+                .name(EVENT_NAME)
+                .data(json, MediaType.APPLICATION_JSON));
+    }
+
+    private void send(final SseEmitter.SseEventBuilder sseBuilder) {
 
         try {
             emitter.send(sseBuilder);
@@ -66,5 +174,4 @@ public class Client {
             throw new ServerSentEventException(e.getMessage(), e);
         }
     }
-
 }
@@ -18,6 +18,14 @@
  */
 package ygo.traffic_hunter.core.sse;
 
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -25,20 +33,30 @@ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ygo.traffic_hunter.core.alarm.loss.LossPreventionHooker;
 import ygo.traffic_hunter.core.alarm.message.Message;
 import ygo.traffic_hunter.core.alarm.message.SseMessage;
-import ygo.traffic_hunter.core.repository.MemberRepository;
-import ygo.traffic_hunter.core.schedule.Scheduler;
-import ygo.traffic_hunter.core.schedule.ThreadPoolTaskSchedulerFactory;
 import ygo.traffic_hunter.core.send.AlarmSender;
 import ygo.traffic_hunter.core.send.ViewSender;
 import ygo.traffic_hunter.domain.entity.user.Member;
-import ygo.traffic_hunter.domain.interval.TimeInterval;
-
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executors;
 
 /**
+ * <p>
+ * Registry of the connected {@link Client}s and fan-out of alarms and views to them.
+ * </p>
+ *
+ * <h4>Registry</h4>
+ * <p>
+ * The client map is kept up to date by the emitter callbacks (completion, timeout, error)
+ * and by {@link #update(Member)} / {@link #unregister(Member)} when a member changes,
+ * every client carries the alarm setting of its member, so a fan-out never reads the database.
+ * </p>
+ *
+ * <h4>Fan-out</h4>
+ * <p>
+ * A message is put into the bounded outbox of every alarm client, a client with pending messages
+ * has at most one drain task on a small dedicated executor, so an alarm storm neither starves other pools
+ * nor lets one slow client hold up the others.
+ * A message that does not fit into a full outbox, or fails to send, goes to the {@link LossPreventionHooker}.
+ * </p>
+ *
  * @author yungwnag-o, JuSeong
  * @version 1.1.0
  */
@@ -47,17 +65,28 @@ import java.util.concurrent.Executors;
 @RequiredArgsConstructor
 public class ServerSentEventManager implements AlarmSender, ViewSender {
 
-    private final Map<Member, Client> clientMap;
+    private static final int SEND_THREADS = 4;
 
-    private final MemberRepository memberRepository;
+    private static final int SEND_QUEUE_CAPACITY = 1024;
+
+    private final Map<Member, Client> clientMap;
 
     private final LossPreventionHooker lossPreventionHooker;
 
+    private final ExecutorService sendExecutor = new ThreadPoolExecutor(
+            SEND_THREADS,
+            SEND_THREADS,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(SEND_QUEUE_CAPACITY),
+            Thread.ofPlatform().name("SseSender-", 0).daemon().factory()
+    );
+
     public SseEmitter register(final Member member, final SseEmitter emitter) {
 
         log.info("registering sse emitter {}", emitter);
 
-        Client client = new Client(emitter, new Scheduler(ThreadPoolTaskSchedulerFactory.create(2)));
+        Client client = new Client(emitter, member.isAlarm());
 
         clientMap.put(member, client);
 
@@ -65,7 +94,7 @@ public class ServerSentEventManager implements AlarmSender, ViewSender {
 
         emitter.onCompletion(() -> {
             log.info("completed sse emitter {}", emitter);
-            clientMap.remove(member);
+            clientMap.remove(member, client);
         });
 
         emitter.onTimeout(() -> {
@@ -75,24 +104,56 @@ public class ServerSentEventManager implements AlarmSender, ViewSender {
 
         emitter.onError(throwable -> {
             log.error("error sse emitter {}", emitter);
+            clientMap.remove(member, client);
             throw new ServerSentEventException("sse connection error", throwable);
         });
 
         return emitter;
     }
 
-    public void scheduleBroadcast(final Member member,
-                                  final TimeInterval timeInterval,
-                                  final Runnable runnable) {
+    /**
+     * applies a changed member to its connected client.
+     */
+    public void update(final Member member) {
+
+        Client client = clientMap.get(member);
+
+        if (client != null) {
+            client.alarm(member.isAlarm());
+        }
+    }
+
+    /**
+     * closes the connection of a deleted member.
+     */
+    public void unregister(final Member member) {
+
+        Client client = clientMap.remove(member);
+
+        if (client != null) {
+            client.getEmitter().complete();
+        }
+    }
+
+    /**
+     * subscribes the member's client to the periodic broadcast of the {@link BroadcastEngine},
+     * replacing any earlier subscription of the client.
+     */
+    public void scheduleBroadcast(final Member member, final Broadcast broadcast) {
 
         if (!clientMap.containsKey(member)) {
             throw new IllegalStateException("The client with the given identification does not exist. Please subscribe first.");
         }
 
-        log.info("schedule broadcasting sse emitter {}", timeInterval);
+        log.info("schedule broadcasting sse emitter {}", broadcast);
 
         Client client = clientMap.get(member);
-        client.scheduleBroadcast(runnable);
+        client.subscribe(broadcast);
+    }
+
+    @Override
+    public String target() {
+        return SseMessage.TARGET;
     }
 
     @Override
@@ -100,6 +161,41 @@ public class ServerSentEventManager implements AlarmSender, ViewSender {
         this.asyncSendAll(SseMessage.from(message));
     }
 
+    @Override
+    public boolean canSend() {
+        return clientMap.values().stream().anyMatch(Client::isAlarm);
+    }
+
+    /**
+     * sends the dead letter to every alarm client on the caller's thread instead of the outbox,
+     * so the replay learns whether it went out. A client that fails is broken and is dropped by its emitter,
+     * the dead letter counts as delivered once one client received it.
+     */
+    @Override
+    public void resend(final Message message) {
+
+        SseMessage data = SseMessage.from(message);
+        boolean delivered = false;
+
+        for (Client client : clientMap.values()) {
+
+            if (!client.isAlarm()) {
+                continue;
+            }
+
+            try {
+                client.send(data);
+                delivered = true;
+            } catch (RuntimeException e) {
+                log.warn("failed to resend alarm to {} = {}", client.getEmitter(), e.getMessage());
+            }
+        }
+
+        if (!delivered) {
+            throw new AlarmException("no alarm client received the message");
+        }
+    }
+
     @Override
     public <T> void send(final T data) {
         this.asyncSendAll(data);
@@ -118,31 +214,64 @@ public class ServerSentEventManager implements AlarmSender, ViewSender {
         this.asyncSendAll(data);
     }
 
-    private <T> void sendAll(final T data) {
+    private <T> void asyncSendAll(final T data) {
 
-        List<Member> members = memberRepository.findAll();
+        for (Client client : clientMap.values()) {
+            if (client.isAlarm()) {
+                enqueue(client, data);
+            }
+        }
+    }
+
+    private void enqueue(final Client client, final Object data) {
+
+        if (!client.offer(data)) {
+            log.warn("sse outbox of {} is full", client.getEmitter());
+            lossPreventionHooker.hook(data);
+            return;
+        }
 
-        members.stream()
-                .filter(clientMap::containsKey)
-                .filter(Member::isAlarm)
-                .map(clientMap::get)
-                .forEach(client -> client.send(data));
+        if (!client.startDraining()) {
+            return;
+        }
+
+        try {
+            sendExecutor.execute(() -> drain(client));
+        } catch (RejectedExecutionException e) {
+            client.stopDraining();
+            hookPending(client);
+        }
     }
 
-    private <T> void asyncSendAll(final T data) {
+    private void drain(final Client client) {
+
+        do {
+            try {
+                Object data;
+                while ((data = client.poll()) != null) {
+                    try {
+                        client.send(data);
+                    } catch (RuntimeException e) {
+                        lossPreventionHooker.hook(data);
+                    }
+                }
+            } finally {
+                client.stopDraining();
+            }
+        } while (client.hasPending() && client.startDraining());
+    }
+
+    private void hookPending(final Client client) {
+
+        Object data;
+        while ((data = client.poll()) != null) {
+            lossPreventionHooker.hook(data);
+        }
+    }
 
-        List<Member> members = memberRepository.findAll();
-
-        members.stream()
-                .filter(clientMap::containsKey)
-                .filter(Member::isAlarm)
-                .map(clientMap::get)
-                .forEach(client -> CompletableFuture.runAsync(() -> client.send(data))
-                        .exceptionally(throwable -> {
-                            lossPreventionHooker.hook(data);
-                            return null;
-                        })
-                );
+    @PreDestroy
+    public void close() {
+        sendExecutor.shutdown();
     }
 
     public static class ServerSentEventException extends RuntimeException {
@@ -44,7 +44,7 @@ public enum StatisticsMetricTimeRange {
     LATEST_ONE_MONTH("1 month"),
     LATEST_TWO_MONTHS("2 month"),
     LATEST_THREE_MONTHS("3 month"),
-    LATEST_SIX_MONTHS("6 mont"),
+    LATEST_SIX_MONTHS("6 month"),
     LATEST_ONE_YEAR("1 year"),
     LATEST_TWO_YEARS("2 year"),
     LATEST_THREE_YEARS("3 year"),
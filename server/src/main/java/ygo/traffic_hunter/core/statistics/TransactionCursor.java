@@ -0,0 +1,94 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.statistics;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import ygo.traffic_hunter.common.util.TraceIds;
+
+/**
+ * Position in the service transaction list, which is ordered by {@code (time, trace_id)} descending.
+ * <p>
+ * A page starts right after the cursor, so the database seeks into the index instead of skipping rows.
+ * Clients receive the cursor as an opaque token and hand it back unchanged to fetch the next page.
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+public record TransactionCursor(Instant time, byte[] traceId) {
+
+    private static final int TRACE_ID_BYTES = 16;
+
+    private static final int TOKEN_BYTES = Long.BYTES + TRACE_ID_BYTES;
+
+    public static TransactionCursor after(final Instant time, final String traceId) {
+        return new TransactionCursor(time, TraceIds.traceId(traceId));
+    }
+
+    public static TransactionCursor decode(final String token) {
+
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("invalid transaction cursor: " + token, e);
+        }
+
+        if (bytes.length != TOKEN_BYTES) {
+            throw new InvalidCursorException("invalid transaction cursor: " + token);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        Instant time = Instant.EPOCH.plus(buffer.getLong(), ChronoUnit.MICROS);
+        byte[] traceId = new byte[TRACE_ID_BYTES];
+        buffer.get(traceId);
+
+        return new TransactionCursor(time, traceId);
+    }
+
+    /**
+     * timestamps are stored with microsecond precision, which is all the token keeps.
+     */
+    public String encode() {
+
+        ByteBuffer buffer = ByteBuffer.allocate(TOKEN_BYTES)
+                .putLong(ChronoUnit.MICROS.between(Instant.EPOCH, time))
+                .put(traceId);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public static class InvalidCursorException extends IllegalArgumentException {
+
+        public InvalidCursorException(final String message) {
+            super(message);
+        }
+
+        public InvalidCursorException(final String message, final Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
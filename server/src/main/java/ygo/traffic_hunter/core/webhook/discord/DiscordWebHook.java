@@ -27,6 +27,8 @@ import java.net.URI;
 import java.util.concurrent.atomic.AtomicBoolean;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
@@ -57,6 +59,11 @@ public class DiscordWebHook implements WebHookAlarm, AlarmSender {
         return Webhook.DISCORD;
     }
 
+    @Override
+    public String target() {
+        return getWebhook().name();
+    }
+
     @Override
     public void enable() {
 
@@ -82,10 +89,15 @@ public class DiscordWebHook implements WebHookAlarm, AlarmSender {
         return isActive.get();
     }
 
+    @Override
+    public boolean canSend() {
+        return isActive.get() && properties.discordUrl() != null && !properties.discordUrl().isEmpty();
+    }
+
     @Override
     public void send(final Message message) {
 
-        if(!isActive.get() || properties.discordUrl() == null || properties.discordUrl().isEmpty()) {
+        if(!canSend()) {
             return;
         }
 
@@ -96,8 +108,13 @@ public class DiscordWebHook implements WebHookAlarm, AlarmSender {
                 .retrieve()
                 .onStatus(HttpStatusCode::is2xxSuccessful, ((request, response) ->
                         log.info("status code = {} status = {}", response.getStatusCode(), response.getStatusText())))
-                .onStatus(HttpStatusCode::is4xxClientError, (request, response) ->
-                        log.error("status code = {} status = {}", response.getStatusCode(), response.getStatusText()))
+                .onStatus(status -> status.isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS), (request, response) -> {
+                    throw new RateLimitException(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+                })
+                .onStatus(HttpStatusCode::isError, (request, response) -> {
+                    log.error("status code = {} status = {}", response.getStatusCode(), response.getStatusText());
+                    throw new AlarmException("discord webhook failed, status code = " + response.getStatusCode());
+                })
                 .toBodilessEntity();
     }
 }
@@ -31,9 +31,11 @@ import com.slack.api.webhook.WebhookResponse;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import ygo.traffic_hunter.core.alarm.WebHookAlarm;
@@ -63,6 +65,11 @@ public class SlackWebHook implements WebHookAlarm, AlarmSender {
         return Webhook.SLACK;
     }
 
+    @Override
+    public String target() {
+        return getWebhook().name();
+    }
+
     @Override
     public void enable() {
 
@@ -88,10 +95,15 @@ public class SlackWebHook implements WebHookAlarm, AlarmSender {
         return isActive.get();
     }
 
+    @Override
+    public boolean canSend() {
+        return isActive.get() && properties.slackUrl() != null && !properties.slackUrl().isEmpty();
+    }
+
     @Override
     public void send(final Message message) {
 
-        if(!isActive.get() || properties.discordUrl() == null || properties.discordUrl().isEmpty()) {
+        if(!canSend()) {
             return;
         }
 
@@ -107,14 +119,30 @@ public class SlackWebHook implements WebHookAlarm, AlarmSender {
 
             if(httpStatus.is2xxSuccessful()) {
                 log.info("http status code = {}", httpStatus.value());
+            } else if(httpStatus == HttpStatus.TOO_MANY_REQUESTS) {
+                throw new RateLimitException(retryAfter(response.getHeaders()));
             } else if(httpStatus.is4xxClientError() || httpStatus.is5xxServerError()) {
                 log.error("http status code = {}", httpStatus.value());
+                throw new AlarmException("slack webhook failed, status code = " + httpStatus.value());
             }
         } catch (IOException e) {
             throw new AlarmException(e.getMessage(), e);
         }
     }
 
+    private String retryAfter(final Map<String, List<String>> headers) {
+
+        if (headers == null) {
+            return null;
+        }
+
+        return headers.entrySet().stream()
+                .filter(header -> HttpHeaders.RETRY_AFTER.equalsIgnoreCase(header.getKey()))
+                .flatMap(header -> header.getValue().stream())
+                .findFirst()
+                .orElse(null);
+    }
+
     private Attachment getAttachment(final Message message) {
 
         return Attachment.builder()
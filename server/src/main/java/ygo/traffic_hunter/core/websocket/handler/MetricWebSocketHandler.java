@@ -40,8 +40,9 @@ import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.BinaryWebSocketHandler;
 import ygo.traffic_hunter.common.map.AgentMapper;
-import ygo.traffic_hunter.core.collector.MetricCollector;
+import ygo.traffic_hunter.core.collector.IngestMetrics;
 import ygo.traffic_hunter.core.dto.request.metadata.AgentMetadata;
+import ygo.traffic_hunter.core.pipeline.IngestPipeline;
 import ygo.traffic_hunter.core.repository.AgentRepository;
 
 /**
@@ -55,7 +56,7 @@ public class MetricWebSocketHandler extends BinaryWebSocketHandler {
 
     private final Map<String, AgentMetadata> agentMetadataMap = new ConcurrentHashMap<>();
 
-    private final MetricCollector collector;
+    private final IngestPipeline pipeline;
 
     private final ObjectMapper objectMapper;
 
@@ -63,6 +64,8 @@ public class MetricWebSocketHandler extends BinaryWebSocketHandler {
 
     private final AgentMapper mapper;
 
+    private final IngestMetrics metrics;
+
     @Override
     public void afterConnectionEstablished(final WebSocketSession session) throws Exception {
 
@@ -84,6 +87,7 @@ public class MetricWebSocketHandler extends BinaryWebSocketHandler {
             AgentMetadata agentMetadata = objectMapper.readValue(payload, AgentMetadata.class);
 
             agentMetadataMap.put(session.getId(), agentMetadata);
+            metrics.introduced(session.getId(), agentMetadata.agentId());
 
             if(agentRepository.existsByAgentId(agentMetadata.agentId())) {
                 return;
@@ -101,7 +105,11 @@ public class MetricWebSocketHandler extends BinaryWebSocketHandler {
 
         log.info("websocket session id = {}", session.getId());
 
-        collector.collect(byteBuffer);
+        String agentId = agentIdOf(session);
+
+        metrics.received(session.getId(), agentId, byteBuffer);
+
+        pipeline.submit(agentId, byteBuffer);
     }
 
     @Override
@@ -110,6 +118,7 @@ public class MetricWebSocketHandler extends BinaryWebSocketHandler {
         log.info("Connection closed = {} {} {}", session.getId(), status.getCode(), status.getReason());
 
         agentMetadataMap.remove(session.getId());
+        metrics.closed(session.getId());
 
         session.close();
     }
@@ -117,4 +126,14 @@ public class MetricWebSocketHandler extends BinaryWebSocketHandler {
     public List<AgentMetadata> getAgents() {
         return new ArrayList<>(agentMetadataMap.values());
     }
+
+    /**
+     * partition key of the session's frames, the session id until the agent has introduced itself.
+     */
+    private String agentIdOf(final WebSocketSession session) {
+
+        AgentMetadata agentMetadata = agentMetadataMap.get(session.getId());
+
+        return agentMetadata == null ? session.getId() : agentMetadata.agentId();
+    }
 }
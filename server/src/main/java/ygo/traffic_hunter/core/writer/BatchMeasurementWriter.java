@@ -0,0 +1,219 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.writer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ygo.traffic_hunter.core.pipeline.PipelineStage;
+import ygo.traffic_hunter.core.pipeline.property.PartitionProperties;
+import ygo.traffic_hunter.core.repository.BulkMetricRepository;
+import ygo.traffic_hunter.core.writer.BatchQueue.FlushListener;
+import ygo.traffic_hunter.core.writer.property.BatchWriterProperties;
+import ygo.traffic_hunter.domain.entity.LogMeasurement;
+import ygo.traffic_hunter.domain.entity.MetricMeasurement;
+import ygo.traffic_hunter.domain.entity.SystemMetricMeasurement;
+import ygo.traffic_hunter.domain.entity.TransactionMeasurement;
+
+/**
+ * <p>
+ * The {@code BatchMeasurementWriter} class is a write-behind buffer in front of the
+ * {@link BulkMetricRepository}. Measurements are queued per table and flushed in batches,
+ * so one commit covers many rows instead of one commit per row. Depending on
+ * {@code ingest.writer.mode} a batch is written with JDBC batch inserts or PostgreSQL COPY.
+ * </p>
+ *
+ * <p>
+ * Every table is split into {@code ingest.partition.count} queues, each flushed by its own thread.
+ * A measurement is routed by its agent, so rows of one agent are written in arrival order
+ * and producers of different agents never contend on the same queue.
+ * </p>
+ *
+ * <h4>Exposed Metrics</h4>
+ * <ul>
+ *     <li>{@code traffichunter.writer.queue.size} - rows waiting per table and partition.</li>
+ *     <li>{@code traffichunter.writer.flush} - flush latency per table.</li>
+ *     <li>{@code traffichunter.writer.rows} - rows written per table.</li>
+ *     <li>{@code traffichunter.writer.failed.rows} - rows dropped by a failed flush per table.</li>
+ * </ul>
+ *
+ * @see BatchQueue
+ * @see BatchWriterProperties
+ * @see PartitionProperties
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class BatchMeasurementWriter {
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 10_000L;
+
+    private final BulkMetricRepository bulkMetricRepository;
+
+    private final BatchWriterProperties properties;
+
+    private final PartitionProperties partitionProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    private List<BatchQueue<MetricMeasurement>> metricQueues;
+
+    private List<BatchQueue<SystemMetricMeasurement>> systemMetricQueues;
+
+    private List<BatchQueue<TransactionMeasurement>> transactionQueues;
+
+    private List<BatchQueue<LogMeasurement>> logQueues;
+
+    @PostConstruct
+    public void start() {
+        metricQueues = partition("metric_measurement", bulkMetricRepository::saveAllMetrics);
+        systemMetricQueues = partition("system_metric_measurement", bulkMetricRepository::saveAllSystemMetrics);
+        transactionQueues = partition("transaction_measurement", bulkMetricRepository::saveAllTransactions);
+        logQueues = partition("log_measurement", bulkMetricRepository::saveAllLogs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        metricQueues.forEach(queue -> queue.close(CLOSE_TIMEOUT_MILLIS));
+        systemMetricQueues.forEach(queue -> queue.close(CLOSE_TIMEOUT_MILLIS));
+        transactionQueues.forEach(queue -> queue.close(CLOSE_TIMEOUT_MILLIS));
+        logQueues.forEach(queue -> queue.close(CLOSE_TIMEOUT_MILLIS));
+    }
+
+    public void write(final MetricMeasurement measurement) {
+        route(metricQueues, measurement.agentId()).put(measurement);
+    }
+
+    public void write(final SystemMetricMeasurement measurement) {
+        route(systemMetricQueues, measurement.agentId()).put(measurement);
+    }
+
+    public void write(final TransactionMeasurement measurement) {
+        route(transactionQueues, measurement.agentId()).put(measurement);
+    }
+
+    public void write(final LogMeasurement measurement) {
+        route(logQueues, measurement.agentId()).put(measurement);
+    }
+
+    /**
+     * writes a batch of one agent, the rows stay together in a single partition queue.
+     */
+    public void writeTransactions(final List<TransactionMeasurement> measurements) {
+
+        if (measurements.isEmpty()) {
+            return;
+        }
+
+        route(transactionQueues, measurements.getFirst().agentId()).putAll(measurements);
+    }
+
+    public void writeLogs(final List<LogMeasurement> measurements) {
+
+        if (measurements.isEmpty()) {
+            return;
+        }
+
+        route(logQueues, measurements.getFirst().agentId()).putAll(measurements);
+    }
+
+    private <T> BatchQueue<T> route(final List<BatchQueue<T>> queues, final Integer agentId) {
+        return queues.get(PipelineStage.partitionOf(agentId, queues.size()));
+    }
+
+    private <T> List<BatchQueue<T>> partition(final String table, final Consumer<List<T>> flusher) {
+
+        TableMeters meters = new TableMeters(table);
+
+        List<BatchQueue<T>> queues = new ArrayList<>(partitionProperties.count());
+
+        for (int i = 0; i < partitionProperties.count(); i++) {
+
+            BatchQueue<T> queue = new BatchQueue<>(
+                    table + "-" + i,
+                    properties.queueCapacity(),
+                    properties.batchSize(),
+                    properties.linger().toMillis(),
+                    flusher,
+                    meters
+            );
+
+            Gauge.builder("traffichunter.writer.queue.size", queue, BatchQueue::size)
+                    .tag("table", table)
+                    .tag("partition", String.valueOf(i))
+                    .register(meterRegistry);
+
+            queue.start();
+            queues.add(queue);
+        }
+
+        return queues;
+    }
+
+    private final class TableMeters implements FlushListener {
+
+        private final Timer flush;
+
+        private final Counter rows;
+
+        private final Counter failedRows;
+
+        private TableMeters(final String table) {
+
+            this.flush = Timer.builder("traffichunter.writer.flush")
+                    .tag("table", table)
+                    .register(meterRegistry);
+
+            this.rows = Counter.builder("traffichunter.writer.rows")
+                    .tag("table", table)
+                    .register(meterRegistry);
+
+            this.failedRows = Counter.builder("traffichunter.writer.failed.rows")
+                    .tag("table", table)
+                    .register(meterRegistry);
+        }
+
+        @Override
+        public void onFlush(final String name, final int rows, final long elapsedNanos) {
+            flush.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            this.rows.increment(rows);
+        }
+
+        @Override
+        public void onFailure(final String name, final int rows, final Throwable cause) {
+            failedRows.increment(rows);
+        }
+    }
+}
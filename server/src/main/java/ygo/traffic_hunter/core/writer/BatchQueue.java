@@ -0,0 +1,256 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.writer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * The {@code BatchQueue} class buffers rows in a bounded queue and hands them to a
+ * flush function in batches from a single dedicated thread.
+ * </p>
+ *
+ * <h4>Flush Policy</h4>
+ * <ul>
+ *     <li>A batch is flushed as soon as it reaches {@code batchSize} rows.</li>
+ *     <li>Otherwise it is flushed once the first row of the batch has waited {@code linger}.</li>
+ *     <li>Producers block in {@link #put(Object)} while the queue is full (backpressure),
+ *     {@link #offer(Object)} returns {@code false} instead.</li>
+ * </ul>
+ *
+ * <p>
+ * A failed flush is reported to the {@link FlushListener} and the batch is dropped,
+ * so a poisoned batch cannot stall the queue.
+ * </p>
+ *
+ * @param <T> row type
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Slf4j
+public class BatchQueue<T> {
+
+    private final String name;
+
+    private final BlockingQueue<T> queue;
+
+    private final int batchSize;
+
+    private final long lingerNanos;
+
+    private final Consumer<List<T>> flusher;
+
+    private final FlushListener listener;
+
+    private final Thread worker;
+
+    private volatile boolean running = true;
+
+    private volatile boolean idle = false;
+
+    public BatchQueue(final String name,
+                      final int capacity,
+                      final int batchSize,
+                      final long lingerMillis,
+                      final Consumer<List<T>> flusher,
+                      final FlushListener listener) {
+
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("capacity and batch size must be positive");
+        }
+
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.flusher = flusher;
+        this.listener = listener;
+        this.worker = Thread.ofPlatform()
+                .name("BatchQueue-" + name)
+                .daemon(true)
+                .unstarted(this::run);
+    }
+
+    public void start() {
+        worker.start();
+    }
+
+    public void put(final T row) {
+
+        if (!running) {
+            throw new IllegalStateException("batch queue " + name + " is closed");
+        }
+
+        try {
+            queue.put(row);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while enqueueing into " + name, e);
+        }
+    }
+
+    /**
+     * enqueues the row without waiting.
+     *
+     * @return {@code false} if the queue is full or closed and the row was not enqueued
+     */
+    public boolean offer(final T row) {
+        return running && queue.offer(row);
+    }
+
+    /**
+     * enqueues the rows in order, blocking while the queue is full.
+     */
+    public void putAll(final Collection<T> rows) {
+        for (T row : rows) {
+            put(row);
+        }
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * stops accepting rows, drains what is buffered and waits for the worker to finish.
+     */
+    public void close(final long timeoutMillis) {
+
+        running = false;
+
+        if (idle) {
+            worker.interrupt();
+        }
+
+        try {
+            worker.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (!queue.isEmpty()) {
+            log.warn("batch queue {} closed with {} rows not flushed", name, queue.size());
+        }
+    }
+
+    private void run() {
+
+        List<T> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                fill(batch);
+            } catch (InterruptedException e) {
+                // woken up by close(), the remaining rows are drained on the next turn
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void fill(final List<T> batch) throws InterruptedException {
+
+        if (!running) {
+            queue.drainTo(batch, batchSize);
+            return;
+        }
+
+        T first = poll(lingerNanos);
+
+        if (first == null) {
+            return;
+        }
+
+        batch.add(first);
+
+        long deadline = System.nanoTime() + lingerNanos;
+
+        while (batch.size() < batchSize) {
+
+            queue.drainTo(batch, batchSize - batch.size());
+
+            long remaining = deadline - System.nanoTime();
+
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+
+            T next = poll(remaining);
+
+            if (next == null) {
+                return;
+            }
+
+            batch.add(next);
+        }
+    }
+
+    private T poll(final long timeoutNanos) throws InterruptedException {
+
+        idle = true;
+
+        try {
+            return queue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            idle = false;
+        }
+    }
+
+    private void flush(final List<T> batch) {
+
+        // a wake-up from close() must not leak into the flush call
+        Thread.interrupted();
+
+        long start = System.nanoTime();
+
+        try {
+            flusher.accept(batch);
+            listener.onFlush(name, batch.size(), System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            log.error("failed to flush {} rows into {} = {}", batch.size(), name, e.getMessage());
+            listener.onFailure(name, batch.size(), e);
+        }
+    }
+
+    public interface FlushListener {
+
+        void onFlush(String name, int rows, long elapsedNanos);
+
+        void onFailure(String name, int rows, Throwable cause);
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.writer;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ygo.traffic_hunter.core.repository.MetricRepository;
+import ygo.traffic_hunter.core.writer.property.MetricSchemaProperties;
+
+/**
+ * <p>
+ * The {@code SystemMetricBackfill} class copies the system metrics that were written to the JSONB
+ * {@code metric_measurement} table before the dual-write started into the typed
+ * {@code system_metric_measurement} table.
+ * </p>
+ *
+ * <p>
+ * It runs once on a background thread after startup and walks the history oldest first,
+ * one {@code ingest.metric-schema.backfill.chunk} of time per statement. Rows already present
+ * in the typed table are skipped, so an interrupted backfill simply resumes on the next start.
+ * Rows newer than the startup instant are covered by the dual-write.
+ * </p>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ * @see MetricSchemaProperties
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SystemMetricBackfill {
+
+    private static final String THREAD_NAME = "system-metric-backfill";
+
+    private final MetricRepository metricRepository;
+
+    private final MetricSchemaProperties properties;
+
+    private final Instant dualWriteStartedAt = Instant.now();
+
+    private Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+
+        if (!properties.backfill().enabled() || !properties.writeTyped()) {
+            return;
+        }
+
+        worker = new Thread(() -> backfill(dualWriteStartedAt), THREAD_NAME);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * copies every JSONB row older than {@code until} that is missing from the typed table.
+     *
+     * @return the number of copied rows
+     */
+    public long backfill(final Instant until) {
+
+        Optional<Instant> oldest = metricRepository.findOldestMetricTime();
+
+        if (oldest.isEmpty()) {
+            return 0L;
+        }
+
+        long rows = 0L;
+        Instant from = oldest.get();
+
+        try {
+            while (from.isBefore(until) && !Thread.currentThread().isInterrupted()) {
+
+                Instant next = from.plus(properties.backfill().chunk());
+                Instant to = next.isBefore(until) ? next : until;
+
+                rows += metricRepository.backfillSystemMetrics(from, to);
+                from = to;
+            }
+        } catch (RuntimeException e) {
+            log.error("system metric backfill stopped at {}, {} rows copied", from, rows, e);
+            return rows;
+        }
+
+        log.info("system metric backfill copied {} rows up to {}", rows, from);
+
+        return rows;
+    }
+}
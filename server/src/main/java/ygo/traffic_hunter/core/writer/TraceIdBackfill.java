@@ -0,0 +1,127 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.writer;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ygo.traffic_hunter.core.repository.MetricRepository;
+import ygo.traffic_hunter.core.writer.property.MetricSchemaProperties;
+
+/**
+ * <p>
+ * The {@code TraceIdBackfill} class fills the {@code trace_id}, {@code span_id} and {@code parent_span_id}
+ * columns of the spans written before those columns existed, and merges them into {@code trace_summary}.
+ * </p>
+ *
+ * <p>
+ * It runs on a background thread after startup and walks the untagged spans oldest first,
+ * one {@code ingest.metric-schema.backfill.chunk} of time per statement. Once it has reached the
+ * startup instant it is recorded in the {@code backfill} table and never runs again, so spans whose
+ * trace id is not valid hex are not scanned on every start. An interrupted backfill resumes on the next start.
+ * </p>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ * @see SystemMetricBackfill
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TraceIdBackfill {
+
+    static final String NAME = "transaction_measurement.trace_id";
+
+    private static final String THREAD_NAME = "trace-id-backfill";
+
+    private final MetricRepository metricRepository;
+
+    private final MetricSchemaProperties properties;
+
+    private final Instant startedAt = Instant.now();
+
+    private Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+
+        if (!properties.backfill().enabled() || metricRepository.isBackfillCompleted(NAME)) {
+            return;
+        }
+
+        worker = new Thread(() -> backfill(startedAt), THREAD_NAME);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * tags every untagged span older than {@code until}, spans written later carry their ids already.
+     *
+     * @return the number of tagged spans
+     */
+    public long backfill(final Instant until) {
+
+        Optional<Instant> oldest = metricRepository.findOldestUntaggedTransactionTime();
+
+        long rows = 0L;
+        Instant from = oldest.orElse(until);
+
+        try {
+            while (from.isBefore(until)) {
+
+                if (Thread.currentThread().isInterrupted()) {
+                    log.info("trace id backfill interrupted at {}, {} spans tagged", from, rows);
+                    return rows;
+                }
+
+                Instant next = from.plus(properties.backfill().chunk());
+                Instant to = next.isBefore(until) ? next : until;
+
+                rows += metricRepository.backfillTraceIds(from, to);
+                from = to;
+            }
+        } catch (RuntimeException e) {
+            log.error("trace id backfill stopped at {}, {} spans tagged", from, rows, e);
+            return rows;
+        }
+
+        metricRepository.completeBackfill(NAME);
+
+        log.info("trace id backfill tagged {} spans up to {}", rows, until);
+
+        return rows;
+    }
+}
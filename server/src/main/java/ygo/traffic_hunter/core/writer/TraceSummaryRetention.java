@@ -21,42 +21,40 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
  * THE SOFTWARE.
  */
-package ygo.traffic_hunter.core.collector.processor.compress;
+package ygo.traffic_hunter.core.writer;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.util.zip.GZIPInputStream;
+import java.time.Duration;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import ygo.traffic_hunter.core.collector.processor.MetricProcessor.ChannelProcessException;
+import ygo.traffic_hunter.core.repository.TraceSummaryRepository;
 
 /**
- * unzip metric binary data.
+ * {@code trace_summary} is a plain table keyed by trace id, so it is not covered by the hypertable
+ * retention policies. This job drops summaries once their spans have aged out of
+ * {@code transaction_measurement}.
+ *
  * @author yungwang-o
- * @version 1.0.0
+ * @version 1.1.0
  */
+@Slf4j
 @Component
-public class ByteArrayMetricDecompressor {
-
-    public byte[] unzip(final byte[] data) {
-
-        byte[] copy = new byte[data.length - 1];
+@RequiredArgsConstructor
+public class TraceSummaryRetention {
 
-        System.arraycopy(data, 1, copy, 0, copy.length);
+    private static final Duration RETENTION = Duration.ofDays(365);
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    private final TraceSummaryRepository traceSummaryRepository;
 
-        try (GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(copy))) {
-            byte[] result = new byte[data.length - 1];
+    @Scheduled(cron = "0 0 3 * * *")
+    public void purge() {
 
-            int len;
-            while ((len = gzipInputStream.read(result)) != -1) {
-                baos.write(result, 0, len);
-            }
+        int deleted = traceSummaryRepository.deleteOlderThan(Instant.now().minus(RETENTION));
 
-            return baos.toByteArray();
-        } catch (IOException e) {
-            throw new ChannelProcessException(e.getMessage(), e);
+        if (deleted > 0) {
+            log.info("deleted {} expired trace summaries", deleted);
         }
     }
 }
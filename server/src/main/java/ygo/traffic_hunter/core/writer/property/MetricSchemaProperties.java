@@ -0,0 +1,95 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.core.writer.property;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * <p>
+ * Migration switches between the JSONB {@code metric_measurement} table and the typed
+ * {@code system_metric_measurement} table.
+ * </p>
+ *
+ * <h4>Migration Path</h4>
+ * <ol>
+ *     <li>{@code write=both}: every system metric is written to both tables (dual-write).</li>
+ *     <li>{@code backfill.enabled=true}: rows written before the dual-write started are copied once at startup.</li>
+ *     <li>{@code read=typed}: dashboard and statistics queries read the typed columns.</li>
+ *     <li>{@code write=typed}: the JSONB table is no longer written.</li>
+ * </ol>
+ *
+ * @param write    which table a system metric is written to
+ * @param read     which table the system metric queries read
+ * @param backfill copy of the JSONB history into the typed table and into the span id columns
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@ConfigurationProperties("ingest.metric-schema")
+public record MetricSchemaProperties(
+
+        @DefaultValue("both") WriteTarget write,
+
+        @DefaultValue("typed") ReadSource read,
+
+        @DefaultValue Backfill backfill
+) {
+
+    public boolean writeJsonb() {
+        return write != WriteTarget.TYPED;
+    }
+
+    public boolean writeTyped() {
+        return write != WriteTarget.JSONB;
+    }
+
+    public boolean readTyped() {
+        return read == ReadSource.TYPED;
+    }
+
+    /**
+     * @param enabled whether the backfill runs at startup
+     * @param chunk   time range copied per statement, bounds the size of each transaction
+     */
+    public record Backfill(
+
+            @DefaultValue("true") boolean enabled,
+
+            @DefaultValue("1h") Duration chunk
+    ) {
+    }
+
+    public enum WriteTarget {
+        JSONB,
+        BOTH,
+        TYPED
+    }
+
+    public enum ReadSource {
+        JSONB,
+        TYPED
+    }
+}
@@ -24,6 +24,8 @@
 package ygo.traffic_hunter.domain.entity;
 
 import java.time.Instant;
+import java.util.Map;
+import ygo.traffic_hunter.common.util.TraceIds;
 import ygo.traffic_hunter.domain.metric.LogRecord;
 
 /**
@@ -36,6 +38,35 @@ public record LogMeasurement(
 
         Integer agentId,
 
-        LogRecord logRecord
+        LogRecord logRecord,
+
+        String severity,
+
+        byte[] traceId
 ) {
+
+    /**
+     * derives the searched severity and the binary trace id from {@code logRecord},
+     * the trace id is read from the {@code trace_id} or {@code traceId} attribute.
+     */
+    public LogMeasurement(final Instant time, final Integer agentId, final LogRecord logRecord) {
+        this(
+                time,
+                agentId,
+                logRecord,
+                logRecord.severity() == null ? null : logRecord.severity().name(),
+                TraceIds.traceId(traceIdAttribute(logRecord.attributes()))
+        );
+    }
+
+    private static String traceIdAttribute(final Map<String, String> attributes) {
+
+        if (attributes == null) {
+            return null;
+        }
+
+        String traceId = attributes.get("trace_id");
+
+        return traceId != null ? traceId : attributes.get("traceId");
+    }
 }
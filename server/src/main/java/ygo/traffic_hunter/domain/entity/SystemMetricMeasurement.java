@@ -0,0 +1,87 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.domain.entity;
+
+import java.time.Instant;
+
+/**
+ * <p>
+ * Typed, columnar form of a {@link MetricMeasurement}, one column per dashboard value
+ * of the {@code system_metric_measurement} table.
+ * </p>
+ *
+ * <p>
+ * Garbage collection values are the sums over all collectors of the agent.
+ * </p>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+public record SystemMetricMeasurement(
+
+        Instant time,
+
+        Integer agentId,
+
+        // CPU
+        double systemCpuLoad,
+        double processCpuLoad,
+        int availableProcessors,
+
+        // Memory
+        long heapInit,
+        long heapUsed,
+        long heapCommitted,
+        long heapMax,
+        long nonHeapUsed,
+        long nonHeapCommitted,
+
+        // GC
+        long gcCollectionCount,
+        long gcCollectionTime,
+
+        // Thread
+        int threadCount,
+        int peakThreadCount,
+        long totalStartedThreadCount,
+
+        // Tomcat request
+        long requestCount,
+        long bytesReceived,
+        long bytesSent,
+        long processingTime,
+        long errorCount,
+
+        // Tomcat thread pool
+        int maxThreads,
+        int currentThreads,
+        int currentThreadsBusy,
+
+        // Hikari
+        int activeConnections,
+        int idleConnections,
+        int totalConnections,
+        int threadsAwaitingConnection
+) {
+}
@@ -0,0 +1,164 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.domain.entity;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import ygo.traffic_hunter.common.util.TraceIds;
+import ygo.traffic_hunter.domain.metric.TransactionData;
+
+/**
+ * Per-trace summary kept in {@code trace_summary}.
+ * <p>
+ * A summary built from one batch only covers the spans of that batch, the repository merges it with
+ * what is already stored. The request fields ({@code rootUri} ... {@code duration}) are only known once
+ * the root span has arrived.
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+public record TraceSummary(
+
+        byte[] traceId,
+
+        Integer agentId,
+
+        Instant time,
+
+        String rootUri,
+
+        String httpMethod,
+
+        Integer httpStatusCode,
+
+        String serverName,
+
+        Long duration,
+
+        int spanCount,
+
+        boolean error,
+
+        boolean root
+) {
+
+    /**
+     * the agent reports {@code "success"} as the exception of every span that did not fail.
+     */
+    public static final String SUCCESS = "success";
+
+    private static final int SERVER_ERROR_STATUS = 500;
+
+    /**
+     * folds the spans of a batch into one summary per trace, ordered by trace id so that concurrent
+     * upserts of the same traces always lock rows in the same order.
+     */
+    public static List<TraceSummary> summarize(final List<TransactionMeasurement> measurements) {
+
+        Map<String, TraceSummary> summaries = new LinkedHashMap<>();
+
+        for (TransactionMeasurement measurement : measurements) {
+
+            if (measurement.traceId() == null) {
+                continue;
+            }
+
+            summaries.merge(TraceIds.toHex(measurement.traceId()), of(measurement), TraceSummary::merge);
+        }
+
+        List<TraceSummary> result = new ArrayList<>(summaries.values());
+        result.sort(Comparator.comparing(summary -> summary.traceId, Arrays::compareUnsigned));
+
+        return result;
+    }
+
+    public static TraceSummary of(final TransactionMeasurement measurement) {
+
+        TransactionData data = measurement.transactionData();
+        boolean failed = data.exception() != null && !SUCCESS.equals(data.exception());
+
+        if (measurement.parentSpanId() != null) {
+            return new TraceSummary(measurement.traceId(), measurement.agentId(), measurement.time(),
+                    null, null, null, null, null, 1, failed, false);
+        }
+
+        Map<String, String> attributes = data.attributes() == null ? Map.of() : data.attributes();
+        Integer status = parseStatus(attributes.get("http.statusCode"));
+
+        return new TraceSummary(
+                measurement.traceId(),
+                measurement.agentId(),
+                measurement.time(),
+                attributes.get("http.requestURI"),
+                attributes.get("http.method"),
+                status,
+                attributes.get("http.serverName"),
+                data.duration(),
+                1,
+                failed || (status != null && status >= SERVER_ERROR_STATUS),
+                true
+        );
+    }
+
+    /**
+     * combines two partial summaries of the same trace, the root span wins the request fields and the time.
+     */
+    public TraceSummary merge(final TraceSummary other) {
+
+        TraceSummary rootSide = other.root ? other : this;
+        Instant mergedTime = root || other.root ? rootSide.time : min(time, other.time);
+
+        return new TraceSummary(
+                traceId,
+                rootSide.agentId,
+                mergedTime,
+                rootSide.rootUri,
+                rootSide.httpMethod,
+                rootSide.httpStatusCode,
+                rootSide.serverName,
+                rootSide.duration,
+                spanCount + other.spanCount,
+                error || other.error,
+                root || other.root
+        );
+    }
+
+    private static Instant min(final Instant a, final Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static Integer parseStatus(final String value) {
+
+        if (value == null || value.isEmpty() || value.length() > 3 || !value.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+
+        return Integer.parseInt(value);
+    }
+}
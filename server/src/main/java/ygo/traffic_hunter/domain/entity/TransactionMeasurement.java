@@ -24,6 +24,7 @@
 package ygo.traffic_hunter.domain.entity;
 
 import java.time.Instant;
+import ygo.traffic_hunter.common.util.TraceIds;
 import ygo.traffic_hunter.domain.metric.TransactionData;
 
 /**
@@ -36,6 +37,26 @@ public record TransactionMeasurement(
 
         Integer agentId,
 
-        TransactionData transactionData
+        TransactionData transactionData,
+
+        byte[] traceId,
+
+        byte[] spanId,
+
+        byte[] parentSpanId
 ) {
+
+    /**
+     * derives the binary trace and span ids from the hex ids of {@code transactionData}.
+     */
+    public TransactionMeasurement(final Instant time, final Integer agentId, final TransactionData transactionData) {
+        this(
+                time,
+                agentId,
+                transactionData,
+                TraceIds.traceId(transactionData.traceId()),
+                TraceIds.spanId(transactionData.spanId()),
+                TraceIds.parentSpanId(transactionData.parentSpanId())
+        );
+    }
 }
@@ -41,17 +41,28 @@ public class DeadLetter {
 
     private Message message;
 
+    /**
+     * the sender that lost the message, {@code null} when it has to be replayed to every sender.
+     */
+    private String target;
+
     private boolean isDelete;
 
     public DeadLetter(final Message message) {
+        this(message, null);
+    }
+
+    public DeadLetter(final Message message, final String target) {
         this.message = message;
+        this.target = target;
         this.isDelete = false;
     }
 
     @Builder
-    public DeadLetter(final Long id, final Message message, final boolean isDelete) {
+    public DeadLetter(final Long id, final Message message, final String target, final boolean isDelete) {
         this.id = id;
         this.message = message;
+        this.target = target;
         this.isDelete = isDelete;
     }
 }
@@ -28,12 +28,6 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import ygo.traffic_hunter.core.dto.request.systeminfo.cpu.CpuStatusInfo;
-import ygo.traffic_hunter.core.dto.request.systeminfo.dbcp.HikariDbcpInfo;
-import ygo.traffic_hunter.core.dto.request.systeminfo.memory.MemoryStatusInfo;
-import ygo.traffic_hunter.core.dto.request.systeminfo.thread.ThreadStatusInfo;
-import ygo.traffic_hunter.core.dto.request.systeminfo.web.tomcat.TomcatWebServerInfo;
-import ygo.traffic_hunter.core.dto.response.alarm.ThresholdResponse;
 
 /**
  * @author yungwang-o
@@ -107,52 +101,4 @@ public class Threshold {
 
         return false;
     }
-
-    @Builder
-    public record Calculator(
-
-            MemoryStatusInfo memoryStatusInfo,
-
-            CpuStatusInfo cpuStatusInfo,
-
-            ThreadStatusInfo threadStatusInfo,
-
-            TomcatWebServerInfo tomcatWebServerInfo,
-
-            HikariDbcpInfo hikariDbcpInfo
-    ) {
-
-        public CalculatedThreshold calculate(final ThresholdResponse threshold) {
-
-            return CalculatedThreshold.builder()
-                    .calculateCpu(threshold.cpuThreshold())
-                    .calculateMemory((long) (memoryStatusInfo.heapMemoryUsage().max() * (threshold.memoryThreshold()
-                            / 100.0)))
-                    .calculateThread(
-                            (long) (threadStatusInfo.getTotalStartThreadCount() * (threshold.threadThreshold()
-                                    / 100.0)))
-                    .calculateWebRequest(threshold.webRequestThreshold())
-                    .calculateWebThread((int) (tomcatWebServerInfo.tomcatThreadPoolInfo().maxThreads() * (
-                            threshold.webRequestThreshold() / 100.0)))
-                    .calculateDbcp((int) (hikariDbcpInfo.totalConnections() * (threshold.dbcpThreshold() / 100.0)))
-                    .build();
-        }
-    }
-
-    @Builder
-    public record CalculatedThreshold(
-
-            int calculateCpu,
-
-            long calculateMemory,
-
-            long calculateThread,
-
-            long calculateWebRequest,
-
-            int calculateWebThread,
-
-            int calculateDbcp
-    ) {
-    }
 }
@@ -23,6 +23,7 @@
  */
 package ygo.traffic_hunter.domain.interval;
 
+import java.time.Duration;
 import lombok.Getter;
 
 /**
@@ -32,25 +33,28 @@ import lombok.Getter;
 @Getter
 public enum TimeInterval {
 
-    REAL_TIME("5 seconds", 20),
-    FIVE_MINUTES("5 minutes", 50),
-    TEN_MINUTES("10 minutes", 80),
-    THIRTY_MINUTES("30 minutes", 130),
-    ONE_HOUR("1 hours", 200),
-    THREE_HOURS("3 hours", 250),
-    SIX_HOURS("6 hours", 300),
-    TWELVE_HOURS("12 hours", 350),
-    ONE_DAYS("1 days", 400),
-    TWO_DAYS("2 days", 450),
-    THREE_DAYS("3 days", 500),
+    REAL_TIME("5 seconds", Duration.ofSeconds(5), 20),
+    FIVE_MINUTES("5 minutes", Duration.ofMinutes(5), 50),
+    TEN_MINUTES("10 minutes", Duration.ofMinutes(10), 80),
+    THIRTY_MINUTES("30 minutes", Duration.ofMinutes(30), 130),
+    ONE_HOUR("1 hours", Duration.ofHours(1), 200),
+    THREE_HOURS("3 hours", Duration.ofHours(3), 250),
+    SIX_HOURS("6 hours", Duration.ofHours(6), 300),
+    TWELVE_HOURS("12 hours", Duration.ofHours(12), 350),
+    ONE_DAYS("1 days", Duration.ofDays(1), 400),
+    TWO_DAYS("2 days", Duration.ofDays(2), 450),
+    THREE_DAYS("3 days", Duration.ofDays(3), 500),
     ;
 
     private final String interval;
 
+    private final Duration duration;
+
     private final int limit;
 
-    TimeInterval(final String interval, final int limit) {
+    TimeInterval(final String interval, final Duration duration, final int limit) {
         this.interval = interval;
+        this.duration = duration;
         this.limit = limit;
     }
 }
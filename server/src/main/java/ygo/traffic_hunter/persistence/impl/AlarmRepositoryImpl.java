@@ -25,6 +25,7 @@ package ygo.traffic_hunter.persistence.impl;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
@@ -36,7 +37,7 @@ import org.jooq.Record1;
 import org.jooq.Record3;
 import org.jooq.Result;
 import org.jooq.SelectConditionStep;
-import org.jooq.UpdateConditionStep;
+import org.jooq.impl.DSL;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.traffichunter.query.jooq.tables.Agent;
@@ -182,9 +183,11 @@ public class AlarmRepositoryImpl implements AlarmRepository {
 
         int execute = dsl.insertInto(jDeadLetter,
                 jDeadLetter.DEAD_LETTER_DATA,
+                jDeadLetter.TARGET,
                 jDeadLetter.IS_DELETE
         ).values(
                 JSONB.jsonb(objectMapper.writeValueAsString(deadLetter.getMessage())),
+                deadLetter.getTarget(),
                 deadLetter.isDelete()
         ).execute();
 
@@ -201,31 +204,80 @@ public class AlarmRepositoryImpl implements AlarmRepository {
                 .fetch();
 
         return result.stream()
-                .map(rst -> {
-                    try {
-                        return DeadLetter.builder()
-                                .id(rst.getId())
-                                .message(objectMapper.readValue(rst.getDeadLetterData().data(), Message.class))
-                                .isDelete(rst.getIsDelete())
-                                .build();
-                    } catch (JsonProcessingException e) {
-                        throw new AlarmException("dead letter json deserialization failed", e);
-                    }
-                })
+                .map(this::toDeadLetter)
+                .toList();
+    }
+
+    @Override
+    public List<DeadLetter> findPendingDeadLetters(final long afterId, final int limit) {
+
+        Result<DeadLetterRecord> result = dsl.selectFrom(jDeadLetter)
+                .where(jDeadLetter.IS_DELETE.eq(false))
+                .and(jDeadLetter.ID.gt(afterId))
+                .orderBy(jDeadLetter.ID)
+                .limit(limit)
+                .fetch();
+
+        return result.stream()
+                .map(this::toDeadLetter)
                 .toList();
     }
 
     @Override
     @Transactional
-    public void bulkSoftDeleteDeadLetter(final List<DeadLetter> deadLetters) {
+    public void markDeadLettersDelivered(final List<Long> ids) {
+
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        dsl.update(jDeadLetter)
+                .set(jDeadLetter.IS_DELETE, true)
+                .where(jDeadLetter.ID.in(ids))
+                .execute();
+    }
+
+    @Override
+    @Transactional
+    public void splitDeadLetter(final long id, final List<String> targets) {
+
+        for (String target : targets) {
+            dsl.insertInto(jDeadLetter,
+                    jDeadLetter.DEAD_LETTER_DATA,
+                    jDeadLetter.TARGET,
+                    jDeadLetter.IS_DELETE,
+                    jDeadLetter.CREATED_AT
+            ).select(
+                    dsl.select(jDeadLetter.DEAD_LETTER_DATA, DSL.val(target), DSL.val(false), jDeadLetter.CREATED_AT)
+                            .from(jDeadLetter)
+                            .where(jDeadLetter.ID.eq(id))
+            ).execute();
+        }
+
+        markDeadLettersDelivered(List.of(id));
+    }
+
+    @Override
+    @Transactional
+    public int deleteDeadLettersOlderThan(final Instant time) {
 
-        List<UpdateConditionStep<DeadLetterRecord>> results = deadLetters.stream()
-                .map(deadLetter -> dsl.update(jDeadLetter)
-                        .set(jDeadLetter.IS_DELETE, true)
-                        .where(jDeadLetter.ID.eq(deadLetter.getId()))
-                ).toList();
+        return dsl.deleteFrom(jDeadLetter)
+                .where(jDeadLetter.CREATED_AT.lt(time.atOffset(ZoneOffset.UTC)))
+                .execute();
+    }
 
-        dsl.batch(results).execute();
+    private DeadLetter toDeadLetter(final DeadLetterRecord rst) {
+
+        try {
+            return DeadLetter.builder()
+                    .id(rst.getId())
+                    .message(objectMapper.readValue(rst.getDeadLetterData().data(), Message.class))
+                    .target(rst.getTarget())
+                    .isDelete(rst.getIsDelete())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new AlarmException("dead letter json deserialization failed", e);
+        }
     }
 
     @Override
@@ -0,0 +1,328 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.persistence.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ygo.traffic_hunter.core.repository.BulkMetricRepository;
+import ygo.traffic_hunter.core.repository.TraceSummaryRepository;
+import ygo.traffic_hunter.domain.entity.LogMeasurement;
+import ygo.traffic_hunter.domain.entity.MetricMeasurement;
+import ygo.traffic_hunter.domain.entity.SystemMetricMeasurement;
+import ygo.traffic_hunter.domain.entity.TraceSummary;
+import ygo.traffic_hunter.domain.entity.TransactionMeasurement;
+import ygo.traffic_hunter.persistence.impl.TimeSeriesRepository.ObservabilityNotFoundException;
+
+/**
+ * <p>
+ * The {@code CopyMetricRepository} class writes measurement batches through the PostgreSQL
+ * {@code COPY ... FROM STDIN} protocol (text format) instead of {@code INSERT} statements.
+ * </p>
+ *
+ * <p>
+ * Rows are serialized by Jackson straight into the copy stream, so no intermediate JSON
+ * {@code String} is built per row. It is enabled with {@code ingest.writer.mode=copy}
+ * and then takes precedence over the insert path of {@link TimeSeriesRepository}.
+ * </p>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Slf4j
+@Primary
+@Repository
+@ConditionalOnProperty(name = "ingest.writer.mode", havingValue = "copy")
+public class CopyMetricRepository implements BulkMetricRepository {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final DataSource dataSource;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter objectWriter;
+
+    private final TraceSummaryRepository traceSummaryRepository;
+
+    public CopyMetricRepository(final DataSource dataSource,
+                                final ObjectMapper objectMapper,
+                                final TraceSummaryRepository traceSummaryRepository) {
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.traceSummaryRepository = traceSummaryRepository;
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    @Transactional
+    public void saveAllMetrics(final List<MetricMeasurement> metrics) {
+
+        String sql = "copy metric_measurement (time, agent_id, metric_data) from stdin";
+
+        copy(sql, metrics, MetricMeasurement::time, MetricMeasurement::agentId, MetricMeasurement::metricData);
+    }
+
+    @Override
+    @Transactional
+    public void saveAllSystemMetrics(final List<SystemMetricMeasurement> metrics) {
+
+        if (metrics.isEmpty()) {
+            return;
+        }
+
+        String sql = "copy system_metric_measurement ("
+                + "time, agent_id, "
+                + "system_cpu_load, process_cpu_load, available_processors, "
+                + "heap_init, heap_used, heap_committed, heap_max, non_heap_used, non_heap_committed, "
+                + "gc_collection_count, gc_collection_time, "
+                + "thread_count, peak_thread_count, total_started_thread_count, "
+                + "request_count, bytes_received, bytes_sent, processing_time, error_count, "
+                + "max_threads, current_threads, current_threads_busy, "
+                + "active_connections, idle_connections, total_connections, threads_awaiting_connection) "
+                + "from stdin";
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+
+        try {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+            try (PGCopyOutputStream copyStream = new PGCopyOutputStream(pgConnection, sql, COPY_BUFFER_SIZE)) {
+
+                StringBuilder line = new StringBuilder(256);
+
+                for (SystemMetricMeasurement metric : metrics) {
+                    line.setLength(0);
+                    line.append(metric.time()).append('\t')
+                            .append(metric.agentId()).append('\t')
+                            .append(metric.systemCpuLoad()).append('\t')
+                            .append(metric.processCpuLoad()).append('\t')
+                            .append(metric.availableProcessors()).append('\t')
+                            .append(metric.heapInit()).append('\t')
+                            .append(metric.heapUsed()).append('\t')
+                            .append(metric.heapCommitted()).append('\t')
+                            .append(metric.heapMax()).append('\t')
+                            .append(metric.nonHeapUsed()).append('\t')
+                            .append(metric.nonHeapCommitted()).append('\t')
+                            .append(metric.gcCollectionCount()).append('\t')
+                            .append(metric.gcCollectionTime()).append('\t')
+                            .append(metric.threadCount()).append('\t')
+                            .append(metric.peakThreadCount()).append('\t')
+                            .append(metric.totalStartedThreadCount()).append('\t')
+                            .append(metric.requestCount()).append('\t')
+                            .append(metric.bytesReceived()).append('\t')
+                            .append(metric.bytesSent()).append('\t')
+                            .append(metric.processingTime()).append('\t')
+                            .append(metric.errorCount()).append('\t')
+                            .append(metric.maxThreads()).append('\t')
+                            .append(metric.currentThreads()).append('\t')
+                            .append(metric.currentThreadsBusy()).append('\t')
+                            .append(metric.activeConnections()).append('\t')
+                            .append(metric.idleConnections()).append('\t')
+                            .append(metric.totalConnections()).append('\t')
+                            .append(metric.threadsAwaitingConnection()).append('\n');
+
+                    copyStream.write(line.toString().getBytes(StandardCharsets.US_ASCII));
+                }
+            }
+        } catch (SQLException | IOException e) {
+            throw new ObservabilityNotFoundException("Failed to copy " + metrics.size() + " rows", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void saveAllTransactions(final List<TransactionMeasurement> metrics) {
+
+        String sql = "copy transaction_measurement "
+                + "(time, agent_id, transaction_data, trace_id, span_id, parent_span_id) "
+                + "from stdin with (null '')";
+
+        copy(sql, metrics,
+                TransactionMeasurement::time,
+                TransactionMeasurement::agentId,
+                TransactionMeasurement::transactionData,
+                List.of(
+                        metric -> bytea(metric.traceId()),
+                        metric -> bytea(metric.spanId()),
+                        metric -> bytea(metric.parentSpanId())
+                )
+        );
+
+        traceSummaryRepository.upsertAll(TraceSummary.summarize(metrics));
+    }
+
+    @Override
+    @Transactional
+    public void saveAllLogs(final List<LogMeasurement> metrics) {
+
+        String sql = "copy log_measurement (time, agent_id, log_data, severity, trace_id) from stdin with (null '')";
+
+        copy(sql, metrics,
+                LogMeasurement::time,
+                LogMeasurement::agentId,
+                LogMeasurement::logRecord,
+                List.of(
+                        metric -> metric.severity() == null ? "" : metric.severity(),
+                        metric -> bytea(metric.traceId())
+                )
+        );
+    }
+
+    private <T> void copy(final String sql,
+                          final List<T> rows,
+                          final Function<T, Instant> time,
+                          final Function<T, Integer> agentId,
+                          final Function<T, Object> data) {
+
+        copy(sql, rows, time, agentId, data, List.of());
+    }
+
+    /**
+     * @param columns columns written after the JSON column in the order of {@code sql}, already in the COPY
+     *                text form, a missing value is the empty string so {@code sql} must declare {@code null ''}
+     */
+    private <T> void copy(final String sql,
+                          final List<T> rows,
+                          final Function<T, Instant> time,
+                          final Function<T, Integer> agentId,
+                          final Function<T, Object> data,
+                          final List<Function<T, String>> columns) {
+
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+
+        try {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+            try (PGCopyOutputStream copyStream = new PGCopyOutputStream(pgConnection, sql, COPY_BUFFER_SIZE);
+                 JsonGenerator generator = objectMapper.createGenerator(
+                         new CopyTextEscapeOutputStream(copyStream), JsonEncoding.UTF8)) {
+
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+
+                for (T row : rows) {
+                    generator.writeRaw(time.apply(row).toString());
+                    generator.writeRaw('\t');
+                    generator.writeRaw(String.valueOf(agentId.apply(row)));
+                    generator.writeRaw('\t');
+                    objectWriter.writeValue(generator, data.apply(row));
+                    for (Function<T, String> column : columns) {
+                        generator.writeRaw('\t');
+                        generator.writeRaw(column.apply(row));
+                    }
+                    generator.writeRaw('\n');
+                }
+
+                generator.flush();
+            }
+        } catch (SQLException | IOException e) {
+            throw new ObservabilityNotFoundException("Failed to copy " + rows.size() + " rows", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * {@code bytea} in the COPY text format. Every raw write passes through {@link CopyTextEscapeOutputStream},
+     * which doubles the backslash, so {@code \N} cannot be written and a missing id is the empty string
+     * declared by {@code null ''}.
+     */
+    private String bytea(final byte[] value) {
+
+        if (value == null) {
+            return "";
+        }
+
+        return "\\x" + HEX.formatHex(value);
+    }
+
+    /**
+     * Escapes the COPY text format. Jackson already escapes control characters inside JSON
+     * strings, so the backslash is the only byte that needs doubling.
+     */
+    static final class CopyTextEscapeOutputStream extends FilterOutputStream {
+
+        private static final byte BACKSLASH = '\\';
+
+        CopyTextEscapeOutputStream(final OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+
+            if (b == BACKSLASH) {
+                out.write(BACKSLASH);
+            }
+
+            out.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+
+            int start = off;
+            int end = off + len;
+
+            for (int i = off; i < end; i++) {
+                if (b[i] == BACKSLASH) {
+                    out.write(b, start, i - start + 1);
+                    start = i;
+                }
+            }
+
+            out.write(b, start, end - start);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.persistence.impl;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ygo.traffic_hunter.common.util.TraceIds;
+import ygo.traffic_hunter.core.dto.response.log.LogResponse;
+import ygo.traffic_hunter.core.dto.response.log.LogSearchPage;
+import ygo.traffic_hunter.core.log.LogCursor;
+import ygo.traffic_hunter.core.log.LogSearchCondition;
+import ygo.traffic_hunter.core.repository.LogRepository;
+import ygo.traffic_hunter.persistence.mapper.LogSearchRowMapper;
+
+/**
+ * <p>
+ * The {@code LogRepositoryImpl} class searches {@code log_measurement} through the columns extracted
+ * from {@code log_data} when a log is written.
+ * </p>
+ *
+ * <ul>
+ *     <li>{@code severity} and {@code trace_id} are plain b-tree lookups. The trace id is kept as
+ *     {@code bytea} like on {@code transaction_measurement}, see {@link TraceIds}, so logs join the spans
+ *     of their trace.</li>
+ *     <li>The free text query is matched against the tsvector of the body, which has a GIN expression index.
+ *     The {@code simple} configuration keeps identifiers and stack trace tokens as they are.</li>
+ *     <li>Rows come in {@code (time, id)} descending order, a page seeks right after the cursor
+ *     of the previous one.</li>
+ * </ul>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Repository
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class LogRepositoryImpl implements LogRepository {
+
+    private static final String SELECT = "select l.id, "
+            + "l.time, "
+            + "a.agent_name as \"agentName\", "
+            + "l.severity, "
+            + "l.log_data ->> 'severityText' as \"severityText\", "
+            + "l.log_data ->> 'body' as body, "
+            + "encode(l.trace_id, 'hex') as \"traceId\", "
+            + "l.log_data -> 'attributes' as attributes "
+            + "from log_measurement l "
+            + "join agent a on a.id = l.agent_id "
+            + "where l.time >= ? and l.time < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final LogSearchRowMapper logSearchRowMapper;
+
+    @Override
+    public LogSearchPage search(final LogSearchCondition condition, final LogCursor cursor, final int size) {
+
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>();
+
+        args.add(condition.from().atOffset(ZoneOffset.UTC));
+        args.add(condition.to().atOffset(ZoneOffset.UTC));
+
+        if (condition.agentName() != null) {
+            sql.append(" and a.agent_name = ?");
+            args.add(condition.agentName());
+        }
+
+        List<String> severities = condition.severities();
+
+        if (!severities.isEmpty()) {
+            sql.append(" and l.severity = any(?)");
+            args.add(severities.toArray(String[]::new));
+        }
+
+        if (condition.traceId() != null) {
+            // an id that is not 32 hex digits is never stored and matches nothing
+            sql.append(" and l.trace_id = ?");
+            args.add(TraceIds.traceId(condition.traceId()));
+        }
+
+        if (condition.query() != null) {
+            // must stay the expression of log_measurement_body_search_idx
+            sql.append(" and to_tsvector('simple', coalesce(l.log_data ->> 'body', '')) "
+                    + "@@ websearch_to_tsquery('simple', ?)");
+            args.add(condition.query());
+        }
+
+        if (cursor != null) {
+            sql.append(" and (l.time, l.id) < (?, ?)");
+            args.add(cursor.time().atOffset(ZoneOffset.UTC));
+            args.add(cursor.id());
+        }
+
+        sql.append(" order by l.time desc, l.id desc limit ?");
+        args.add(size + 1);
+
+        List<LogResponse> rows = jdbcTemplate.query(sql.toString(), logSearchRowMapper, args.toArray());
+
+        return LogSearchPage.of(rows, size);
+    }
+}
@@ -30,49 +30,62 @@ import static org.jooq.impl.DSL.jsonArrayAgg;
 import static org.jooq.impl.DSL.jsonbGetAttribute;
 import static org.jooq.impl.DSL.jsonbGetAttributeAsText;
 import static org.jooq.impl.DSL.round;
+import static org.jooq.impl.DSL.row;
+import static org.jooq.impl.DSL.select;
 import static org.traffichunter.query.jooq.Tables.AGENT;
 import static org.traffichunter.query.jooq.Tables.LOG_MEASUREMENT;
 import static org.traffichunter.query.jooq.Tables.METRIC_MEASUREMENT;
+import static org.traffichunter.query.jooq.Tables.TRACE_SUMMARY;
 import static org.traffichunter.query.jooq.Tables.TRANSACTION_MEASUREMENT;
 
 import java.math.BigDecimal;
 import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.jooq.Condition;
 import org.jooq.DSLContext;
 import org.jooq.Field;
 import org.jooq.JSON;
 import org.jooq.JSONB;
 import org.jooq.Record;
 import org.jooq.Record11;
-import org.jooq.Record5;
+import org.jooq.Record2;
+import org.jooq.Record4;
 import org.jooq.Record8;
 import org.jooq.SelectLimitPercentStep;
 import org.jooq.SelectQuery;
+import org.jooq.SelectSeekStep1;
+import org.jooq.Table;
 import org.jooq.impl.DSL;
 import org.jooq.impl.SQLDataType;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Slice;
-import org.springframework.data.domain.SliceImpl;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import ygo.traffic_hunter.common.util.TraceIds;
 import ygo.traffic_hunter.config.cache.CacheConfig.CacheType;
 import ygo.traffic_hunter.core.dto.response.RealTimeMonitoringResponse;
 import ygo.traffic_hunter.core.dto.response.TransactionMetricResponse;
 import ygo.traffic_hunter.core.dto.response.metric.SystemMetricResponse;
 import ygo.traffic_hunter.core.dto.response.statistics.metric.StatisticsMetricAvgResponse;
 import ygo.traffic_hunter.core.dto.response.statistics.metric.StatisticsMetricMaxResponse;
+import ygo.traffic_hunter.core.dto.response.statistics.transaction.ServiceTransactionPage;
 import ygo.traffic_hunter.core.dto.response.statistics.transaction.ServiceTransactionResponse;
 import ygo.traffic_hunter.core.repository.MetricRepository;
+import ygo.traffic_hunter.core.repository.TraceSummaryRepository;
 import ygo.traffic_hunter.core.statistics.StatisticsMetricTimeRange;
+import ygo.traffic_hunter.core.statistics.TransactionCursor;
+import ygo.traffic_hunter.core.writer.property.MetricSchemaProperties;
 import ygo.traffic_hunter.domain.entity.Agent;
 import ygo.traffic_hunter.domain.entity.LogMeasurement;
 import ygo.traffic_hunter.domain.entity.MetricMeasurement;
+import ygo.traffic_hunter.domain.entity.SystemMetricMeasurement;
+import ygo.traffic_hunter.domain.entity.TraceSummary;
 import ygo.traffic_hunter.domain.entity.TransactionMeasurement;
 import ygo.traffic_hunter.domain.interval.TimeInterval;
 import ygo.traffic_hunter.domain.metric.TransactionData;
@@ -84,7 +97,7 @@ import ygo.traffic_hunter.persistence.mapper.TransactionMeasurementRowMapper;
 import ygo.traffic_hunter.persistence.mapper.statistics.StatisticsMetricAvgRowMapper;
 import ygo.traffic_hunter.persistence.mapper.statistics.StatisticsMetricMaxRowMapper;
 import ygo.traffic_hunter.persistence.mapper.statistics.StatisticsServiceTransactionRowMapper;
-import ygo.traffic_hunter.persistence.query.QuerySupport;
+import ygo.traffic_hunter.persistence.query.MetricRollup;
 
 /**
  * @author yungwang-o, JuSeong
@@ -96,6 +109,15 @@ import ygo.traffic_hunter.persistence.query.QuerySupport;
 @Transactional(readOnly = true)
 public class TimeSeriesRepository implements MetricRepository {
 
+    private static final List<String> ROLLUP_COLUMNS = List.of(
+            "system_cpu_load", "process_cpu_load", "available_processors",
+            "heap_init", "heap_used", "heap_committed", "heap_max",
+            "thread_count", "peak_thread_count", "total_started_thread_count",
+            "request_count", "bytes_received", "bytes_sent", "processing_time", "error_count",
+            "max_threads", "current_threads", "current_threads_busy",
+            "active_connections", "idle_connections", "total_connections", "threads_awaiting_connection"
+    );
+
     private final JdbcTemplate jdbcTemplate;
 
     private final SystemMeasurementRowMapper systemMeasurementRowMapper;
@@ -110,6 +132,10 @@ public class TimeSeriesRepository implements MetricRepository {
 
     private final DSLContext dsl;
 
+    private final MetricSchemaProperties schemaProperties;
+
+    private final TraceSummaryRepository traceSummaryRepository;
+
     @Override
     @Transactional
     public void save(final Agent agent) {
@@ -153,14 +179,22 @@ public class TimeSeriesRepository implements MetricRepository {
         String sql = "insert into transaction_measurement ("
                 + "time, "
                 + "agent_id, "
-                + "transaction_data) "
-                + "values (?, ?, ?::jsonb)";
+                + "transaction_data, "
+                + "trace_id, "
+                + "span_id, "
+                + "parent_span_id) "
+                + "values (?, ?, ?::jsonb, ?, ?, ?)";
 
         jdbcTemplate.update(sql,
                 Timestamp.from(metric.time()),
                 metric.agentId(),
-                txMeasurementRowMapper.serialize(metric.transactionData())
+                txMeasurementRowMapper.serialize(metric.transactionData()),
+                metric.traceId(),
+                metric.spanId(),
+                metric.parentSpanId()
         );
+
+        traceSummaryRepository.upsertAll(TraceSummary.summarize(List.of(metric)));
     }
 
     @Override
@@ -168,10 +202,14 @@ public class TimeSeriesRepository implements MetricRepository {
     public void save(final LogMeasurement metric) {
 
         int execute = dsl.insertInto(LOG_MEASUREMENT)
+                .columns(LOG_MEASUREMENT.TIME, LOG_MEASUREMENT.LOG_DATA, LOG_MEASUREMENT.AGENT_ID,
+                        LOG_MEASUREMENT.SEVERITY, LOG_MEASUREMENT.TRACE_ID)
                 .values(
-                        Timestamp.from(metric.time()),
+                        metric.time().atOffset(ZoneOffset.UTC),
                         JSONB.jsonb(logMeasurementRowMapper.serialize(metric.logRecord())),
-                        metric.agentId())
+                        metric.agentId(),
+                        metric.severity(),
+                        metric.traceId())
                 .execute();
 
         if(execute <= 0) {
@@ -179,6 +217,116 @@ public class TimeSeriesRepository implements MetricRepository {
         }
     }
 
+    @Override
+    @Transactional
+    public void saveAllMetrics(final List<MetricMeasurement> metrics) {
+
+        String sql = "insert into metric_measurement ("
+                + "time, "
+                + "agent_id, "
+                + "metric_data) "
+                + "values (?, ?, ?::jsonb)";
+
+        jdbcTemplate.batchUpdate(sql, metrics, metrics.size(), (ps, metric) -> {
+            ps.setTimestamp(1, Timestamp.from(metric.time()));
+            ps.setInt(2, metric.agentId());
+            ps.setString(3, systemMeasurementRowMapper.serialize(metric.metricData()));
+        });
+    }
+
+    @Override
+    @Transactional
+    public void saveAllSystemMetrics(final List<SystemMetricMeasurement> metrics) {
+
+        String sql = "insert into system_metric_measurement ("
+                + "time, agent_id, "
+                + "system_cpu_load, process_cpu_load, available_processors, "
+                + "heap_init, heap_used, heap_committed, heap_max, non_heap_used, non_heap_committed, "
+                + "gc_collection_count, gc_collection_time, "
+                + "thread_count, peak_thread_count, total_started_thread_count, "
+                + "request_count, bytes_received, bytes_sent, processing_time, error_count, "
+                + "max_threads, current_threads, current_threads_busy, "
+                + "active_connections, idle_connections, total_connections, threads_awaiting_connection) "
+                + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        jdbcTemplate.batchUpdate(sql, metrics, metrics.size(), (ps, metric) -> {
+            ps.setTimestamp(1, Timestamp.from(metric.time()));
+            ps.setInt(2, metric.agentId());
+            ps.setDouble(3, metric.systemCpuLoad());
+            ps.setDouble(4, metric.processCpuLoad());
+            ps.setInt(5, metric.availableProcessors());
+            ps.setLong(6, metric.heapInit());
+            ps.setLong(7, metric.heapUsed());
+            ps.setLong(8, metric.heapCommitted());
+            ps.setLong(9, metric.heapMax());
+            ps.setLong(10, metric.nonHeapUsed());
+            ps.setLong(11, metric.nonHeapCommitted());
+            ps.setLong(12, metric.gcCollectionCount());
+            ps.setLong(13, metric.gcCollectionTime());
+            ps.setInt(14, metric.threadCount());
+            ps.setInt(15, metric.peakThreadCount());
+            ps.setLong(16, metric.totalStartedThreadCount());
+            ps.setLong(17, metric.requestCount());
+            ps.setLong(18, metric.bytesReceived());
+            ps.setLong(19, metric.bytesSent());
+            ps.setLong(20, metric.processingTime());
+            ps.setLong(21, metric.errorCount());
+            ps.setInt(22, metric.maxThreads());
+            ps.setInt(23, metric.currentThreads());
+            ps.setInt(24, metric.currentThreadsBusy());
+            ps.setInt(25, metric.activeConnections());
+            ps.setInt(26, metric.idleConnections());
+            ps.setInt(27, metric.totalConnections());
+            ps.setInt(28, metric.threadsAwaitingConnection());
+        });
+    }
+
+    @Override
+    @Transactional
+    public void saveAllTransactions(final List<TransactionMeasurement> metrics) {
+
+        String sql = "insert into transaction_measurement ("
+                + "time, "
+                + "agent_id, "
+                + "transaction_data, "
+                + "trace_id, "
+                + "span_id, "
+                + "parent_span_id) "
+                + "values (?, ?, ?::jsonb, ?, ?, ?)";
+
+        jdbcTemplate.batchUpdate(sql, metrics, metrics.size(), (ps, metric) -> {
+            ps.setTimestamp(1, Timestamp.from(metric.time()));
+            ps.setInt(2, metric.agentId());
+            ps.setString(3, txMeasurementRowMapper.serialize(metric.transactionData()));
+            ps.setBytes(4, metric.traceId());
+            ps.setBytes(5, metric.spanId());
+            ps.setBytes(6, metric.parentSpanId());
+        });
+
+        traceSummaryRepository.upsertAll(TraceSummary.summarize(metrics));
+    }
+
+    @Override
+    @Transactional
+    public void saveAllLogs(final List<LogMeasurement> metrics) {
+
+        String sql = "insert into log_measurement ("
+                + "time, "
+                + "agent_id, "
+                + "log_data, "
+                + "severity, "
+                + "trace_id) "
+                + "values (?, ?, ?::jsonb, ?, ?)";
+
+        jdbcTemplate.batchUpdate(sql, metrics, metrics.size(), (ps, metric) -> {
+            ps.setTimestamp(1, Timestamp.from(metric.time()));
+            ps.setInt(2, metric.agentId());
+            ps.setString(3, logMeasurementRowMapper.serialize(metric.logRecord()));
+            ps.setString(4, metric.severity());
+            ps.setBytes(5, metric.traceId());
+        });
+    }
+
     @Override
     @Cacheable(cacheNames = CacheType.AGENT_CACHE_NAME)
     public Agent findById(final Integer id) {
@@ -234,10 +382,169 @@ public class TimeSeriesRepository implements MetricRepository {
         return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, Boolean.class, agentName));
     }
 
+    @Override
+    public Optional<Instant> findOldestMetricTime() {
+
+        String sql = "select min(time) from metric_measurement";
+
+        return Optional.ofNullable(jdbcTemplate.queryForObject(sql, Timestamp.class))
+                .map(Timestamp::toInstant);
+    }
+
+    @Override
+    @Transactional
+    public int backfillSystemMetrics(final Instant from, final Instant to) {
+
+        String sql = "insert into system_metric_measurement ("
+                + "time, agent_id, "
+                + "system_cpu_load, process_cpu_load, available_processors, "
+                + "heap_init, heap_used, heap_committed, heap_max, non_heap_used, non_heap_committed, "
+                + "gc_collection_count, gc_collection_time, "
+                + "thread_count, peak_thread_count, total_started_thread_count, "
+                + "request_count, bytes_received, bytes_sent, processing_time, error_count, "
+                + "max_threads, current_threads, current_threads_busy, "
+                + "active_connections, idle_connections, total_connections, threads_awaiting_connection) "
+                + "select m.time, m.agent_id, "
+                + jsonColumn("double precision", "cpuMetric", "systemCpuLoad") + ", "
+                + jsonColumn("double precision", "cpuMetric", "processCpuLoad") + ", "
+                + jsonColumn("integer", "cpuMetric", "availableProcessors") + ", "
+                + jsonColumn("bigint", "memoryMetric", "heapMemoryUsage", "init") + ", "
+                + jsonColumn("bigint", "memoryMetric", "heapMemoryUsage", "used") + ", "
+                + jsonColumn("bigint", "memoryMetric", "heapMemoryUsage", "committed") + ", "
+                + jsonColumn("bigint", "memoryMetric", "heapMemoryUsage", "max") + ", "
+                + jsonColumn("bigint", "memoryMetric", "nonHeapMemoryUsage", "used") + ", "
+                + jsonColumn("bigint", "memoryMetric", "nonHeapMemoryUsage", "committed") + ", "
+                + gcColumn("getCollectionCount") + ", "
+                + gcColumn("getCollectionTime") + ", "
+                + jsonColumn("integer", "threadMetric", "threadCount") + ", "
+                + jsonColumn("integer", "threadMetric", "getPeekThreadCount") + ", "
+                + jsonColumn("bigint", "threadMetric", "getTotalStartThreadCount") + ", "
+                + jsonColumn("bigint", "webServerMetric", "tomcatWebServerRequestMeasurement", "requestCount") + ", "
+                + jsonColumn("bigint", "webServerMetric", "tomcatWebServerRequestMeasurement", "bytesReceived") + ", "
+                + jsonColumn("bigint", "webServerMetric", "tomcatWebServerRequestMeasurement", "bytesSent") + ", "
+                + jsonColumn("bigint", "webServerMetric", "tomcatWebServerRequestMeasurement", "processingTime") + ", "
+                + jsonColumn("bigint", "webServerMetric", "tomcatWebServerRequestMeasurement", "errorCount") + ", "
+                + jsonColumn("integer", "webServerMetric", "tomcatWebServerThreadPoolMeasurement", "maxThreads") + ", "
+                + jsonColumn("integer", "webServerMetric", "tomcatWebServerThreadPoolMeasurement", "currentThreads") + ", "
+                + jsonColumn("integer", "webServerMetric", "tomcatWebServerThreadPoolMeasurement", "currentThreadsBusy") + ", "
+                + jsonColumn("integer", "dbcpMetric", "activeConnections") + ", "
+                + jsonColumn("integer", "dbcpMetric", "idleConnections") + ", "
+                + jsonColumn("integer", "dbcpMetric", "totalConnections") + ", "
+                + jsonColumn("integer", "dbcpMetric", "threadsAwaitingConnection") + " "
+                + "from metric_measurement m "
+                + "where m.time >= ? and m.time < ? "
+                + "and not exists ("
+                + "select 1 from system_metric_measurement s where s.agent_id = m.agent_id and s.time = m.time)";
+
+        return jdbcTemplate.update(sql, Timestamp.from(from), Timestamp.from(to));
+    }
+
+    @Override
+    public Optional<Instant> findOldestUntaggedLogTime() {
+
+        String sql = "select min(time) from log_measurement where id is null";
+
+        return Optional.ofNullable(jdbcTemplate.queryForObject(sql, Timestamp.class))
+                .map(Timestamp::toInstant);
+    }
+
+    @Override
+    @Transactional
+    public int backfillLogColumns(final Instant from, final Instant to) {
+
+        String traceIdAttribute = "coalesce(log_data -> 'attributes' ->> 'trace_id', "
+                + "log_data -> 'attributes' ->> 'traceId')";
+
+        String sql = "update log_measurement "
+                + "set id = nextval('log_measurement_id_seq'), "
+                + "severity = log_data ->> 'severity', "
+                + "trace_id = case when " + traceIdAttribute + " ~ '^[0-9a-fA-F]{32}$' "
+                + "then decode(" + traceIdAttribute + ", 'hex') end "
+                + "where id is null and time >= ? and time < ?";
+
+        return jdbcTemplate.update(sql, Timestamp.from(from), Timestamp.from(to));
+    }
+
+    @Override
+    public Optional<Instant> findOldestUntaggedTransactionTime() {
+
+        String sql = "select min(time) from transaction_measurement where trace_id is null";
+
+        return Optional.ofNullable(jdbcTemplate.queryForObject(sql, Timestamp.class))
+                .map(Timestamp::toInstant);
+    }
+
+    @Override
+    @Transactional
+    public int backfillTraceIds(final Instant from, final Instant to) {
+
+        String sql = "with tagged as ("
+                + "update transaction_measurement "
+                + "set trace_id = decode(transaction_data ->> 'traceId', 'hex'), "
+                + "span_id = case when transaction_data ->> 'spanId' ~ '^[0-9a-f]{16}$' "
+                + "then decode(transaction_data ->> 'spanId', 'hex') end, "
+                + "parent_span_id = case "
+                + "when coalesce(transaction_data ->> 'parentSpanId', '') in ('', '0000000000000000') then null "
+                + "when transaction_data ->> 'parentSpanId' ~* '^[0-9a-f]{16}$' "
+                + "then decode(transaction_data ->> 'parentSpanId', 'hex') "
+                + "else ''::bytea end "
+                + "where trace_id is null and time >= ? and time < ? "
+                + "and transaction_data ->> 'traceId' ~ '^[0-9a-f]{32}$' "
+                + "returning trace_id, agent_id, time, parent_span_id, transaction_data), "
+                + "summarized as ("
+                + "insert into trace_summary as ts ("
+                + "trace_id, agent_id, time, root_uri, http_method, http_status_code, server_name, "
+                + "duration, span_count, has_error, has_root) "
+                + "select trace_id, "
+                + "coalesce(min(agent_id) filter (where parent_span_id is null), min(agent_id)), "
+                + "coalesce(min(time) filter (where parent_span_id is null), min(time)), "
+                + "min(transaction_data -> 'attributes' ->> 'http.requestURI') "
+                + "filter (where parent_span_id is null), "
+                + "min(transaction_data -> 'attributes' ->> 'http.method') filter (where parent_span_id is null), "
+                + "min(case when transaction_data -> 'attributes' ->> 'http.statusCode' ~ '^[0-9]{1,3}$' "
+                + "then (transaction_data -> 'attributes' ->> 'http.statusCode')::integer end) "
+                + "filter (where parent_span_id is null), "
+                + "min(transaction_data -> 'attributes' ->> 'http.serverName') "
+                + "filter (where parent_span_id is null), "
+                + "min((transaction_data ->> 'duration')::bigint) filter (where parent_span_id is null), "
+                + "count(*), "
+                + "bool_or(coalesce(transaction_data ->> 'exception', 'success') <> 'success' "
+                + "or (parent_span_id is null "
+                + "and transaction_data -> 'attributes' ->> 'http.statusCode' ~ '^[5-9][0-9]{2}$')), "
+                + "bool_or(parent_span_id is null) "
+                + "from tagged group by trace_id "
+                + TraceSummaryRepositoryImpl.ON_CONFLICT + " "
+                + "returning 1) "
+                + "select count(*) from tagged";
+
+        Integer tagged = jdbcTemplate.queryForObject(sql, Integer.class, Timestamp.from(from), Timestamp.from(to));
+
+        return tagged == null ? 0 : tagged;
+    }
+
+    @Override
+    public boolean isBackfillCompleted(final String name) {
+
+        String sql = "select exists (select 1 from backfill where name = ?)";
+
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, Boolean.class, name));
+    }
+
+    @Override
+    @Transactional
+    public void completeBackfill(final String name) {
+        jdbcTemplate.update("insert into backfill (name) values (?) on conflict (name) do nothing", name);
+    }
+
     @Override
     public List<SystemMetricResponse> findMetricsByRecentTimeAndAgentName(final TimeInterval interval,
                                                                           final String agentName,
                                                                           final Integer limit) {
+
+        if (schemaProperties.readTyped()) {
+            return findRollupMetricsByRecentTimeAndAgentName(interval, agentName, limit);
+        }
+
         org.traffichunter.query.jooq.tables.Agent agent = AGENT;
         org.traffichunter.query.jooq.tables.MetricMeasurement metricMeasurement = METRIC_MEASUREMENT;
 
@@ -339,6 +646,46 @@ public class TimeSeriesRepository implements MetricRepository {
         return jdbcTemplate.query(result.getSQL(), systemMeasurementRowMapper, result.getBindValues().toArray());
     }
 
+    /**
+     * reads the coarsest continuous aggregate that fits the interval, bounded to the last
+     * {@code limit} buckets of one agent, so the cost does not grow with the raw data volume.
+     */
+    private List<SystemMetricResponse> findRollupMetricsByRecentTimeAndAgentName(final TimeInterval interval,
+                                                                                final String agentName,
+                                                                                final Integer limit) {
+
+        MetricRollup rollup = MetricRollup.coarsestFor(interval.getDuration());
+
+        StringBuilder sql = new StringBuilder("select "
+                + "a.agent_name, "
+                + "a.agent_boot_time, "
+                + "a.agent_version, "
+                + "time_bucket(?::interval, r.bucket) as time");
+
+        for (String column : ROLLUP_COLUMNS) {
+            sql.append(", round((sum(r.").append(column).append("_sum) / sum(r.samples))::numeric, 1) as ")
+                    .append(column);
+        }
+
+        sql.append(" from ").append(rollup.getViewName()).append(" r ")
+                .append("join agent a on r.agent_id = a.id ")
+                .append("where a.agent_name = ? and r.bucket >= ? ")
+                .append("group by a.agent_name, a.agent_boot_time, a.agent_version, time ")
+                .append("order by time desc ")
+                .append("limit ?");
+
+        Instant since = Instant.now().minus(interval.getDuration().multipliedBy(limit));
+
+        return jdbcTemplate.query(
+                sql.toString(),
+                systemMeasurementRowMapper,
+                interval.getInterval(),
+                agentName,
+                Timestamp.from(since),
+                limit
+        );
+    }
+
     @Override
     public List<TransactionMetricResponse> findTxMetricsByRecentTimeAndAgentName(
             final TimeInterval interval,
@@ -346,22 +693,31 @@ public class TimeSeriesRepository implements MetricRepository {
             final Integer limit
     ) {
         org.traffichunter.query.jooq.tables.TransactionMeasurement transactionMeasurement = TRANSACTION_MEASUREMENT;
+        org.traffichunter.query.jooq.tables.TraceSummary traceSummary = TRACE_SUMMARY;
         org.traffichunter.query.jooq.tables.Agent agent = AGENT;
 
-        Field<Object> timeBucket = field("time_bucket({0}, {1})",
-                inline(interval.getInterval()),
-                transactionMeasurement.TIME);
+        // pick the latest traces of the agent from the summary, then load only their spans
+        Table<Record2<byte[], OffsetDateTime>> recent = dsl.select(traceSummary.TRACE_ID, traceSummary.TIME)
+                .from(traceSummary)
+                .where(traceSummary.AGENT_ID.eq(
+                        select(agent.ID).from(agent).where(agent.AGENT_NAME.eq(agentName))
+                ))
+                .orderBy(traceSummary.TIME.desc())
+                .limit(limit)
+                .asTable("recent");
 
-        Field<JSONB> traceIdGroupField = jsonbGetAttribute(transactionMeasurement.TRANSACTION_DATA, "traceId");
+        Field<byte[]> recentTraceId = recent.field(traceSummary.TRACE_ID);
+        Field<OffsetDateTime> recentTime = recent.field(traceSummary.TIME);
 
-        SelectLimitPercentStep<Record5<Object, String, OffsetDateTime, String, JSON>> result = dsl.select(
-                        timeBucket.as("bucket"),
+        SelectSeekStep1<Record4<String, OffsetDateTime, String, JSON>, OffsetDateTime> result = dsl.select(
                         agent.AGENT_NAME,
                         agent.AGENT_BOOT_TIME,
                         agent.AGENT_VERSION,
                         jsonArrayAgg(transactionMeasurement.TRANSACTION_DATA).as("transaction_datas")
                 )
-                .from(transactionMeasurement)
+                .from(recent)
+                .join(transactionMeasurement)
+                .on(transactionMeasurement.TRACE_ID.eq(recentTraceId))
                 .join(agent)
                 .on(transactionMeasurement.AGENT_ID.eq(agent.ID))
                 .where(agent.AGENT_NAME.eq(agentName))
@@ -369,10 +725,10 @@ public class TimeSeriesRepository implements MetricRepository {
                         agent.AGENT_NAME,
                         agent.AGENT_BOOT_TIME,
                         agent.AGENT_VERSION,
-                        traceIdGroupField,
-                        timeBucket
+                        recentTraceId,
+                        recentTime
                 )
-                .limit(limit);
+                .orderBy(recentTime.desc());
 
         return jdbcTemplate.query(
                 result.getSQL(),
@@ -384,9 +740,13 @@ public class TimeSeriesRepository implements MetricRepository {
     @Override
     public List<TransactionData> findTxDataByRequestUri(final String traceId) {
 
-        org.traffichunter.query.jooq.tables.TransactionMeasurement tm = TRANSACTION_MEASUREMENT;
+        byte[] traceIdentification = TraceIds.traceId(traceId);
 
-        Field<String> traceIdentification = jsonbGetAttributeAsText(tm.TRANSACTION_DATA, inline("traceId"));
+        if (traceIdentification == null) {
+            return List.of();
+        }
+
+        org.traffichunter.query.jooq.tables.TransactionMeasurement tm = TRANSACTION_MEASUREMENT;
 
         Field<String> nameField = jsonbGetAttributeAsText(tm.TRANSACTION_DATA, inline("name"));
 
@@ -428,7 +788,7 @@ public class TimeSeriesRepository implements MetricRepository {
                     endedField.as("ended")
                 )
                 .from(tm)
-                .where(traceIdentification.eq(traceId))
+                .where(tm.TRACE_ID.eq(traceIdentification))
                 .getQuery();
 
         return jdbcTemplate.query(
@@ -454,50 +814,39 @@ public class TimeSeriesRepository implements MetricRepository {
     @Override
     @Cacheable(
             cacheNames = CacheType.STATISTIC_TRANSACTION_PAGE_CACHE_NAME,
-            key = "#pageable.pageNumber",
-            condition = "#pageable.pageNumber == 0"
+            key = "#size",
+            condition = "#cursor == null"
     )
-    public Slice<ServiceTransactionResponse> findServiceTransaction(final Pageable pageable) {
+    public ServiceTransactionPage findServiceTransaction(final TransactionCursor cursor, final int size) {
 
-        org.traffichunter.query.jooq.tables.TransactionMeasurement tm = TRANSACTION_MEASUREMENT;
+        org.traffichunter.query.jooq.tables.TraceSummary ts = TRACE_SUMMARY;
 
-        Field<String> parentSpanIdField = jsonbGetAttributeAsText(tm.TRANSACTION_DATA, inline("parentSpanId"));
-
-        Field<JSONB> attributes = jsonbGetAttribute(tm.TRANSACTION_DATA, inline("attributes"));
-
-        Field<String> uriField = jsonbGetAttributeAsText(attributes, inline("http.requestURI"));
-
-        Field<Long> duration = jsonbGetAttributeAsText(tm.TRANSACTION_DATA, inline("duration"))
-                .cast(Long.class);
-
-        Field<String> httpMethodField = jsonbGetAttributeAsText(attributes, inline("http.method"));
-
-        Field<String> httpServerNameField = jsonbGetAttributeAsText(attributes, inline("http.serverName"));
-
-        Field<Integer> httpStatusCodeField = jsonbGetAttributeAsText(attributes, inline("http.statusCode"))
-                .cast(Integer.class);
+        Condition condition = ts.ROOT_URI.isNotNull();
 
-        Field<String> traceId = jsonbGetAttributeAsText(tm.TRANSACTION_DATA, "traceId");
+        if (cursor != null) {
+            condition = condition.and(row(ts.TIME, ts.TRACE_ID).lt(
+                    cursor.time().atOffset(ZoneOffset.UTC),
+                    cursor.traceId()
+            ));
+        }
 
         SelectLimitPercentStep<Record8<OffsetDateTime, String, Long, String, String, String, Integer, String>> result =
                 dsl.select(
-                        tm.TIME.as("timestamp"),
-                        uriField.as("uri"),
-                        duration.as("duration"),
-                        httpMethodField.as("httpMethod"),
+                        ts.TIME.as("timestamp"),
+                        ts.ROOT_URI.as("uri"),
+                        ts.DURATION.as("duration"),
+                        ts.HTTP_METHOD.as("httpMethod"),
                         AGENT.AGENT_NAME.as("agentName"),
-                        httpServerNameField.as("clientName"),
-                        httpStatusCodeField.as("httpStatusCode"),
-                        traceId.as("traceId")
+                        ts.SERVER_NAME.as("clientName"),
+                        ts.HTTP_STATUS_CODE.as("httpStatusCode"),
+                        field("encode({0}, 'hex')", String.class, ts.TRACE_ID).as("traceId")
                 )
-                .from(tm)
+                .from(ts)
                 .join(AGENT)
-                .on(tm.AGENT_ID.eq(AGENT.ID))
-                .where(uriField.isNotNull().and(parentSpanIdField.eq("0000000000000000")))
-                .orderBy(QuerySupport.orderByClause(pageable))
-                .limit(pageable.getPageSize() + 1);
-
-        int pageSize = pageable.getPageSize();
+                .on(ts.AGENT_ID.eq(AGENT.ID))
+                .where(condition)
+                .orderBy(ts.TIME.desc(), ts.TRACE_ID.desc())
+                .limit(size + 1);
 
         List<ServiceTransactionResponse> results = jdbcTemplate.query(
                 result.getSQL(),
@@ -505,60 +854,125 @@ public class TimeSeriesRepository implements MetricRepository {
                 result.getBindValues().toArray()
         );
 
-        boolean hasNext = results.size() > pageSize;
-        if (hasNext) {
-            results = results.subList(0, pageSize);
-        }
+        return ServiceTransactionPage.of(results, size);
+    }
 
-        return new SliceImpl<>(results, pageable, hasNext);
+    @Override
+    public StatisticsMetricMaxResponse findMaxMetricByTimeInterval(final StatisticsMetricTimeRange timeRange,
+                                                                   final String agentName) {
+
+        String sql = maxMetricSql(schemaProperties.readTyped(), agentName != null);
+
+        return jdbcTemplate.query(sql, new StatisticsMetricMaxRowMapper(), statisticsArgs(timeRange, agentName))
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new ObservabilityNotFoundException("not found max metric"));
     }
 
     @Override
-    public StatisticsMetricMaxResponse findMaxMetricByTimeInterval(final StatisticsMetricTimeRange timeRange) {
+    public StatisticsMetricAvgResponse findAvgMetricByTimeInterval(final StatisticsMetricTimeRange timeRange,
+                                                                   final String agentName) {
 
-        String sql = "select "
-                + "time_bucket(?::interval, time) as period, "
-                + "max(round((metric_data->'cpuMetric'->>'systemCpuLoad')::numeric, 1)) as max_system_cpu_usage, "
-                + "max(round((metric_data->'cpuMetric'->>'systemCpuLoad')::numeric, 1)) as max_process_cpu_usage, "
+        String sql = avgMetricSql(schemaProperties.readTyped(), agentName != null);
+
+        return jdbcTemplate.query(sql, new StatisticsMetricAvgRowMapper(), statisticsArgs(timeRange, agentName))
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new ObservabilityNotFoundException("not found avg metric"));
+    }
+
+    static String maxMetricSql(final boolean typed, final boolean byAgent) {
+
+        if (typed) {
+            return boundedStatisticsSql("system_metric_measurement", byAgent,
+                    "round(max(system_cpu_load)::numeric, 1) as max_system_cpu_usage, "
+                    + "round(max(process_cpu_load)::numeric, 1) as max_process_cpu_usage, "
+                    + "round(max(heap_used)::numeric / 1000000, 1) as max_heap_memory_usage, "
+                    + "max(thread_count) as max_thread_count, "
+                    + "max(peak_thread_count) as max_peak_thread_count, "
+                    + "max(request_count) as max_web_request_count, "
+                    + "max(error_count) as max_web_error_count, "
+                    + "max(current_threads) as max_web_thread_count, "
+                    + "max(active_connections) as max_db_connection_count ");
+        }
+
+        return boundedStatisticsSql("metric_measurement", byAgent,
+                "max(round((metric_data->'cpuMetric'->>'systemCpuLoad')::numeric, 1)) as max_system_cpu_usage, "
+                + "max(round((metric_data->'cpuMetric'->>'processCpuLoad')::numeric, 1)) as max_process_cpu_usage, "
                 + "max(round((metric_data->'memoryMetric'->'heapMemoryUsage'->>'used')::numeric / 1000000, 1)) as max_heap_memory_usage, "
                 + "max((metric_data->'threadMetric'->>'threadCount')::integer) as max_thread_count, "
                 + "max((metric_data->'threadMetric'->>'getPeekThreadCount')::integer) as max_peak_thread_count, "
                 + "max((metric_data->'webServerMetric'->'tomcatWebServerRequestMeasurement'->>'requestCount')::integer) as max_web_request_count, "
                 + "max((metric_data->'webServerMetric'->'tomcatWebServerRequestMeasurement'->>'errorCount')::integer) as max_web_error_count, "
                 + "max((metric_data->'webServerMetric'->'tomcatWebServerThreadPoolMeasurement'->>'currentThreads')::integer) as max_web_thread_count, "
-                + "max((metric_data->'dbcpMetric'->>'activeConnections')::integer) as max_db_connection_count "
-                + "from metric_measurement "
-                + "group by period "
-                + "order by period desc "
-                + "limit 1";
-
-        return Optional.ofNullable(
-                        jdbcTemplate.queryForObject(sql, new StatisticsMetricMaxRowMapper(), timeRange.getLatestRange()))
-                .orElseThrow(() -> new ObservabilityNotFoundException("not found max metric"));
+                + "max((metric_data->'dbcpMetric'->>'activeConnections')::integer) as max_db_connection_count ");
     }
 
-    @Override
-    public StatisticsMetricAvgResponse findAvgMetricByTimeInterval(final StatisticsMetricTimeRange timeRange) {
+    static String avgMetricSql(final boolean typed, final boolean byAgent) {
+
+        if (typed) {
+            return boundedStatisticsSql("system_metric_measurement", byAgent,
+                    "round(avg(system_cpu_load)::numeric, 1) as avg_system_cpu_usage, "
+                    + "round(avg(process_cpu_load)::numeric, 1) as avg_process_cpu_usage, "
+                    + "round(avg(heap_used / 1000000), 1) as avg_heap_memory_usage, "
+                    + "round(avg(thread_count), 1) as avg_thread_count, "
+                    + "round(avg(peak_thread_count), 1) as avg_peak_thread_count, "
+                    + "round(avg(request_count), 1) as avg_web_request_count, "
+                    + "round(avg(error_count), 1) as avg_web_error_count, "
+                    + "round(avg(current_threads), 1) as avg_web_thread_count, "
+                    + "round(avg(active_connections), 1) as avg_db_connection_count ");
+        }
 
-        String sql = "select "
-                + "time_bucket(?::interval, time) as period, "
-                + "round(avg((metric_data->'cpuMetric'->>'systemCpuLoad')::numeric), 1) as avg_system_cpu_usage, "
-                + "round(avg((metric_data->'cpuMetric'->>'systemCpuLoad')::numeric), 1) as avg_process_cpu_usage, "
+        return boundedStatisticsSql("metric_measurement", byAgent,
+                "round(avg((metric_data->'cpuMetric'->>'systemCpuLoad')::numeric), 1) as avg_system_cpu_usage, "
+                + "round(avg((metric_data->'cpuMetric'->>'processCpuLoad')::numeric), 1) as avg_process_cpu_usage, "
                 + "round(avg((metric_data->'memoryMetric'->'heapMemoryUsage'->>'used')::bigint / 1000000), 1) as avg_heap_memory_usage, "
                 + "round(avg((metric_data->'threadMetric'->>'threadCount')::integer), 1) as avg_thread_count, "
                 + "round(avg((metric_data->'threadMetric'->>'getPeekThreadCount')::integer), 1) as avg_peak_thread_count, "
                 + "round(avg((metric_data->'webServerMetric'->'tomcatWebServerRequestMeasurement'->>'requestCount')::integer), 1) as avg_web_request_count, "
                 + "round(avg((metric_data->'webServerMetric'->'tomcatWebServerRequestMeasurement'->>'errorCount')::integer), 1) as avg_web_error_count, "
                 + "round(avg((metric_data->'webServerMetric'->'tomcatWebServerThreadPoolMeasurement'->>'currentThreads')::integer), 1) as avg_web_thread_count, "
-                + "round(avg((metric_data->'dbcpMetric'->>'activeConnections')::integer), 1) as avg_db_connection_count "
-                + "from metric_measurement "
-                + "group by period "
-                + "order by period desc "
-                + "limit 1";
-
-        return Optional.ofNullable(
-                        jdbcTemplate.queryForObject(sql, new StatisticsMetricAvgRowMapper(), timeRange.getLatestRange()))
-                .orElseThrow(() -> new ObservabilityNotFoundException("not found avg metric"));
+                + "round(avg((metric_data->'dbcpMetric'->>'activeConnections')::integer), 1) as avg_db_connection_count ");
+    }
+
+    /**
+     * aggregates the rows of the last {@code range} into one row. The lower bound on {@code time} lets
+     * Timescale exclude every older chunk, and {@code period} is the start of the window.
+     * Binds the range twice, then the agent name if {@code byAgent}.
+     */
+    private static String boundedStatisticsSql(final String table, final boolean byAgent, final String aggregates) {
+
+        return "select "
+                + "now() - ?::interval as period, "
+                + aggregates
+                + "from " + table + " "
+                + "where time >= now() - ?::interval "
+                + (byAgent ? "and agent_id = (select id from agent where agent_name = ?) " : "")
+                + "having count(*) > 0";
+    }
+
+    private static Object[] statisticsArgs(final StatisticsMetricTimeRange timeRange, final String agentName) {
+
+        if (agentName == null) {
+            return new Object[]{timeRange.getLatestRange(), timeRange.getLatestRange()};
+        }
+
+        return new Object[]{timeRange.getLatestRange(), timeRange.getLatestRange(), agentName};
+    }
+
+    private String jsonColumn(final String type, final String... path) {
+
+        StringBuilder accessor = new StringBuilder("m.metric_data");
+        for (int i = 0; i < path.length; i++) {
+            accessor.append(i == path.length - 1 ? "->>'" : "->'").append(path[i]).append('\'');
+        }
+
+        return "coalesce((" + accessor + ")::" + type + ", 0)";
+    }
+
+    private String gcColumn(final String name) {
+        return "coalesce((select sum((gc->>'" + name + "')::bigint) "
+                + "from jsonb_array_elements(m.metric_data->'gcMetric'->'gcMetricCollectionTimes') gc), 0)";
     }
 
     private Field<BigDecimal> getMetricField(final Field<JSONB> metricMeasurement, final String... path) {
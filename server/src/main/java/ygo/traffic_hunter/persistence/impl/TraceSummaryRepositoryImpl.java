@@ -0,0 +1,108 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.persistence.impl;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ygo.traffic_hunter.core.repository.TraceSummaryRepository;
+import ygo.traffic_hunter.domain.entity.TraceSummary;
+
+/**
+ * <p>
+ * The {@code TraceSummaryRepositoryImpl} class keeps {@code trace_summary} up to date while spans are written.
+ * </p>
+ *
+ * <p>
+ * Every batch is folded into one row per trace and upserted. Counts and the error flag accumulate,
+ * the request fields and the time are taken from the root span once it arrives.
+ * It joins the transaction of the caller, so spans and their summary are committed together.
+ * </p>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class TraceSummaryRepositoryImpl implements TraceSummaryRepository {
+
+    /**
+     * merge rule of a partial summary into the stored one, shared with the trace id backfill.
+     */
+    static final String ON_CONFLICT = "on conflict (trace_id) do update set "
+            + "agent_id = case when excluded.has_root then excluded.agent_id else ts.agent_id end, "
+            + "time = case when excluded.has_root then excluded.time "
+            + "when ts.has_root then ts.time "
+            + "else least(ts.time, excluded.time) end, "
+            + "root_uri = coalesce(excluded.root_uri, ts.root_uri), "
+            + "http_method = coalesce(excluded.http_method, ts.http_method), "
+            + "http_status_code = coalesce(excluded.http_status_code, ts.http_status_code), "
+            + "server_name = coalesce(excluded.server_name, ts.server_name), "
+            + "duration = coalesce(excluded.duration, ts.duration), "
+            + "span_count = ts.span_count + excluded.span_count, "
+            + "has_error = ts.has_error or excluded.has_error, "
+            + "has_root = ts.has_root or excluded.has_root";
+
+    private static final String UPSERT = "insert into trace_summary as ts ("
+            + "trace_id, agent_id, time, root_uri, http_method, http_status_code, server_name, "
+            + "duration, span_count, has_error, has_root) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + ON_CONFLICT;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void upsertAll(final List<TraceSummary> summaries) {
+
+        if (summaries.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT, summaries, summaries.size(), (ps, summary) -> {
+            ps.setBytes(1, summary.traceId());
+            ps.setInt(2, summary.agentId());
+            ps.setTimestamp(3, Timestamp.from(summary.time()));
+            ps.setString(4, summary.rootUri());
+            ps.setString(5, summary.httpMethod());
+            ps.setObject(6, summary.httpStatusCode(), Types.INTEGER);
+            ps.setString(7, summary.serverName());
+            ps.setObject(8, summary.duration(), Types.BIGINT);
+            ps.setInt(9, summary.spanCount());
+            ps.setBoolean(10, summary.error());
+            ps.setBoolean(11, summary.root());
+        });
+    }
+
+    @Override
+    @Transactional
+    public int deleteOlderThan(final Instant time) {
+        return jdbcTemplate.update("delete from trace_summary where time < ?", Timestamp.from(time));
+    }
+}
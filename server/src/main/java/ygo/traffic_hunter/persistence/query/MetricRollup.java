@@ -0,0 +1,79 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.persistence.query;
+
+import java.time.Duration;
+import lombok.Getter;
+
+/**
+ * <p>
+ * Continuous aggregates of {@code system_metric_measurement}, one per bucket width.
+ * Each keeps, per bucket and agent, the sample count and the sum of every dashboard value,
+ * so buckets can be merged into any coarser interval with an exact average.
+ * </p>
+ *
+ * <p>
+ * The aggregates are created with {@code timescaledb.materialized_only = false},
+ * rows newer than the last refresh are aggregated from the hypertable at query time.
+ * </p>
+ *
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Getter
+public enum MetricRollup {
+
+    FIVE_SECONDS("system_metric_5s", Duration.ofSeconds(5)),
+    FIVE_MINUTES("system_metric_5m", Duration.ofMinutes(5)),
+    ONE_HOUR("system_metric_1h", Duration.ofHours(1)),
+    ONE_DAY("system_metric_1d", Duration.ofDays(1)),
+    ;
+
+    private final String viewName;
+
+    private final Duration bucketWidth;
+
+    MetricRollup(final String viewName, final Duration bucketWidth) {
+        this.viewName = viewName;
+        this.bucketWidth = bucketWidth;
+    }
+
+    /**
+     * @return the coarsest aggregate whose buckets fit evenly into {@code interval}
+     */
+    public static MetricRollup coarsestFor(final Duration interval) {
+
+        MetricRollup[] rollups = values();
+
+        for (int i = rollups.length - 1; i >= 0; i--) {
+            Duration width = rollups[i].bucketWidth;
+
+            if (interval.compareTo(width) >= 0 && interval.toMillis() % width.toMillis() == 0) {
+                return rollups[i];
+            }
+        }
+
+        throw new IllegalArgumentException("No rollup fits the interval " + interval);
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.presentation.controller;
+
+import io.opentelemetry.api.logs.Severity;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.time.Duration;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import ygo.traffic_hunter.core.dto.response.log.LogSearchPage;
+import ygo.traffic_hunter.core.log.LogSearchCondition;
+import ygo.traffic_hunter.core.service.LogService;
+
+/**
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+@Validated
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/logs")
+public class LogController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final Duration DEFAULT_RANGE = Duration.ofHours(1);
+
+    private final LogService logService;
+
+    /**
+     * without a range the last hour is searched.
+     */
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    public LogSearchPage searchLogApi(
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) final Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) final Instant to,
+            @RequestParam(required = false) final String agentName,
+            @RequestParam(required = false) final Severity severity,
+            @RequestParam(required = false) final String traceId,
+            @RequestParam(required = false) final String query,
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(MAX_PAGE_SIZE) final int size) {
+
+        Instant end = to == null ? Instant.now() : to;
+        Instant start = from == null ? end.minus(DEFAULT_RANGE) : from;
+
+        LogSearchCondition condition = new LogSearchCondition(start, end, agentName, severity, traceId, query);
+
+        return logService.search(condition, cursor, size);
+    }
+}
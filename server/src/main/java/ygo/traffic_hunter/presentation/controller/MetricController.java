@@ -23,25 +23,24 @@
  */
 package ygo.traffic_hunter.presentation.controller;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Slice;
-import org.springframework.data.domain.Sort.Direction;
-import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
-import ygo.traffic_hunter.core.assembler.span.SpanTreeNode;
 import ygo.traffic_hunter.core.dto.response.statistics.metric.StatisticsMetricAvgResponse;
 import ygo.traffic_hunter.core.dto.response.statistics.metric.StatisticsMetricMaxResponse;
-import ygo.traffic_hunter.core.dto.response.statistics.transaction.ServiceTransactionResponse;
+import ygo.traffic_hunter.core.dto.response.statistics.transaction.ServiceTransactionPage;
+import ygo.traffic_hunter.core.dto.response.statistics.transaction.SpanTreeResponse;
 import ygo.traffic_hunter.core.service.MetricStatisticsService;
 import ygo.traffic_hunter.core.statistics.StatisticsMetricTimeRange;
 
@@ -56,35 +55,41 @@ import ygo.traffic_hunter.core.statistics.StatisticsMetricTimeRange;
 @RequestMapping("/statistics")
 public class MetricController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final MetricStatisticsService metricStatisticsService;
 
     @GetMapping("/transaction")
     @ResponseStatus(HttpStatus.OK)
-    public Slice<ServiceTransactionResponse> retrieveServiceTransactionApi(@PageableDefault(
-                                                                                   direction = Direction.DESC
-                                                                           ) final Pageable pageable) {
+    public ServiceTransactionPage retrieveServiceTransactionApi(
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_PAGE_SIZE) final int size) {
 
-        return metricStatisticsService.retrieveServiceTransactions(pageable);
+        return metricStatisticsService.retrieveServiceTransactions(cursor, size);
     }
 
     @GetMapping("/transaction/{traceId}")
     @ResponseStatus(HttpStatus.OK)
-    public SpanTreeNode retrieveTransactionApi(@PathVariable @NotBlank String traceId) {
+    public SpanTreeResponse retrieveTransactionApi(@PathVariable @NotBlank String traceId) {
 
         return metricStatisticsService.retrieveSpanTree(traceId);
     }
 
     @GetMapping("/metric/max/{timeRange}")
     @ResponseStatus(HttpStatus.OK)
-    public StatisticsMetricMaxResponse retrieveMaxMetricApi(@PathVariable @NotNull final StatisticsMetricTimeRange timeRange) {
+    public StatisticsMetricMaxResponse retrieveMaxMetricApi(
+            @PathVariable @NotNull final StatisticsMetricTimeRange timeRange,
+            @RequestParam(required = false) final String agentName) {
 
-        return metricStatisticsService.retrieveStatisticsMaxMetric(timeRange);
+        return metricStatisticsService.retrieveStatisticsMaxMetric(timeRange, agentName);
     }
 
     @GetMapping("/metric/avg/{timeRange}")
     @ResponseStatus(HttpStatus.OK)
-    public StatisticsMetricAvgResponse retrieveAvgMetricApi(@PathVariable @NotNull final StatisticsMetricTimeRange timeRange) {
+    public StatisticsMetricAvgResponse retrieveAvgMetricApi(
+            @PathVariable @NotNull final StatisticsMetricTimeRange timeRange,
+            @RequestParam(required = false) final String agentName) {
 
-        return metricStatisticsService.retrieveStatisticsAvgMetric(timeRange);
+        return metricStatisticsService.retrieveStatisticsAvgMetric(timeRange, agentName);
     }
 }
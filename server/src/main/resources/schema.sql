@@ -66,18 +66,74 @@ CREATE TABLE IF NOT EXISTS metric_measurement (
     agent_id integer            not null
 );
 
+CREATE TABLE IF NOT EXISTS system_metric_measurement (
+    time                            timestamptz         not null,
+    agent_id                        integer             not null,
+    system_cpu_load                 double precision    not null,
+    process_cpu_load                double precision    not null,
+    available_processors            integer             not null,
+    heap_init                       bigint              not null,
+    heap_used                       bigint              not null,
+    heap_committed                  bigint              not null,
+    heap_max                        bigint              not null,
+    non_heap_used                   bigint              not null,
+    non_heap_committed              bigint              not null,
+    gc_collection_count             bigint              not null,
+    gc_collection_time              bigint              not null,
+    thread_count                    integer             not null,
+    peak_thread_count               integer             not null,
+    total_started_thread_count      bigint              not null,
+    request_count                   bigint              not null,
+    bytes_received                  bigint              not null,
+    bytes_sent                      bigint              not null,
+    processing_time                 bigint              not null,
+    error_count                     bigint              not null,
+    max_threads                     integer             not null,
+    current_threads                 integer             not null,
+    current_threads_busy            integer             not null,
+    active_connections              integer             not null,
+    idle_connections                integer             not null,
+    total_connections               integer             not null,
+    threads_awaiting_connection     integer             not null
+);
+
 CREATE TABLE IF NOT EXISTS transaction_measurement (
     time timestamptz            not null,
     transaction_data jsonb      not null,
     agent_id integer            not null
 );
 
+ALTER TABLE transaction_measurement ADD COLUMN IF NOT EXISTS trace_id bytea;
+ALTER TABLE transaction_measurement ADD COLUMN IF NOT EXISTS span_id bytea;
+ALTER TABLE transaction_measurement ADD COLUMN IF NOT EXISTS parent_span_id bytea;
+
+CREATE TABLE IF NOT EXISTS trace_summary (
+    trace_id            bytea           primary key,
+    agent_id            integer         not null,
+    time                timestamptz     not null,
+    root_uri            text,
+    http_method         text,
+    http_status_code    integer,
+    server_name         text,
+    duration            bigint,
+    span_count          integer         not null,
+    has_error           boolean         not null,
+    has_root            boolean         not null
+);
+
 CREATE TABLE IF NOT EXISTS log_measurement(
     time timestamptz            not null,
     log_data jsonb              not null,
     agent_id integer            not null
 );
 
+CREATE SEQUENCE IF NOT EXISTS log_measurement_id_seq;
+ALTER TABLE log_measurement ADD COLUMN IF NOT EXISTS id bigint;
+ALTER TABLE log_measurement ALTER COLUMN id SET DEFAULT nextval('log_measurement_id_seq');
+ALTER SEQUENCE log_measurement_id_seq OWNED BY log_measurement.id;
+ALTER TABLE log_measurement ADD COLUMN IF NOT EXISTS severity text;
+ALTER TABLE log_measurement ADD COLUMN IF NOT EXISTS trace_id bytea;
+
 CREATE TABLE IF NOT EXISTS alarm (
     time        timestamptz     not null,
     alarm_data  jsonb           not null,
@@ -90,12 +146,26 @@ CREATE TABLE IF NOT EXISTS dead_letter (
     is_delete           boolean not null
 );
 
+ALTER TABLE dead_letter ADD COLUMN IF NOT EXISTS target text;
+ALTER TABLE dead_letter ADD COLUMN IF NOT EXISTS created_at timestamptz not null default now();
+
+CREATE TABLE IF NOT EXISTS backfill (
+    name            text            primary key,
+    completed_at    timestamptz     not null default now()
+);
+
 SELECT create_hypertable(
                'metric_measurement',
                by_range('time'),
                if_not_exists := TRUE
        );
 
+SELECT create_hypertable(
+               'system_metric_measurement',
+               by_range('time'),
+               if_not_exists := TRUE
+       );
+
 SELECT create_hypertable(
                'transaction_measurement',
                by_range('time'),
@@ -120,6 +190,12 @@ SELECT add_retention_policy(
                if_not_exists := TRUE
        );
 
+SELECT add_retention_policy(
+               'system_metric_measurement',
+               interval '1 years',
+               if_not_exists := TRUE
+       );
+
 SELECT add_retention_policy(
                'transaction_measurement',
                interval '1 years',
@@ -140,11 +216,126 @@ SELECT add_retention_policy(
 
 CREATE INDEX IF NOT EXISTS alarm_time_idx ON alarm (time, agent_id);
 
+CREATE INDEX IF NOT EXISTS dead_letter_pending_idx ON dead_letter (id) WHERE is_delete = false;
+CREATE INDEX IF NOT EXISTS dead_letter_created_at_idx ON dead_letter (created_at);
+
 CREATE INDEX IF NOT EXISTS metric_measurement_agent_id_time_idx ON metric_measurement (agent_id, time);
 CREATE INDEX IF NOT EXISTS metric_measurement_agent_id_idx ON metric_measurement (agent_id);
 
+CREATE INDEX IF NOT EXISTS system_metric_measurement_agent_id_time_idx ON system_metric_measurement (agent_id, time);
+
 CREATE INDEX IF NOT EXISTS transaction_measurement_agent_id_time_idx ON transaction_measurement (agent_id, time);
 CREATE INDEX IF NOT EXISTS transaction_measurement_agent_id_idx ON transaction_measurement (agent_id);
+CREATE INDEX IF NOT EXISTS transaction_measurement_trace_id_idx ON transaction_measurement (trace_id);
+CREATE INDEX IF NOT EXISTS transaction_measurement_root_span_idx ON transaction_measurement (time DESC)
+    WHERE parent_span_id IS NULL;
+CREATE INDEX IF NOT EXISTS transaction_measurement_untagged_idx ON transaction_measurement (time)
+    WHERE trace_id IS NULL;
+
+CREATE INDEX IF NOT EXISTS trace_summary_agent_id_time_idx ON trace_summary (agent_id, time DESC);
+CREATE INDEX IF NOT EXISTS trace_summary_time_idx ON trace_summary (time DESC, trace_id DESC)
+    WHERE root_uri IS NOT NULL;
+CREATE INDEX IF NOT EXISTS trace_summary_duration_idx ON trace_summary (duration DESC)
+    WHERE root_uri IS NOT NULL;
+
+INSERT INTO trace_summary (trace_id, agent_id, time, root_uri, http_method, http_status_code, server_name,
+                           duration, span_count, has_error, has_root)
+SELECT trace_id,
+       coalesce(min(agent_id) FILTER (WHERE parent_span_id IS NULL), min(agent_id)),
+       coalesce(min(time) FILTER (WHERE parent_span_id IS NULL), min(time)),
+       min(transaction_data -> 'attributes' ->> 'http.requestURI') FILTER (WHERE parent_span_id IS NULL),
+       min(transaction_data -> 'attributes' ->> 'http.method') FILTER (WHERE parent_span_id IS NULL),
+       min(CASE WHEN transaction_data -> 'attributes' ->> 'http.statusCode' ~ '^[0-9]{1,3}$'
+                THEN (transaction_data -> 'attributes' ->> 'http.statusCode')::integer END)
+           FILTER (WHERE parent_span_id IS NULL),
+       min(transaction_data -> 'attributes' ->> 'http.serverName') FILTER (WHERE parent_span_id IS NULL),
+       min((transaction_data ->> 'duration')::bigint) FILTER (WHERE parent_span_id IS NULL),
+       count(*),
+       bool_or(coalesce(transaction_data ->> 'exception', 'success') <> 'success'
+               OR (parent_span_id IS NULL
+                   AND transaction_data -> 'attributes' ->> 'http.statusCode' ~ '^[5-9][0-9]{2}$')),
+       bool_or(parent_span_id IS NULL)
+FROM transaction_measurement
+WHERE trace_id IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM trace_summary)
+GROUP BY trace_id;
 
 CREATE INDEX IF NOT EXISTS log_measurement_agent_id_time_idx ON log_measurement (agent_id, time);
-CREATE INDEX IF NOT EXISTS log_measurement_agent_id_idx ON log_measurement (agent_id);
\ No newline at end of file
+CREATE INDEX IF NOT EXISTS log_measurement_agent_id_idx ON log_measurement (agent_id);
+CREATE INDEX IF NOT EXISTS log_measurement_agent_id_time_id_idx ON log_measurement (agent_id, time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS log_measurement_agent_id_severity_time_idx ON log_measurement (agent_id, severity, time DESC);
+CREATE INDEX IF NOT EXISTS log_measurement_trace_id_idx ON log_measurement (trace_id)
+    WHERE trace_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS log_measurement_body_search_idx ON log_measurement
+    USING gin (to_tsvector('simple', coalesce(log_data ->> 'body', '')));
+CREATE INDEX IF NOT EXISTS log_measurement_untagged_idx ON log_measurement (time)
+    WHERE id IS NULL;
+
+DO
+$$
+DECLARE
+    rollup RECORD;
+BEGIN
+    FOR rollup IN
+        SELECT *
+        FROM (VALUES ('system_metric_5s', '5 seconds', '10 minutes', '5 seconds',  '5 seconds'),
+                     ('system_metric_5m', '5 minutes', '2 hours',    '5 minutes',  '1 minute'),
+                     ('system_metric_1h', '1 hour',    '1 day',      '1 hour',     '10 minutes'),
+                     ('system_metric_1d', '1 day',     '3 days',     '1 day',      '1 hour'))
+            AS r(view_name, bucket_width, start_offset, end_offset, schedule_interval)
+    LOOP
+        EXECUTE format(
+                'CREATE MATERIALIZED VIEW IF NOT EXISTS %I ' ||
+                'WITH (timescaledb.continuous, timescaledb.materialized_only = false) AS ' ||
+                'SELECT time_bucket(%L::interval, time) AS bucket, agent_id, count(*) AS samples, ' ||
+                'sum(system_cpu_load) AS system_cpu_load_sum, ' ||
+                'sum(process_cpu_load) AS process_cpu_load_sum, ' ||
+                'sum(available_processors) AS available_processors_sum, ' ||
+                'sum(heap_init) AS heap_init_sum, ' ||
+                'sum(heap_used) AS heap_used_sum, ' ||
+                'sum(heap_committed) AS heap_committed_sum, ' ||
+                'sum(heap_max) AS heap_max_sum, ' ||
+                'sum(thread_count) AS thread_count_sum, ' ||
+                'sum(peak_thread_count) AS peak_thread_count_sum, ' ||
+                'sum(total_started_thread_count) AS total_started_thread_count_sum, ' ||
+                'sum(request_count) AS request_count_sum, ' ||
+                'sum(bytes_received) AS bytes_received_sum, ' ||
+                'sum(bytes_sent) AS bytes_sent_sum, ' ||
+                'sum(processing_time) AS processing_time_sum, ' ||
+                'sum(error_count) AS error_count_sum, ' ||
+                'sum(max_threads) AS max_threads_sum, ' ||
+                'sum(current_threads) AS current_threads_sum, ' ||
+                'sum(current_threads_busy) AS current_threads_busy_sum, ' ||
+                'sum(active_connections) AS active_connections_sum, ' ||
+                'sum(idle_connections) AS idle_connections_sum, ' ||
+                'sum(total_connections) AS total_connections_sum, ' ||
+                'sum(threads_awaiting_connection) AS threads_awaiting_connection_sum ' ||
+                'FROM system_metric_measurement ' ||
+                'GROUP BY 1, 2 ' ||
+                'WITH NO DATA',
+                rollup.view_name,
+                rollup.bucket_width
+        );
+
+        PERFORM add_continuous_aggregate_policy(
+                rollup.view_name::regclass,
+                start_offset => rollup.start_offset::interval,
+                end_offset => rollup.end_offset::interval,
+                schedule_interval => rollup.schedule_interval::interval,
+                if_not_exists => TRUE
+        );
+    END LOOP;
+END;
+$$;;
+
+SELECT add_retention_policy(
+               'system_metric_5s',
+               interval '1 days',
+               if_not_exists := TRUE
+       );
+
+SELECT add_retention_policy(
+               'system_metric_5m',
+               interval '7 days',
+               if_not_exists := TRUE
+       );
\ No newline at end of file
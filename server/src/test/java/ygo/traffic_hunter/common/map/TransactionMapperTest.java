@@ -2,6 +2,7 @@ package ygo.traffic_hunter.common.map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.BDDMockito.given;
 
 import java.time.Instant;
@@ -12,7 +13,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ygo.traffic_hunter.common.map.impl.transaction.TransactionMapperImpl;
-import ygo.traffic_hunter.core.assembler.span.SpanTreeNode;
 import ygo.traffic_hunter.core.dto.request.metadata.AgentMetadata;
 import ygo.traffic_hunter.core.dto.request.metadata.AgentStatus;
 import ygo.traffic_hunter.core.dto.request.metadata.MetadataWrapper;
@@ -119,6 +119,6 @@ class TransactionMapperTest {
         assertEquals(mockAgent.agentName(), response.agentName());
         assertEquals(mockAgent.agentBootTime(), response.agentBootTime());
         assertEquals(mockAgent.agentVersion(), response.agentVersion());
-        assertEquals(SpanTreeNode.NO_OP, response.spanTreeNode());
+        assertTrue(response.spanTree().spans().isEmpty());
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package ygo.traffic_hunter.common.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+
+class TraceIdsTest extends AbstractTestConfiguration {
+
+    @Test
+    void 헥스_아이디를_고정_길이_바이트로_변환한다() {
+        // given
+        String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+        String spanId = "00f067aa0ba902b7";
+
+        // when
+        byte[] traceBytes = TraceIds.traceId(traceId);
+        byte[] spanBytes = TraceIds.spanId(spanId);
+
+        // then
+        assertThat(traceBytes).hasSize(16);
+        assertThat(spanBytes).hasSize(8);
+        assertThat(TraceIds.toHex(traceBytes)).isEqualTo(traceId);
+        assertThat(TraceIds.toHex(spanBytes)).isEqualTo(spanId);
+    }
+
+    @Test
+    void 루트_스팬의_부모_아이디는_null이다() {
+        assertThat(TraceIds.parentSpanId("0000000000000000")).isNull();
+        assertThat(TraceIds.parentSpanId(null)).isNull();
+        assertThat(TraceIds.parentSpanId("00f067aa0ba902b7")).hasSize(8);
+    }
+
+    @Test
+    void 형식이_맞지_않는_부모_아이디는_루트와_구분되는_빈_값이다() {
+        assertThat(TraceIds.parentSpanId("not-a-span-id")).isNotNull().isEmpty();
+        assertThat(TraceIds.parentSpanId("00f067aa0ba902bz")).isNotNull().isEmpty();
+    }
+
+    @Test
+    void 형식이_맞지_않는_아이디는_null이다() {
+        assertThat(TraceIds.traceId("test-trace-id")).isNull();
+        assertThat(TraceIds.spanId("00f067aa0ba902b")).isNull();
+        assertThat(TraceIds.spanId("00f067aa0ba902bz")).isNull();
+    }
+}
@@ -0,0 +1,185 @@
+package ygo.traffic_hunter.core.alarm.dispatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.core.alarm.dispatch.property.WebHookDispatchProperties;
+import ygo.traffic_hunter.core.alarm.loss.LossPreventionHooker;
+import ygo.traffic_hunter.core.alarm.loss.UndeliveredAlarm;
+import ygo.traffic_hunter.core.alarm.message.Message;
+import ygo.traffic_hunter.core.alarm.message.MessageType;
+import ygo.traffic_hunter.core.send.AlarmSender.AlarmException;
+import ygo.traffic_hunter.core.send.AlarmSender.RateLimitException;
+
+/**
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+class WebHookLaneTest extends AbstractTestConfiguration {
+
+    private final List<Message> lost = new CopyOnWriteArrayList<>();
+
+    private final LossPreventionHooker hooker = new LossPreventionHooker() {
+        @Override
+        public <T> void hook(final T lossData) {
+            lost.add(((UndeliveredAlarm) lossData).message());
+        }
+    };
+
+    @Test
+    void 짧은_시간에_몰린_알람은_하나의_요약_메시지로_보내고_호출자를_막지_않는다() throws InterruptedException {
+        // given
+        List<Message> sent = new CopyOnWriteArrayList<>();
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(2);
+
+        WebHookLane lane = new WebHookLane("test", message -> {
+            sending.countDown();
+            await(release);
+            sent.add(message);
+            latch.countDown();
+        }, properties(Duration.ofMillis(200), Duration.ZERO), hooker);
+        lane.start();
+
+        // when - the second half is offered while the webhook holds the first digest
+        for (int agent = 0; agent < 20; agent++) {
+            lane.offer(alarm("agent-" + agent));
+        }
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int agent = 20; agent < 30; agent++) {
+            lane.offer(alarm("agent-" + agent));
+        }
+        release.countDown();
+
+        // then
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(sent).extracting(Message::username).containsOnly(WebHookLane.DIGEST_USERNAME);
+        assertThat(sent).extracting(message -> message.embeds().getFirst().fields().size()).containsExactly(20, 10);
+        assertThat(lost).isEmpty();
+
+        lane.close(1000);
+    }
+
+    @Test
+    void 요청_제한_응답을_받으면_retry_after_만큼_기다렸다가_다시_보낸다() throws InterruptedException {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        List<Long> callNanos = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        WebHookLane lane = new WebHookLane("test", message -> {
+            callNanos.add(System.nanoTime());
+            if (calls.incrementAndGet() == 1) {
+                throw new RateLimitException("0.3");
+            }
+            latch.countDown();
+        }, properties(Duration.ZERO, Duration.ZERO), hooker);
+        lane.start();
+
+        // when
+        lane.offer(alarm("agent"));
+
+        // then
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(callNanos.get(1) - callNanos.get(0))).isGreaterThanOrEqualTo(300);
+        assertThat(lost).isEmpty();
+
+        lane.close(1000);
+    }
+
+    @Test
+    void 전송에_실패한_요약_메시지는_원래_알람_단위로_데드레터에_남긴다() throws InterruptedException {
+        // given
+        CountDownLatch latch = new CountDownLatch(1);
+
+        WebHookLane lane = new WebHookLane("test", message -> {
+            latch.countDown();
+            throw new AlarmException("webhook is down");
+        }, properties(Duration.ofMillis(200), Duration.ZERO), hooker);
+        lane.start();
+
+        // when
+        Message first = alarm("agent-1");
+        Message second = alarm("agent-2");
+        lane.offer(first);
+        lane.offer(second);
+
+        // then
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        lane.close(1000);
+        assertThat(lost).containsExactly(first, second);
+    }
+
+    @Test
+    void 동시에_들어온_재전송은_워커의_전송과_함께_min_interval_간격으로_하나씩_보낸다() throws InterruptedException {
+        // given
+        List<Long> callNanos = new CopyOnWriteArrayList<>();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(5);
+
+        WebHookLane lane = new WebHookLane("test", message -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            callNanos.add(System.nanoTime());
+            sleep(20);
+            inFlight.decrementAndGet();
+            latch.countDown();
+        }, properties(Duration.ZERO, Duration.ofMillis(100)), hooker);
+        lane.start();
+
+        // when
+        lane.offer(alarm("live"));
+        for (int replay = 0; replay < 4; replay++) {
+            Thread.ofVirtual().start(() -> {
+                try {
+                    lane.resend(alarm("replay"));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        // then
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxInFlight).hasValue(1);
+        List<Long> sorted = callNanos.stream().sorted().toList();
+        for (int i = 1; i < sorted.size(); i++) {
+            assertThat(TimeUnit.NANOSECONDS.toMillis(sorted.get(i) - sorted.get(i - 1))).isGreaterThanOrEqualTo(100);
+        }
+
+        lane.close(1000);
+    }
+
+    private WebHookDispatchProperties properties(final Duration coalesce, final Duration minInterval) {
+        return new WebHookDispatchProperties(coalesce, 20, minInterval, 3, 100);
+    }
+
+    private Message alarm(final String agentName) {
+        return MessageType.CPU.doMessage(null, agentName, Instant.now(), "95.0%");
+    }
+
+    private void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package ygo.traffic_hunter.core.alarm.loss.replay;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.core.alarm.dispatch.WebHookDispatcher;
+import ygo.traffic_hunter.core.alarm.loss.replay.property.DeadLetterProperties;
+import ygo.traffic_hunter.core.alarm.message.Message;
+import ygo.traffic_hunter.core.alarm.message.MessageType;
+import ygo.traffic_hunter.core.repository.AlarmRepository;
+import ygo.traffic_hunter.core.send.AlarmSender;
+import ygo.traffic_hunter.core.send.AlarmSender.AlarmException;
+import ygo.traffic_hunter.domain.entity.alarm.DeadLetter;
+
+@SpringBootTest
+class DeadLetterReplayerTest extends AbstractTestConfiguration {
+
+    @Autowired
+    private AlarmRepository alarmRepository;
+
+    @Autowired
+    private WebHookDispatcher webHookDispatcher;
+
+    private final Message message = MessageType.CPU.doMessage(null, "test", Instant.now(), "95.0%");
+
+    @AfterEach
+    void init() {
+        alarmRepository.clearDeadLetter();
+    }
+
+    @Test
+    void 데드레터_스케줄러는_정상적으로_동작한다() throws JsonProcessingException {
+        // given
+        alarmRepository.save(new DeadLetter(message));
+        alarmRepository.save(new DeadLetter(message));
+        alarmRepository.save(new DeadLetter(message));
+
+        DeadLetterReplayer replayer = new DeadLetterReplayer(
+                alarmRepository,
+                List.of(sender("slack", ignored -> {}), sender("discord", ignored -> {})),
+                webHookDispatcher,
+                properties(Duration.ofDays(7))
+        );
+
+        // when
+        replayer.replay();
+        replayer.close();
+
+        // then
+        assertThat(alarmRepository.findAllDeadLetter()).isEmpty();
+    }
+
+    @Test
+    void 모든_전송자에게_보낼_데드레터는_받지_못한_전송자에게만_다시_보낸다() throws JsonProcessingException {
+        // given
+        alarmRepository.save(new DeadLetter(message));
+
+        AtomicInteger workingCalls = new AtomicInteger();
+
+        DeadLetterReplayer replayer = new DeadLetterReplayer(
+                alarmRepository,
+                List.of(
+                        sender("failing", ignored -> {
+                            throw new AlarmException("webhook is down");
+                        }),
+                        sender("working", ignored -> workingCalls.incrementAndGet())
+                ),
+                webHookDispatcher,
+                new DeadLetterProperties(Duration.ofMinutes(5), 1, 1, Duration.ZERO, Duration.ZERO, Duration.ofDays(7))
+        );
+
+        // when
+        replayer.replay();
+        replayer.replay();
+        replayer.close();
+
+        // then
+        assertThat(workingCalls.get()).isEqualTo(1);
+        assertThat(alarmRepository.findAllDeadLetter())
+                .hasSize(1)
+                .extracting(DeadLetter::getTarget)
+                .containsOnly("failing");
+    }
+
+    @Test
+    void 보낼_수_없는_전송자나_없는_전송자의_데드레터는_남겨둔다() throws JsonProcessingException {
+        // given
+        alarmRepository.save(new DeadLetter(message, "disabled"));
+        alarmRepository.save(new DeadLetter(message, "removed"));
+
+        AtomicInteger disabledCalls = new AtomicInteger();
+
+        DeadLetterReplayer replayer = new DeadLetterReplayer(
+                alarmRepository,
+                List.of(sender("disabled", false, ignored -> disabledCalls.incrementAndGet())),
+                webHookDispatcher,
+                properties(Duration.ofDays(7))
+        );
+
+        // when
+        replayer.replay();
+        replayer.close();
+
+        // then
+        assertThat(disabledCalls.get()).isZero();
+        assertThat(alarmRepository.findAllDeadLetter())
+                .extracting(DeadLetter::getTarget)
+                .containsExactlyInAnyOrder("disabled", "removed");
+    }
+
+    @Test
+    void 전송에_성공한_데드레터만_처리하고_실패한_전송자는_지수_백오프_동안_건너뛴다() throws JsonProcessingException {
+        // given
+        for (int i = 0; i < 3; i++) {
+            alarmRepository.save(new DeadLetter(message, "failing"));
+            alarmRepository.save(new DeadLetter(message, "working"));
+        }
+
+        AtomicInteger failingCalls = new AtomicInteger();
+        AtomicInteger workingCalls = new AtomicInteger();
+
+        DeadLetterReplayer replayer = new DeadLetterReplayer(
+                alarmRepository,
+                List.of(
+                        sender("failing", ignored -> {
+                            failingCalls.incrementAndGet();
+                            throw new AlarmException("webhook is down");
+                        }),
+                        sender("working", ignored -> workingCalls.incrementAndGet())
+                ),
+                webHookDispatcher,
+                properties(Duration.ofDays(7))
+        );
+
+        // when
+        replayer.replay();
+        replayer.replay();
+        replayer.close();
+
+        // then
+        assertThat(workingCalls.get()).isEqualTo(3);
+        assertThat(failingCalls.get()).isEqualTo(1);
+        assertThat(alarmRepository.findAllDeadLetter())
+                .hasSize(3)
+                .extracting(DeadLetter::getTarget)
+                .containsOnly("failing");
+    }
+
+    @Test
+    void 보관_기간이_지난_데드레터는_삭제한다() throws JsonProcessingException {
+        // given
+        alarmRepository.save(new DeadLetter(message, "working"));
+        alarmRepository.save(new DeadLetter(message, "working"));
+
+        DeadLetterReplayer replayer = new DeadLetterReplayer(alarmRepository, List.of(), webHookDispatcher, properties(Duration.ZERO));
+
+        // when
+        replayer.purge();
+        replayer.close();
+
+        // then
+        assertThat(alarmRepository.existDeadLetter()).isFalse();
+    }
+
+    // one dead letter per page so the cursor is walked, a single replay thread so the backoff kicks in right away
+    private DeadLetterProperties properties(final Duration retention) {
+        return new DeadLetterProperties(Duration.ofMinutes(5), 1, 1, Duration.ofHours(1), Duration.ofHours(1), retention);
+    }
+
+    private AlarmSender sender(final String target, final Consumer<Message> send) {
+        return sender(target, true, send);
+    }
+
+    private AlarmSender sender(final String target, final boolean canSend, final Consumer<Message> send) {
+
+        return new AlarmSender() {
+            @Override
+            public void send(final Message message) {
+                send.accept(message);
+            }
+
+            @Override
+            public String target() {
+                return target;
+            }
+
+            @Override
+            public boolean canSend() {
+                return canSend;
+            }
+        };
+    }
+}
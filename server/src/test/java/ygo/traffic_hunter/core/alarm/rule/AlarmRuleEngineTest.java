@@ -0,0 +1,207 @@
+package ygo.traffic_hunter.core.alarm.rule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.core.alarm.AlarmManager;
+import ygo.traffic_hunter.core.alarm.message.Message;
+import ygo.traffic_hunter.core.alarm.rule.AlarmRuleEngine.AlarmSample;
+import ygo.traffic_hunter.core.alarm.rule.property.AlarmRuleProperties;
+import ygo.traffic_hunter.core.dto.request.metadata.AgentMetadata;
+import ygo.traffic_hunter.core.dto.request.metadata.AgentStatus;
+import ygo.traffic_hunter.core.dto.response.alarm.ThresholdResponse;
+import ygo.traffic_hunter.core.service.AlarmService;
+import ygo.traffic_hunter.domain.entity.SystemMetricMeasurement;
+
+class AlarmRuleEngineTest extends AbstractTestConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(AlarmRuleEngineTest.class);
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private static final ThresholdResponse THRESHOLD = new ThresholdResponse(80, 80, 80, 100, 80, 80);
+
+    private final AlarmService alarmService = mock(AlarmService.class);
+
+    private final AlarmManager alarmManager = mock(AlarmManager.class);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void 한_에이전트의_알람이_다른_에이전트의_같은_알람을_막지_않는다() {
+        // given
+        AlarmRuleEngine engine = engine(Duration.ZERO);
+
+        // when
+        engine.evaluate(List.of(
+                new AlarmSample("agent-a", measurement(START, 0.95)),
+                new AlarmSample("agent-b", measurement(START, 0.95)),
+                new AlarmSample("agent-a", measurement(START.plusSeconds(1), 0.95))
+        ));
+
+        // then
+        verify(alarmManager, times(2)).send(any(Message.class));
+    }
+
+    @Test
+    void 임계값을_지속_시간_동안_넘어야_알람이_발생하고_쿨다운_동안_반복되지_않는다() {
+        // given
+        AlarmRuleEngine engine = engine(Duration.ofSeconds(30));
+        List<AlarmSample> samples = new ArrayList<>();
+
+        for (int second = 0; second < 29; second++) {
+            samples.add(new AlarmSample("agent", measurement(START.plusSeconds(second), 0.95)));
+        }
+
+        // when
+        engine.evaluate(samples);
+        verify(alarmManager, never()).send(any(Message.class));
+
+        samples.clear();
+        for (int second = 29; second < 120; second++) {
+            samples.add(new AlarmSample("agent", measurement(START.plusSeconds(second), 0.95)));
+        }
+        engine.evaluate(samples);
+
+        // then
+        verify(alarmManager, times(1)).send(any(Message.class));
+    }
+
+    @Test
+    void 슬라이딩_윈도우는_윈도우를_벗어난_샘플을_평균과_최댓값에서_뺀다() {
+        // given
+        MetricWindow window = new MetricWindow(10_000L, 20);
+
+        // when
+        window.add(0, 90);
+        window.add(5_000, 10);
+        window.add(9_000, 20);
+        double maxBefore = window.max();
+        window.add(10_000, 30);
+
+        // then
+        assertThat(maxBefore).isEqualTo(90);
+        assertThat(window.max()).isEqualTo(30);
+        assertThat(window.mean()).isEqualTo(20);
+    }
+
+    @Test
+    void 윈도우보다_긴_공백이_있으면_임계값_초과_시간을_처음부터_센다() {
+        // given
+        MetricWindow window = new MetricWindow(10_000L, 20);
+
+        window.add(0, 90);
+        window.durationAbove(0, 90, 80);
+
+        // when
+        window.add(30_000, 90);
+        long above = window.durationAbove(30_000, 90, 80);
+
+        // then
+        assertThat(above).isZero();
+    }
+
+    @Test
+    void 큐가_가득_차면_수집_스레드를_막지_않고_샘플을_버린다() throws Exception {
+        // given
+        AlarmRuleEngine engine = engine(Duration.ZERO, 1);
+        AgentMetadata metadata = new AgentMetadata("agent", "1.0.0", "agent", START, AgentStatus.RUNNING);
+
+        CountDownLatch evaluating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(alarmService.retrieveThreshold()).willAnswer(invocation -> {
+            evaluating.countDown();
+            release.await();
+            return THRESHOLD;
+        });
+
+        engine.start();
+        engine.offer(metadata, measurement(START, 0.1));
+        assertThat(evaluating.await(1, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            engine.offer(metadata, measurement(START.plusSeconds(i + 1), 0.1));
+        }
+
+        // then
+        assertThat(meterRegistry.get("traffichunter.alarm.dropped").counter().count()).isEqualTo(9);
+
+        release.countDown();
+        engine.stop();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void 수천_개_에이전트의_1초_샘플을_평가하는_시간을_잰다() {
+        // given
+        int agents = 5_000;
+        int seconds = 60;
+        AlarmRuleEngine engine = engine(Duration.ofSeconds(30));
+
+        List<List<AlarmSample>> batches = new ArrayList<>(seconds);
+        for (int second = 0; second < seconds; second++) {
+            List<AlarmSample> batch = new ArrayList<>(agents);
+            for (int agent = 0; agent < agents; agent++) {
+                batch.add(new AlarmSample("agent-" + agent, measurement(START.plusSeconds(second), agent % 100 / 100.0)));
+            }
+            batches.add(batch);
+        }
+
+        // when
+        long start = System.nanoTime();
+        batches.forEach(engine::evaluate);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // then
+        log.info("{} agents x {} seconds of samples evaluated in {}ms", agents, seconds, elapsed);
+    }
+
+    private AlarmRuleEngine engine(final Duration sustain) {
+        return engine(sustain, 100);
+    }
+
+    private AlarmRuleEngine engine(final Duration sustain, final int queueCapacity) {
+
+        given(alarmService.retrieveThreshold()).willReturn(THRESHOLD);
+
+        return new AlarmRuleEngine(
+                alarmService,
+                alarmManager,
+                new AlarmRuleProperties(Duration.ofSeconds(60), sustain, Duration.ofMinutes(10), queueCapacity),
+                meterRegistry
+        );
+    }
+
+    private SystemMetricMeasurement measurement(final Instant time, final double processCpuLoad) {
+        return new SystemMetricMeasurement(
+                time,
+                1,
+                0.5, processCpuLoad, 4,
+                1_000L, 2_000L, 3_000L, 4_000L, 500L, 700L,
+                7L, 140L,
+                10, 15, 100L,
+                5L, 1_000L, 2_000L, 500L, 0L,
+                200, 50, 30,
+                5, 10, 15, 0
+        );
+    }
+}
@@ -1,16 +1,39 @@
 package ygo.traffic_hunter.core.assembler.span;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import ygo.traffic_hunter.AbstractTestConfiguration;
 import ygo.traffic_hunter.core.assembler.Assembler;
+import ygo.traffic_hunter.core.dto.response.TransactionMetricResponse;
+import ygo.traffic_hunter.core.dto.response.statistics.transaction.SpanTreeResponse;
 import ygo.traffic_hunter.domain.metric.TransactionData;
 
 class SpanAssemblerTest extends AbstractTestConfiguration {
 
+    private static final Logger log = LoggerFactory.getLogger(SpanAssemblerTest.class);
+
+    private final Assembler<List<TransactionData>, SpanTreeNode> assembler = new SpanAssembler();
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
+            .registerModule(new JavaTimeModule());
+
     @Test
     void assembler가_데이터를_잘_출력하는지_확인한다() {
 
@@ -21,14 +44,162 @@ class SpanAssemblerTest extends AbstractTestConfiguration {
         datas.add(createTransactionData("b", "c"));
         datas.add(createTransactionData("c", "d"));
 
-        Assembler<List<TransactionData>, SpanTreeNode> assembler = new SpanAssembler();
-
         SpanTreeNode spanTreeNode = assembler.assemble(datas);
 
         System.out.println(spanTreeNode);
+
+        assertThat(spanTreeNode.getData().spanId()).isEqualTo("a");
+        assertThat(spanTreeNode.getChildren().getFirst().getChildren().getFirst().getData().spanId()).isEqualTo("c");
+    }
+
+    @Test
+    void 자식_스팬은_시작_시간_순으로_정렬된다() {
+        // given
+        Instant now = Instant.now();
+        List<TransactionData> datas = List.of(
+                createTransactionData("b", "d", now.plusMillis(3)),
+                createTransactionData("0000000000000000", "a", now),
+                createTransactionData("a", "c", now.plusMillis(2)),
+                createTransactionData("a", "b", now.plusMillis(1))
+        );
+
+        // when
+        SpanTreeNode root = assembler.assemble(datas);
+
+        // then
+        assertThat(root.getData().spanId()).isEqualTo("a");
+        assertThat(root.getChildren()).extracting(node -> node.getData().spanId()).containsExactly("b", "c");
+        assertThat(root.getChildren().getFirst().getChildren()).extracting(node -> node.getData().spanId())
+                .containsExactly("d");
+    }
+
+    @Test
+    void 부모가_없는_스팬과_순환은_합성_루트에_붙는다() {
+        // given
+        Instant now = Instant.now();
+        List<TransactionData> datas = List.of(
+                createTransactionData("0000000000000000", "a", now),
+                createTransactionData("a", "b", now.plusMillis(1)),
+                createTransactionData("missing", "c", now.plusMillis(2)),
+                createTransactionData("e", "d", now.plusMillis(3)),
+                createTransactionData("d", "e", now.plusMillis(4))
+        );
+
+        // when
+        SpanTreeNode root = assembler.assemble(datas);
+
+        // then
+        assertThat(root.getData().name()).isEqualTo(SpanAssembler.SYNTHETIC_ROOT_NAME);
+        assertThat(root.getChildren()).extracting(node -> node.getData().spanId()).containsExactly("a", "c", "d");
+        assertThat(root.getChildren().get(2).getChildren()).extracting(node -> node.getData().spanId())
+                .containsExactly("e");
+        assertThat(count(root)).isEqualTo(datas.size() + 1);
+    }
+
+    @Test
+    void 십만_개_스팬도_선형_시간에_조립한다() {
+
+        for (int size : new int[]{10_000, 100_000}) {
+            // given
+            List<TransactionData> wide = randomTree(size, 8);
+            List<TransactionData> deep = randomTree(size, 1);
+
+            // when
+            SpanTreeNode wideRoot = assembler.assemble(wide);
+            SpanTreeNode deepRoot = assembler.assemble(deep);
+
+            // then
+            assertThat(count(wideRoot)).isEqualTo(size);
+            assertThat(count(deepRoot)).isEqualTo(size);
+        }
+    }
+
+    @Test
+    void 십만_단계_체인도_대시보드_트랜잭션_응답으로_직렬화된다() throws JsonProcessingException {
+        // given
+        int size = 100_000;
+        SpanTreeNode root = assembler.assemble(randomTree(size, 1));
+
+        // when
+        String json = objectMapper.writeValueAsString(
+                TransactionMetricResponse.create("agent", Instant.EPOCH, "1.0.0", root));
+
+        // then
+        JsonNode spans = objectMapper.readTree(json).path("spanTree").path("spans");
+        assertThat(spans.size()).isEqualTo(size);
+        assertThat(spans.get(0).path("parentIndex").asInt()).isEqualTo(SpanTreeResponse.NO_PARENT);
+        assertThat(spans.get(size - 1).path("parentIndex").asInt()).isEqualTo(size - 2);
+        assertThat(spans.get(size - 1).path("depth").asInt()).isEqualTo(size - 1);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void 스팬_트리를_조립하고_직렬화하는_시간을_잰다() throws JsonProcessingException {
+
+        for (int size : new int[]{10_000, 50_000, 100_000}) {
+            for (int fanIn : new int[]{8, 1}) {
+                // given
+                List<TransactionData> datas = randomTree(size, fanIn);
+
+                // when
+                long start = System.nanoTime();
+                SpanTreeNode root = assembler.assemble(datas);
+                long assembled = System.nanoTime();
+                SpanTreeResponse response = SpanTreeResponse.from(root);
+                long flattened = System.nanoTime();
+                String json = objectMapper.writeValueAsString(response);
+                long serialized = System.nanoTime();
+
+                // then
+                assertThat(response.spans()).hasSize(size);
+                log.info("{} spans ({}): assemble {}ms, flatten {}ms, serialize {}ms, {} bytes",
+                        size, fanIn == 1 ? "chain" : "fan-in " + fanIn,
+                        TimeUnit.NANOSECONDS.toMillis(assembled - start),
+                        TimeUnit.NANOSECONDS.toMillis(flattened - assembled),
+                        TimeUnit.NANOSECONDS.toMillis(serialized - flattened),
+                        json.length());
+            }
+        }
+    }
+
+    /**
+     * Each span picks its parent among the previous {@code fanIn} spans, so a fan-in of 1 is a single chain.
+     */
+    private List<TransactionData> randomTree(final int size, final int fanIn) {
+
+        Random random = new Random(size);
+        Instant now = Instant.now();
+        List<TransactionData> datas = new ArrayList<>(size);
+
+        datas.add(createTransactionData("0000000000000000", "s0", now));
+        for (int i = 1; i < size; i++) {
+            int parent = Math.max(0, i - 1 - random.nextInt(fanIn));
+            datas.add(createTransactionData("s" + parent, "s" + i, now.plusNanos(random.nextInt(1_000_000))));
+        }
+        Collections.shuffle(datas, random);
+
+        return datas;
+    }
+
+    private int count(final SpanTreeNode root) {
+
+        int count = 0;
+        List<SpanTreeNode> stack = new ArrayList<>(List.of(root));
+        while (!stack.isEmpty()) {
+            SpanTreeNode node = stack.removeLast();
+            count++;
+            stack.addAll(node.getChildren());
+        }
+
+        return count;
     }
 
     private TransactionData createTransactionData(final String parentSpanId, final String spanId) {
+        return createTransactionData(parentSpanId, spanId, Instant.now());
+    }
+
+    private TransactionData createTransactionData(final String parentSpanId, final String spanId,
+                                                  final Instant startTime) {
         return TransactionData.builder()
                 .parentSpanId(parentSpanId)
                 .spanId(spanId)
@@ -37,10 +208,10 @@ class SpanAssemblerTest extends AbstractTestConfiguration {
                 .name("test")
                 .attributesCount(4)
                 .attributes(Map.of())
-                .endTime(Instant.now())
-                .startTime(Instant.now())
+                .endTime(startTime)
+                .startTime(startTime)
                 .exception("exception")
                 .duration(30)
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+package ygo.traffic_hunter.core.collector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.core.collector.channel.MetricChannel;
+import ygo.traffic_hunter.core.collector.channel.MetricChannel.MetricHeaderSpec;
+
+/**
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+class IngestMetricsTest extends AbstractTestConfiguration {
+
+    private static final String AGENT_ID = "agent-id";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final IngestMetrics metrics = new IngestMetrics(meterRegistry);
+
+    private final MetricCollector collector = new MetricCollector(Set.of(new MetricChannel() {
+        @Override
+        public MetricHeaderSpec getHeaderSpec() {
+            return MetricHeaderSpec.LOG;
+        }
+
+        @Override
+        public Object decode(final ByteBuffer payload) {
+            return payload;
+        }
+
+        @Override
+        public void open(final ByteBuffer payload) {
+        }
+    }), metrics);
+
+    @Test
+    void 수신한_프레임을_스펙과_에이전트별로_세고_세션을_닫으면_세션_지표를_지운다() throws IOException {
+        // given
+        ByteBuffer frame = frame(MetricHeaderSpec.LOG, "x".repeat(10_000));
+        int size = frame.remaining();
+        metrics.introduced("session", AGENT_ID);
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            metrics.received("session", AGENT_ID, frame);
+        }
+
+        // then
+        assertThat(frame.remaining()).isEqualTo(size);
+        assertThat(meterRegistry.get("traffichunter.ingest.frames").tags("spec", "log", "agent", AGENT_ID)
+                .counter().count()).isEqualTo(3);
+        assertThat(summary("traffichunter.ingest.payload.compressed", "log").totalAmount()).isEqualTo(3d * size);
+        assertThat(meterRegistry.find("traffichunter.ingest.session.frames.rate").tag("session", "session").gauge())
+                .isNotNull();
+
+        metrics.closed("session");
+        assertThat(meterRegistry.find("traffichunter.ingest.session.frames.rate").gauges()).isEmpty();
+        assertThat(meterRegistry.find("traffichunter.ingest.frames").tag("agent", AGENT_ID).counters()).isEmpty();
+        assertThat(meterRegistry.find("traffichunter.ingest.payload.compressed").tag("agent", AGENT_ID).summaries())
+                .isEmpty();
+    }
+
+    @Test
+    void 에이전트가_자신을_소개하기_전의_프레임은_세션과_무관하게_unknown으로_태그한다() throws IOException {
+        // given
+        ByteBuffer frame = frame(MetricHeaderSpec.LOG, "z".repeat(100));
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            metrics.received("session-" + i, "session-" + i, frame);
+            metrics.closed("session-" + i);
+        }
+
+        // then
+        assertThat(meterRegistry.find("traffichunter.ingest.frames").counters()).singleElement().satisfies(counter -> {
+            assertThat(counter.getId().getTag("agent")).isEqualTo(IngestMetrics.UNKNOWN);
+            assertThat(counter.count()).isEqualTo(5);
+        });
+    }
+
+    @Test
+    void 디코딩한_프레임의_압축_해제_크기를_기록하고_실패한_프레임은_거절로_센다() throws IOException {
+        // given
+        String body = "{\"metadata\": {}, \"data\": \"" + "y".repeat(50_000) + "\"}";
+        ByteBuffer frame = frame(MetricHeaderSpec.LOG, body);
+        ByteBuffer unknown = frame(MetricHeaderSpec.BATCH, body);
+        metrics.introduced("session", AGENT_ID);
+
+        // when
+        collector.decode(AGENT_ID, frame);
+        assertThatThrownBy(() -> collector.decode(AGENT_ID, unknown))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // then
+        DistributionSummary decompressed = summary("traffichunter.ingest.payload.decompressed", "log");
+        assertThat(decompressed.count()).isEqualTo(1);
+        assertThat(decompressed.totalAmount()).isEqualTo(body.getBytes(StandardCharsets.UTF_8).length);
+
+        assertThat(meterRegistry.get("traffichunter.ingest.rejected")
+                .tags("spec", "batch", "agent", AGENT_ID, "reason", "IllegalArgumentException")
+                .counter().count()).isEqualTo(1);
+    }
+
+    private DistributionSummary summary(final String name, final String spec) {
+        return meterRegistry.get(name).tags("spec", spec, "agent", AGENT_ID).summary();
+    }
+
+    private static ByteBuffer frame(final MetricHeaderSpec spec, final String body) throws IOException {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(spec.getHeader());
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+}
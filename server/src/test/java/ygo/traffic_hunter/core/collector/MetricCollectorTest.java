@@ -20,8 +20,8 @@ class MetricCollectorTest extends AbstractTestConfiguration {
     private Set<MetricChannel> metricChannels;
 
     @Test
-    void 채널의_개수를_확인한다_metric_trace_log() {
+    void 채널의_개수를_확인한다_metric_trace_log_batch() {
 
-        assertThat(metricChannels).hasSize(3);
+        assertThat(metricChannels).hasSize(4);
     }
 }
\ No newline at end of file
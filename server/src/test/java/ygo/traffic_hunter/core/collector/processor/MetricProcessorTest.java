@@ -0,0 +1,233 @@
+package ygo.traffic_hunter.core.collector.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sun.management.ThreadMXBean;
+import io.opentelemetry.api.logs.Severity;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.unit.DataSize;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.core.collector.processor.compress.GzipMetricDecompressor;
+import ygo.traffic_hunter.core.collector.processor.compress.property.DecompressorProperties;
+import ygo.traffic_hunter.core.dto.request.metadata.AgentMetadata;
+import ygo.traffic_hunter.core.dto.request.metadata.AgentStatus;
+import ygo.traffic_hunter.core.dto.request.metadata.MetadataWrapper;
+import ygo.traffic_hunter.domain.metric.LogRecord;
+import ygo.traffic_hunter.domain.metric.TraceInfo;
+
+class MetricProcessorTest extends AbstractTestConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricProcessorTest.class);
+
+    private static final int ITERATIONS = 2_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
+            .registerModule(new JavaTimeModule());
+
+    private final MetricProcessor processor = new MetricProcessor(
+            new GzipMetricDecompressor(new DecompressorProperties(DataSize.ofMegabytes(16), 4)),
+            objectMapper
+    );
+
+    @Test
+    void 헤더_이후의_슬라이스를_그대로_역직렬화한다() throws IOException {
+        // given
+        MetadataWrapper<LogRecord> expected = createLog();
+
+        ByteBuffer frame = frame(expected);
+
+        // when
+        frame.get();
+        MetadataWrapper<LogRecord> actual = processor.process(frame.slice(), LogRecord.class);
+
+        // then
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void 복사_경로와_슬라이스_경로의_프레임당_할당량을_비교한다() throws IOException {
+        // given
+        ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        ByteBuffer frame = frame(createLog());
+
+        JavaType javaType = objectMapper.getTypeFactory()
+                .constructParametricType(MetadataWrapper.class, LogRecord.class);
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            copyPath(frame.duplicate(), javaType);
+            slicePath(frame.duplicate());
+        }
+
+        // when
+        long start = threadMXBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            copyPath(frame.duplicate(), javaType);
+        }
+        long copyBytes = (threadMXBean.getCurrentThreadAllocatedBytes() - start) / ITERATIONS;
+
+        start = threadMXBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            slicePath(frame.duplicate());
+        }
+        long sliceBytes = (threadMXBean.getCurrentThreadAllocatedBytes() - start) / ITERATIONS;
+
+        // then
+        log.info("bytes allocated per frame, copy = {} slice = {}", copyBytes, sliceBytes);
+    }
+
+    @Test
+    void 트랜잭션_페이로드를_같은_리더로_반복해서_역직렬화한다() throws IOException {
+        // given
+        MetadataWrapper<TraceInfo> expected = createTrace(20);
+        ByteBuffer frame = frame(expected);
+
+        // when
+        MetadataWrapper<TraceInfo> first = processor.process(payload(frame), TraceInfo.class);
+        MetadataWrapper<TraceInfo> second = processor.process(payload(frame), TraceInfo.class);
+
+        // then
+        assertThat(first).isEqualTo(expected);
+        assertThat(second).isEqualTo(expected);
+        assertThat(first.data().attributes()).hasSize(20);
+    }
+
+    @Test
+    void 배치_봉투를_레코드_목록으로_역직렬화한다() throws IOException {
+        // given
+        List<TraceInfo> traces = List.of(
+                createTrace(3).data(),
+                createTrace(5).data(),
+                createTrace(7).data()
+        );
+
+        MetadataWrapper<List<TraceInfo>> expected = new MetadataWrapper<>(createMetadata(), traces);
+
+        // when
+        MetadataWrapper<List<TraceInfo>> actual = processor.processBatch(payload(frame(expected)), TraceInfo.class);
+
+        // then
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.data()).hasSize(3);
+    }
+
+    private ByteBuffer payload(final ByteBuffer frame) {
+        ByteBuffer duplicate = frame.duplicate();
+        duplicate.get();
+        return duplicate.slice();
+    }
+
+    private MetadataWrapper<LogRecord> slicePath(final ByteBuffer frame) {
+        frame.get();
+        return processor.process(frame.slice(), LogRecord.class);
+    }
+
+    /**
+     * the former path: frame copied to an array, copied again without the header,
+     * inflated into a growing buffer and deserialized from the resulting array.
+     */
+    private MetadataWrapper<LogRecord> copyPath(final ByteBuffer frame, final JavaType javaType) throws IOException {
+
+        byte[] data = new byte[frame.remaining()];
+        frame.get(data);
+
+        byte[] copy = new byte[data.length - 1];
+        System.arraycopy(data, 1, copy, 0, copy.length);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        try (GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(copy))) {
+            byte[] result = new byte[data.length - 1];
+
+            int len;
+            while ((len = gzipInputStream.read(result)) != -1) {
+                baos.write(result, 0, len);
+            }
+        }
+
+        return objectMapper.readValue(baos.toByteArray(), javaType);
+    }
+
+    private ByteBuffer frame(final MetadataWrapper<?> data) throws IOException {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(3);
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            objectMapper.writeValue(gzip, data);
+        }
+
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    private MetadataWrapper<TraceInfo> createTrace(final int attributes) {
+
+        Map<String, String> attributeMap = new HashMap<>();
+        for (int i = 0; i < attributes; i++) {
+            attributeMap.put("http.attribute." + i, "value-" + i + "-abcdefghijklmnopqrstuvwxyz");
+        }
+
+        TraceInfo traceInfo = new TraceInfo(
+                "GET /api/v1/metrics",
+                "4bf92f3577b34da6a3ce929d0e0e4736",
+                null,
+                "00f067aa0ba902b7",
+                attributeMap,
+                attributes,
+                Instant.parse("2025-01-01T00:00:00.123456789Z"),
+                Instant.parse("2025-01-01T00:00:01Z"),
+                877_000_000L,
+                null,
+                true
+        );
+
+        return new MetadataWrapper<>(createMetadata(), traceInfo);
+    }
+
+    private AgentMetadata createMetadata() {
+        return new AgentMetadata(
+                "agent",
+                "1.0.0",
+                "test",
+                Instant.parse("2025-01-01T00:00:00Z"),
+                AgentStatus.RUNNING
+        );
+    }
+
+    private MetadataWrapper<LogRecord> createLog() {
+
+        LogRecord logRecord = new LogRecord(
+                Map.of("service.name", "test"),
+                Map.of("name", "ygo.traffic_hunter"),
+                Map.of("thread", "main"),
+                "request handled ".repeat(200),
+                1,
+                Severity.INFO,
+                "INFO",
+                1L,
+                1L
+        );
+
+        return new MetadataWrapper<>(createMetadata(), logRecord);
+    }
+}
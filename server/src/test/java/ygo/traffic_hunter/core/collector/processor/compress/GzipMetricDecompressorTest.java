@@ -0,0 +1,109 @@
+package ygo.traffic_hunter.core.collector.processor.compress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.core.collector.processor.MetricProcessor.ChannelProcessException;
+import ygo.traffic_hunter.core.collector.processor.compress.property.DecompressorProperties;
+
+class GzipMetricDecompressorTest extends AbstractTestConfiguration {
+
+    private final GzipMetricDecompressor decompressor =
+            new GzipMetricDecompressor(new DecompressorProperties(DataSize.ofKilobytes(64), 2));
+
+    @Test
+    void gzip_데이터를_스트림으로_복원한다() throws IOException {
+        // given
+        String text = "traffic hunter ".repeat(1000);
+
+        // when
+        String first = read(decompressor.unzip(gzip(text.getBytes(StandardCharsets.UTF_8))));
+        String second = read(decompressor.unzip(gzip(text.getBytes(StandardCharsets.UTF_8))));
+
+        // then
+        assertThat(first).isEqualTo(text);
+        assertThat(second).isEqualTo(text);
+    }
+
+    @Test
+    void 파일명_헤더가_포함된_gzip도_복원한다() throws IOException {
+        // given
+        byte[] body = gzip("hello".getBytes(StandardCharsets.UTF_8)).array();
+
+        ByteArrayOutputStream withName = new ByteArrayOutputStream();
+        withName.write(body, 0, 3);
+        withName.write(body[3] | 8);
+        withName.write(body, 4, 6);
+        withName.write("metric.json\0".getBytes(StandardCharsets.US_ASCII));
+        withName.write(body, 10, body.length - 10);
+
+        // when
+        String result = read(decompressor.unzip(ByteBuffer.wrap(withName.toByteArray())));
+
+        // then
+        assertThat(result).isEqualTo("hello");
+    }
+
+    @Test
+    void 최대_크기를_넘으면_복원을_중단한다() {
+        // given
+        ByteBuffer bomb = gzip(new byte[1024 * 1024]);
+
+        // when & then
+        assertThatThrownBy(() -> read(decompressor.unzip(bomb)))
+                .isInstanceOf(ZipException.class)
+                .hasMessageContaining("exceeds");
+    }
+
+    @Test
+    void 트레일러의_CRC가_다르면_예외가_발생한다() {
+        // given
+        ByteBuffer data = gzip("hello".getBytes(StandardCharsets.UTF_8));
+        int crc = data.limit() - 8;
+        data.put(crc, (byte) (data.get(crc) + 1));
+
+        // when & then
+        assertThatThrownBy(() -> read(decompressor.unzip(data)))
+                .isInstanceOf(ZipException.class)
+                .hasMessageContaining("crc");
+    }
+
+    @Test
+    void gzip_형식이_아니면_예외가_발생한다() {
+        // given
+        ByteBuffer data = ByteBuffer.wrap("not gzip data".getBytes(StandardCharsets.UTF_8));
+
+        // when & then
+        assertThatThrownBy(() -> decompressor.unzip(data))
+                .isInstanceOf(ChannelProcessException.class);
+    }
+
+    private String read(final InputStream inputStream) throws IOException {
+        try (inputStream) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private ByteBuffer gzip(final byte[] data) {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+}
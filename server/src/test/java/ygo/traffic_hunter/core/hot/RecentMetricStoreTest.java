@@ -0,0 +1,113 @@
+package ygo.traffic_hunter.core.hot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.core.dto.request.metadata.AgentMetadata;
+import ygo.traffic_hunter.core.dto.request.metadata.AgentStatus;
+import ygo.traffic_hunter.core.dto.response.metric.SystemMetricResponse;
+import ygo.traffic_hunter.core.hot.property.HotTierProperties;
+import ygo.traffic_hunter.domain.entity.Agent;
+import ygo.traffic_hunter.domain.entity.SystemMetricMeasurement;
+import ygo.traffic_hunter.domain.interval.TimeInterval;
+import ygo.traffic_hunter.persistence.impl.TimeSeriesRepository;
+
+@SpringBootTest
+class RecentMetricStoreTest extends AbstractTestConfiguration {
+
+    private static final String AGENT_NAME = "recent-metric-store-test";
+
+    @Autowired
+    private TimeSeriesRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final RecentMetricStore store = new RecentMetricStore(
+            new HotTierProperties(true, Duration.ofMinutes(10), 16));
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("truncate table system_metric_measurement");
+        jdbcTemplate.update("delete from agent where agent_id = ?", AGENT_NAME);
+    }
+
+    @Test
+    void 윈도우_안의_조회는_롤업_조회와_같은_결과를_메모리에서_돌려준다() {
+        // given
+        Instant bootTime = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        AgentMetadata metadata = new AgentMetadata(AGENT_NAME, "1.0.0", AGENT_NAME, bootTime, AgentStatus.RUNNING);
+
+        repository.save(Agent.create(AGENT_NAME, AGENT_NAME, "1.0.0", bootTime));
+        Integer agentId = jdbcTemplate.queryForObject(
+                "select id from agent where agent_name = ?", Integer.class, AGENT_NAME);
+
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        List<SystemMetricMeasurement> measurements = new ArrayList<>();
+
+        // one sample before the queried range, so the buffer covers it
+        measurements.add(measurement(now.minusSeconds(300), agentId, 0));
+        for (int i = 1; i <= 60; i++) {
+            measurements.add(measurement(now.minusSeconds(i), agentId, i));
+        }
+
+        repository.saveAllSystemMetrics(measurements);
+        jdbcTemplate.execute("call refresh_continuous_aggregate('system_metric_5s', null, null)");
+        measurements.forEach(measurement -> store.record(metadata, measurement));
+
+        // when
+        List<SystemMetricResponse> database = repository.findMetricsByRecentTimeAndAgentName(
+                TimeInterval.REAL_TIME, AGENT_NAME, 20);
+        List<SystemMetricResponse> memory = store.find(TimeInterval.REAL_TIME, AGENT_NAME, 20).orElseThrow();
+
+        // then
+        assertThat(memory).isNotEmpty().isEqualTo(database);
+    }
+
+    @Test
+    void 윈도우를_넘거나_버퍼가_범위를_덮지_못하면_데이터베이스로_넘긴다() {
+        // given
+        AgentMetadata metadata = new AgentMetadata(AGENT_NAME, "1.0.0", AGENT_NAME, Instant.now(), AgentStatus.RUNNING);
+        Instant now = Instant.now();
+
+        for (int i = 1; i <= 30; i++) {
+            store.record(metadata, measurement(now.minusSeconds(i), 1, i));
+        }
+
+        // when
+        boolean withinRange = store.find(TimeInterval.REAL_TIME, AGENT_NAME, 5).isPresent();
+        boolean beforeFirstSample = store.find(TimeInterval.REAL_TIME, AGENT_NAME, 20).isPresent();
+        boolean pastWindow = store.find(TimeInterval.FIVE_MINUTES, AGENT_NAME, 50).isPresent();
+        boolean unknownAgent = store.find(TimeInterval.REAL_TIME, "unknown", 5).isPresent();
+
+        // then
+        assertThat(withinRange).isTrue();
+        assertThat(beforeFirstSample).isFalse();
+        assertThat(pastWindow).isFalse();
+        assertThat(unknownAgent).isFalse();
+    }
+
+    private SystemMetricMeasurement measurement(final Instant time, final Integer agentId, final int i) {
+        return new SystemMetricMeasurement(
+                time,
+                agentId,
+                (i % 7) / 10.0, (i % 5) / 7.0, 4,
+                1_000L, 2_000_000L + i * 37L, 3_000_000L, 4_000_000L, 500L, 700L,
+                7L, 140L,
+                10 + i % 3, 15, 100L + i,
+                100L + i * 3L, 1_000L, 2_000L + i, 500L, i % 2,
+                200, 50 + i % 4, 30 - i % 6,
+                5 + i % 2, 10, 15, 0
+        );
+    }
+}
@@ -0,0 +1,155 @@
+package ygo.traffic_hunter.core.log.ingest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.logs.Severity;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.common.map.LogMapper;
+import ygo.traffic_hunter.core.dto.request.metadata.AgentMetadata;
+import ygo.traffic_hunter.core.dto.request.metadata.AgentStatus;
+import ygo.traffic_hunter.core.dto.request.metadata.MetadataWrapper;
+import ygo.traffic_hunter.core.log.ingest.property.LogIngestProperties;
+import ygo.traffic_hunter.core.writer.BatchMeasurementWriter;
+import ygo.traffic_hunter.domain.metric.LogRecord;
+
+/**
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+class LogIngestPolicyTest extends AbstractTestConfiguration {
+
+    private static final AgentMetadata AGENT =
+            new AgentMetadata("agent-id", "1.0.0", "chatty", Instant.now(), AgentStatus.RUNNING);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final LogIngestPolicy policy = new LogIngestPolicy(
+            new LogIngestProperties(true, 100, 50, 10, Duration.ofSeconds(1), Duration.ofSeconds(10), 10_000),
+            mock(LogMapper.class),
+            mock(BatchMeasurementWriter.class),
+            meterRegistry
+    );
+
+    @Test
+    void 예산을_넘는_DEBUG_로그는_버리고_WARN_이상은_항상_남긴다() {
+        // given
+        List<LogRecord> records = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            records.add(log(Severity.DEBUG, "cache miss on key user-" + (char) ('a' + i % 26) + i % 7 + " of shard " + (char) ('a' + i / 26)));
+        }
+        for (int i = 0; i < 100; i++) {
+            records.add(log(Severity.ERROR, "payment failed for order " + i));
+        }
+
+        // when
+        List<LogRecord> kept = policy.admitAll(new MetadataWrapper<>(AGENT, records)).data();
+
+        // then
+        long keptDebug = kept.stream().filter(record -> record.severity() == Severity.DEBUG).count();
+        assertThat(keptDebug).isBetween(10L, 12L);
+        assertThat(kept).filteredOn(record -> record.severity() == Severity.ERROR).hasSize(100);
+        assertThat(counter("traffichunter.log.dropped", "debug") + counter("traffichunter.log.aggregated", "debug"))
+                .isEqualTo(1000 - keptDebug);
+    }
+
+    @Test
+    void 예산이_남아_있으면_반복되는_메시지도_모두_남긴다() {
+        // given
+        List<LogRecord> records = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            records.add(log(Severity.INFO, "request " + i + " took " + (i % 90) + " ms"));
+        }
+
+        // when
+        List<LogRecord> kept = policy.admitAll(new MetadataWrapper<>(AGENT, records)).data();
+
+        // then
+        assertThat(kept).hasSize(40);
+        assertThat(counter("traffichunter.log.aggregated", "info")).isZero();
+        assertThat(policy.drain()).isEmpty();
+    }
+
+    @Test
+    void 예산을_다_쓴_뒤에_반복되는_메시지만_횟수를_담은_요약으로_기록한다() {
+        // given
+        List<LogRecord> records = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            records.add(log(Severity.INFO, "request " + i + " took " + (i % 90) + " ms"));
+        }
+        records.add(log(Severity.INFO, "cache warmed up"));
+
+        // when
+        List<LogRecord> kept = policy.admitAll(new MetadataWrapper<>(AGENT, records)).data();
+        List<MetadataWrapper<List<LogRecord>>> summaries = policy.drain();
+
+        // then
+        assertThat(kept).hasSize(50).noneMatch(record -> record.body().equals("cache warmed up"));
+        assertThat(counter("traffichunter.log.aggregated", "info")).isEqualTo(450);
+        assertThat(counter("traffichunter.log.dropped", "info")).isEqualTo(1);
+
+        assertThat(summaries).hasSize(1);
+        LogRecord summary = summaries.getFirst().data().getFirst();
+        assertThat(summary.body()).isEqualTo("request 499 took 49 ms");
+        assertThat(summary.attributes())
+                .containsEntry(LogIngestPolicy.REPEAT_COUNT, "450")
+                .containsEntry(LogIngestPolicy.REPEAT_TEMPLATE, "request # took # ms");
+    }
+
+    @Test
+    void 에이전트_예산이_먼저_바닥나도_거절된_로그는_레벨별_예산을_쓰지_않는다() throws InterruptedException {
+        // given - the agent budget refills far faster than the debug lane
+        LogIngestPolicy policy = new LogIngestPolicy(
+                new LogIngestProperties(true, 100, 200, 10, Duration.ofSeconds(1), Duration.ofSeconds(10), 10_000),
+                mock(LogMapper.class),
+                mock(BatchMeasurementWriter.class),
+                meterRegistry
+        );
+
+        List<LogRecord> burst = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            burst.add(log(Severity.INFO, "request " + i + " accepted"));
+        }
+        for (int i = 0; i < 10; i++) {
+            burst.add(log(Severity.DEBUG, "cache lookup " + i));
+        }
+        policy.admitAll(new MetadataWrapper<>(AGENT, burst));
+
+        // when - 200ms refill 20 agent tokens but only 2 debug tokens
+        Thread.sleep(200);
+        List<LogRecord> debug = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            debug.add(log(Severity.DEBUG, "cache lookup " + i));
+        }
+        List<LogRecord> kept = policy.admitAll(new MetadataWrapper<>(AGENT, debug)).data();
+
+        // then
+        assertThat(kept).hasSize(10);
+    }
+
+    private double counter(final String name, final String severity) {
+        return meterRegistry.get(name).tag("agent", "chatty").tag("severity", severity).counter().count();
+    }
+
+    private static LogRecord log(final Severity severity, final String body) {
+        return new LogRecord(
+                Map.of(),
+                Map.of(),
+                Map.of(),
+                body,
+                0,
+                severity,
+                severity.name(),
+                System.nanoTime(),
+                System.nanoTime()
+        );
+    }
+}
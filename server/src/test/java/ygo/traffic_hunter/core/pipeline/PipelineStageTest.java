@@ -0,0 +1,198 @@
+package ygo.traffic_hunter.core.pipeline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.core.pipeline.PipelineStage.StageListener;
+
+class PipelineStageTest extends AbstractTestConfiguration {
+
+    private final AtomicInteger overflows = new AtomicInteger();
+
+    private final StageListener listener = new StageListener() {
+        @Override
+        public void onProcessed(final String stage, final long waitNanos, final long processNanos) {
+        }
+
+        @Override
+        public void onFailure(final String stage, final Throwable cause) {
+        }
+
+        @Override
+        public void onOverflow(final String stage, final OverflowPolicy policy) {
+            overflows.incrementAndGet();
+        }
+    };
+
+    @Test
+    void 큐가_가득_차면_가장_오래된_항목을_버린다() throws InterruptedException {
+        // given
+        List<Integer> processed = new CopyOnWriteArrayList<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+
+        PipelineStage<Integer> stage = new PipelineStage<>("test", 1, 2, OverflowPolicy.DROP_OLDEST, null,
+                blockOnFirst(processed, started, release, done), listener);
+        stage.start();
+
+        // when
+        stage.offer("agent", 1);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 2; i <= 5; i++) {
+            stage.offer("agent", i);
+        }
+        release.countDown();
+
+        // then
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(processed).containsExactly(1, 4, 5);
+        assertThat(overflows.get()).isEqualTo(2);
+
+        stage.close(1000);
+    }
+
+    @Test
+    void 큐가_가득_차면_디스크로_넘기고_유휴시에_재처리한다(@TempDir final Path dir) throws InterruptedException {
+        // given
+        List<String> processed = new CopyOnWriteArrayList<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(5);
+
+        PipelineStage<Frame> stage = new PipelineStage<>("test", 1, 1, OverflowPolicy.SPILL,
+                partition -> new SpillFile(dir.resolve("test-" + partition + ".spill")),
+                frame -> {
+                    processed.add(new String(frame.payload(), StandardCharsets.UTF_8));
+                    if (started.getCount() > 0) {
+                        started.countDown();
+                        await(release);
+                    }
+                    done.countDown();
+                }, listener);
+        stage.start();
+
+        // when
+        stage.offer("agent", frame("a"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        stage.offer("agent", frame("b"));
+        stage.offer("agent", frame("c"));
+        stage.offer("agent", frame("d"));
+
+        assertThat(stage.spilled(0)).isPositive();
+        release.countDown();
+
+        // a spilled partition keeps spilling until it is replayed, so the order holds
+        stage.offer("agent", frame("e"));
+
+        // then
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(processed).containsExactly("a", "b", "c", "d", "e");
+        assertThat(stage.spilled(0)).isZero();
+
+        stage.close(1000);
+    }
+
+    @Test
+    void 재시작시_이전에_넘긴_데이터를_다시_읽는다(@TempDir final Path dir) throws Exception {
+        // given
+        Path path = dir.resolve("test.spill");
+
+        try (SpillFile spill = new SpillFile(path)) {
+            spill.write(frame("first"));
+            spill.write(new Frame("other", bytes("second")));
+        }
+
+        // when
+        try (SpillFile spill = new SpillFile(path)) {
+
+            // then
+            Frame first = spill.read();
+            Frame second = spill.read();
+
+            assertThat(first.agentId()).isEqualTo("agent");
+            assertThat(first.payload()).isEqualTo(bytes("first"));
+            assertThat(second.agentId()).isEqualTo("other");
+            assertThat(second.payload()).isEqualTo(bytes("second"));
+            assertThat(spill.read()).isNull();
+            assertThat(spill.size()).isZero();
+        }
+    }
+
+    @Test
+    void 같은_에이전트의_데이터는_순서대로_처리된다() throws InterruptedException {
+        // given
+        int agents = 8;
+        int perAgent = 500;
+
+        Map<String, List<Integer>> processed = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(agents * perAgent);
+
+        PipelineStage<Entry<String, Integer>> stage = new PipelineStage<>("test", 4, 16, OverflowPolicy.BLOCK, null,
+                entry -> {
+                    processed.computeIfAbsent(entry.getKey(), key -> new CopyOnWriteArrayList<>()).add(entry.getValue());
+                    done.countDown();
+                }, listener);
+        stage.start();
+
+        // when
+        for (int i = 0; i < perAgent; i++) {
+            for (int agent = 0; agent < agents; agent++) {
+                String agentId = "agent-" + agent;
+                stage.offer(agentId, Map.entry(agentId, i));
+            }
+        }
+
+        // then
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(processed).hasSize(agents);
+        processed.values().forEach(sequence -> assertThat(sequence).isSorted().hasSize(perAgent));
+
+        stage.close(1000);
+    }
+
+    private Consumer<Integer> blockOnFirst(final List<Integer> processed,
+                                           final CountDownLatch started,
+                                           final CountDownLatch release,
+                                           final CountDownLatch done) {
+        return item -> {
+            processed.add(item);
+            if (started.getCount() > 0) {
+                started.countDown();
+                await(release);
+            }
+            done.countDown();
+        };
+    }
+
+    private void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Frame frame(final String value) {
+        return new Frame("agent", bytes(value));
+    }
+
+    private byte[] bytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
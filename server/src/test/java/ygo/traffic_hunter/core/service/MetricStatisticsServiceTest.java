@@ -1,21 +1,31 @@
 package ygo.traffic_hunter.core.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static ygo.traffic_hunter.core.statistics.StatisticsMetricTimeRange.LATEST_ONE_DAY;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Slice;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.domain.Sort.Direction;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
 import ygo.traffic_hunter.AbstractTestConfiguration;
-import ygo.traffic_hunter.core.assembler.span.SpanTreeNode;
+import ygo.traffic_hunter.common.util.TraceIds;
+import ygo.traffic_hunter.config.cache.CacheConfig.CacheType;
 import ygo.traffic_hunter.core.dto.response.statistics.metric.StatisticsMetricAvgResponse;
 import ygo.traffic_hunter.core.dto.response.statistics.metric.StatisticsMetricMaxResponse;
-import ygo.traffic_hunter.core.dto.response.statistics.transaction.ServiceTransactionResponse;
+import ygo.traffic_hunter.core.dto.response.statistics.transaction.ServiceTransactionPage;
+import ygo.traffic_hunter.core.dto.response.statistics.transaction.SpanTreeResponse;
+import ygo.traffic_hunter.core.repository.MetricRepository;
+import ygo.traffic_hunter.core.repository.TraceSummaryRepository;
+import ygo.traffic_hunter.core.statistics.TransactionCursor.InvalidCursorException;
+import ygo.traffic_hunter.domain.entity.Agent;
+import ygo.traffic_hunter.domain.entity.TraceSummary;
 
 @SpringBootTest
 class MetricStatisticsServiceTest extends AbstractTestConfiguration {
@@ -23,19 +33,75 @@ class MetricStatisticsServiceTest extends AbstractTestConfiguration {
     @Autowired
     private MetricStatisticsService metricStatisticsService;
 
+    @Autowired
+    private MetricRepository metricRepository;
+
+    @Autowired
+    private TraceSummaryRepository traceSummaryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Test
     void 시간_범위를_통해_서비스_트랜잭션을_조회한다() {
         // given
-        PageRequest pr = PageRequest.of(0, 10, Sort.by(Direction.DESC, "timestamp"));
+        int size = 10;
 
         // when
-        Slice<ServiceTransactionResponse> responses =
-                metricStatisticsService.retrieveServiceTransactions(pr);
+        ServiceTransactionPage responses = metricStatisticsService.retrieveServiceTransactions(null, size);
 
         // then
-        assertThat(responses.getNumber()).isEqualTo(0);
-        assertThat(responses.getSize()).isEqualTo(10);
-        System.out.println(responses.getContent());
+        assertThat(responses.size()).isEqualTo(10);
+        assertThat(responses.content()).hasSizeLessThanOrEqualTo(10);
+        System.out.println(responses.content());
+    }
+
+    @Test
+    void 커서로_서비스_트랜잭션을_끝까지_중복_없이_조회한다() {
+        // given
+        jdbcTemplate.update("truncate table trace_summary");
+        cacheManager.getCache(CacheType.STATISTIC_TRANSACTION_PAGE_CACHE_NAME).clear();
+
+        metricRepository.save(Agent.create("cursor-agent", "cursor-agent", "1.0.0", Instant.now()));
+        Integer agentId = metricRepository.findByAgentId("cursor-agent").id();
+
+        // several traces share a timestamp, the trace id breaks the tie
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        List<TraceSummary> summaries = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            byte[] traceId = TraceIds.traceId("%032x".formatted(i + 1));
+            summaries.add(new TraceSummary(traceId, agentId, now.minusSeconds(i / 3),
+                    "/api", "GET", 200, "localhost", 5L, 1, false, true));
+        }
+        traceSummaryRepository.upsertAll(summaries);
+
+        // when
+        List<String> traceIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            ServiceTransactionPage page = metricStatisticsService.retrieveServiceTransactions(cursor, 2);
+            page.content().forEach(transaction -> traceIds.add(transaction.traceId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        // then
+        assertThat(traceIds).containsExactly(
+                "%032x".formatted(3), "%032x".formatted(2), "%032x".formatted(1),
+                "%032x".formatted(6), "%032x".formatted(5), "%032x".formatted(4),
+                "%032x".formatted(7)
+        );
+
+        jdbcTemplate.update("truncate table trace_summary");
+        jdbcTemplate.update("delete from agent where agent_id = ?", "cursor-agent");
+    }
+
+    @Test
+    void 잘못된_커서는_예외가_발생한다() {
+        assertThatThrownBy(() -> metricStatisticsService.retrieveServiceTransactions("not-a-cursor", 10))
+                .isInstanceOf(InvalidCursorException.class);
     }
 
     @Test
@@ -45,11 +111,10 @@ class MetricStatisticsServiceTest extends AbstractTestConfiguration {
         String traceId = "a7ae6e1955ce6033770a93fe8257f636";
 
         // when
-        SpanTreeNode spanTreeNode = metricStatisticsService.retrieveSpanTree(traceId);
+        SpanTreeResponse spanTree = metricStatisticsService.retrieveSpanTree(traceId);
 
         // then
-        assertThat(spanTreeNode.getData().traceId()).isEqualTo(traceId);
-        System.out.println(spanTreeNode);
+        assertThat(spanTree.spans().getFirst().data().traceId()).isEqualTo(traceId);
     }
 
     @Test
@@ -58,7 +123,7 @@ class MetricStatisticsServiceTest extends AbstractTestConfiguration {
 
         // when
         StatisticsMetricMaxResponse result = metricStatisticsService.retrieveStatisticsMaxMetric(
-                LATEST_ONE_DAY);
+                LATEST_ONE_DAY, null);
 
         // then
         System.out.println(result);
@@ -69,7 +134,7 @@ class MetricStatisticsServiceTest extends AbstractTestConfiguration {
         // given
 
         // when
-        StatisticsMetricAvgResponse result = metricStatisticsService.retrieveStatisticsAvgMetric(LATEST_ONE_DAY);
+        StatisticsMetricAvgResponse result = metricStatisticsService.retrieveStatisticsAvgMetric(LATEST_ONE_DAY, null);
 
         // then
         assertThat(result).isNotNull();
@@ -0,0 +1,212 @@
+package ygo.traffic_hunter.core.sse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.core.dto.response.RealTimeMonitoringResponse;
+import ygo.traffic_hunter.core.dto.response.metric.CpuMetricMeasurementResponse;
+import ygo.traffic_hunter.core.dto.response.metric.HikariCPMeasurementResponse;
+import ygo.traffic_hunter.core.dto.response.metric.MemoryMetricMeasurementResponse;
+import ygo.traffic_hunter.core.dto.response.metric.MemoryMetricUsageResponse;
+import ygo.traffic_hunter.core.dto.response.metric.MetricDataResponse;
+import ygo.traffic_hunter.core.dto.response.metric.SystemMetricResponse;
+import ygo.traffic_hunter.core.dto.response.metric.ThreadMetricMeasurementResponse;
+import ygo.traffic_hunter.core.dto.response.metric.TomcatWebServerMeasurementResponse;
+import ygo.traffic_hunter.core.dto.response.metric.TomcatWebServerRequestMeasurementResponse;
+import ygo.traffic_hunter.core.dto.response.metric.TomcatWebServerThreadPoolMeasurementResponse;
+import ygo.traffic_hunter.domain.entity.user.Member;
+import ygo.traffic_hunter.domain.interval.TimeInterval;
+
+class BroadcastEngineTest extends AbstractTestConfiguration {
+
+    private static final Instant BOOT_TIME = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
+            .registerModule(new JavaTimeModule());
+
+    private final Map<Member, Client> clientMap = new ConcurrentHashMap<>();
+
+    private final AtomicInteger computed = new AtomicInteger();
+
+    /**
+     * every tick the window moves by one bucket, older buckets keep their values.
+     */
+    private final BroadcastEngine engine = new BroadcastEngine(
+            clientMap,
+            broadcast -> List.of(window(computed.incrementAndGet(), broadcast.limit())),
+            objectMapper
+    );
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    void 같은_브로드캐스트를_구독한_클라이언트는_한_번_계산한_결과를_공유한다() throws Exception {
+        // given
+        SseEmitter first = subscribe(1, new Broadcast(TimeInterval.REAL_TIME, 20));
+        SseEmitter second = subscribe(2, new Broadcast(TimeInterval.REAL_TIME, 20));
+        SseEmitter other = subscribe(3, new Broadcast(TimeInterval.ONE_HOUR, 200));
+
+        // when
+        engine.tick();
+
+        // then
+        verify(first, timeout(1_000)).send(any(SseEventBuilder.class));
+        verify(second, timeout(1_000)).send(any(SseEventBuilder.class));
+        verify(other, timeout(1_000)).send(any(SseEventBuilder.class));
+        assertThat(computed).hasValue(2);
+    }
+
+    @Test
+    void 첫_메시지는_스냅샷이고_이후에는_바뀐_버킷만_보낸다() throws Exception {
+        // given
+        Broadcast broadcast = new Broadcast(TimeInterval.REAL_TIME, 20);
+        SseEmitter early = subscribe(1, broadcast);
+
+        // when
+        engine.tick();
+        verify(early, timeout(1_000)).send(any(SseEventBuilder.class));
+        SseEmitter late = subscribe(2, broadcast);
+        engine.tick();
+
+        // then
+        List<JsonNode> earlyMessages = messages(early, 2);
+        List<JsonNode> lateMessages = messages(late, 1);
+
+        JsonNode snapshot = earlyMessages.get(0);
+        JsonNode delta = earlyMessages.get(1);
+
+        assertThat(snapshot.get("type").asText()).isEqualTo("SNAPSHOT");
+        assertThat(snapshot.get("sequence").asLong()).isEqualTo(1);
+        assertThat(snapshot.at("/agents/0/systemMetricResponses")).hasSize(20);
+
+        assertThat(delta.get("type").asText()).isEqualTo("DELTA");
+        assertThat(delta.get("sequence").asLong()).isEqualTo(2);
+        assertThat(delta.at("/agents/0/systemMetricResponses")).hasSize(1);
+
+        assertThat(lateMessages.getFirst().get("type").asText()).isEqualTo("SNAPSHOT");
+        assertThat(lateMessages.getFirst().get("sequence").asLong()).isEqualTo(2);
+
+        int snapshotBytes = snapshot.toString().length();
+        int deltaBytes = delta.toString().length();
+        assertThat(deltaBytes).isLessThan(snapshotBytes / 10);
+    }
+
+    @Test
+    void 전송이_밀린_클라이언트는_틱을_막지_않고_끊어진다() throws Exception {
+        // given
+        Broadcast broadcast = new Broadcast(TimeInterval.REAL_TIME, 20);
+        CountDownLatch stuck = new CountDownLatch(1);
+
+        SseEmitter slow = subscribe(1, broadcast);
+        willAnswer(invocation -> {
+            stuck.await();
+            return null;
+        }).given(slow).send(any(SseEventBuilder.class));
+
+        SseEmitter fast = subscribe(2, broadcast);
+
+        // when
+        for (int i = 0; i <= BroadcastEngine.MAX_MISSED_TICKS; i++) {
+            engine.tick();
+            verify(fast, timeout(1_000).times(i + 1)).send(any(SseEventBuilder.class));
+        }
+        stuck.countDown();
+
+        // then
+        assertThat(clientMap).containsOnlyKeys(member(2));
+        verify(slow).completeWithError(any(ServerSentEventManager.ServerSentEventException.class));
+        verify(fast, times(BroadcastEngine.MAX_MISSED_TICKS + 1)).send(any(SseEventBuilder.class));
+    }
+
+    private List<JsonNode> messages(final SseEmitter emitter, final int count) throws Exception {
+
+        ArgumentCaptor<SseEventBuilder> captor = ArgumentCaptor.forClass(SseEventBuilder.class);
+        verify(emitter, timeout(1_000).times(count)).send(captor.capture());
+
+        List<JsonNode> messages = new ArrayList<>();
+        for (SseEventBuilder builder : captor.getAllValues()) {
+            String json = builder.build().stream()
+                    .filter(data -> MediaType.APPLICATION_JSON.equals(data.getMediaType()))
+                    .map(data -> (String) data.getData())
+                    .findFirst()
+                    .orElseThrow();
+            messages.add(objectMapper.readTree(json));
+        }
+
+        return messages;
+    }
+
+    private RealTimeMonitoringResponse window(final int tick, final int limit) {
+
+        List<SystemMetricResponse> buckets = new ArrayList<>();
+
+        for (int i = tick + limit - 1; i >= tick; i--) {
+            buckets.add(SystemMetricResponse.create(
+                    BOOT_TIME.plusSeconds(i * 5L),
+                    "agent",
+                    BOOT_TIME,
+                    "1.0.0",
+                    metricData(i)
+            ));
+        }
+
+        return RealTimeMonitoringResponse.create(buckets);
+    }
+
+    private MetricDataResponse metricData(final int i) {
+        return new MetricDataResponse(
+                new CpuMetricMeasurementResponse(i % 10 / 10.0, i % 7 / 10.0, 4),
+                new MemoryMetricMeasurementResponse(new MemoryMetricUsageResponse(1_000L, 2_000L + i, 3_000L, 4_000L)),
+                new ThreadMetricMeasurementResponse(10 + i % 3, 15, 100L + i),
+                new TomcatWebServerMeasurementResponse(
+                        new TomcatWebServerRequestMeasurementResponse(100L + i, 1_000L, 2_000L, 500L, 5L),
+                        new TomcatWebServerThreadPoolMeasurementResponse(200, 50, 30)
+                ),
+                new HikariCPMeasurementResponse(5, 10, 15, 0)
+        );
+    }
+
+    private SseEmitter subscribe(final int id, final Broadcast broadcast) {
+
+        SseEmitter emitter = mock(SseEmitter.class);
+        Client client = new Client(emitter);
+        client.subscribe(broadcast);
+        clientMap.put(member(id), client);
+
+        return emitter;
+    }
+
+    private Member member(final int id) {
+        return Member.builder()
+                .id(id)
+                .email(id + "@test.com")
+                .build();
+    }
+}
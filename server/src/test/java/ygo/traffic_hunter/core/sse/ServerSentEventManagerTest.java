@@ -3,36 +3,36 @@ package ygo.traffic_hunter.core.sse;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.BDDMockito;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
 import ygo.traffic_hunter.AbstractTestConfiguration;
 import ygo.traffic_hunter.core.alarm.loss.LossPreventionHooker;
 import ygo.traffic_hunter.core.alarm.message.Message;
 import ygo.traffic_hunter.core.repository.AlarmRepository;
 import ygo.traffic_hunter.core.repository.MemberRepository;
+import ygo.traffic_hunter.core.send.AlarmSender.AlarmException;
 import ygo.traffic_hunter.domain.entity.user.Member;
 import ygo.traffic_hunter.domain.entity.user.Role;
 
 import java.io.IOException;
 import java.time.Instant;
-import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
-import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author JuSeong1130
  * @version 1.1.0
  */
 @SpringBootTest
-@ExtendWith(MockitoExtension.class)
 class ServerSentEventManagerTest extends AbstractTestConfiguration {
 
 
@@ -48,12 +48,6 @@ class ServerSentEventManagerTest extends AbstractTestConfiguration {
     @Autowired
     private ServerSentEventManager serverSentEventManager;
 
-    @Mock
-    private Client client;
-
-    @MockitoBean
-    private Map<Member, Client> clientMap;
-
     private Logger log = LoggerFactory.getLogger(ServerSentEventManagerTest.class);
 
 
@@ -61,6 +55,7 @@ class ServerSentEventManagerTest extends AbstractTestConfiguration {
     void tearDown() {
         alarmRepository.clearDeadLetter();
         Member findMember = memberRepository.findByEmail("test@test.com");
+        serverSentEventManager.unregister(findMember);
         memberRepository.delete(findMember);
     }
 
@@ -69,18 +64,83 @@ class ServerSentEventManagerTest extends AbstractTestConfiguration {
     void 전송_예외가_발생하면_DeadLetter가_저장된다() throws IOException, InterruptedException {
 
         // given
-        BDDMockito.given(clientMap.get(BDDMockito.any())).willReturn(client);
-        BDDMockito.given(clientMap.containsKey(BDDMockito.any())).willReturn(true);
-        BDDMockito.willThrow(ServerSentEventManager.ServerSentEventException.class).given(client).send("data");
+        SseEmitter emitter = mock(SseEmitter.class);
+        BDDMockito.willDoNothing() // connect
+                .willThrow(new IOException("broken pipe"))
+                .given(emitter).send(any(SseEventBuilder.class));
+
+        register(emitter, true);
+
+        Message message = message();
+
+        // when
+        serverSentEventManager.send(message);
+
+        // then
+        TimeUnit.SECONDS.sleep(1); // 1초 동안 대기
+        Assertions.assertThat(alarmRepository.existDeadLetter()).isTrue(); // DeadLetter가 저장되었는지 확인
+    }
+
+    @Test
+    void 알람을_끈_회원의_클라이언트에는_알람을_보내지_않는다() throws IOException {
+
+        // given
+        SseEmitter emitter = mock(SseEmitter.class);
+        Member member = register(emitter, true);
+
+        serverSentEventManager.update(Member.builder()
+                .id(member.getId())
+                .email(member.getEmail())
+                .isAlarm(false)
+                .role(Role.USER)
+                .build());
+
+        // when
+        serverSentEventManager.send(message());
+
+        // then
+        verify(emitter, after(500).times(1)).send(any(SseEventBuilder.class)); // connect
+    }
+
+    @Test
+    void 재전송은_알람_클라이언트가_받지_못하면_예외를_던지고_데드레터를_남기지_않는다() throws IOException {
+
+        // given
+        SseEmitter emitter = mock(SseEmitter.class);
+        BDDMockito.willDoNothing() // connect
+                .willThrow(new IOException("broken pipe"))
+                .given(emitter).send(any(SseEventBuilder.class));
+
+        register(emitter, true);
+
+        // when
+        boolean canSend = serverSentEventManager.canSend();
 
-        Member member = Member.builder()
+        // then
+        Assertions.assertThat(canSend).isTrue();
+        Assertions.assertThatThrownBy(() -> serverSentEventManager.resend(message()))
+                .isInstanceOf(AlarmException.class);
+        Assertions.assertThat(alarmRepository.existDeadLetter()).isFalse();
+    }
+
+    private Member register(final SseEmitter emitter, final boolean isAlarm) {
+
+        memberRepository.save(Member.builder()
                 .email("test@test.com")
                 .password("test")
-                .isAlarm(true)
+                .isAlarm(isAlarm)
                 .role(Role.USER)
-                .build();
+                .build());
+
+        Member member = memberRepository.findByEmail("test@test.com");
+        serverSentEventManager.register(member, emitter);
 
-        Message message = Message.builder()
+        return member;
+    }
+
+    private Message message() {
+
+        return Message.builder()
                 .content("asd")
                 .url("asdf")
                 .time(Instant.now())
@@ -92,18 +152,6 @@ class ServerSentEventManagerTest extends AbstractTestConfiguration {
                         .addField(Message.Field.of("test", "test", true))
                         .build())
                 .build();
-
-        memberRepository.save(member);
-
-        // when
-        serverSentEventManager.send(message);
-
-        // then
-        assertThatThrownBy(() -> client.send("data"))
-                .isInstanceOf(ServerSentEventManager.ServerSentEventException.class);
-
-        TimeUnit.SECONDS.sleep(1); // 1초 동안 대기
-        Assertions.assertThat(alarmRepository.existDeadLetter()).isTrue(); // DeadLetter가 저장되었는지 확인
     }
 
 }
@@ -0,0 +1,131 @@
+package ygo.traffic_hunter.core.writer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.core.writer.BatchQueue.FlushListener;
+
+/**
+ * @author yungwang-o
+ * @version 1.1.0
+ */
+class BatchQueueTest extends AbstractTestConfiguration {
+
+    private final FlushListener noop = new FlushListener() {
+        @Override
+        public void onFlush(final String name, final int rows, final long elapsedNanos) {
+        }
+
+        @Override
+        public void onFailure(final String name, final int rows, final Throwable cause) {
+        }
+    };
+
+    @Test
+    void 배치_크기에_도달하면_한번에_flush_한다() throws InterruptedException {
+        // given
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+
+        BatchQueue<Integer> queue = new BatchQueue<>("test", 100, 5, 10_000, batch -> {
+            batchSizes.add(batch.size());
+            latch.countDown();
+        }, noop);
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            queue.put(i);
+        }
+        queue.start();
+
+        // then
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(batchSizes).containsExactly(5, 5);
+
+        queue.close(1000);
+    }
+
+    @Test
+    void linger_시간이_지나면_부분_배치를_flush_한다() throws InterruptedException {
+        // given
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger flushed = new AtomicInteger();
+
+        BatchQueue<Integer> queue = new BatchQueue<>("test", 100, 500, 50, batch -> {
+            flushed.addAndGet(batch.size());
+            latch.countDown();
+        }, noop);
+        queue.start();
+
+        // when
+        queue.put(1);
+        queue.put(2);
+
+        // then
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(flushed.get()).isEqualTo(2);
+
+        queue.close(1000);
+    }
+
+    @Test
+    void 종료시_남은_데이터를_모두_flush_한다() {
+        // given
+        AtomicInteger flushed = new AtomicInteger();
+
+        BatchQueue<Integer> queue = new BatchQueue<>("test", 100, 3, 10_000, batch ->
+                flushed.addAndGet(batch.size()), noop);
+        queue.start();
+
+        // when
+        for (int i = 0; i < 7; i++) {
+            queue.put(i);
+        }
+        queue.close(5000);
+
+        // then
+        assertThat(flushed.get()).isEqualTo(7);
+    }
+
+    @Test
+    void flush_실패는_리스너에_전달되고_다음_배치는_계속_처리된다() throws InterruptedException {
+        // given
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        FlushListener listener = new FlushListener() {
+            @Override
+            public void onFlush(final String name, final int rows, final long elapsedNanos) {
+                latch.countDown();
+            }
+
+            @Override
+            public void onFailure(final String name, final int rows, final Throwable cause) {
+                failed.addAndGet(rows);
+            }
+        };
+
+        BatchQueue<Integer> queue = new BatchQueue<>("test", 100, 1, 10, batch -> {
+            if (batch.getFirst() == 0) {
+                throw new IllegalStateException("poisoned batch");
+            }
+        }, listener);
+        queue.start();
+
+        // when
+        queue.put(0);
+        queue.put(1);
+
+        // then
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(failed.get()).isEqualTo(1);
+
+        queue.close(1000);
+    }
+}
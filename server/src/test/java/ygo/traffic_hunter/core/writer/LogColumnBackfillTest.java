@@ -0,0 +1,99 @@
+package ygo.traffic_hunter.core.writer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.logs.Severity;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.common.util.TraceIds;
+import ygo.traffic_hunter.core.repository.MetricRepository;
+import ygo.traffic_hunter.core.writer.property.MetricSchemaProperties;
+import ygo.traffic_hunter.core.writer.property.MetricSchemaProperties.Backfill;
+import ygo.traffic_hunter.core.writer.property.MetricSchemaProperties.ReadSource;
+import ygo.traffic_hunter.core.writer.property.MetricSchemaProperties.WriteTarget;
+import ygo.traffic_hunter.domain.entity.LogMeasurement;
+import ygo.traffic_hunter.domain.metric.LogRecord;
+
+@SpringBootTest
+class LogColumnBackfillTest extends AbstractTestConfiguration {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    @Autowired
+    private MetricRepository metricRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("truncate table log_measurement");
+        jdbcTemplate.update("truncate table backfill");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("truncate table log_measurement");
+        jdbcTemplate.update("truncate table backfill");
+    }
+
+    @Test
+    void 컬럼이_없던_로그를_한_번만_채운다() {
+        // given
+        Instant now = Instant.now();
+        metricRepository.saveAllLogs(List.of(
+                log(now.minusSeconds(20), Severity.WARN, Map.of("trace_id", TRACE_ID)),
+                log(now.minusSeconds(10), Severity.INFO, Map.of("traceId", "not-a-trace-id"))
+        ));
+        jdbcTemplate.update("update log_measurement set id = null, severity = null, trace_id = null");
+
+        LogColumnBackfill backfill = new LogColumnBackfill(metricRepository, new MetricSchemaProperties(
+                WriteTarget.BOTH, ReadSource.TYPED, new Backfill(true, Duration.ofHours(1))));
+
+        // when
+        long filled = backfill.backfill(now.plusSeconds(1));
+        long again = backfill.backfill(now.plusSeconds(1));
+
+        // then
+        Integer withoutId = jdbcTemplate.queryForObject(
+                "select count(*) from log_measurement where id is null", Integer.class);
+        List<String> severities = jdbcTemplate.queryForList(
+                "select severity from log_measurement order by time", String.class);
+        Integer traced = jdbcTemplate.queryForObject(
+                "select count(*) from log_measurement where trace_id = ?", Integer.class,
+                (Object) TraceIds.traceId(TRACE_ID));
+
+        assertThat(filled).isEqualTo(2);
+        assertThat(again).isZero();
+        assertThat(withoutId).isZero();
+        assertThat(severities).containsExactly("WARN", "INFO");
+        assertThat(traced).isEqualTo(1);
+        assertThat(metricRepository.isBackfillCompleted("log_measurement.columns")).isTrue();
+    }
+
+    private LogMeasurement log(final Instant time, final Severity severity, final Map<String, String> attributes) {
+
+        LogRecord logRecord = new LogRecord(
+                Map.of("service.name", "test"),
+                Map.of(),
+                attributes,
+                "body",
+                attributes.size(),
+                severity,
+                severity.name(),
+                0L,
+                0L
+        );
+
+        return new LogMeasurement(time, 1, logRecord);
+    }
+}
@@ -0,0 +1,103 @@
+package ygo.traffic_hunter.core.writer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.core.repository.MetricRepository;
+import ygo.traffic_hunter.core.writer.property.MetricSchemaProperties;
+import ygo.traffic_hunter.core.writer.property.MetricSchemaProperties.Backfill;
+import ygo.traffic_hunter.core.writer.property.MetricSchemaProperties.ReadSource;
+import ygo.traffic_hunter.core.writer.property.MetricSchemaProperties.WriteTarget;
+import ygo.traffic_hunter.domain.entity.TransactionMeasurement;
+import ygo.traffic_hunter.domain.metric.TransactionData;
+
+@SpringBootTest
+class TraceIdBackfillTest extends AbstractTestConfiguration {
+
+    @Autowired
+    private MetricRepository metricRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("truncate table transaction_measurement");
+        jdbcTemplate.update("truncate table trace_summary");
+        jdbcTemplate.update("truncate table backfill");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("truncate table transaction_measurement");
+        jdbcTemplate.update("truncate table trace_summary");
+        jdbcTemplate.update("truncate table backfill");
+    }
+
+    @Test
+    void 아이디_컬럼이_없던_스팬을_한_번만_채우고_요약에_합친다() {
+        // given
+        String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+        TransactionData root = createTransaction(traceId, "0000000000000000", "00f067aa0ba902b7");
+        TransactionData child = createTransaction(traceId, "00f067aa0ba902b7", "b7ad6b7169203331");
+        TransactionData malformed = createTransaction(traceId, "not-a-span-id", "53995c3f42cd8ad8");
+
+        metricRepository.saveAllTransactions(List.of(
+                new TransactionMeasurement(root.startTime(), 1, root),
+                new TransactionMeasurement(child.startTime(), 1, child),
+                new TransactionMeasurement(malformed.startTime(), 1, malformed)
+        ));
+        jdbcTemplate.update("update transaction_measurement set trace_id = null, span_id = null, parent_span_id = null");
+        jdbcTemplate.update("truncate table trace_summary");
+        jdbcTemplate.update("insert into transaction_measurement (time, transaction_data, agent_id) "
+                + "values (now(), '{\"traceId\": \"not-hex\"}'::jsonb, 1)");
+
+        TraceIdBackfill backfill = new TraceIdBackfill(metricRepository, new MetricSchemaProperties(
+                WriteTarget.BOTH, ReadSource.TYPED, new Backfill(true, Duration.ofHours(1))));
+
+        // when
+        long tagged = backfill.backfill(Instant.now().plusSeconds(1));
+
+        // then
+        Map<String, Object> summary = jdbcTemplate.queryForMap("select span_count, has_root from trace_summary");
+        Integer roots = jdbcTemplate.queryForObject(
+                "select count(*) from transaction_measurement where trace_id is not null and parent_span_id is null",
+                Integer.class);
+        Integer untagged = jdbcTemplate.queryForObject(
+                "select count(*) from transaction_measurement where trace_id is null", Integer.class);
+
+        assertThat(tagged).isEqualTo(3);
+        assertThat(summary).containsEntry("span_count", 3).containsEntry("has_root", true);
+        assertThat(metricRepository.findTxDataByRequestUri(traceId)).hasSize(3);
+        assertThat(roots).isEqualTo(1);
+        assertThat(untagged).isEqualTo(1);
+        assertThat(metricRepository.isBackfillCompleted("transaction_measurement.trace_id")).isTrue();
+    }
+
+
+    private TransactionData createTransaction(final String traceId, final String parentSpanId, final String spanId) {
+        return new TransactionData(
+                "GET /api",
+                traceId,
+                parentSpanId,
+                spanId,
+                Map.of("http.requestURI", "/api"),
+                1,
+                Instant.now(),
+                Instant.now().plusMillis(5),
+                5L,
+                null,
+                true
+        );
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2024 traffic-hunter.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package ygo.traffic_hunter.persistence.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.logs.Severity;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.core.repository.TraceSummaryRepository;
+import ygo.traffic_hunter.domain.entity.LogMeasurement;
+import ygo.traffic_hunter.domain.entity.MetricMeasurement;
+import ygo.traffic_hunter.domain.metric.LogRecord;
+import ygo.traffic_hunter.domain.metric.MetricData;
+import ygo.traffic_hunter.domain.metric.cpu.CpuMetricMeasurement;
+import ygo.traffic_hunter.domain.metric.dbcp.hikari.HikariCPMeasurement;
+import ygo.traffic_hunter.domain.metric.gc.GCMetricMeasurement;
+import ygo.traffic_hunter.domain.metric.gc.time.GCMetricCollectionTime;
+import ygo.traffic_hunter.domain.metric.memory.MemoryMetricMeasurement;
+import ygo.traffic_hunter.domain.metric.memory.usage.MemoryMetricUsage;
+import ygo.traffic_hunter.domain.metric.runtime.RuntimeMetricMeasurement;
+import ygo.traffic_hunter.domain.metric.thread.ThreadMetricMeasurement;
+import ygo.traffic_hunter.domain.metric.web.tomcat.TomcatWebServerMeasurement;
+import ygo.traffic_hunter.domain.metric.web.tomcat.request.TomcatWebServerRequestMeasurement;
+import ygo.traffic_hunter.domain.metric.web.tomcat.thread.TomcatWebServerThreadPoolMeasurement;
+
+@SpringBootTest
+class CopyMetricRepositoryTest extends AbstractTestConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(CopyMetricRepositoryTest.class);
+
+    private static final int ROWS = 10_000;
+
+    @Autowired
+    private TimeSeriesRepository timeSeriesRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TraceSummaryRepository traceSummaryRepository;
+
+    private CopyMetricRepository copyMetricRepository;
+
+    @BeforeEach
+    void setUp() {
+        copyMetricRepository = new CopyMetricRepository(dataSource, objectMapper, traceSummaryRepository);
+        jdbcTemplate.update("truncate table metric_measurement");
+        jdbcTemplate.update("truncate table log_measurement");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("truncate table metric_measurement");
+        jdbcTemplate.update("truncate table log_measurement");
+    }
+
+    @Test
+    void COPY로_저장한_메트릭은_INSERT와_같은_행이_된다() {
+        // given
+        List<MetricMeasurement> metrics = createMetrics(500);
+
+        // when
+        timeSeriesRepository.saveAllMetrics(metrics);
+        copyMetricRepository.saveAllMetrics(metrics);
+
+        // then
+        Integer distinctRows = jdbcTemplate.queryForObject(
+                "select count(*) from (select distinct time, agent_id, metric_data from metric_measurement) rows",
+                Integer.class);
+        Integer count = jdbcTemplate.queryForObject("select count(*) from metric_measurement", Integer.class);
+
+        assertThat(count).isEqualTo(1000);
+        assertThat(distinctRows).isEqualTo(500);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void INSERT와_COPY의_처리량을_비교한다() {
+        // given
+        List<MetricMeasurement> metrics = createMetrics(ROWS);
+
+        // warm up both paths before measuring
+        timeSeriesRepository.saveAllMetrics(metrics.subList(0, 500));
+        copyMetricRepository.saveAllMetrics(metrics.subList(0, 500));
+        jdbcTemplate.update("truncate table metric_measurement");
+
+        // when
+        long insertNanos = measure(timeSeriesRepository::saveAllMetrics, metrics);
+        long copyNanos = measure(copyMetricRepository::saveAllMetrics, metrics);
+
+        // then
+        Integer count = jdbcTemplate.queryForObject("select count(*) from metric_measurement", Integer.class);
+        assertThat(count).isEqualTo(ROWS * 2);
+
+        log.info("{} metric rows, insert = {} rows/s copy = {} rows/s",
+                ROWS, rowsPerSecond(insertNanos), rowsPerSecond(copyNanos));
+    }
+
+    @Test
+    void COPY로_저장한_JSON이_INSERT와_동일하게_조회된다() {
+        // given
+        String body = "path C:\\temp\\app\ttab\nnew line \"quoted\" 한글";
+
+        LogRecord logRecord = new LogRecord(
+                Map.of("service.name", "test"),
+                Map.of(),
+                Map.of("key", "value\\with\\backslash"),
+                body,
+                1,
+                Severity.INFO,
+                "INFO",
+                1L,
+                1L
+        );
+
+        // when
+        copyMetricRepository.saveAllLogs(List.of(new LogMeasurement(Instant.now(), 1, logRecord)));
+
+        // then
+        String savedBody = jdbcTemplate.queryForObject(
+                "select log_data->>'body' from log_measurement", String.class);
+        String savedAttribute = jdbcTemplate.queryForObject(
+                "select log_data->'attributes'->>'key' from log_measurement", String.class);
+        String savedSeverity = jdbcTemplate.queryForObject("select severity from log_measurement", String.class);
+
+        assertThat(savedBody).isEqualTo(body);
+        assertThat(savedAttribute).isEqualTo("value\\with\\backslash");
+        assertThat(savedSeverity).isEqualTo("INFO");
+    }
+
+    private long measure(final Consumer<List<MetricMeasurement>> writer, final List<MetricMeasurement> metrics) {
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < metrics.size(); i += 500) {
+            writer.accept(metrics.subList(i, Math.min(i + 500, metrics.size())));
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    private long rowsPerSecond(final long nanos) {
+        return ROWS * TimeUnit.SECONDS.toNanos(1) / Math.max(nanos, 1);
+    }
+
+    private List<MetricMeasurement> createMetrics(final int size) {
+
+        List<MetricMeasurement> metrics = new ArrayList<>(size);
+        Instant now = Instant.now();
+
+        for (int i = 0; i < size; i++) {
+            MetricData metricData = new MetricData(
+                    new CpuMetricMeasurement(0.5, 0.3, 4),
+                    new GCMetricMeasurement(List.of(new GCMetricCollectionTime(5L, 100L))),
+                    new MemoryMetricMeasurement(
+                            new MemoryMetricUsage(1000L, 500L, 800L, 1024L),
+                            new MemoryMetricUsage(500L, 200L, 400L, 512L)
+                    ),
+                    new RuntimeMetricMeasurement(1000L, 5000L, "TestVM", "1.0"),
+                    new ThreadMetricMeasurement(10, 15, 100L),
+                    new TomcatWebServerMeasurement(
+                            new TomcatWebServerRequestMeasurement(1, 1, 1, 1, 1),
+                            new TomcatWebServerThreadPoolMeasurement(1, 1, 1)
+                    ),
+                    new HikariCPMeasurement(1, 1, 1, 1)
+            );
+
+            metrics.add(new MetricMeasurement(now.minusMillis(i), i % 10 + 1, metricData));
+        }
+
+        return metrics;
+    }
+
+}
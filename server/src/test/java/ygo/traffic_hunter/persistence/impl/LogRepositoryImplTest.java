@@ -0,0 +1,219 @@
+package ygo.traffic_hunter.persistence.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.logs.Severity;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.common.util.TraceIds;
+import ygo.traffic_hunter.core.dto.response.log.LogResponse;
+import ygo.traffic_hunter.core.dto.response.log.LogSearchPage;
+import ygo.traffic_hunter.core.log.LogCursor;
+import ygo.traffic_hunter.core.log.LogSearchCondition;
+import ygo.traffic_hunter.core.repository.LogRepository;
+import ygo.traffic_hunter.core.repository.TraceSummaryRepository;
+import ygo.traffic_hunter.domain.entity.Agent;
+import ygo.traffic_hunter.domain.entity.LogMeasurement;
+import ygo.traffic_hunter.domain.metric.LogRecord;
+
+@SpringBootTest
+class LogRepositoryImplTest extends AbstractTestConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(LogRepositoryImplTest.class);
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+
+    private static final String TRACE_ID = "a7ae6e1955ce6033770a93fe8257f636";
+
+    @Autowired
+    private LogRepository logRepository;
+
+    @Autowired
+    private TimeSeriesRepository timeSeriesRepository;
+
+    @Autowired
+    private TraceSummaryRepository traceSummaryRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Integer agentId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("truncate table log_measurement");
+
+        if (!timeSeriesRepository.existsByAgentId("log-agent")) {
+            timeSeriesRepository.save(Agent.create("log-agent", "log-agent", "1.0.0", NOW));
+        }
+        agentId = timeSeriesRepository.findByAgentId("log-agent").id();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("truncate table log_measurement");
+    }
+
+    @Test
+    void 본문_검색어와_로그_레벨_트레이스_아이디로_로그를_찾는다() {
+        // given
+        timeSeriesRepository.saveAllLogs(List.of(
+                log(NOW.minusSeconds(30), Severity.INFO, "payment accepted", Map.of()),
+                log(NOW.minusSeconds(20), Severity.WARN, "payment gateway timeout, retrying", Map.of("trace_id", TRACE_ID)),
+                log(NOW.minusSeconds(10), Severity.ERROR, "payment gateway timeout after 3000 ms", Map.of()),
+                log(NOW.minusSeconds(5), Severity.DEBUG, "gateway pool stats", Map.of())
+        ));
+
+        // when
+        List<LogResponse> byText = search(condition(null, null, "gateway timeout")).content();
+        List<LogResponse> bySeverity = search(condition(Severity.WARN, null, null)).content();
+        List<LogResponse> byTrace = search(condition(null, TRACE_ID, null)).content();
+        List<LogResponse> excluded = search(condition(null, null, "gateway -timeout")).content();
+
+        // then
+        assertThat(byText).extracting(LogResponse::body)
+                .containsExactly("payment gateway timeout after 3000 ms", "payment gateway timeout, retrying");
+        assertThat(bySeverity).extracting(LogResponse::severity).containsExactly("ERROR", "WARN");
+        assertThat(byTrace).singleElement().satisfies(log -> {
+            assertThat(log.traceId()).isEqualTo(TRACE_ID);
+            assertThat(log.agentName()).isEqualTo("log-agent");
+            assertThat(log.attributes()).containsEntry("trace_id", TRACE_ID);
+        });
+        assertThat(excluded).extracting(LogResponse::body).containsExactly("gateway pool stats");
+    }
+
+    @Test
+    void 트레이스_아이디는_스팬과_같은_바이트_형식으로_저장한다() {
+        // given
+        timeSeriesRepository.saveAllLogs(List.of(
+                log(NOW.minusSeconds(20), Severity.INFO, "order placed", Map.of("trace_id", TRACE_ID)),
+                log(NOW.minusSeconds(10), Severity.INFO, "order shipped", Map.of("trace_id", "not-a-trace-id"))
+        ));
+
+        // when
+        Long stored = jdbcTemplate.queryForObject(
+                "select count(*) from log_measurement where trace_id = ?", Long.class, TraceIds.traceId(TRACE_ID));
+        Long unparsed = jdbcTemplate.queryForObject(
+                "select count(*) from log_measurement where trace_id is null", Long.class);
+        List<LogResponse> byUpperCase = search(condition(null, TRACE_ID.toUpperCase(), null)).content();
+        List<LogResponse> byInvalid = search(condition(null, "not-a-trace-id", null)).content();
+
+        // then
+        assertThat(stored).isEqualTo(1);
+        assertThat(unparsed).isEqualTo(1);
+        assertThat(byUpperCase).extracting(LogResponse::traceId).containsExactly(TRACE_ID);
+        assertThat(byInvalid).isEmpty();
+    }
+
+    @Test
+    void 같은_시간에_남은_로그도_커서로_빠짐없이_한번씩_조회한다() {
+        // given
+        List<LogMeasurement> logs = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            logs.add(log(NOW.minusSeconds(i / 10), Severity.INFO, "burst " + i, Map.of()));
+        }
+        timeSeriesRepository.saveAllLogs(logs);
+
+        // when
+        Set<Long> seen = new HashSet<>();
+        int pages = 0;
+        LogCursor cursor = null;
+        LogSearchPage page;
+        do {
+            page = logRepository.search(condition(null, null, null), cursor, 10);
+            page.content().forEach(log -> assertThat(seen.add(log.id())).isTrue());
+            cursor = page.hasNext() ? LogCursor.decode(page.nextCursor()) : null;
+            pages++;
+        } while (page.hasNext());
+
+        // then
+        assertThat(seen).hasSize(25);
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void 하루치_로그에서_첫_페이지를_찾는_시간을_잰다() {
+        // given
+        CopyMetricRepository copyMetricRepository =
+                new CopyMetricRepository(dataSource, objectMapper, traceSummaryRepository);
+
+        int rows = 100_000;
+        long step = Duration.ofDays(1).toMillis() / rows;
+        List<LogMeasurement> logs = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String body = i % 1000 == 0
+                    ? "connection pool exhausted, waited 3000 ms for connection " + i
+                    : "GET /api/orders/" + i + " completed in " + (i % 200) + " ms";
+            logs.add(log(NOW.minusMillis(i * step), i % 1000 == 0 ? Severity.ERROR : Severity.INFO, body, Map.of()));
+        }
+        copyMetricRepository.saveAllLogs(logs);
+        jdbcTemplate.execute("analyze log_measurement");
+
+        LogSearchCondition condition = new LogSearchCondition(
+                NOW.minus(Duration.ofDays(1)), NOW.plusSeconds(1), "log-agent", null, null, "pool exhausted");
+
+        // when
+        logRepository.search(condition, null, 50);
+        long start = System.nanoTime();
+        LogSearchPage page = logRepository.search(condition, null, 50);
+        long elapsed = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+        // then
+        assertThat(page.content()).hasSize(50);
+        assertThat(page.hasNext()).isTrue();
+        log.info("first page of a full text search over {} logs in {}us", rows, elapsed);
+    }
+
+    private LogSearchPage search(final LogSearchCondition condition) {
+        return logRepository.search(condition, null, 10);
+    }
+
+    private LogSearchCondition condition(final Severity severity, final String traceId, final String query) {
+        return new LogSearchCondition(NOW.minus(Duration.ofHours(1)), NOW.plusSeconds(1), "log-agent", severity, traceId, query);
+    }
+
+    private LogMeasurement log(final Instant time,
+                               final Severity severity,
+                               final String body,
+                               final Map<String, String> attributes) {
+
+        LogRecord logRecord = new LogRecord(
+                Map.of("service.name", "test"),
+                Map.of(),
+                attributes,
+                body,
+                attributes.size(),
+                severity,
+                severity.name(),
+                0L,
+                0L
+        );
+
+        return new LogMeasurement(time, agentId, logRecord);
+    }
+}
@@ -0,0 +1,119 @@
+package ygo.traffic_hunter.persistence.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.core.dto.response.statistics.metric.StatisticsMetricMaxResponse;
+import ygo.traffic_hunter.core.statistics.StatisticsMetricTimeRange;
+import ygo.traffic_hunter.domain.entity.Agent;
+
+@SpringBootTest
+class StatisticsMetricQueryTest extends AbstractTestConfiguration {
+
+    private static final String AGENT = "statistics-agent";
+
+    private static final String OTHER_AGENT = "statistics-other-agent";
+
+    // one sample every 5 minutes for half a year, per agent
+    private static final int SAMPLES = 180 * 24 * 12;
+
+    @Autowired
+    private TimeSeriesRepository timeSeriesRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("truncate table system_metric_measurement");
+
+        // thread_count is 0..99 for AGENT and 1000..1099 for OTHER_AGENT
+        insertSamples(AGENT, 0);
+        insertSamples(OTHER_AGENT, 1000);
+
+        jdbcTemplate.execute("analyze system_metric_measurement");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("truncate table system_metric_measurement");
+        jdbcTemplate.update("delete from agent where agent_id in (?, ?)", AGENT, OTHER_AGENT);
+    }
+
+    @Test
+    void 통계_쿼리는_요청한_기간의_행만_읽는다() throws JsonProcessingException {
+        // given
+        String sql = TimeSeriesRepository.maxMetricSql(true, true);
+
+        // when
+        String plan = jdbcTemplate.queryForObject(
+                "explain (analyze, format json) " + sql, String.class, "1 day", "1 day", AGENT);
+        long rowsRead = rowsRead(objectMapper.readTree(plan).get(0).get("Plan"));
+
+        // then
+        // a day of samples for one agent is 288 rows
+        assertThat(rowsRead).isBetween(288L, SAMPLES * 2L / 10);
+    }
+
+    @Test
+    void 통계는_요청한_에이전트의_최근_기간만_집계한다() {
+        // when
+        StatisticsMetricMaxResponse agentMax =
+                timeSeriesRepository.findMaxMetricByTimeInterval(StatisticsMetricTimeRange.LATEST_ONE_DAY, AGENT);
+        StatisticsMetricMaxResponse allMax =
+                timeSeriesRepository.findMaxMetricByTimeInterval(StatisticsMetricTimeRange.LATEST_ONE_DAY, null);
+
+        // then
+        assertThat(agentMax.maxThreadCount()).isEqualTo(99);
+        assertThat(allMax.maxThreadCount()).isEqualTo(1099);
+        assertThat(agentMax.time()).isAfter(Instant.now().minusSeconds(24 * 60 * 60 + 60));
+    }
+
+    private void insertSamples(final String agentName, final int threadCountBase) {
+
+        timeSeriesRepository.save(Agent.create(agentName, agentName, "1.0.0", Instant.now()));
+        Integer agentId = jdbcTemplate.queryForObject(
+                "select id from agent where agent_id = ?", Integer.class, agentName);
+
+        jdbcTemplate.update("insert into system_metric_measurement "
+                        + "select now() - i * interval '5 minutes', ?, 0.5, 0.5, 4, "
+                        + "1, 1000000, 1, 1, 1, 1, 1, 1, "
+                        + "? + i % 100, 1, 1, "
+                        + "1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 "
+                        + "from generate_series(0, ?) i",
+                agentId, threadCountBase, SAMPLES - 1);
+    }
+
+    /**
+     * rows produced or filtered out by every table scan of the plan, on a hypertable one scan per chunk.
+     */
+    private long rowsRead(final JsonNode node) {
+
+        long rows = 0;
+
+        if (node.has("Relation Name") && !"agent".equals(node.get("Relation Name").asText())) {
+            rows += node.path("Actual Rows").asLong() * node.path("Actual Loops").asLong(1)
+                    + node.path("Rows Removed by Filter").asLong()
+                    + node.path("Rows Removed by Index Recheck").asLong();
+        }
+
+        for (JsonNode child : node.path("Plans")) {
+            rows += rowsRead(child);
+        }
+
+        return rows;
+    }
+}
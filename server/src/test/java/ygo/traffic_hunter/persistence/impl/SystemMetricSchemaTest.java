@@ -0,0 +1,274 @@
+package ygo.traffic_hunter.persistence.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.common.map.SystemInfoMapper;
+import ygo.traffic_hunter.core.dto.response.statistics.metric.StatisticsMetricAvgResponse;
+import ygo.traffic_hunter.core.dto.response.statistics.metric.StatisticsMetricMaxResponse;
+import ygo.traffic_hunter.core.repository.TraceSummaryRepository;
+import ygo.traffic_hunter.core.statistics.StatisticsMetricTimeRange;
+import ygo.traffic_hunter.core.writer.SystemMetricBackfill;
+import ygo.traffic_hunter.core.writer.property.MetricSchemaProperties;
+import ygo.traffic_hunter.core.writer.property.MetricSchemaProperties.Backfill;
+import ygo.traffic_hunter.core.writer.property.MetricSchemaProperties.ReadSource;
+import ygo.traffic_hunter.core.writer.property.MetricSchemaProperties.WriteTarget;
+import ygo.traffic_hunter.domain.entity.Agent;
+import ygo.traffic_hunter.domain.entity.MetricMeasurement;
+import ygo.traffic_hunter.domain.metric.MetricData;
+import ygo.traffic_hunter.domain.metric.cpu.CpuMetricMeasurement;
+import ygo.traffic_hunter.domain.metric.dbcp.hikari.HikariCPMeasurement;
+import ygo.traffic_hunter.domain.metric.gc.GCMetricMeasurement;
+import ygo.traffic_hunter.domain.metric.gc.time.GCMetricCollectionTime;
+import ygo.traffic_hunter.domain.metric.memory.MemoryMetricMeasurement;
+import ygo.traffic_hunter.domain.metric.memory.usage.MemoryMetricUsage;
+import ygo.traffic_hunter.domain.metric.runtime.RuntimeMetricMeasurement;
+import ygo.traffic_hunter.domain.metric.thread.ThreadMetricMeasurement;
+import ygo.traffic_hunter.domain.metric.web.tomcat.TomcatWebServerMeasurement;
+import ygo.traffic_hunter.domain.metric.web.tomcat.request.TomcatWebServerRequestMeasurement;
+import ygo.traffic_hunter.domain.metric.web.tomcat.thread.TomcatWebServerThreadPoolMeasurement;
+import ygo.traffic_hunter.persistence.mapper.AgentRowMapper;
+import ygo.traffic_hunter.persistence.mapper.LogMeasurementRowMapper;
+import ygo.traffic_hunter.persistence.mapper.SystemMeasurementRowMapper;
+import ygo.traffic_hunter.persistence.mapper.TransactionDataMapper;
+import ygo.traffic_hunter.persistence.mapper.TransactionMeasurementRowMapper;
+import ygo.traffic_hunter.persistence.query.MetricRollup;
+
+@SpringBootTest
+class SystemMetricSchemaTest extends AbstractTestConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(SystemMetricSchemaTest.class);
+
+    /**
+     * rows seeded by the benchmark, the numbers in the commit log were taken with 2_000_000 rows.
+     */
+    private static final int ROWS = 200_000;
+
+    private static final String AGENT_ID = "system-metric-schema-test";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DSLContext dsl;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SystemInfoMapper systemInfoMapper;
+
+    @Autowired
+    private SystemMeasurementRowMapper systemMeasurementRowMapper;
+
+    @Autowired
+    private TransactionMeasurementRowMapper transactionMeasurementRowMapper;
+
+    @Autowired
+    private TransactionDataMapper transactionDataMapper;
+
+    @Autowired
+    private LogMeasurementRowMapper logMeasurementRowMapper;
+
+    @Autowired
+    private AgentRowMapper agentRowMapper;
+
+    @Autowired
+    private TraceSummaryRepository traceSummaryRepository;
+
+    private TimeSeriesRepository jsonbRepository;
+
+    private TimeSeriesRepository typedRepository;
+
+    @BeforeEach
+    void setUp() {
+        jsonbRepository = repository(ReadSource.JSONB);
+        typedRepository = repository(ReadSource.TYPED);
+        truncate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        truncate();
+        jdbcTemplate.update("delete from agent where agent_id = ?", AGENT_ID);
+    }
+
+    @Test
+    void 백필한_행은_수집_시점에_매핑한_행과_같다() {
+        // given
+        Instant now = Instant.now();
+        MetricMeasurement jsonb = new MetricMeasurement(now.minusSeconds(10), 1, createMetricData());
+        MetricMeasurement typed = new MetricMeasurement(now.minusSeconds(10), 2, createMetricData());
+
+        jsonbRepository.saveAllMetrics(List.of(jsonb));
+        jsonbRepository.saveAllSystemMetrics(List.of(systemInfoMapper.mapColumns(typed)));
+
+        // when
+        int first = jsonbRepository.backfillSystemMetrics(now.minusSeconds(60), now);
+        int second = jsonbRepository.backfillSystemMetrics(now.minusSeconds(60), now);
+
+        // then
+        Integer distinctRows = jdbcTemplate.queryForObject(
+                "select count(*) from (select distinct "
+                        + "system_cpu_load, process_cpu_load, available_processors, "
+                        + "heap_init, heap_used, heap_committed, heap_max, non_heap_used, non_heap_committed, "
+                        + "gc_collection_count, gc_collection_time, "
+                        + "thread_count, peak_thread_count, total_started_thread_count, "
+                        + "request_count, bytes_received, bytes_sent, processing_time, error_count, "
+                        + "max_threads, current_threads, current_threads_busy, "
+                        + "active_connections, idle_connections, total_connections, threads_awaiting_connection "
+                        + "from system_metric_measurement) rows", Integer.class);
+
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(distinctRows).isEqualTo(1);
+    }
+
+    @Test
+    void 타입_컬럼과_JSONB의_통계가_같은_값을_돌려준다() {
+        // given - quarters are exact in both double precision and numeric, so the rounding cannot differ
+        Instant now = Instant.now();
+        List<MetricMeasurement> metrics = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            MetricData data = createMetricData(new CpuMetricMeasurement((i % 5) * 0.25, (i % 4) * 0.25, 4));
+            metrics.add(new MetricMeasurement(now.minusSeconds(i + 1), 1, data));
+        }
+        jsonbRepository.saveAllMetrics(metrics);
+        jsonbRepository.backfillSystemMetrics(now.minusSeconds(60), now);
+
+        // when
+        StatisticsMetricMaxResponse jsonbMax = jsonbRepository.findMaxMetricByTimeInterval(
+                StatisticsMetricTimeRange.LATEST_ONE_HOUR, null);
+        StatisticsMetricMaxResponse typedMax = typedRepository.findMaxMetricByTimeInterval(
+                StatisticsMetricTimeRange.LATEST_ONE_HOUR, null);
+        StatisticsMetricAvgResponse jsonbAvg = jsonbRepository.findAvgMetricByTimeInterval(
+                StatisticsMetricTimeRange.LATEST_ONE_HOUR, null);
+        StatisticsMetricAvgResponse typedAvg = typedRepository.findAvgMetricByTimeInterval(
+                StatisticsMetricTimeRange.LATEST_ONE_HOUR, null);
+
+        // then - time is the start of the window, taken per query
+        assertThat(typedMax).usingRecursiveComparison().ignoringFields("time").isEqualTo(jsonbMax);
+        assertThat(typedAvg).usingRecursiveComparison().ignoringFields("time").isEqualTo(jsonbAvg);
+        assertThat(typedMax.maxProcessCpuUsage()).isEqualTo(0.8);
+        assertThat(typedMax.maxSystemCpuUsage()).isEqualTo(1.0);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void 타입_컬럼과_JSONB의_통계_조회_시간을_비교한다() throws JsonProcessingException {
+        // given
+        Agent agent = Agent.create(AGENT_ID, AGENT_ID, "1.0.0", Instant.now());
+        jsonbRepository.save(agent);
+        Integer agentId = jsonbRepository.findByAgentId(AGENT_ID).id();
+
+        jdbcTemplate.update("insert into metric_measurement (time, agent_id, metric_data) "
+                        + "select now() - i * interval '1 second', ?, "
+                        + "jsonb_set(?::jsonb, '{cpuMetric,systemCpuLoad}', to_jsonb(random())) "
+                        + "from generate_series(1, ?) i",
+                agentId, objectMapper.writeValueAsString(createMetricData()), ROWS);
+
+        long backfilled = new SystemMetricBackfill(
+                jsonbRepository, properties(ReadSource.TYPED)).backfill(Instant.now());
+
+        for (MetricRollup rollup : MetricRollup.values()) {
+            jdbcTemplate.execute("call refresh_continuous_aggregate('" + rollup.getViewName() + "', null, null)");
+        }
+
+        jdbcTemplate.execute("analyze metric_measurement");
+        jdbcTemplate.execute("analyze system_metric_measurement");
+
+        // when
+        long jsonbMax = measure(() -> jsonbRepository.findMaxMetricByTimeInterval(
+                StatisticsMetricTimeRange.LATEST_ONE_HOUR, null));
+        long typedMax = measure(() -> typedRepository.findMaxMetricByTimeInterval(
+                StatisticsMetricTimeRange.LATEST_ONE_HOUR, null));
+
+        long jsonbAvg = measure(() -> jsonbRepository.findAvgMetricByTimeInterval(
+                StatisticsMetricTimeRange.LATEST_ONE_HOUR, null));
+        long typedAvg = measure(() -> typedRepository.findAvgMetricByTimeInterval(
+                StatisticsMetricTimeRange.LATEST_ONE_HOUR, null));
+
+        // then
+        assertThat(backfilled).isEqualTo(ROWS);
+        log.info("statistics over {} rows, max jsonb = {}ms typed = {}ms, avg jsonb = {}ms typed = {}ms",
+                ROWS, jsonbMax, typedMax, jsonbAvg, typedAvg);
+    }
+
+    private long measure(final Supplier<?> query) {
+
+        query.get();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            query.get();
+        }
+
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) / 3;
+    }
+
+    private void truncate() {
+        jdbcTemplate.update("truncate table metric_measurement");
+        jdbcTemplate.update("truncate table system_metric_measurement");
+    }
+
+    private TimeSeriesRepository repository(final ReadSource read) {
+        return new TimeSeriesRepository(
+                jdbcTemplate,
+                systemMeasurementRowMapper,
+                transactionMeasurementRowMapper,
+                transactionDataMapper,
+                logMeasurementRowMapper,
+                agentRowMapper,
+                dsl,
+                properties(read),
+                traceSummaryRepository
+        );
+    }
+
+    private MetricSchemaProperties properties(final ReadSource read) {
+        return new MetricSchemaProperties(WriteTarget.BOTH, read, new Backfill(true, Duration.ofHours(1)));
+    }
+
+    private MetricData createMetricData() {
+        return createMetricData(new CpuMetricMeasurement(0.5, 0.3, 4));
+    }
+
+    private MetricData createMetricData(final CpuMetricMeasurement cpu) {
+        return new MetricData(
+                cpu,
+                new GCMetricMeasurement(List.of(
+                        new GCMetricCollectionTime(5L, 100L),
+                        new GCMetricCollectionTime(2L, 40L)
+                )),
+                new MemoryMetricMeasurement(
+                        new MemoryMetricUsage(1000L, 2000L, 3000L, 4000L),
+                        new MemoryMetricUsage(500L, 600L, 700L, 800L)
+                ),
+                new RuntimeMetricMeasurement(1000L, 5000L, "TestVM", "1.0"),
+                new ThreadMetricMeasurement(10, 15, 100L),
+                new TomcatWebServerMeasurement(
+                        new TomcatWebServerRequestMeasurement(100L, 1000L, 2000L, 500L, 5L),
+                        new TomcatWebServerThreadPoolMeasurement(200, 50, 30)
+                ),
+                new HikariCPMeasurement(5, 10, 15, 0)
+        );
+    }
+}
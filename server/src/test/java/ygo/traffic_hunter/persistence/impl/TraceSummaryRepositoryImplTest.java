@@ -0,0 +1,196 @@
+package ygo.traffic_hunter.persistence.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.common.util.TraceIds;
+import ygo.traffic_hunter.config.cache.CacheConfig.CacheType;
+import ygo.traffic_hunter.core.dto.response.TransactionMetricResponse;
+import ygo.traffic_hunter.core.dto.response.statistics.transaction.ServiceTransactionResponse;
+import ygo.traffic_hunter.core.repository.TraceSummaryRepository;
+import ygo.traffic_hunter.domain.entity.Agent;
+import ygo.traffic_hunter.domain.entity.TransactionMeasurement;
+import ygo.traffic_hunter.domain.interval.TimeInterval;
+import ygo.traffic_hunter.domain.metric.TransactionData;
+
+@SpringBootTest
+class TraceSummaryRepositoryImplTest extends AbstractTestConfiguration {
+
+    @Autowired
+    private TimeSeriesRepository timeSeriesRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TraceSummaryRepository traceSummaryRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private CopyMetricRepository copyMetricRepository;
+
+    @BeforeEach
+    void setUp() {
+        copyMetricRepository = new CopyMetricRepository(dataSource, objectMapper, traceSummaryRepository);
+        jdbcTemplate.update("truncate table transaction_measurement");
+        jdbcTemplate.update("truncate table trace_summary");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("truncate table transaction_measurement");
+        jdbcTemplate.update("truncate table trace_summary");
+    }
+
+    @Test
+    void INSERT와_COPY로_저장한_스팬을_trace_id_컬럼으로_조회한다() {
+        // given
+        String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+        TransactionData root = createTransaction(traceId, "0000000000000000", "00f067aa0ba902b7");
+        TransactionData child = createTransaction(traceId, "00f067aa0ba902b7", "b7ad6b7169203331");
+        TransactionData other = createTransaction("0af7651916cd43dd8448eb211c80319c", null, "53995c3f42cd8ad8");
+
+        // when
+        timeSeriesRepository.saveAllTransactions(List.of(new TransactionMeasurement(root.startTime(), 1, root)));
+        copyMetricRepository.saveAllTransactions(List.of(
+                new TransactionMeasurement(child.startTime(), 1, child),
+                new TransactionMeasurement(other.startTime(), 1, other)
+        ));
+
+        // then
+        List<TransactionData> spans = timeSeriesRepository.findTxDataByRequestUri(traceId);
+        Integer roots = jdbcTemplate.queryForObject(
+                "select count(*) from transaction_measurement where parent_span_id is null", Integer.class);
+        String childParent = jdbcTemplate.queryForObject(
+                "select encode(parent_span_id, 'hex') from transaction_measurement where span_id = ?",
+                String.class, (Object) TraceIds.spanId("b7ad6b7169203331"));
+
+        assertThat(spans).extracting(TransactionData::spanId)
+                .containsExactlyInAnyOrder("00f067aa0ba902b7", "b7ad6b7169203331");
+        assertThat(roots).isEqualTo(2);
+        assertThat(childParent).isEqualTo("00f067aa0ba902b7");
+    }
+
+    @Test
+    void 스팬을_저장하면_trace_summary에_누적되고_트랜잭션_목록은_요약을_읽는다() {
+        // given
+        timeSeriesRepository.save(Agent.create("summary-agent", "summary-agent", "1.0.0", Instant.now()));
+        Integer agentId = timeSeriesRepository.findByAgentId("summary-agent").id();
+
+        String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+        TransactionData root = createTransaction(traceId, "0000000000000000", "00f067aa0ba902b7");
+        TransactionData child = TransactionData.builder()
+                .name("SELECT")
+                .traceId(traceId)
+                .parentSpanId("00f067aa0ba902b7")
+                .spanId("b7ad6b7169203331")
+                .attributes(Map.of())
+                .startTime(root.startTime().plusMillis(1))
+                .endTime(root.startTime().plusMillis(2))
+                .duration(1L)
+                .exception("connection refused")
+                .ended(true)
+                .build();
+
+        // when - the child span arrives before its root and through the other writer
+        copyMetricRepository.saveAllTransactions(List.of(new TransactionMeasurement(child.startTime(), agentId, child)));
+        timeSeriesRepository.saveAllTransactions(List.of(new TransactionMeasurement(root.startTime(), agentId, root)));
+
+        // then
+        cacheManager.getCache(CacheType.STATISTIC_TRANSACTION_PAGE_CACHE_NAME).clear();
+
+        Map<String, Object> summary = jdbcTemplate.queryForMap(
+                "select span_count, has_error, has_root, root_uri from trace_summary");
+        List<ServiceTransactionResponse> transactions =
+                timeSeriesRepository.findServiceTransaction(null, 10).content();
+        List<TransactionMetricResponse> recent =
+                timeSeriesRepository.findTxMetricsByRecentTimeAndAgentName(TimeInterval.REAL_TIME, "summary-agent", 10);
+
+        assertThat(summary).containsEntry("span_count", 2)
+                .containsEntry("has_error", true)
+                .containsEntry("has_root", true)
+                .containsEntry("root_uri", "/api");
+        assertThat(transactions).singleElement().satisfies(transaction -> {
+            assertThat(transaction.traceId()).isEqualTo(traceId);
+            assertThat(transaction.agentName()).isEqualTo("summary-agent");
+            assertThat(transaction.duration()).isEqualTo(5L);
+        });
+        assertThat(recent).singleElement().satisfies(response -> {
+            assertThat(response.spanTree().spans()).extracting(span -> span.data().spanId())
+                    .containsExactly("00f067aa0ba902b7", "b7ad6b7169203331");
+        });
+
+        jdbcTemplate.update("delete from agent where agent_id = ?", "summary-agent");
+    }
+
+
+    @Test
+    void 부모_아이디가_깨진_스팬은_루트로_요약되지_않는다() {
+        // given
+        String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+        TransactionData root = createTransaction(traceId, "0000000000000000", "00f067aa0ba902b7");
+        TransactionData malformed = TransactionData.builder()
+                .name("GET /other")
+                .traceId(traceId)
+                .parentSpanId("not-a-span-id")
+                .spanId("b7ad6b7169203331")
+                .attributes(Map.of("http.requestURI", "/other"))
+                .startTime(root.startTime().minusMillis(1))
+                .endTime(root.startTime().plusMillis(100))
+                .duration(101L)
+                .ended(true)
+                .build();
+
+        // when - the malformed span arrives first, through both writers
+        timeSeriesRepository.saveAllTransactions(List.of(new TransactionMeasurement(malformed.startTime(), 1, malformed)));
+        copyMetricRepository.saveAllTransactions(List.of(new TransactionMeasurement(root.startTime(), 1, root)));
+
+        // then
+        Integer roots = jdbcTemplate.queryForObject(
+                "select count(*) from transaction_measurement where parent_span_id is null", Integer.class);
+        Map<String, Object> summary = jdbcTemplate.queryForMap(
+                "select span_count, has_root, root_uri, duration from trace_summary");
+
+        assertThat(roots).isEqualTo(1);
+        assertThat(summary).containsEntry("span_count", 2)
+                .containsEntry("has_root", true)
+                .containsEntry("root_uri", "/api")
+                .containsEntry("duration", 5L);
+    }
+
+    private TransactionData createTransaction(final String traceId, final String parentSpanId, final String spanId) {
+        return new TransactionData(
+                "GET /api",
+                traceId,
+                parentSpanId,
+                spanId,
+                Map.of("http.requestURI", "/api"),
+                1,
+                Instant.now(),
+                Instant.now().plusMillis(5),
+                5L,
+                null,
+                true
+        );
+    }
+}
@@ -0,0 +1,35 @@
+package ygo.traffic_hunter.persistence.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.domain.interval.TimeInterval;
+
+class MetricRollupTest extends AbstractTestConfiguration {
+
+    @Test
+    void 간격을_나누어_떨어지게_하는_가장_큰_집계를_고른다() {
+        assertThat(MetricRollup.coarsestFor(TimeInterval.REAL_TIME.getDuration())).isEqualTo(MetricRollup.FIVE_SECONDS);
+        assertThat(MetricRollup.coarsestFor(TimeInterval.TEN_MINUTES.getDuration())).isEqualTo(MetricRollup.FIVE_MINUTES);
+        assertThat(MetricRollup.coarsestFor(TimeInterval.THIRTY_MINUTES.getDuration())).isEqualTo(MetricRollup.FIVE_MINUTES);
+        assertThat(MetricRollup.coarsestFor(TimeInterval.TWELVE_HOURS.getDuration())).isEqualTo(MetricRollup.ONE_HOUR);
+        assertThat(MetricRollup.coarsestFor(TimeInterval.THREE_DAYS.getDuration())).isEqualTo(MetricRollup.ONE_DAY);
+    }
+
+    @Test
+    void 모든_대시보드_간격에_맞는_집계가_있다() {
+        for (TimeInterval interval : TimeInterval.values()) {
+            assertThat(MetricRollup.coarsestFor(interval.getDuration()).getBucketWidth())
+                    .isLessThanOrEqualTo(interval.getDuration());
+        }
+    }
+
+    @Test
+    void 나누어_떨어지지_않는_간격은_예외를_던진다() {
+        assertThatThrownBy(() -> MetricRollup.coarsestFor(Duration.ofSeconds(7)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
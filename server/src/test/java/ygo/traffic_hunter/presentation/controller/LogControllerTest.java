@@ -0,0 +1,141 @@
+package ygo.traffic_hunter.presentation.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.documentationConfiguration;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.get;
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.preprocessRequest;
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.preprocessResponse;
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.prettyPrint;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+import static org.springframework.restdocs.payload.PayloadDocumentation.responseFields;
+import static org.springframework.restdocs.payload.PayloadDocumentation.subsectionWithPath;
+import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
+import static org.springframework.restdocs.request.RequestDocumentation.queryParameters;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.restdocs.RestDocumentationContextProvider;
+import org.springframework.restdocs.RestDocumentationExtension;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.core.dto.response.log.LogResponse;
+import ygo.traffic_hunter.core.dto.response.log.LogSearchPage;
+import ygo.traffic_hunter.core.log.LogSearchCondition;
+import ygo.traffic_hunter.core.service.LogService;
+import ygo.traffic_hunter.presentation.advice.GlobalControllerAdvice;
+
+@ExtendWith(RestDocumentationExtension.class)
+@WebMvcTest(controllers = LogController.class)
+class LogControllerTest extends AbstractTestConfiguration {
+
+    @MockitoBean
+    LogService logService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp(RestDocumentationContextProvider restDocumentation) {
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new LogController(logService))
+                .apply(documentationConfiguration(restDocumentation))
+                .setControllerAdvice(new GlobalControllerAdvice())
+                .build();
+    }
+
+    @Test
+    void 로그_검색은_정상적으로_동작한다_200() throws Exception {
+        // given
+        LogResponse log = new LogResponse(
+                42L,
+                Instant.parse("2026-01-01T00:00:00Z").atOffset(ZoneOffset.UTC),
+                "payments-agent",
+                "ERROR",
+                "ERROR",
+                "payment gateway timeout after 3000 ms",
+                "a7ae6e1955ce6033770a93fe8257f636",
+                Map.of("trace_id", "a7ae6e1955ce6033770a93fe8257f636")
+        );
+
+        given(logService.search(any(LogSearchCondition.class), eq("AAYjbNtf0YAAAAAAAAAAKw"), eq(20)))
+                .willReturn(new LogSearchPage(List.of(log), 20, true, "AAYjbNtf0YAAAAAAAAAAKg"));
+
+        // when
+        ResultActions resultActions = mockMvc.perform(get("/logs")
+                .accept(MediaType.APPLICATION_JSON)
+                .param("from", "2026-01-01T00:00:00Z")
+                .param("to", "2026-01-02T00:00:00Z")
+                .param("agentName", "payments-agent")
+                .param("severity", "WARN")
+                .param("traceId", "a7ae6e1955ce6033770a93fe8257f636")
+                .param("query", "gateway timeout")
+                .param("cursor", "AAYjbNtf0YAAAAAAAAAAKw")
+                .param("size", "20"));
+
+        // then
+        resultActions.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].body").value("payment gateway timeout after 3000 ms"))
+                .andDo(print())
+                .andDo(document("search-log"
+                        , preprocessRequest(prettyPrint())
+                        , preprocessResponse(prettyPrint())
+                        , queryParameters(
+                                parameterWithName("from").description("조회 시작 시간 UTC, 생략하면 to 의 1시간 전").optional(),
+                                parameterWithName("to").description("조회 종료 시간 UTC, 생략하면 현재 시간").optional(),
+                                parameterWithName("agentName").description("에이전트 이름").optional(),
+                                parameterWithName("severity").description("최소 로그 레벨 (TRACE, DEBUG, INFO, WARN, ERROR, FATAL)").optional(),
+                                parameterWithName("traceId").description("트랜잭션 식별자").optional(),
+                                parameterWithName("query").description("로그 본문 검색어, \"구문\" 과 -제외어 를 지원").optional(),
+                                parameterWithName("cursor").description("이전 페이지의 nextCursor, 첫 페이지는 생략").optional(),
+                                parameterWithName("size").description("페이지 사이즈 (default 50, max 100)")
+                        )
+                        , responseFields(
+                                subsectionWithPath("content").description("조회된 로그 목록, 최신순"),
+                                fieldWithPath("content[].id").description("로그 식별자"),
+                                fieldWithPath("content[].timestamp").description("로그 시간 UTC"),
+                                fieldWithPath("content[].agentName").description("에이전트 이름"),
+                                fieldWithPath("content[].severity").description("로그 레벨"),
+                                fieldWithPath("content[].severityText").description("로거가 남긴 로그 레벨 문자열"),
+                                fieldWithPath("content[].body").description("로그 본문"),
+                                fieldWithPath("content[].traceId").description("트랜잭션 식별자, 없으면 null").optional(),
+                                subsectionWithPath("content[].attributes").description("로그 속성"),
+                                fieldWithPath("size").description("페이지 크기"),
+                                fieldWithPath("hasNext").description("다음 페이지 존재 여부"),
+                                fieldWithPath("nextCursor").description("다음 페이지 조회 커서, 마지막 페이지면 null").optional()
+                        )
+                ));
+    }
+
+    @Test
+    void 조회_시작_시간이_종료_시간보다_늦으면_에러를_발생시킨다_400() throws Exception {
+        // given
+
+        // when
+        ResultActions resultActions = mockMvc.perform(get("/logs")
+                .accept(MediaType.APPLICATION_JSON)
+                .param("from", "2026-01-02T00:00:00Z")
+                .param("to", "2026-01-01T00:00:00Z"));
+
+        // then
+        resultActions.andExpect(status().isBadRequest())
+                .andDo(print())
+                .andDo(document("400-error-search-log"
+                        , preprocessRequest(prettyPrint())
+                        , preprocessResponse(prettyPrint())
+                ));
+    }
+}
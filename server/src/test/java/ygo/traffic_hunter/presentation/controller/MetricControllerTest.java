@@ -15,12 +15,14 @@ import static org.springframework.restdocs.request.RequestDocumentation.paramete
 import static org.springframework.restdocs.request.RequestDocumentation.pathParameters;
 import static org.springframework.restdocs.request.RequestDocumentation.queryParameters;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -32,8 +34,6 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.data.domain.SliceImpl;
-import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.restdocs.RestDocumentationContextProvider;
@@ -43,11 +43,15 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ygo.traffic_hunter.AbstractTestConfiguration;
+import ygo.traffic_hunter.common.util.TraceIds;
+import ygo.traffic_hunter.core.assembler.span.SpanAssembler;
 import ygo.traffic_hunter.core.assembler.span.SpanTreeNode;
 import ygo.traffic_hunter.core.dto.request.statistics.StatisticsRequest;
 import ygo.traffic_hunter.core.dto.response.statistics.metric.StatisticsMetricAvgResponse;
 import ygo.traffic_hunter.core.dto.response.statistics.metric.StatisticsMetricMaxResponse;
+import ygo.traffic_hunter.core.dto.response.statistics.transaction.ServiceTransactionPage;
 import ygo.traffic_hunter.core.dto.response.statistics.transaction.ServiceTransactionResponse;
+import ygo.traffic_hunter.core.dto.response.statistics.transaction.SpanTreeResponse;
 import ygo.traffic_hunter.core.service.MetricStatisticsService;
 import ygo.traffic_hunter.core.statistics.StatisticsMetricTimeRange;
 import ygo.traffic_hunter.domain.metric.TransactionData;
@@ -69,7 +73,6 @@ class MetricControllerTest extends AbstractTestConfiguration {
     void setUp(RestDocumentationContextProvider restDocumentation) {
         this.mockMvc = MockMvcBuilders.standaloneSetup(new MetricController(metricStatisticsService))
                 .apply(documentationConfiguration(restDocumentation))
-                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
                 .setControllerAdvice(new GlobalControllerAdvice())
                 .build();
     }
@@ -98,9 +101,8 @@ class MetricControllerTest extends AbstractTestConfiguration {
                 .content(objectMapper.writeValueAsString(sr))
                 .contentType(MediaType.APPLICATION_JSON)
                 .accept(MediaType.APPLICATION_JSON)
-                .param("page", "0")
-                .param("size", "10")
-                .param("sort", "count,DESC"));
+                .param("cursor", "AAYjbNtf0YBKeNxi8ZS3u0DDgGv6ZNj-")
+                .param("size", "10"));
 
         // then
         resultActions.andExpect(status().isOk())
@@ -108,16 +110,17 @@ class MetricControllerTest extends AbstractTestConfiguration {
                     MockHttpServletResponse response = result.getResponse();
                     response.setContentType(MediaType.APPLICATION_JSON_VALUE);
                     response.getWriter()
-                            .write(objectMapper.writeValueAsString(new SliceImpl<>(List.of(str))));
+                            .write(objectMapper.writeValueAsString(new ServiceTransactionPage(
+                                    List.of(str), 10, true, "AAYjbNtf0YBKeNxi8ZS3u0DDgGv6ZNj-"
+                            )));
                 })
                 .andDo(print())
                 .andDo(document("service-transaction"
                         , preprocessRequest(prettyPrint())
                         , preprocessResponse(prettyPrint())
                         , queryParameters(
-                                parameterWithName("page").description("페이지 넘버 (default 0)"),
-                                parameterWithName("size").description("페이지 사이즈 (default 10)"),
-                                parameterWithName("sort").description("페이지 정렬 (default count,DESC)")
+                                parameterWithName("cursor").description("이전 페이지의 nextCursor, 첫 페이지는 생략").optional(),
+                                parameterWithName("size").description("페이지 사이즈 (default 10, max 100)")
                         )
                         , requestFields(
                                 fieldWithPath("begin").description("조회 시작 시간 UTC"),
@@ -133,14 +136,9 @@ class MetricControllerTest extends AbstractTestConfiguration {
                                 fieldWithPath("content[].clientName").description("클라이언트 이름 (도메인 이름)"),
                                 fieldWithPath("content[].httpStatusCode").description("http 상태 코드"),
                                 fieldWithPath("content[].traceId").description("트랜잭션 식별자"),
-                                subsectionWithPath("pageable").description("페이징 처리 정보"),
-                                fieldWithPath("first").description("첫 페이지 여부"),
-                                fieldWithPath("last").description("마지막 페이지 여부"),
                                 fieldWithPath("size").description("페이지 크기"),
-                                fieldWithPath("number").description("현재 페이지 번호"),
-                                subsectionWithPath("sort").description("정렬 정보"),
-                                fieldWithPath("numberOfElements").description("현재 페이지에 포함된 데이터 개수"),
-                                fieldWithPath("empty").description("조회 결과가 비어있는지 여부")
+                                fieldWithPath("hasNext").description("다음 페이지 존재 여부"),
+                                fieldWithPath("nextCursor").description("다음 페이지 조회 커서, 마지막 페이지면 null").optional()
                         )
                 ));
     }
@@ -166,7 +164,7 @@ class MetricControllerTest extends AbstractTestConfiguration {
 
         SpanTreeNode spanTreeNode = new SpanTreeNode(transactionData);
 
-        given(metricStatisticsService.retrieveSpanTree(traceId)).willReturn(spanTreeNode);
+        given(metricStatisticsService.retrieveSpanTree(traceId)).willReturn(SpanTreeResponse.from(spanTreeNode));
 
         // when
         ResultActions resultActions = mockMvc.perform(get("/statistics/transaction/{traceId}", traceId));
@@ -181,23 +179,60 @@ class MetricControllerTest extends AbstractTestConfiguration {
                             parameterWithName("traceId").description("trace ID (span들의 집합을 식별하는 ID)")
                     )
                     , responseFields(
-                                fieldWithPath("data").description("span의 정보를 담고 있는 DTO"),
-                                fieldWithPath("data.name").description("span의 이름 (예: 'GET /test')"),
-                                fieldWithPath("data.traceId").description("trace ID (span들의 집합을 식별하는 ID)"),
-                                fieldWithPath("data.parentSpanId").description("부모 span의 ID (최고 부모는 0000000000000)"),
-                                fieldWithPath("data.spanId").description("현재 span의 ID"),
-                                fieldWithPath("data.attributes").description("span에 대한 추가 메타데이터 key-value"),
-                                fieldWithPath("data.attributesCount").description("속성의 개수"),
-                                fieldWithPath("data.startTime").description("span의 시작 시간 UTC"),
-                                fieldWithPath("data.endTime").description("span의 종료 시간 UTC"),
-                                fieldWithPath("data.duration").description("span의 지속 시간 (밀리초)"),
-                                fieldWithPath("data.exception").description("발생한 예외 (있을 경우)"),
-                                fieldWithPath("data.ended").description("span이 종료되었는지 여부 (true/false)"),
-                                fieldWithPath("children").description("자식 transaction data (자식은 여러 개일 수 있음)")
+                                fieldWithPath("spans").description("전위 순회 순서의 span 목록 (첫 번째가 루트)"),
+                                fieldWithPath("spans[].parentIndex").description("부모 span의 spans 인덱스 (루트는 -1)"),
+                                fieldWithPath("spans[].depth").description("루트로부터의 깊이 (루트는 0)"),
+                                fieldWithPath("spans[].data").description("span의 정보를 담고 있는 DTO"),
+                                fieldWithPath("spans[].data.name").description("span의 이름 (예: 'GET /test')"),
+                                fieldWithPath("spans[].data.traceId").description("trace ID (span들의 집합을 식별하는 ID)"),
+                                fieldWithPath("spans[].data.parentSpanId").description("부모 span의 ID (최고 부모는 0000000000000)"),
+                                fieldWithPath("spans[].data.spanId").description("현재 span의 ID"),
+                                fieldWithPath("spans[].data.attributes").description("span에 대한 추가 메타데이터 key-value"),
+                                fieldWithPath("spans[].data.attributesCount").description("속성의 개수"),
+                                fieldWithPath("spans[].data.startTime").description("span의 시작 시간 UTC"),
+                                fieldWithPath("spans[].data.endTime").description("span의 종료 시간 UTC"),
+                                fieldWithPath("spans[].data.duration").description("span의 지속 시간 (밀리초)"),
+                                fieldWithPath("spans[].data.exception").description("발생한 예외 (있을 경우)"),
+                                fieldWithPath("spans[].data.ended").description("span이 종료되었는지 여부 (true/false)")
                         )
                 ));
     }
 
+    @Test
+    void 깊은_트랜잭션도_평탄한_목록으로_응답한다_200() throws Exception {
+        // given
+        String traceId = "a7ae6e1955ce6033770a93fe8257f636";
+        int depth = 5_000;
+
+        List<TransactionData> chain = new ArrayList<>(depth);
+        for (int i = 0; i < depth; i++) {
+            chain.add(TransactionData.builder()
+                    .traceId(traceId)
+                    .name("span-" + i)
+                    .parentSpanId(i == 0 ? TraceIds.INVALID_PARENT_SPAN_ID : "span-" + (i - 1))
+                    .spanId("span-" + i)
+                    .startTime(Instant.now())
+                    .endTime(Instant.now())
+                    .attributes(Map.of())
+                    .ended(true)
+                    .build());
+        }
+
+        given(metricStatisticsService.retrieveSpanTree(traceId))
+                .willReturn(SpanTreeResponse.from(new SpanAssembler().assemble(chain)));
+
+        // when
+        ResultActions resultActions = mockMvc.perform(get("/statistics/transaction/{traceId}", traceId));
+
+        // then
+        resultActions.andExpect(status().isOk())
+                .andExpect(jsonPath("$.spans.length()").value(depth))
+                .andExpect(jsonPath("$.spans[0].parentIndex").value(SpanTreeResponse.NO_PARENT))
+                .andExpect(jsonPath("$.spans[%d].depth", depth - 1).value(depth - 1))
+                .andExpect(jsonPath("$.spans[%d].parentIndex", depth - 1).value(depth - 2))
+                .andExpect(jsonPath("$.spans[%d].data.spanId", depth - 1).value("span-" + (depth - 1)));
+    }
+
     @Test
     void 최대_메트릭을_조회하는_API는_정상적으로_동작한다_200() throws Exception {
         // given
@@ -214,7 +249,7 @@ class MetricControllerTest extends AbstractTestConfiguration {
             10
         );
 
-        given(metricStatisticsService.retrieveStatisticsMaxMetric(StatisticsMetricTimeRange.LATEST_ONE_HOUR))
+        given(metricStatisticsService.retrieveStatisticsMaxMetric(StatisticsMetricTimeRange.LATEST_ONE_HOUR, null))
                 .willReturn(maxResponse);
 
         // when
@@ -266,7 +301,7 @@ class MetricControllerTest extends AbstractTestConfiguration {
                 10.0
         );
 
-        given(metricStatisticsService.retrieveStatisticsAvgMetric(StatisticsMetricTimeRange.LATEST_ONE_HOUR))
+        given(metricStatisticsService.retrieveStatisticsAvgMetric(StatisticsMetricTimeRange.LATEST_ONE_HOUR, null))
                 .willReturn(avgResponse);
 
         // when
@@ -316,9 +351,8 @@ class MetricControllerTest extends AbstractTestConfiguration {
                 .content(objectMapper.writeValueAsString(sr))
                 .contentType(MediaType.APPLICATION_JSON)
                 .accept(MediaType.APPLICATION_JSON)
-                .param("page", "0")
-                .param("size", "10")
-                .param("sort", "count,DESC"));
+                .param("cursor", "AAYjbNtf0YBKeNxi8ZS3u0DDgGv6ZNj-")
+                .param("size", "10"));
 
         // then
         resultActions.andExpect(status().isBadRequest())
@@ -332,7 +366,7 @@ class MetricControllerTest extends AbstractTestConfiguration {
     @Test
     void 최대_메트릭을_조회하는_API의_결과가_없을_경우_에러를_발생시킨다_400() throws Exception {
         // given
-        given(metricStatisticsService.retrieveStatisticsMaxMetric(StatisticsMetricTimeRange.LATEST_ONE_HOUR))
+        given(metricStatisticsService.retrieveStatisticsMaxMetric(StatisticsMetricTimeRange.LATEST_ONE_HOUR, null))
                 .willThrow(new IllegalArgumentException("not found max metric"));
 
         // when
@@ -352,7 +386,7 @@ class MetricControllerTest extends AbstractTestConfiguration {
     @Test
     void 평균_메트릭을_조회하는_API의_결과가_없을_경우_에러를_발생시킨다_400() throws Exception {
         // given
-        given(metricStatisticsService.retrieveStatisticsAvgMetric(StatisticsMetricTimeRange.LATEST_ONE_HOUR))
+        given(metricStatisticsService.retrieveStatisticsAvgMetric(StatisticsMetricTimeRange.LATEST_ONE_HOUR, null))
                 .willThrow(new IllegalArgumentException("not found max metric"));
 
         // when
@@ -264,7 +264,7 @@ class ServerSentEventControllerTest extends AbstractTestConfiguration {
     private TransactionMetricResponse getTransactionMetricResponse() {
         Instant agentBootTime = getInstant("2025-01-21 18:20:18.933976");
         String agentVersion = "1.0.0";
-        return new TransactionMetricResponse("myAgent", agentBootTime, agentVersion, getSpanTree());
+        return TransactionMetricResponse.create("myAgent", agentBootTime, agentVersion, getSpanTree());
     }
 
     private SpanTreeNode getSpanTree() {